@@ -11,8 +11,12 @@ import com.fundynamic.d2tm.game.terrain.impl.DuneTerrainFactory;
 import com.fundynamic.d2tm.graphics.ImageRepository;
 import com.fundynamic.d2tm.graphics.Shroud;
 import com.fundynamic.d2tm.graphics.Theme;
+import com.fundynamic.d2tm.math.Random;
 import com.fundynamic.d2tm.math.Vector2D;
 import com.fundynamic.d2tm.utils.StringUtils;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.LogLevel;
+import com.fundynamic.d2tm.utils.logging.Logger;
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.openal.SoundStore;
@@ -27,6 +31,8 @@ import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
 
 public class Game extends StateBasedGame {
 
+    private static final Logger LOG = Log.getLogger("game");
+
     public static final String GAME_TITLE = "Untitled Real-Time-Strategy Game";
 
     public static final int SCREEN_WIDTH = 800;
@@ -44,17 +50,25 @@ public class Game extends StateBasedGame {
 
     public String mapFileName = "";
 
+    // the match seed; if 'seed:<number>' is passed as argument then that seed is used, so a match can be replayed
+    private final long seed;
+
     public static Vector2D getResolution() {
         return Vector2D.create(SCREEN_WIDTH, SCREEN_HEIGHT);
     }
 
     public Game(String title, String mapFileName) {
+        this(title, mapFileName, System.nanoTime());
+    }
+
+    public Game(String title, String mapFileName, long seed) {
         super(title);
         this.mapFileName = mapFileName;
+        this.seed = seed;
         if (StringUtils.isEmpty(mapFileName)) {
-            System.out.println("Starting game with random generated map.");
+            LOG.info("Starting game with random generated map.");
         } else {
-            System.out.println("Starting game with loading map: " + mapFileName);
+            LOG.info("Starting game with loading map: {}", mapFileName);
         }
     }
 
@@ -80,11 +94,15 @@ public class Game extends StateBasedGame {
     }
 
     public AbstractScenarioFactory createScenarioFactory(ImageRepository imageRepository, EntitiesData entitiesData) {
+        LOG.info("Using seed: {}", seed);
+        Random random = new Random(seed);
+
         DuneTerrainFactory terrainFactory = new DuneTerrainFactory(
                 new Theme(
                         imageRepository.loadAndCache("sheet_terrain.png"),
                         TILE_SIZE
-                )
+                ),
+                random.split("terrain")
         );
 
         Shroud shroud = new Shroud(
@@ -108,7 +126,7 @@ public class Game extends StateBasedGame {
                 mapFileName
             );
         }
-        return abstractScenarioFactory;
+        return abstractScenarioFactory.withRandom(random);
     }
 
     /**
@@ -119,9 +137,13 @@ public class Game extends StateBasedGame {
         List<String> argsList = Arrays.asList(args);
         RECORDING_VIDEO = argsList.contains("recording");
         DEBUG_INFO = argsList.contains("debug");
+        if (DEBUG_INFO) {
+            Log.setDefaultLevel(LogLevel.DEBUG);
+        }
         FULLSCREEN = argsList.contains("fullscreen");
 
         String mapFileName = "";
+        long seed = System.nanoTime();
         for (String arg : argsList) {
             if (arg.startsWith("map:")) {
                 if (randomMapScenarioProperties !=null) {
@@ -130,11 +152,13 @@ public class Game extends StateBasedGame {
                 mapFileName = arg.substring(4);
             } else if (arg.startsWith("rmg:")) {
                 randomMapScenarioProperties = RandomMapScenarioProperties.fromString(arg.substring(4));
+            } else if (arg.startsWith("seed:")) {
+                seed = Long.parseLong(arg.substring(5));
             }
         }
 
         Bootstrap.runAsApplication(
-                new Game(GAME_TITLE, mapFileName),
+                new Game(GAME_TITLE, mapFileName, seed),
                 SCREEN_WIDTH,
                 SCREEN_HEIGHT,
                 FULLSCREEN
@@ -0,0 +1,26 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+
+/**
+ * A decision of the {@link CpuAi}, made on the AI thread and executed on the game thread at a tick boundary.
+ * <p>
+ * The world may have changed since the {@link ScenarioSnapshot} the decision was based on, so a command looks up its
+ * entities again (by id) and silently does nothing when they are gone or the command no longer makes sense.
+ * </p>
+ */
+public interface AiCommand {
+
+    void execute(EntityRepository entityRepository, Player player);
+
+    /**
+     * @return the entity with given id when it still exists, is not destroyed and belongs to player, else null
+     */
+    static Entity findOwnEntity(EntityRepository entityRepository, Player player, int id) {
+        Entity entity = entityRepository.findEntityById(id);
+        if (entity == null || entity.isDestroyed() || !entity.belongsToPlayer(player)) return null;
+        return entity;
+    }
+}
@@ -0,0 +1,47 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+
+/**
+ * Orders a unit to attack an enemy entity.
+ */
+public class AttackCommand implements AiCommand {
+
+    private final int unitId;
+    private final int targetId;
+
+    public AttackCommand(int unitId, int targetId) {
+        this.unitId = unitId;
+        this.targetId = targetId;
+    }
+
+    public int getUnitId() {
+        return unitId;
+    }
+
+    public int getTargetId() {
+        return targetId;
+    }
+
+    @Override
+    public void execute(EntityRepository entityRepository, Player player) {
+        Entity entity = AiCommand.findOwnEntity(entityRepository, player, unitId);
+        if (!(entity instanceof Unit)) return;
+
+        Entity target = entityRepository.findEntityById(targetId);
+        if (target == null || target.isDestroyed() || target.belongsToPlayer(player)) return;
+
+        ((Unit) entity).attack(target);
+    }
+
+    @Override
+    public String toString() {
+        return "AttackCommand{" +
+                "unitId=" + unitId +
+                ", targetId=" + targetId +
+                '}';
+    }
+}
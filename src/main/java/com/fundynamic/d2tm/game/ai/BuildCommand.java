@@ -0,0 +1,53 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.behaviors.EntityBuilder;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.entitybuilders.AbstractBuildableEntity;
+
+/**
+ * Lets an {@link EntityBuilder} start building something from its build list.
+ */
+public class BuildCommand implements AiCommand {
+
+    private final int builderId;
+    private final String entityDataKey;
+
+    public BuildCommand(int builderId, String entityDataKey) {
+        this.builderId = builderId;
+        this.entityDataKey = entityDataKey;
+    }
+
+    public int getBuilderId() {
+        return builderId;
+    }
+
+    public String getEntityDataKey() {
+        return entityDataKey;
+    }
+
+    @Override
+    public void execute(EntityRepository entityRepository, Player player) {
+        Entity entity = AiCommand.findOwnEntity(entityRepository, player, builderId);
+        if (!(entity instanceof EntityBuilder)) return;
+
+        EntityBuilder entityBuilder = (EntityBuilder) entity;
+        if (entityBuilder.isBuildingAnEntity()) return;
+
+        for (AbstractBuildableEntity buildableEntity : entityBuilder.getBuildList()) {
+            if (buildableEntity.getEntityData().key.equals(entityDataKey)) {
+                entityBuilder.buildEntity(buildableEntity);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BuildCommand{" +
+                "builderId=" + builderId +
+                ", entityDataKey='" + entityDataKey + '\'' +
+                '}';
+    }
+}
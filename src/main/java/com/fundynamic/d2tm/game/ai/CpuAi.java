@@ -0,0 +1,128 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Runs the {@link CpuStrategy} of a CPU {@link Player} on its own (daemon) thread, a few times per second, so thinking
+ * costs no frame time.
+ * </p>
+ * <h2>Threading</h2>
+ * <p>
+ * The AI thread never touches the game state. The game thread and the AI thread only exchange immutable data:
+ * </p>
+ * <ul>
+ *     <li>Game thread, every tick ({@link #update(float)}): executes queued {@link AiCommand}s, and when the AI thread
+ *     asked for it, takes a new {@link ScenarioSnapshot}</li>
+ *     <li>AI thread, every {@link #THINK_INTERVAL_MILLIS} ({@link #think()}): plans with the latest snapshot and
+ *     queues the resulting commands</li>
+ * </ul>
+ * <p>
+ * A snapshot is only taken after the commands of the previous plan have been executed, so the AI never plans twice on
+ * the same state, and the game thread only pays for a snapshot as often as the AI thinks.
+ * </p>
+ */
+public class CpuAi {
+
+    private static final Logger LOG = Log.getLogger("ai");
+
+    public static final long THINK_INTERVAL_MILLIS = 333; // about 3 times per second
+
+    private final Player player;
+    private final EntityRepository entityRepository;
+    private final CpuStrategy strategy;
+
+    private final ConcurrentLinkedQueue<AiCommand> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<ScenarioSnapshot> snapshot = new AtomicReference<>();
+    private volatile boolean snapshotWanted = true;
+
+    private ScheduledExecutorService executor;
+    private long tick = 0;
+
+    public CpuAi(Player player, EntityRepository entityRepository) {
+        this(player, entityRepository, new CpuStrategy());
+    }
+
+    public CpuAi(Player player, EntityRepository entityRepository, CpuStrategy strategy) {
+        if (!player.isCPU()) throw new IllegalArgumentException("Expected a CPU player, given " + player);
+        this.player = player;
+        this.entityRepository = entityRepository;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Starts thinking on a separate thread. Does nothing when already started.
+     */
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cpu-ai-" + player.getFaction());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::think, THINK_INTERVAL_MILLIS, THINK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor == null) return;
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Called from the game thread, at a tick boundary.
+     */
+    public void update(float deltaInSeconds) {
+        tick++;
+        // read before executing: when wanted, the commands of the last plan are queued already
+        boolean takeSnapshot = snapshotWanted;
+
+        AiCommand command;
+        while ((command = commands.poll()) != null) {
+            command.execute(entityRepository, player);
+        }
+
+        if (takeSnapshot) {
+            snapshotWanted = false;
+            snapshot.set(ScenarioSnapshot.take(tick, player, entityRepository));
+        }
+    }
+
+    /**
+     * Plans once, with the latest snapshot (if there is a new one). Called by the AI thread, and by tests directly.
+     */
+    public void think() {
+        ScenarioSnapshot latest = snapshot.getAndSet(null);
+        if (latest == null) return;
+
+        try {
+            List<AiCommand> plan = strategy.plan(latest);
+            commands.addAll(plan);
+        } catch (RuntimeException e) {
+            // do not let the thread die, try again with the next snapshot
+            LOG.error("CPU AI of {} failed to think", player, e);
+        } finally {
+            snapshotWanted = true;
+        }
+    }
+
+    public int getQueuedCommandsCount() {
+        return commands.size();
+    }
+}
@@ -0,0 +1,176 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.entities.EntityType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Decides what a CPU player does, given a {@link ScenarioSnapshot}. It only reads the snapshot and returns
+ * {@link AiCommand}s, so it is safe to run on another thread than the game thread.
+ * </p>
+ * <h2>Rules</h2>
+ * <ul>
+ *     <li>A structure that is awaiting placement is placed next to the structure that built it</li>
+ *     <li>Structures: power first when low on power, then a refinery, then anything not owned yet</li>
+ *     <li>Units: a harvester per refinery, then armed units (the kind we have least of)</li>
+ *     <li>Idle harvesters are sent out to seek spice</li>
+ *     <li>Once enough armed units are idle, they attack the nearest enemy structure (or unit) together</li>
+ * </ul>
+ */
+public class CpuStrategy {
+
+    public static final int ATTACK_GROUP_SIZE = 4;
+
+    public List<AiCommand> plan(ScenarioSnapshot snapshot) {
+        List<AiCommand> commands = new ArrayList<>();
+        planBuilding(snapshot, commands);
+        planHarvesting(snapshot, commands);
+        planAttack(snapshot, commands);
+        return commands;
+    }
+
+    private void planBuilding(ScenarioSnapshot snapshot, List<AiCommand> commands) {
+        for (EntitySnapshot builder : snapshot.getOwnEntities()) {
+            if (!builder.isEntityBuilder()) continue;
+
+            if (builder.awaitingPlacement) {
+                commands.add(new PlaceStructureCommand(builder.id));
+                continue;
+            }
+            if (builder.building) continue;
+
+            EntitySnapshot.BuildOption buildOption = chooseWhatToBuild(snapshot, builder);
+            if (buildOption != null) {
+                commands.add(new BuildCommand(builder.id, buildOption.key));
+            }
+        }
+    }
+
+    EntitySnapshot.BuildOption chooseWhatToBuild(ScenarioSnapshot snapshot, EntitySnapshot builder) {
+        if (snapshot.getPowerBalance() < 0) {
+            EntitySnapshot.BuildOption power = first(builder, EntityType.STRUCTURE, Need.POWER, snapshot);
+            if (power != null) return power;
+        }
+
+        if (countOwnRefineries(snapshot) < 1) {
+            EntitySnapshot.BuildOption refinery = first(builder, EntityType.STRUCTURE, Need.REFINERY, snapshot);
+            if (refinery != null) return refinery;
+        }
+
+        EntitySnapshot.BuildOption structure = first(builder, EntityType.STRUCTURE, Need.NOT_OWNED, snapshot);
+        if (structure != null) return structure;
+
+        if (countOwnHarvesters(snapshot) < countOwnRefineries(snapshot)) {
+            EntitySnapshot.BuildOption harvester = first(builder, EntityType.UNIT, Need.HARVESTER, snapshot);
+            if (harvester != null) return harvester;
+        }
+
+        EntitySnapshot.BuildOption leastOwnedArmedUnit = null;
+        for (EntitySnapshot.BuildOption buildOption : builder.buildOptions) {
+            if (!buildOption.buildable || buildOption.entityType != EntityType.UNIT || !buildOption.armed) continue;
+            if (leastOwnedArmedUnit == null || snapshot.countOwn(buildOption.name) < snapshot.countOwn(leastOwnedArmedUnit.name)) {
+                leastOwnedArmedUnit = buildOption;
+            }
+        }
+        return leastOwnedArmedUnit;
+    }
+
+    private void planHarvesting(ScenarioSnapshot snapshot, List<AiCommand> commands) {
+        for (EntitySnapshot entity : snapshot.getOwnEntities()) {
+            if (entity.harvester && entity.idle) {
+                commands.add(new HarvestCommand(entity.id));
+            }
+        }
+    }
+
+    private void planAttack(ScenarioSnapshot snapshot, List<AiCommand> commands) {
+        List<EntitySnapshot> group = new ArrayList<>();
+        for (EntitySnapshot entity : snapshot.getOwnEntities()) {
+            if (entity.isUnit() && entity.armed && entity.idle) {
+                group.add(entity);
+            }
+        }
+        if (group.size() < ATTACK_GROUP_SIZE) return;
+
+        EntitySnapshot target = findNearestEnemy(snapshot, group.get(0));
+        if (target == null) return;
+
+        for (EntitySnapshot unit : group) {
+            commands.add(new AttackCommand(unit.id, target.id));
+        }
+    }
+
+    /**
+     * Nearest enemy structure, or nearest enemy unit when there are no enemy structures left
+     */
+    private EntitySnapshot findNearestEnemy(ScenarioSnapshot snapshot, EntitySnapshot from) {
+        EntitySnapshot nearestStructure = null;
+        EntitySnapshot nearestUnit = null;
+        for (EntitySnapshot enemy : snapshot.getEnemyEntities()) {
+            if (enemy.isStructure()) {
+                if (nearestStructure == null || from.distanceTo(enemy) < from.distanceTo(nearestStructure)) {
+                    nearestStructure = enemy;
+                }
+            } else if (nearestUnit == null || from.distanceTo(enemy) < from.distanceTo(nearestUnit)) {
+                nearestUnit = enemy;
+            }
+        }
+        return nearestStructure != null ? nearestStructure : nearestUnit;
+    }
+
+    private EntitySnapshot.BuildOption first(EntitySnapshot builder, EntityType entityType, Need need, ScenarioSnapshot snapshot) {
+        for (EntitySnapshot.BuildOption buildOption : builder.buildOptions) {
+            if (!buildOption.buildable || buildOption.entityType != entityType) continue;
+            if (need.isMetBy(buildOption, snapshot)) return buildOption;
+        }
+        return null;
+    }
+
+    private int countOwnRefineries(ScenarioSnapshot snapshot) {
+        int count = 0;
+        for (EntitySnapshot entity : snapshot.getOwnEntities()) {
+            if (entity.refinery) count++;
+        }
+        return count;
+    }
+
+    private int countOwnHarvesters(ScenarioSnapshot snapshot) {
+        int count = 0;
+        for (EntitySnapshot entity : snapshot.getOwnEntities()) {
+            if (entity.harvester) count++;
+        }
+        return count;
+    }
+
+    private enum Need {
+        POWER {
+            @Override
+            boolean isMetBy(EntitySnapshot.BuildOption buildOption, ScenarioSnapshot snapshot) {
+                return buildOption.powerProduction > 0;
+            }
+        },
+        REFINERY {
+            @Override
+            boolean isMetBy(EntitySnapshot.BuildOption buildOption, ScenarioSnapshot snapshot) {
+                return buildOption.refinery;
+            }
+        },
+        HARVESTER {
+            @Override
+            boolean isMetBy(EntitySnapshot.BuildOption buildOption, ScenarioSnapshot snapshot) {
+                return buildOption.harvester;
+            }
+        },
+        NOT_OWNED {
+            @Override
+            boolean isMetBy(EntitySnapshot.BuildOption buildOption, ScenarioSnapshot snapshot) {
+                return snapshot.countOwn(buildOption.name) == 0;
+            }
+        };
+
+        abstract boolean isMetBy(EntitySnapshot.BuildOption buildOption, ScenarioSnapshot snapshot);
+    }
+}
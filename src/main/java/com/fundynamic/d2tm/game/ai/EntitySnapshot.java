@@ -0,0 +1,138 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.behaviors.EntityBuilder;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.game.entities.entitybuilders.AbstractBuildableEntity;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.entities.units.states.IdleHarvesterState;
+import com.fundynamic.d2tm.game.entities.units.states.IdleState;
+import com.fundynamic.d2tm.game.entities.units.states.UnitState;
+import com.fundynamic.d2tm.game.types.EntityData;
+import com.fundynamic.d2tm.math.MapCoordinate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of what the {@link CpuAi} needs to know about one {@link Entity}. Entities are referred to by id
+ * (see {@link Entity#getId()}), commands resolve the id again on the game thread.
+ */
+public final class EntitySnapshot {
+
+    public final int id;
+    public final String name;
+    public final EntityType entityType;
+    public final int x, y; // map coordinate of top-left cell
+    public final boolean harvester;
+    public final boolean refinery;
+    public final boolean armed;
+    public final boolean idle;
+    public final int powerProduction;
+
+    // only for entity builders of the player the snapshot is taken for, the AI does not plan with those of enemies
+    public final List<BuildOption> buildOptions;
+    public final boolean building;
+    public final boolean awaitingPlacement;
+
+    /**
+     * @param own true when the entity belongs to the player the snapshot is taken for, only then the build list (if
+     *            any) is copied
+     */
+    EntitySnapshot(Entity entity, boolean own) {
+        EntityData entityData = entity.getEntityData();
+        MapCoordinate mapCoordinate = entity.getCoordinate().toMapCoordinate();
+        this.id = entity.getId();
+        this.name = entityData.name;
+        this.entityType = entity.getEntityType();
+        this.x = mapCoordinate.getXAsInt();
+        this.y = mapCoordinate.getYAsInt();
+        this.harvester = entityData.isHarvester;
+        this.refinery = entityData.isRefinery;
+        this.armed = entityData.hasWeaponId();
+        this.idle = isIdle(entity);
+        this.powerProduction = entityData.powerProduction;
+
+        if (own && entity.isEntityBuilder() && entity instanceof EntityBuilder) {
+            EntityBuilder entityBuilder = (EntityBuilder) entity;
+            List<BuildOption> buildOptions = new ArrayList<>();
+            for (AbstractBuildableEntity buildableEntity : entityBuilder.getBuildList()) {
+                buildOptions.add(new BuildOption(buildableEntity));
+            }
+            this.buildOptions = Collections.unmodifiableList(buildOptions);
+            this.building = entityBuilder.isBuildingAnEntity();
+            this.awaitingPlacement = building && entityBuilder.getBuildingEntity().awaitsPlacement();
+        } else {
+            this.buildOptions = Collections.emptyList();
+            this.building = false;
+            this.awaitingPlacement = false;
+        }
+    }
+
+    public boolean isUnit() {
+        return entityType == EntityType.UNIT;
+    }
+
+    public boolean isStructure() {
+        return entityType == EntityType.STRUCTURE;
+    }
+
+    /**
+     * @return true for own entity builders that can build anything, always false for entities of enemies
+     */
+    public boolean isEntityBuilder() {
+        return !buildOptions.isEmpty();
+    }
+
+    /**
+     * Distance in cells (the longest axis) to the other entity
+     */
+    public int distanceTo(EntitySnapshot other) {
+        return Math.max(Math.abs(x - other.x), Math.abs(y - other.y));
+    }
+
+    private static boolean isIdle(Entity entity) {
+        if (!(entity instanceof Unit)) return false;
+        UnitState state = ((Unit) entity).getState();
+        return state instanceof IdleState || state instanceof IdleHarvesterState;
+    }
+
+    @Override
+    public String toString() {
+        return "EntitySnapshot{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", x=" + x +
+                ", y=" + y +
+                '}';
+    }
+
+    /**
+     * Something an entity builder can build, see {@link AbstractBuildableEntity}
+     */
+    public static final class BuildOption {
+        public final String key;
+        public final String name;
+        public final EntityType entityType;
+        public final int buildCost;
+        public final int powerProduction;
+        public final boolean harvester;
+        public final boolean refinery;
+        public final boolean armed;
+        public final boolean buildable; // can be built right now (not building something else and affordable)
+
+        BuildOption(AbstractBuildableEntity buildableEntity) {
+            EntityData entityData = buildableEntity.getEntityData();
+            this.key = entityData.key;
+            this.name = entityData.name;
+            this.entityType = entityData.type;
+            this.buildCost = entityData.buildCost;
+            this.powerProduction = entityData.powerProduction;
+            this.harvester = entityData.isHarvester;
+            this.refinery = entityData.isRefinery;
+            this.armed = entityData.hasWeaponId();
+            this.buildable = buildableEntity.canBuildEntity();
+        }
+    }
+}
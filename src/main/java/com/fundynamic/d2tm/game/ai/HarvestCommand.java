@@ -0,0 +1,37 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+
+/**
+ * Sends an (idle) harvester out to seek spice.
+ */
+public class HarvestCommand implements AiCommand {
+
+    private final int harvesterId;
+
+    public HarvestCommand(int harvesterId) {
+        this.harvesterId = harvesterId;
+    }
+
+    public int getHarvesterId() {
+        return harvesterId;
+    }
+
+    @Override
+    public void execute(EntityRepository entityRepository, Player player) {
+        Entity entity = AiCommand.findOwnEntity(entityRepository, player, harvesterId);
+        if (!(entity instanceof Unit) || !entity.isHarvester()) return;
+
+        ((Unit) entity).seekSpice();
+    }
+
+    @Override
+    public String toString() {
+        return "HarvestCommand{" +
+                "harvesterId=" + harvesterId +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.math.Coordinate;
+
+/**
+ * Orders a unit to move to an (absolute) map coordinate, like a human player does by clicking on the battlefield.
+ */
+public class MoveCommand implements AiCommand {
+
+    private final int unitId;
+    private final int x;
+    private final int y;
+
+    public MoveCommand(int unitId, int x, int y) {
+        this.unitId = unitId;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getUnitId() {
+        return unitId;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public void execute(EntityRepository entityRepository, Player player) {
+        Entity entity = AiCommand.findOwnEntity(entityRepository, player, unitId);
+        if (!(entity instanceof Unit)) return;
+
+        ((Unit) entity).moveTo(Coordinate.create(x, y));
+    }
+
+    @Override
+    public String toString() {
+        return "MoveCommand{" +
+                "unitId=" + unitId +
+                ", x=" + x +
+                ", y=" + y +
+                '}';
+    }
+}
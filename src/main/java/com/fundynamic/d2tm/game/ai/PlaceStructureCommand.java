@@ -0,0 +1,62 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.behaviors.EntityBuilder;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.entitybuilders.AbstractBuildableEntity;
+import com.fundynamic.d2tm.game.types.EntityData;
+import com.fundynamic.d2tm.math.MapCoordinate;
+
+/**
+ * Places the structure a builder has finished (and awaits placement) as close as possible to that builder. The spot is
+ * searched for on the game thread, so it is valid for the map as it is <em>now</em>.
+ * <p>
+ * The rule is the one of the {@link com.fundynamic.d2tm.game.map.PlacementMask} of the player, the same one a human
+ * player places with (see {@link com.fundynamic.d2tm.game.controls.battlefield.PlacingStructureMouse}).
+ * </p>
+ */
+public class PlaceStructureCommand implements AiCommand {
+
+    private final int builderId;
+
+    public PlaceStructureCommand(int builderId) {
+        this.builderId = builderId;
+    }
+
+    public int getBuilderId() {
+        return builderId;
+    }
+
+    @Override
+    public void execute(EntityRepository entityRepository, Player player) {
+        Entity entity = AiCommand.findOwnEntity(entityRepository, player, builderId);
+        if (!(entity instanceof EntityBuilder)) return;
+
+        EntityBuilder entityBuilder = (EntityBuilder) entity;
+        AbstractBuildableEntity buildingEntity = entityBuilder.getBuildingEntity();
+        if (buildingEntity == null || !buildingEntity.awaitsPlacement()) return;
+
+        EntityData entityDataToPlace = buildingEntity.getEntityData();
+        if (!entityDataToPlace.isTypeStructure()) return; // superpowers are not launched by the AI (yet)
+
+        MapCoordinate topLeft = player.getPlacementMask().findSpotClosestTo(
+                entityRepository.getMap(),
+                entity.getCenteredCoordinate(),
+                entityDataToPlace.getWidthInCells(),
+                entityDataToPlace.getHeightInCells(),
+                entity.getEntityData().buildRange
+        );
+        if (topLeft == null) return; // no room, try again next time
+
+        Entity placedEntity = entityRepository.placeOnMap(topLeft.toCoordinate(), entityDataToPlace, player);
+        entityBuilder.entityIsDelivered(placedEntity);
+    }
+
+    @Override
+    public String toString() {
+        return "PlaceStructureCommand{" +
+                "builderId=" + builderId +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.game.entities.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Immutable copy of the state of a scenario, as seen by one (CPU) {@link Player}. It is taken on the game thread at a
+ * tick boundary and then handed to the AI thread, which may read it as long as it likes without locking.
+ * </p>
+ * <p>
+ * Only units and structures that are not destroyed are part of a snapshot.
+ * </p>
+ */
+public final class ScenarioSnapshot {
+
+    private final long tick;
+    private final int credits;
+    private final int powerBalance;
+    private final List<EntitySnapshot> ownEntities;
+    private final List<EntitySnapshot> enemyEntities;
+
+    private ScenarioSnapshot(long tick, int credits, int powerBalance, List<EntitySnapshot> ownEntities, List<EntitySnapshot> enemyEntities) {
+        this.tick = tick;
+        this.credits = credits;
+        this.powerBalance = powerBalance;
+        this.ownEntities = Collections.unmodifiableList(ownEntities);
+        this.enemyEntities = Collections.unmodifiableList(enemyEntities);
+    }
+
+    /**
+     * Takes a snapshot, must be called from the game thread.
+     */
+    public static ScenarioSnapshot take(long tick, Player player, EntityRepository entityRepository) {
+        List<EntitySnapshot> ownEntities = new ArrayList<>();
+        List<EntitySnapshot> enemyEntities = new ArrayList<>();
+        for (Entity entity : entityRepository.getEntitiesSet()) {
+            EntityType entityType = entity.getEntityType();
+            if (entityType != EntityType.UNIT && entityType != EntityType.STRUCTURE) continue;
+            if (entity.isDestroyed()) continue;
+
+            if (entity.belongsToPlayer(player)) {
+                ownEntities.add(new EntitySnapshot(entity, true));
+            } else {
+                enemyEntities.add(new EntitySnapshot(entity, false));
+            }
+        }
+        return new ScenarioSnapshot(tick, player.getCredits(), player.getPowerBalance(), ownEntities, enemyEntities);
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getCredits() {
+        return credits;
+    }
+
+    public int getPowerBalance() {
+        return powerBalance;
+    }
+
+    public List<EntitySnapshot> getOwnEntities() {
+        return ownEntities;
+    }
+
+    public List<EntitySnapshot> getEnemyEntities() {
+        return enemyEntities;
+    }
+
+    public int countOwn(String name) {
+        int count = 0;
+        for (EntitySnapshot entity : ownEntities) {
+            if (entity.name.equals(name)) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,155 @@
+package com.fundynamic.d2tm.game.audio;
+
+import com.fundynamic.d2tm.game.types.SoundData;
+import com.fundynamic.d2tm.math.Vector2D;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Owns all playback of {@link SoundData}. Entities never play a sound themselves, they request one via
+ * {@link #play(SoundData, Vector2D)}. Requests are collected during a tick and played in {@link #update(float)}.
+ * </p>
+ * <h2>Limiting</h2>
+ * <ul>
+ *     <li>The same sound requested multiple times within one tick is merged into one (the loudest one wins)</li>
+ *     <li>Sounds far outside the listener area (the battlefield viewport) are culled, sounds just outside are played softer</li>
+ *     <li>Every sound group has a maximum amount of voices; when all voices are busy the sound is dropped</li>
+ * </ul>
+ * <h2>Threading</h2>
+ * <p>
+ * Slick (OpenAL) audio is not thread-safe, so sounds are played on the game thread: {@link #update(float)} is called
+ * at the end of every tick. There is one sound manager per game, owned by the
+ * {@link com.fundynamic.d2tm.game.entities.EntityRepository}.
+ * </p>
+ */
+public class SoundManager {
+
+    public static final int DEFAULT_MAX_VOICES_PER_GROUP = 4;
+    public static final float VOICE_DURATION = 0.5f;            // seconds a voice is considered busy after playing
+    public static final float AUDIBLE_MARGIN = 6 * TILE_SIZE;   // pixels outside the listener area that are still audible
+    public static final float MIN_VOLUME = 0.25f;               // volume at the edge of the audible margin
+
+    private final int maxVoicesPerGroup;
+
+    // requests of this tick, merged by SoundData, in order of request
+    private final LinkedHashMap<SoundData, Float> pending = new LinkedHashMap<>();
+
+    // per group the remaining seconds each voice is busy
+    private final HashMap<String, float[]> voices = new HashMap<>();
+
+    private boolean hasListenerArea = false;
+    private float listenerX, listenerY, listenerWidth, listenerHeight;
+
+    public SoundManager() {
+        this(DEFAULT_MAX_VOICES_PER_GROUP);
+    }
+
+    public SoundManager(int maxVoicesPerGroup) {
+        if (maxVoicesPerGroup < 1) throw new IllegalArgumentException("maxVoicesPerGroup must be at least 1, given " + maxVoicesPerGroup);
+        this.maxVoicesPerGroup = maxVoicesPerGroup;
+    }
+
+    /**
+     * Sets the area (absolute map pixels) the player is 'listening' to; usually the battlefield viewport.
+     * Until this is set every sound is considered to be within hearing distance.
+     */
+    public void updateListenerArea(Vector2D topLeft, float width, float height) {
+        this.listenerX = topLeft.getX();
+        this.listenerY = topLeft.getY();
+        this.listenerWidth = width;
+        this.listenerHeight = height;
+        this.hasListenerArea = true;
+    }
+
+    /**
+     * Request to play a sound at given absolute map position. Returns false when the request was culled right away.
+     */
+    public boolean play(SoundData soundData, Vector2D position) {
+        if (soundData == null || soundData.sound == null) return false;
+
+        float volume = volumeAt(position);
+        if (volume <= 0F) return false;
+
+        Float alreadyRequested = pending.get(soundData);
+        if (alreadyRequested == null || alreadyRequested < volume) {
+            pending.put(soundData, volume);
+        }
+        return true;
+    }
+
+    /**
+     * Call once per tick, at the end of it, on the game thread. Frees voices that are done and plays the requests of
+     * this tick.
+     */
+    public void update(float deltaInSeconds) {
+        for (float[] groupVoices : voices.values()) {
+            for (int i = 0; i < groupVoices.length; i++) {
+                groupVoices[i] -= deltaInSeconds;
+            }
+        }
+
+        Iterator<Map.Entry<SoundData, Float>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<SoundData, Float> entry = iterator.next();
+            SoundData soundData = entry.getKey();
+            if (acquireVoice(soundData.getGroup())) {
+                soundData.sound.play(1F, entry.getValue());
+            }
+            iterator.remove();
+        }
+    }
+
+    public float volumeAt(Vector2D position) {
+        if (!hasListenerArea || position == null) return 1F;
+
+        float dx = distanceOutside(position.getX(), listenerX, listenerX + listenerWidth);
+        float dy = distanceOutside(position.getY(), listenerY, listenerY + listenerHeight);
+        float distance = Math.max(dx, dy);
+
+        if (distance <= 0F) return 1F;
+        if (distance > AUDIBLE_MARGIN) return 0F;
+        return 1F - ((1F - MIN_VOLUME) * (distance / AUDIBLE_MARGIN));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public int getBusyVoices(String group) {
+        float[] groupVoices = voices.get(group);
+        if (groupVoices == null) return 0;
+        int busy = 0;
+        for (float remaining : groupVoices) {
+            if (remaining > 0F) busy++;
+        }
+        return busy;
+    }
+
+    private boolean acquireVoice(String group) {
+        float[] groupVoices = voices.get(group);
+        if (groupVoices == null) {
+            groupVoices = new float[maxVoicesPerGroup];
+            voices.put(group, groupVoices);
+        }
+        for (int i = 0; i < groupVoices.length; i++) {
+            if (groupVoices[i] <= 0F) {
+                groupVoices[i] = VOICE_DURATION;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static float distanceOutside(float value, float min, float max) {
+        if (value < min) return min - value;
+        if (value > max) return value - max;
+        return 0F;
+    }
+}
@@ -8,6 +8,7 @@ import com.fundynamic.d2tm.game.entities.*;
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.BattleField;
+import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Vector2D;
 import org.newdawn.slick.Graphics;
 
@@ -89,16 +90,9 @@ public abstract class AbstractBattleFieldMouseBehavior extends AbstractMouseBeha
     public Entity hoveringOverSelectableEntity() {
         if (hoverCell == null) return NullEntity.INSTANCE;
 
-        EntitiesSet entities = entityRepository.filter(
-                Predicate.builder().
-                    vectorWithin(hoverCell.getCoordinate()).
-                    isNotWithinAnotherEntity().
-                    isSelectable()
-        );
-
-        Entity entity = entities.getFirst();
+        MapCoordinate mapCoordinate = hoverCell.getMapCoordinate();
+        Entity entity = map.getOccupancyGrid().pickSelectableAt(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
         if (entity == null) return NullEntity.INSTANCE;
-        if (!entity.isSelectable()) return NullEntity.INSTANCE;
         if (!hoveringOverVisibleEntity(entity)) return NullEntity.INSTANCE;
         return entity;
     }
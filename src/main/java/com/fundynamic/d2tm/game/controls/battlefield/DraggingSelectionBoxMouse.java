@@ -6,7 +6,6 @@ import com.fundynamic.d2tm.game.behaviors.Selectable;
 import com.fundynamic.d2tm.game.entities.EntitiesSet;
 import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.game.entities.EntityRepository;
-import com.fundynamic.d2tm.game.entities.Predicate;
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.BattleField;
 import com.fundynamic.d2tm.math.Coordinate;
@@ -88,10 +87,7 @@ public class DraggingSelectionBoxMouse extends AbstractBattleFieldMouseBehavior
     }
 
     private void deselectEverything() {
-        Set<Entity> entitiesToDeselect = entityRepository.filter(
-                Predicate.builder().
-                        selectedMovableForPlayer(mouse.getControllingPlayer())
-        );
+        EntitiesSet entitiesToDeselect = EntitiesSet.fromSet(mouse.getControllingPlayer().getSelectionIndex().getSelectedMovable());
         for (Entity entity : entitiesToDeselect) {
             ((Selectable) entity).deselect();
         }
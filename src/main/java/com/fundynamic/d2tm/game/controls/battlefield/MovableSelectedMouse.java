@@ -9,6 +9,7 @@ import com.fundynamic.d2tm.game.entities.EntitiesSet;
 import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.game.entities.NullEntity;
 import com.fundynamic.d2tm.game.entities.Predicate;
+import com.fundynamic.d2tm.game.entities.SelectionIndex;
 import com.fundynamic.d2tm.game.entities.units.Unit;
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.BattleField;
@@ -35,18 +36,19 @@ import com.fundynamic.d2tm.math.MapCoordinate;
  */
 public class MovableSelectedMouse extends NormalMouse {
 
-    private EntitiesSet entitiesSetOfAllMovable;
+    private final SelectionIndex selectionIndex;
 
     public MovableSelectedMouse(BattleField battleField) {
         super(battleField);
+        this.selectionIndex = player.getSelectionIndex();
         mouse.setMouseImageMove();
     }
 
+    /**
+     * @return a copy of the selected movable entities, so these can be ordered around (and deselect themselves)
+     */
     public EntitiesSet getAllSelectedMovableEntitiesForPlayer() {
-        return entityRepository.filter(
-                Predicate.builder().
-                        selectedMovableForPlayer(player)
-        );
+        return EntitiesSet.fromSet(selectionIndex.getSelectedMovable());
     }
 
     @Override
@@ -61,12 +63,10 @@ public class MovableSelectedMouse extends NormalMouse {
             // select entity when entity belongs to player
             if (hoveringOverEntity.belongsToPlayer(player)) {
 
-                if (hoveringOverEntity.isRefinery()) {
-                    EntitiesSet harvestersSelected = entitiesSetOfAllMovable.filter(Predicate.isHarvester());
-                    if (harvestersSelected.hasAny()) {
-                        harvestersSelected.forEach(entity -> ((Harvester)entity).returnToRefinery(hoveringOverEntity));
-                        return;
-                    }
+                if (hoveringOverEntity.isRefinery() && selectionIndex.hasSelectedHarvesters()) {
+                    EntitiesSet harvestersSelected = getAllSelectedMovableEntitiesForPlayer().filter(Predicate.isHarvester());
+                    harvestersSelected.forEach(entity -> ((Harvester)entity).returnToRefinery(hoveringOverEntity));
+                    return;
                 }
 
                 selectEntity(hoveringOverEntity);
@@ -78,8 +78,8 @@ public class MovableSelectedMouse extends NormalMouse {
             MapCoordinate mapCoordinate = cell.getMapCoordinate();
             Coordinate target = mapCoordinate.toCoordinate();
 
-            EntitiesSet harvestersSelected = entitiesSetOfAllMovable.filter(Predicate.isHarvester());
-            if (harvestersSelected.hasAny() && entitiesSetOfAllMovable.sameSizeAs(harvestersSelected)) {
+            EntitiesSet entitiesSetOfAllMovable = getAllSelectedMovableEntitiesForPlayer();
+            if (selectionIndex.hasOnlyHarvestersSelected()) {
                 if (cell.isHarvestable()) {
                     for (Entity entity : entitiesSetOfAllMovable) {
                         ((Unit) entity).harvestAt(target);
@@ -99,11 +99,10 @@ public class MovableSelectedMouse extends NormalMouse {
 
     public void attackDestructibleIfApplicable(Entity hoveringOverEntity) {
         // does not belong to player; that can only mean 'attack'!
-        if (hoveringOverEntity.isDestructible()) {
+        if (hoveringOverEntity.isDestructible() && selectionIndex.countSelectedDestroyers() > 0) {
 
-            EntitiesSet entitiesCapableOfDestroyingThings = entitiesSetOfAllMovable.filter(
-                    Predicate.builder().
-                            selectedDestroyersForPlayer(player)
+            EntitiesSet entitiesCapableOfDestroyingThings = getAllSelectedMovableEntitiesForPlayer().filter(
+                    Predicate.isDestroyer()
             );
 
             entitiesCapableOfDestroyingThings.each(entity -> ((Destroyer) entity).attack(hoveringOverEntity));
@@ -113,7 +112,6 @@ public class MovableSelectedMouse extends NormalMouse {
     @Override
     public void mouseMovedToCell(Cell cell) {
         if (cell == null) throw new IllegalArgumentException("argument cell may not be null");
-        entitiesSetOfAllMovable = getAllSelectedMovableEntitiesForPlayer();
 
         // get the hovering entity without updated cell
         Entity previousHoveringEntity = hoveringOverSelectableEntity();
@@ -143,11 +141,8 @@ public class MovableSelectedMouse extends NormalMouse {
         if (NullEntity.is(entity)) {
             mouse.setMouseImageMove();
 
-            EntitiesSet harvestersSelected = entitiesSetOfAllMovable.filter(Predicate.isHarvester());
-            if (harvestersSelected.hasAny() && harvestersSelected.sameSizeAs(entitiesSetOfAllMovable)) {
-                if (cell.isHarvestable()) {
-                    mouse.setMouseImageAttack();
-                }
+            if (selectionIndex.hasOnlyHarvestersSelected() && cell.isHarvestable()) {
+                mouse.setMouseImageAttack();
             }
 
             return;
@@ -161,12 +156,9 @@ public class MovableSelectedMouse extends NormalMouse {
         // if entity belongs to the player who controls the mouse...
         if (entity.belongsToPlayer(mouse.getControllingPlayer())) {
 
-            if (entity.isRefinery()) {
-                EntitiesSet harvestersSelected = entitiesSetOfAllMovable.filter(Predicate.isHarvester());
-                if (harvestersSelected.hasAny()) {
-                    mouse.setMouseImageEnter();
-                    return;
-                }
+            if (entity.isRefinery() && selectionIndex.hasSelectedHarvesters()) {
+                mouse.setMouseImageEnter();
+                return;
             }
 
             // show the 'selectable icon' for mouse icon
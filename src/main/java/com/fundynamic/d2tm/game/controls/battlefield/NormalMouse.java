@@ -4,12 +4,10 @@ package com.fundynamic.d2tm.game.controls.battlefield;
 import com.fundynamic.d2tm.game.behaviors.Selectable;
 import com.fundynamic.d2tm.game.entities.EntitiesSet;
 import com.fundynamic.d2tm.game.entities.Entity;
-import com.fundynamic.d2tm.game.entities.Predicate;
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.BattleField;
 import com.fundynamic.d2tm.math.Vector2D;
 
-import java.util.Set;
 
 /**
  *
@@ -48,18 +46,10 @@ public class NormalMouse extends AbstractBattleFieldMouseBehavior {
     }
 
     protected void deselectCurrentlySelectedEntities() {
-        Set<Entity> entities = entityRepository.filter(
-                Predicate.builder().
-                        forPlayer(player).
-                        isSelected().
-                        build());
-
-        for (Entity entity : entities) {
-            ((Selectable) entity).deselect();
-        }
+        EntitiesSet entities = player.getSelectionIndex().deselectAll();
 
         // Tell battlefield these entities got deselected
-        battleField.entitiesDeselected(EntitiesSet.fromSet(entities));
+        battleField.entitiesDeselected(entities);
 
         mouse.setMouseImageNormal();
     }
@@ -6,8 +6,9 @@ import com.fundynamic.d2tm.game.entities.*;
 import com.fundynamic.d2tm.game.entities.entitybuilders.PlacementBuildableEntity;
 import com.fundynamic.d2tm.game.entities.predicates.PredicateBuilder;
 import com.fundynamic.d2tm.game.map.Cell;
+import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.map.PlacementMask;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.BattleField;
-import com.fundynamic.d2tm.game.terrain.ConstructionGround;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
@@ -89,49 +90,31 @@ public class PlacingStructureMouse extends AbstractBattleFieldMouseBehavior {
         Coordinate coordinateTopLeft = battleField.translateMapCoordinateToViewportCoordinate(topLeftMapCoordinate);
         SlickUtils.drawImage(graphics, entityDataToPlace.getFirstImage(), coordinateTopLeft);
         // Now, do checks if the structure may be placed
-        for (PlaceableMapCoordinateCandidate placeableMapCoordinateCandidate : mapCoordinatesForEntityToPlace) {
-            Coordinate absoluteMapCoordinate = placeableMapCoordinateCandidate.mapCoordinate.toCoordinate().addHalfTile();
-            Coordinate coordinate = battleField.translateAbsoluteMapCoordinateToViewportCoordinate(absoluteMapCoordinate);
-
-            Cell cell = battleField.getCellByAbsoluteViewportCoordinate(coordinate);
+        Map map = entityRepository.getMap();
+        PlacementMask placementMask = player.getPlacementMask();
+        float maxDistance = entityWhoConstructsIt.getEntityData().buildRange; // from center of the closest structure of the player
 
-            // first check if it is visible (easiest check)
-            boolean isPlaceable = cell.isVisibleFor(player);
+        for (PlaceableMapCoordinateCandidate placeableMapCoordinateCandidate : mapCoordinatesForEntityToPlace) {
+            int x = placeableMapCoordinateCandidate.mapCoordinate.getXAsInt();
+            int y = placeableMapCoordinateCandidate.mapCoordinate.getYAsInt();
 
-            // visible? then check if it may be constructed (is it construction ground?)
-            if (isPlaceable && !(cell.getTerrain() instanceof ConstructionGround)) {
-                isPlaceable = false;
+            if (placementMask.isBlocked(map, x, y)) {
+                placeableMapCoordinateCandidate.placeableState = PlaceableState.BLOCKED;
+            } else if (!placementMask.isWithinReach(map, x, y, maxDistance)) {
+                placeableMapCoordinateCandidate.placeableState = PlaceableState.OUT_OF_REACH;
+            } else {
+                placeableMapCoordinateCandidate.placeableState = PlaceableState.PLACEABLE;
             }
 
-            // Calculate distance first, later do checking
-            Entity closestFriendlyStructure = findClosestStructureOfPlayer(battleField.translateViewportCoordinateToAbsoluteMapCoordinate(coordinate));
-            Coordinate constructingEntityCoordinate = battleField.translateAbsoluteMapCoordinateToViewportCoordinate(closestFriendlyStructure.getCenteredCoordinate());
-
-            placeableMapCoordinateCandidate.distance = constructingEntityCoordinate.distance(coordinate);
-
             // render the lines when debug info is true
             if (Game.DEBUG_INFO) {
-                graphics.setColor(Colors.WHITE);
-                SlickUtils.drawLine(graphics, coordinate, constructingEntityCoordinate);
-            }
-
-            // still placeable? good. Final (expensive) check -> any other units that may block this?
-            if (isPlaceable) {
-                EntitiesSet entitiesAtMapCoordinate = entityRepository.findAliveEntitiesOfTypeAtVector(absoluteMapCoordinate, EntityType.STRUCTURE, EntityType.UNIT);
-                isPlaceable = entitiesAtMapCoordinate.isEmpty();
-            }
-
-            if (!isPlaceable) {
-                placeableMapCoordinateCandidate.placeableState = PlaceableState.BLOCKED;
-            }
-        }
-
-        float maxDistance = entityWhoConstructsIt.getEntityData().buildRange; // from center of the structure that built this entity (to place)
-
-        for (PlaceableMapCoordinateCandidate pmcc : mapCoordinatesForEntityToPlace) {
-            if (pmcc.placeableState != PlaceableState.PLACEABLE) continue;
-            if (pmcc.distance > maxDistance) {
-                pmcc.placeableState = PlaceableState.OUT_OF_REACH;
+                Coordinate absoluteMapCoordinate = placeableMapCoordinateCandidate.mapCoordinate.toCoordinate().addHalfTile();
+                Coordinate coordinate = battleField.translateAbsoluteMapCoordinateToViewportCoordinate(absoluteMapCoordinate);
+                Entity closestFriendlyStructure = findClosestStructureOfPlayer(absoluteMapCoordinate);
+                if (closestFriendlyStructure != null) {
+                    graphics.setColor(Colors.WHITE);
+                    SlickUtils.drawLine(graphics, coordinate, battleField.translateAbsoluteMapCoordinateToViewportCoordinate(closestFriendlyStructure.getCenteredCoordinate()));
+                }
             }
         }
 
@@ -167,10 +150,7 @@ public class PlacingStructureMouse extends AbstractBattleFieldMouseBehavior {
     public void movedTo(Vector2D coordinates) {
         super.movedTo(coordinates);
 
-        // TODO: move this to an update method thing? because it is possible that state changes without us
-        // moving the mouse. So this won't last unfortunately. (or we should do some kind of message thing so this
-        // class knows the state changed and should re-calculate or something like that)
-
+        // the state of these cells is determined every time it is rendered, see doLogic
         Coordinate absoluteMapCoordinateOfTopleftOfStructure = battleField.getAbsoluteCoordinateTopLeftOfTarget(entityDataToPlace, mouseCoordinates);
 
         // first determine all cells that will be occupied
@@ -194,25 +174,27 @@ public class PlacingStructureMouse extends AbstractBattleFieldMouseBehavior {
     }
 
     public boolean canPlaceEntity() {
-        // blocked == not good
-        // passable == good
-        // out of reach, but one passable == good
-        boolean blocked = this.mapCoordinatesForEntityToPlace.stream().anyMatch(c -> c.placeableState == PlaceableState.BLOCKED);
-        if (blocked) return false;
-
-        return this.mapCoordinatesForEntityToPlace.stream().anyMatch(c -> c.placeableState == PlaceableState.PLACEABLE);
+        if (mapCoordinatesForEntityToPlace.isEmpty()) return false; // not moved over the battlefield yet
+
+        // same rule as the AI places with
+        MapCoordinate topLeft = mapCoordinatesForEntityToPlace.get(0).mapCoordinate;
+        return player.getPlacementMask().canPlace(
+                entityRepository.getMap(),
+                topLeft.getXAsInt(),
+                topLeft.getYAsInt(),
+                entityDataToPlace.getWidthInCells(),
+                entityDataToPlace.getHeightInCells(),
+                entityWhoConstructsIt.getEntityData().buildRange
+        );
     }
 
     /**
-     * This method finds a closest player Structure to the given coordinate.
+     * This method finds a closest player Structure to the given coordinate. Only used to render debug info, whether
+     * a cell is within reach is determined by the {@link PlacementMask}.
      * @param coordinate
      * @return
      */
     private Entity findClosestStructureOfPlayer(Coordinate coordinate) {
-        // TODO: Optimize
-        // Perhaps have a 'satisfying distance' ? ie, whenever it finds one within this distance, stop searching?
-        // Do not loop over everything?
-        // Move to EntityRepository?
         PredicateBuilder predicateBuilder = Predicate.builder().forPlayer(player).ofType(EntityType.STRUCTURE);
         EntitiesSet allStructuresForPlayer = entityRepository.filter(predicateBuilder.build());
 
@@ -236,7 +218,6 @@ public class PlacingStructureMouse extends AbstractBattleFieldMouseBehavior {
 
         public MapCoordinate mapCoordinate;
         public PlaceableState placeableState;
-        public float distance = 99999;
 
         public PlaceableMapCoordinateCandidate(MapCoordinate mapCoordinate, PlaceableState state) {
             this.mapCoordinate = mapCoordinate;
@@ -1,5 +1,8 @@
 package com.fundynamic.d2tm.game.entities;
 
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -10,6 +13,8 @@ import java.util.Map;
  */
 public class EnterStructureIntent {
 
+    private static final Logger LOG = Log.getLogger("entities");
+
     public static EnterStructureIntent instance = new EnterStructureIntent();
 
     // KEY = Entity that is being 'claimed' (to enter). Ie, a Harvester could 'claim' a Refinery. Key == Refinery, or Repair facility, etc.
@@ -21,7 +26,7 @@ public class EnterStructureIntent {
         if (whoClaimedWhatAlready != null && !whoClaimedWhatAlready.equals(who)) {
             throw new IllegalStateException("Entity " + who + " intended to place delivery intent for " + what + " but it was already claimed by " + whoClaimedWhatAlready + ", therefor the claim was invalid.");
         }
-        System.out.println("addDeliveryIntent at " + what + " by " + who);
+        LOG.debug("addDeliveryIntent at {} by {}", what, who);
         intentions.put(what, who);
     }
 
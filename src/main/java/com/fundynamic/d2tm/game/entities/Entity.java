@@ -1,18 +1,21 @@
 package com.fundynamic.d2tm.game.entities;
 
-import com.fundynamic.d2tm.Game;
 import com.fundynamic.d2tm.game.behaviors.*;
 import com.fundynamic.d2tm.game.entities.entitybuilders.EntityBuilderType;
 import com.fundynamic.d2tm.game.entities.superpowers.SuperPower;
 import com.fundynamic.d2tm.game.entities.units.RenderQueueEnrichableWithFacingLogic;
-import com.fundynamic.d2tm.game.map.Cell;
+import com.fundynamic.d2tm.game.map.CellOffsets;
 import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.map.OccupancyGrid;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.RenderQueue;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
+import com.fundynamic.d2tm.math.Random;
 import com.fundynamic.d2tm.math.Rectangle;
 import com.fundynamic.d2tm.math.Vector2D;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.SpriteSheet;
 import org.newdawn.slick.state.StateBasedGame;
@@ -21,6 +24,9 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.fundynamic.d2tm.game.map.Cell.HALF_TILE;
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
 /**
  * <p>
  *     An entity is a 'thing' that 'lives' on the {@link com.fundynamic.d2tm.game.rendering.gui.battlefield.BattleField}.
@@ -41,11 +47,15 @@ import java.util.stream.Collectors;
  */
 public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable {
 
+    private static final Logger LOG = Log.getLogger("entities");
+
     // Final properties of entity
+    protected final int id;
     protected final EntityData entityData;
     protected final SpriteSheet spritesheet;
     protected final Player player;
     protected final EntityRepository entityRepository;
+    protected final Random random; // own stream, see EntityRepository#nextEntityRandom
 
     protected Entity origin; // who, which entity, created this entity? (if applicable)
 
@@ -60,11 +70,33 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
     protected Coordinate coordinate;
 
     public Entity(Coordinate coordinate, SpriteSheet spritesheet, EntityData entityData, Player player, EntityRepository entityRepository) {
+        this.id = entityRepository != null ? entityRepository.nextEntityId() : OccupancyGrid.NONE;
         this.coordinate = coordinate;
         this.spritesheet = spritesheet;
         this.entityData = entityData;
         this.player = player;
         this.entityRepository = entityRepository;
+        this.random = entityRepository != null ? entityRepository.nextEntityRandom() : new Random(id);
+    }
+
+    /**
+     * Returns the (int) id of this entity, unique within its {@link EntityRepository}. Ids are counted per repository,
+     * so two games (or two tests) do not share them. Only an entity without repository (ie the {@link NullEntity})
+     * has id 0 ({@link OccupancyGrid#NONE}), it can not be on a map.
+     *
+     * @return
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Hashed by id (equality stays identity), so an {@link EntitiesSet} is iterated in the same order by every game
+     * that created the same entities in the same order. An identity hash differs per run.
+     */
+    @Override
+    public int hashCode() {
+        return id;
     }
 
     /**
@@ -85,6 +117,20 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
         return coordinate.add(getHalfSize());
     }
 
+    /**
+     * Same as the x of {@link #getCenteredCoordinate()}, without creating a coordinate
+     */
+    public float getCenteredX() {
+        return coordinate.getX() + (entityData.getWidth() / 2);
+    }
+
+    /**
+     * Same as the y of {@link #getCenteredCoordinate()}, without creating a coordinate
+     */
+    public float getCenteredY() {
+        return coordinate.getY() + (entityData.getHeight() / 2);
+    }
+
     /**
      * Returns distance from this entity to other, using centered coordinates for both entities.
      *
@@ -202,7 +248,7 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
     }
 
     public Coordinate getRandomPositionWithin() {
-        return new Coordinate(Vector2D.random(getX(), getX() + entityData.getWidth(), getY(), getY() + entityData.getHeight()));
+        return new Coordinate(Vector2D.random(random, getX(), getX() + entityData.getWidth(), getY(), getY() + entityData.getHeight()));
     }
 
     public Vector2D getDimensions() {
@@ -248,81 +294,21 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
         return allCellsAsCoordinates.stream().map(mc -> mc.toCoordinate().addHalfTile()).collect(Collectors.toList());
     }
 
-    public Set<MapCoordinate> getAllSurroundingCellsAsMapCoordinates() {
-        return getAllSurroundingCellsAsMapCoordinatesStartingFromTopLeft(1); // coordinate == top left
-    }
-
-    public Set<Coordinate> getAllSurroundingCellsAsCoordinates() {
-        // coordinate == top left
-        Set<MapCoordinate> mapCoordinates = getAllSurroundingCellsAsMapCoordinatesStartingFromTopLeft(1);
-        return mapCoordinates
-                .stream()
-                .map(mapCoordinate -> mapCoordinate.toCoordinate())
-                .collect(
-                        Collectors.toSet()
-                );
-    }
-
-    public Set<MapCoordinate> getAllSurroundingCellsAsMapCoordinatesStartingFromTopLeft(int distance) {
-        return getAllSurroundingCellsAsMapCoordinatesStartingFromTopLeft(coordinate.toMapCoordinate(), distance, new HashSet<>());
-    }
-
     /**
-     * Goes around entity. Basically as a 'rectangle' around entity. Starting from the highest distance, then recursively
-     * repeating logic until distance == 1
-     * @param topLeftMapCoordinate
-     * @param distance
-     * @return
+     * The interned map coordinate of x,y when the map is known (see {@link Map#internMapCoordinate(int, int)}), else
+     * a new one
      */
-    public Set<MapCoordinate> getAllSurroundingCellsAsMapCoordinatesStartingFromTopLeft(MapCoordinate topLeftMapCoordinate, int distance, Set<MapCoordinate> alreadyFound) {
-        int currentX = topLeftMapCoordinate.getXAsInt();
-        int currentY = topLeftMapCoordinate.getYAsInt();
-
-        // first row
-        int topLeftYMinusDistance = currentY - distance;
-        int topLeftXMinusDistance = currentX - distance;
-
-        int totalWidth = (distance + entityData.getWidthInCells() + distance) - 1;
-        int totalHeight = (distance + entityData.getHeightInCells() + distance) - 1;
-
-        Set<MapCoordinate> result = new HashSet<>(alreadyFound);
-
-        // -1, because it is 0 based
-        for (int x = 0; x <= totalWidth; x++) {
-            result.add(MapCoordinate.create(topLeftXMinusDistance + x, topLeftYMinusDistance));
-        }
-
-        // then all 'sides' of the structure (left and right)
-        // also start one row 'lower' since we do not want to calculate the top left/right twice (as we did it
-        // in the above loop already)
-        // totalHeight - 2 for same reason, -1 == zero based, -2 to reduce one row
-        for (int y = 1; y <= (totalHeight - 1); y++) {
-            int calculatedY = topLeftYMinusDistance + y;
-
-            // left side
-            result.add(MapCoordinate.create(topLeftXMinusDistance, calculatedY));
-
-            // right side
-            int rightX = topLeftXMinusDistance + totalWidth;
-            result.add(MapCoordinate.create(rightX, calculatedY));
-        }
-
-        // bottom row
-        int bottomRowY = topLeftYMinusDistance + totalHeight;
-        for (int x = 0; x <= totalWidth; x++) {
-            result.add(MapCoordinate.create(topLeftXMinusDistance + x, bottomRowY));
-        }
-
-        if (distance > 1) {
-            return getAllSurroundingCellsAsMapCoordinatesStartingFromTopLeft(topLeftMapCoordinate, (distance-1), result);
-        }
-        return result;
+    protected MapCoordinate internMapCoordinate(int x, int y) {
+        Map map = entityRepository != null ? entityRepository.getMap() : null;
+        if (map == null) return MapCoordinate.create(x, y);
+        return map.internMapCoordinate(x, y);
     }
 
     public boolean isVisibleFor(Player player, Map map) {
-        List<Cell> allCellsOccupiedByEntity = map.getAllCellsOccupiedByEntity(this);
-        for (Cell cell : allCellsOccupiedByEntity) {
-            if (cell.isVisibleFor(player)) return true;
+        MapCoordinate topLeft = coordinate.toMapCoordinate();
+        CellOffsets footprint = entityData.getFootprint();
+        for (int i = 0; i < footprint.size(); i++) {
+            if (!player.isShrouded(topLeft.getXAsInt() + footprint.getX(i), topLeft.getYAsInt() + footprint.getY(i))) return true;
         }
         return false;
     }
@@ -343,56 +329,20 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
         return result;
     }
 
-    protected final java.util.Map<EventType, List<EventSubscription<? extends Entity>>> eventTypeListMap = new HashMap();
-
+    /**
+     * Subscribe to an event of this entity, the subscription is kept on the {@link EventBus}. When either this entity
+     * or the subscriber is destroyed the subscription is cleaned up automatically.
+     */
     public <T extends Entity> void onEvent(EventType eventType, T subscriber, Function<T, Void> eventHandler) {
-        this.onEvent(eventType, subscriber, eventHandler, true);
+        entityRepository.getEventBus().subscribe(this, eventType, subscriber, eventHandler);
     }
 
-    protected <T extends Entity> void onEvent(EventType eventType, T subscriber, Function<T, Void> eventHandler, boolean registerDestroyEventHandler) {
-        if (!eventTypeListMap.containsKey(eventType)) {
-            eventTypeListMap.put(eventType, new LinkedList<>());
-        }
-        addEventSubscription(eventType, subscriber, eventHandler);
-
-        if (registerDestroyEventHandler) {
-            // when the subscriber gets destroyed, let this entity know it happened.
-            subscriber.onEvent(EventType.ENTITY_DESTROYED, this, s -> s.removeEventSubscription(subscriber), false);
-
-            if (subscriber != this) {
-                // when this gets destroyed, tell the *other* subscriber that it happened.
-                this.onEvent(EventType.ENTITY_DESTROYED, subscriber, s -> s.removeEventSubscription(this), false);
-            }
-        }
-    }
-
-    private <T extends Entity> EventSubscription addEventSubscription(EventType eventType, T subscriber, Function<T, Void> eventHandler) {
-        EventSubscription eventSubscription = new EventSubscription(subscriber, eventHandler);
-        if (!eventTypeListMap.get(eventType).contains(eventSubscription)) {
-            eventTypeListMap.get(eventType).add(eventSubscription);
-        }
-        return eventSubscription;
-    }
-
-    protected <T extends Entity> Void removeEventSubscription(T subscriber) {
-        System.out.println(this + " received removeEventSubscription, Entity destroyed is " + subscriber);
-
-        for (List<EventSubscription<? extends Entity>> subscriptions : eventTypeListMap.values()) {
-
-            // find all event subscriptions that have this subscriber
-            List<EventSubscription<? extends Entity>> toBeDeleted = new ArrayList<>();
-            for (EventSubscription subscription : subscriptions) {
-                if (subscription.getSubscriber() == subscriber) { // check by reference!
-                    toBeDeleted.add(subscription);
-                }
-            }
-
-            // delete those
-            for (EventSubscription subscription : toBeDeleted) {
-                subscriptions.remove(subscription);
-            }
-        }
-        return null;
+    /**
+     * Drops the subscriptions of subscriber on an event of this entity, for when it loses interest before either of
+     * them is destroyed.
+     */
+    public void removeEventSubscriber(EventType eventType, Entity subscriber) {
+        entityRepository.getEventBus().unsubscribe(this, eventType, subscriber);
     }
 
     /**
@@ -400,19 +350,18 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
      * call this directly from anywhere else. Instead use {@link #die()}
      */
     public void destroy() {
-        emitEvent(EventType.ENTITY_DESTROYED); // tell all who are interested that we are destroyed
-        UnitMoveIntents.instance.removeAllIntentsBy(this);
+        if (entityRepository != null) {
+            // tell all who are interested that we are destroyed and forget our own subscriptions
+            entityRepository.getEventBus().destroyed(this);
+        }
         EnterStructureIntent.instance.removeAllIntentsBy(this);
-        eventTypeListMap.clear(); // now clear all our subscriptions explicitly
     }
 
+    /**
+     * Queues event on the {@link EventBus}, subscribers are notified when the bus dispatches.
+     */
     public void emitEvent(EventType eventType) {
-        if (eventTypeListMap.containsKey(eventType)) {
-            for (EventSubscription eventSubscription : eventTypeListMap.get(eventType)){
-                System.out.println(this.toString() + " emits event " + eventType);
-                eventSubscription.invoke();
-            }
-        }
+        entityRepository.getEventBus().emit(this, eventType);
     }
 
     /**
@@ -421,10 +370,20 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
      * @param centeredCoordinate
      */
     public Coordinate getClosestCoordinateTo(Coordinate centeredCoordinate) {
-        List<Coordinate> allCellsAsCoordinates = getAllCellsAsCenteredCoordinates();
-        if (allCellsAsCoordinates.size() == 0) allCellsAsCoordinates.get(0);
-        Coordinate closest = allCellsAsCoordinates.stream().min((c1, c2) -> Float.compare(c1.distance(centeredCoordinate), c2.distance(centeredCoordinate))).get();
-        return closest.minHalfTile();
+        int topLeftX = EntityData.getTopLeftCellX(coordinate);
+        int topLeftY = EntityData.getTopLeftCellY(coordinate);
+        CellOffsets footprint = entityData.getFootprint();
+
+        int closest = 0;
+        float shortestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < footprint.size(); i++) {
+            float distance = distanceToCell(topLeftX + footprint.getX(i), topLeftY + footprint.getY(i), HALF_TILE, centeredCoordinate);
+            if (distance < shortestDistance) {
+                shortestDistance = distance;
+                closest = i;
+            }
+        }
+        return Coordinate.create((topLeftX + footprint.getX(closest)) * TILE_SIZE, (topLeftY + footprint.getY(closest)) * TILE_SIZE);
     }
 
     /**
@@ -432,14 +391,28 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
      * @param centeredCoordinate
      */
     public Coordinate getClosestCoordinateAround(Coordinate centeredCoordinate) {
-        Set<Coordinate> allCellsAsCoordinates = getAllSurroundingCellsAsCoordinates();
-        Coordinate closest = allCellsAsCoordinates
-                .stream()
-                .min((c1, c2) ->
-                        Float.compare(c1.distance(centeredCoordinate), c2.distance(centeredCoordinate))
-                )
-                .get();
-        return closest;
+        MapCoordinate topLeft = coordinate.toMapCoordinate();
+        CellOffsets surrounding = entityData.getSurroundingCells();
+
+        int closest = 0;
+        float shortestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < surrounding.size(); i++) {
+            float distance = distanceToCell(topLeft.getXAsInt() + surrounding.getX(i), topLeft.getYAsInt() + surrounding.getY(i), 0, centeredCoordinate);
+            if (distance < shortestDistance) {
+                shortestDistance = distance;
+                closest = i;
+            }
+        }
+        return Coordinate.create((topLeft.getXAsInt() + surrounding.getX(closest)) * TILE_SIZE, (topLeft.getYAsInt() + surrounding.getY(closest)) * TILE_SIZE);
+    }
+
+    /**
+     * Distance from (absolute) coordinate to cell x,y; measured from the top-left of the cell plus given offset (in pixels)
+     */
+    private static float distanceToCell(int cellX, int cellY, int offset, Coordinate coordinate) {
+        float deltaX = ((cellX * TILE_SIZE) + offset) - coordinate.getX();
+        float deltaY = ((cellY * TILE_SIZE) + offset) - coordinate.getY();
+        return (float) Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
     }
 
     /**
@@ -467,10 +440,45 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
         return "[" + this.entityData.name + " (" + this.hashCode() + " at " + coordinate + "]";
     }
 
+    public EntityRepository getEntityRepository() {
+        return entityRepository;
+    }
+
+    /**
+     * Logs a debug message about this entity. Use the <code>{}</code> placeholders (see {@link Logger}) instead of
+     * concatenating, so nothing is built when debug logging is off.
+     */
     public void log(String message) {
-        if (Game.DEBUG_INFO) {
-            System.out.println(toStringShort() + " - " + message);
-        }
+        Logger logger = getLogger();
+        if (!logger.isDebugEnabled()) return;
+        logger.debug("{} - {}", toStringShort(), message);
+    }
+
+    public void log(String format, Object arg) {
+        Logger logger = getLogger();
+        if (!logger.isDebugEnabled()) return;
+        logger.debug("{} - " + format, toStringShort(), arg);
+    }
+
+    public void log(String format, Object arg1, Object arg2) {
+        Logger logger = getLogger();
+        if (!logger.isDebugEnabled()) return;
+        logger.debug("{} - " + format, toStringShort(), arg1, arg2);
+    }
+
+    /**
+     * Guard for {@link #log(String, Object)} calls with primitive arguments, those are boxed before the level is
+     * checked otherwise.
+     */
+    protected boolean isLogEnabled() {
+        return getLogger().isDebugEnabled();
+    }
+
+    /**
+     * @return logger of the category of this entity
+     */
+    protected Logger getLogger() {
+        return LOG;
     }
 
     /**
@@ -502,22 +510,4 @@ public abstract class Entity implements EnrichableAbsoluteRenderable, Updateable
     public int getPowerConsumption() {
         return entityData.powerConsumption;
     }
-
-    class EventSubscription<T extends Entity> {
-        private T subscriber;
-        private Function<T, Void> eventHandler;
-
-        public EventSubscription(T subscriber, Function<T, Void> eventHandler) {
-            this.subscriber = subscriber;
-            this.eventHandler = eventHandler;
-        }
-
-        public void invoke() {
-            eventHandler.apply(subscriber);
-        }
-
-        public T getSubscriber() {
-            return subscriber;
-        }
-    }
-}
\ No newline at end of file
+}
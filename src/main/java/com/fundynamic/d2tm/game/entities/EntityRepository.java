@@ -1,28 +1,35 @@
 package com.fundynamic.d2tm.game.entities;
 
 
+import com.fundynamic.d2tm.game.audio.SoundManager;
 import com.fundynamic.d2tm.game.behaviors.FadingSelectionCentered;
 import com.fundynamic.d2tm.game.behaviors.HitPointBasedDestructibilityCentered;
+import com.fundynamic.d2tm.game.entities.damage.AreaDamage;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
-import com.fundynamic.d2tm.game.entities.particle.Particle;
+import com.fundynamic.d2tm.game.entities.particle.ParticleSystem;
 import com.fundynamic.d2tm.game.entities.predicates.PredicateBuilder;
-import com.fundynamic.d2tm.game.entities.projectiles.Projectile;
+import com.fundynamic.d2tm.game.entities.projectiles.ProjectileSystem;
 import com.fundynamic.d2tm.game.entities.structures.Structure;
 import com.fundynamic.d2tm.game.entities.superpowers.SuperPower;
+import com.fundynamic.d2tm.game.entities.scheduling.WorkScheduler;
+import com.fundynamic.d2tm.game.entities.targeting.TargetAcquisition;
 import com.fundynamic.d2tm.game.entities.units.NullRenderQueueEnrichableWithFacingLogic;
 import com.fundynamic.d2tm.game.entities.units.RenderQueueEnrichableWithFacingLogic;
 import com.fundynamic.d2tm.game.entities.units.Unit;
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.map.OccupancyGrid;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.Recolorer;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
+import com.fundynamic.d2tm.math.Random;
 import com.fundynamic.d2tm.math.Rectangle;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.SpriteSheet;
 
+import java.util.HashMap;
 import java.util.Set;
 
 /**
@@ -51,7 +58,43 @@ public class EntityRepository {
 
     private EntitiesSet entitiesSet;
 
+    // id -> entity, for everything in entitiesSet
+    private final HashMap<Integer, Entity> entitiesById = new HashMap<>();
+
+    private final EventBus eventBus;
+
+    private final AreaDamage areaDamage;
+
+    private final TargetAcquisition targetAcquisition;
+
+    private final WorkScheduler workScheduler;
+
+    // state transitions of all units of this repository, for profiling
+    private long stateTransitions = 0;
+
+    private final ProjectileSystem projectiles;
+
+    private final ParticleSystem particles;
+
+    private final SoundManager soundManager;
+
+    // every entity gets its own stream, split from this one in order of creation
+    private final Random entityRandom;
+    private long entitiesCreated = 0;
+
+    private int lastEntityId = 0; // 0 is reserved for 'no entity', see OccupancyGrid.NONE
+
+    private final Random facingRandom;
+
     public EntityRepository(Map map, Recolorer recolorer, EntitiesData entitiesData) throws SlickException {
+        this(map, recolorer, entitiesData, new Random(Random.DEFAULT_SEED));
+    }
+
+    public EntityRepository(Map map, Recolorer recolorer, EntitiesData entitiesData, Random random) throws SlickException {
+        this(map, recolorer, entitiesData, random, new SoundManager());
+    }
+
+    public EntityRepository(Map map, Recolorer recolorer, EntitiesData entitiesData, Random random, SoundManager soundManager) throws SlickException {
         if (entitiesData.isEmpty()) {
             throw new IllegalArgumentException("EntitiesData may not be empty");
         }
@@ -59,6 +102,31 @@ public class EntityRepository {
         this.recolorer = recolorer;
         this.entitiesData = entitiesData;
         this.entitiesSet = new EntitiesSet();
+        this.eventBus = new EventBus();
+        this.areaDamage = new AreaDamage(this);
+        this.targetAcquisition = new TargetAcquisition(map);
+        this.workScheduler = new WorkScheduler(WorkScheduler.UNLIMITED);
+        this.projectiles = new ProjectileSystem(this);
+        this.particles = new ParticleSystem(this);
+        this.soundManager = soundManager;
+        this.entityRandom = random.split("entities");
+        this.facingRandom = random.split("facings");
+    }
+
+    /**
+     * A new, independent, random stream for the next entity that is created. Given the same match seed and the same
+     * order of creation, every entity gets the same stream.
+     */
+    public Random nextEntityRandom() {
+        return entityRandom.split(entitiesCreated++);
+    }
+
+    /**
+     * The id for the next entity that is created. Ids are counted per repository (not per JVM), so two games that
+     * create the same entities in the same order give them the same ids, see {@link com.fundynamic.d2tm.game.lockstep.Lockstep}.
+     */
+    public int nextEntityId() {
+        return ++lastEntityId;
     }
 
     public Unit placeUnitOnMap(MapCoordinate coordinate, String id, Player player) {
@@ -82,16 +150,11 @@ public class EntityRepository {
     }
 
     public void placeExplosionWithCenterAt(Coordinate centerCoordinate, Player player, String explosionId) {
-        EntityData particle = entitiesData.getParticle(explosionId);
-        Coordinate topLeft = centerCoordinate.min(particle.halfDimensions());
-        placeExplosion(topLeft, particle, player);
+        particles.emit(centerCoordinate.getX(), centerCoordinate.getY(), entitiesData.getParticle(explosionId), player);
     }
 
     public void placeExplosion(Coordinate coordinate, EntityData particle, Player player) {
-        if (particle.type != EntityType.PARTICLE) {
-            throw new IllegalArgumentException("Cannot explode type that is " + particle.type + ", it must be of entity type " + EntityType.PARTICLE);
-        }
-        placeOnMap(coordinate, particle, player);
+        particles.emit(coordinate.getX() + (particle.getWidth() / 2f), coordinate.getY() + (particle.getHeight() / 2f), particle, player);
     }
 
     public Entity placeOnMap(Coordinate coordinate, EntityType entityType, String id, Player player) {
@@ -113,12 +176,23 @@ public class EntityRepository {
      * @return
      */
     public PassableResult isPassable(Entity entity, MapCoordinate intendedMapCoordinatesToMoveTo) {
-        Coordinate absoluteMapCoordinates = intendedMapCoordinatesToMoveTo.toCoordinate();
-        EntitiesSet entities = findAliveEntitiesOfTypeAtVector(absoluteMapCoordinates, EntityType.UNIT, EntityType.STRUCTURE);
-        entities = entities.exclude(entity); // do not count self as blocking
+        int x = intendedMapCoordinatesToMoveTo.getXAsInt();
+        int y = intendedMapCoordinatesToMoveTo.getYAsInt();
+        OccupancyGrid occupancyGrid = map.getOccupancyGrid();
+
+        Cell cellByMapCoordinates = map.getCell(x, y);
+        return new PassableResult(
+                cellByMapCoordinates,
+                entity,
+                blockingFor(entity, occupancyGrid.getUnitAt(x, y)),
+                blockingFor(entity, occupancyGrid.getStructureAt(x, y))
+        );
+    }
 
-        Cell cellByMapCoordinates = map.getCellByMapCoordinates(intendedMapCoordinatesToMoveTo);
-        return new PassableResult(cellByMapCoordinates, entity, entities);
+    private Entity blockingFor(Entity entity, Entity occupant) {
+        if (occupant == null || occupant == entity) return null; // do not count self as blocking
+        if (occupant.isDestroyed()) return null;
+        return occupant;
     }
 
     public Entity placeOnMap(Coordinate startCoordinate, EntityData entityData, Player player) {
@@ -150,17 +224,9 @@ public class EntityRepository {
             );
             return placeOnMap(createdEntity);
         } else if (entityData.isTypeProjectile()) {
-            SpriteSheet spriteSheet = makeSpriteSheet(entityData, originalImage);
-            createdEntity = new Projectile(startCoordinate, spriteSheet, player, entityData, this);
-            return placeOnMap(createdEntity);
+            throw new IllegalArgumentException("Don't use placeOnMap, but use method fireProjectile instead.");
         } else if (entityData.isTypeParticle()) {
-            Image recoloredImage = originalImage;
-            if (entityData.recolor) {
-                recoloredImage = recolorer.createCopyRecoloredToFaction(originalImage, player.getFaction());
-            }
-            SpriteSheet spriteSheet = makeSpriteSheet(entityData, recoloredImage);
-            createdEntity = new Particle(startCoordinate, spriteSheet, entityData, this);
-            return placeOnMap(createdEntity);
+            throw new IllegalArgumentException("Don't use placeOnMap, but use method placeExplosion instead.");
         } else if (entityData.isTypeSuperPower()) {
             throw new IllegalArgumentException("Don't use placeOnMap, but use method spawnSuperPower method instead.");
         } else {
@@ -169,6 +235,7 @@ public class EntityRepository {
     }
 
     public <T extends Entity> T placeOnMap(T createdEntity) {
+        map.getOccupancyGrid().occupy(createdEntity);
         return (T) addEntityToList(map.revealShroudFor(createdEntity));
     }
 
@@ -179,6 +246,10 @@ public class EntityRepository {
         }
         lastCreatedEntity = entity;
         entitiesSet.add(entity);
+        entitiesById.put(entity.getId(), entity);
+        if (entity instanceof Unit) {
+            targetAcquisition.add((Unit) entity);
+        }
         return entity;
     }
 
@@ -195,7 +266,84 @@ public class EntityRepository {
     public void removeEntity(Entity entity) {
         entity.removeFromPlayerSet(entity);
         entity.destroy();
+        map.getOccupancyGrid().remove(entity);
         entitiesSet.remove(entity);
+        entitiesById.remove(entity.getId());
+        workScheduler.cancel(entity);
+        if (entity instanceof Unit) {
+            targetAcquisition.remove((Unit) entity);
+        }
+    }
+
+    /**
+     * Deals damage to all destructible entities within radius of center, see {@link AreaDamage}
+     *
+     * @return amount of entities damaged
+     */
+    public int damageWithinRadius(Coordinate center, float radius, float damageAtCenter, Entity origin) {
+        return areaDamage.apply(center, radius, damageAtCenter, origin);
+    }
+
+    public Map getMap() {
+        return map;
+    }
+
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Lets idle units look for enemies, see {@link TargetAcquisition}
+     * @return
+     */
+    public TargetAcquisition getTargetAcquisition() {
+        return targetAcquisition;
+    }
+
+    /**
+     * Per tick budget for expensive decisions, see {@link WorkScheduler}
+     * @return
+     */
+    public WorkScheduler getWorkScheduler() {
+        return workScheduler;
+    }
+
+    /**
+     * Called by a unit of this repository when it changed state
+     */
+    public void stateTransitioned() {
+        stateTransitions++;
+    }
+
+    /**
+     * @return how often all units of this repository together changed state, for profiling
+     */
+    public long getStateTransitions() {
+        return stateTransitions;
+    }
+
+    /**
+     * All projectiles in flight, see {@link ProjectileSystem}
+     * @return
+     */
+    public ProjectileSystem getProjectiles() {
+        return projectiles;
+    }
+
+    /**
+     * All particles (explosions, smoke) that are playing, see {@link ParticleSystem}
+     * @return
+     */
+    public ParticleSystem getParticles() {
+        return particles;
+    }
+
+    /**
+     * Plays the sounds of this game, see {@link SoundManager}
+     * @return
+     */
+    public SoundManager getSoundManager() {
+        return soundManager;
     }
 
     public EntitiesSet getEntitiesSet() {
@@ -206,6 +354,15 @@ public class EntityRepository {
         return entitiesSet.filter(predicateBuilder);
     }
 
+    /**
+     * @return the structure occupying the cell of given coordinate, or null when there is none. Looked up in the
+     * {@link com.fundynamic.d2tm.game.map.OccupancyGrid}, so no entities are visited.
+     */
+    public Entity findStructureAt(Coordinate coordinate) {
+        MapCoordinate mapCoordinate = coordinate.toMapCoordinate();
+        return map.getOccupancyGrid().getStructureAt(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
+    }
+
     public EntitiesSet findEntitiesAt(Coordinate coordinate) {
         return filter(
                 Predicate.builder().
@@ -239,10 +396,6 @@ public class EntityRepository {
         );
     }
 
-    public EntitiesSet allProjectiles() {
-        return ofType(EntityType.PROJECTILE);
-    }
-
     public EntitiesSet ofType(EntityType entityType) {
         return filter(
                 Predicate.builder().
@@ -319,22 +472,43 @@ public class EntityRepository {
         return entitiesSet.size();
     }
 
+    /**
+     * @return the entity with given id (see {@link Entity#getId()}), or null when it is not (or no longer) known
+     */
+    public Entity findEntityById(int id) {
+        return entitiesById.get(id);
+    }
+
     public Entity getLastCreatedEntity() {
         return lastCreatedEntity;
     }
 
-    public Projectile placeProjectile(Coordinate coordinate, String id, Entity origin) {
-        return (Projectile) placeOnMap(coordinate, EntityType.PROJECTILE, id, origin);
+    /**
+     * Fires a projectile of the weapon with given id, see {@link ProjectileSystem}
+     */
+    public void fireProjectile(Coordinate from, Coordinate target, String weaponId, Entity origin) {
+        projectiles.launch(from, target, entitiesData.getEntityData(EntityType.PROJECTILE, weaponId), origin.getPlayer(), origin, null);
     }
 
-    public Projectile placeProjectile(Coordinate coordinate, String id, Player player) {
-        return (Projectile) placeOnMap(coordinate, EntityType.PROJECTILE, id, player);
+    public void fireProjectile(Coordinate from, Coordinate target, String weaponId, Player player, ProjectileSystem.DetonationListener listener) {
+        projectiles.launch(from, target, entitiesData.getEntityData(EntityType.PROJECTILE, weaponId), player, null, listener);
     }
 
     public SpriteSheet makeSpriteSheet(EntityData entityData, Image recoloredImage) {
         return new SpriteSheet(recoloredImage, entityData.getWidth(), entityData.getHeight());
     }
 
+    /**
+     * @param faction to recolor to, null when the particle is not recolored
+     */
+    public SpriteSheet makeParticleSpriteSheet(EntityData entityData, Faction faction) {
+        Image image = entityData.image;
+        if (faction != null) {
+            image = recolorer.createCopyRecoloredToFaction(image, faction);
+        }
+        return makeSpriteSheet(entityData, image);
+    }
+
     protected RenderQueueEnrichableWithFacingLogic makeRenderableWithFacingLogic(EntityData entityData, Image recoloredImage, float turnSpeed) {
         if (recoloredImage == null)
             try {
@@ -342,7 +516,7 @@ public class EntityRepository {
             } catch (SlickException e) {
                 throw new IllegalStateException("Could not create NullRenderableWithFacingLogic() : " + e);
             }
-        return new RenderQueueEnrichableWithFacingLogic(recoloredImage, entityData, turnSpeed);
+        return new RenderQueueEnrichableWithFacingLogic(recoloredImage, entityData, turnSpeed, facingRandom);
     }
 
     /**
@@ -376,38 +550,47 @@ public class EntityRepository {
     }
 
     public EntitiesSet findDestructibleSelectedEntitiesForPlayer(Player player) {
-        return filter(new PredicateBuilder().selectedForPlayer(player).isDestructible());
+        return EntitiesSet.fromSet(player.getSelectionIndex().getSelected()).filter(Predicate.isDestructible());
     }
 
     public class PassableResult {
         private Cell cell; // the passable result is about this cell
         private Entity entity; // this result is requested by...
-        private EntitiesSet entities; // and the cell has these entities
+        private Entity blockingUnit; // and the cell has this unit (or null)
+        private Entity blockingStructure; // and the cell has this structure (or null)
 
         public PassableResult(Entity entity, Cell cell) {
-            this(cell, entity, EntitiesSet.empty());
+            this(cell, entity, null, null);
         }
 
-        public PassableResult(Cell cell, Entity entity, EntitiesSet entitiesOnCell) {
-            this.entities = entitiesOnCell;
+        public PassableResult(Cell cell, Entity entity, Entity blockingUnit, Entity blockingStructure) {
             this.cell = cell;
             this.entity = entity;
+            this.blockingUnit = blockingUnit;
+            this.blockingStructure = blockingStructure;
         }
 
         public boolean isPassable() {
-            return entities.isEmpty() && cell.isPassable(entity);
+            return blockingUnit == null && blockingStructure == null && cell.isPassable(entity);
         }
 
         public EntitiesSet getEntities() {
+            EntitiesSet entities = new EntitiesSet();
+            if (blockingUnit != null) entities.add(blockingUnit);
+            if (blockingStructure != null) entities.add(blockingStructure);
             return entities;
         }
 
         public boolean hasOne() {
-            return entities.hasOne();
+            return (blockingUnit == null) != (blockingStructure == null);
         }
 
         public Entity getFirstBlockingEntity() {
-            return entities.getFirst();
+            return blockingStructure != null ? blockingStructure : blockingUnit;
+        }
+
+        public Entity getBlockingUnit() {
+            return blockingUnit;
         }
     }
 }
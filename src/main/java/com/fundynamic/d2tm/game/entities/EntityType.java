@@ -4,6 +4,6 @@ public enum EntityType {
     STRUCTURE,
     PROJECTILE,         // like a rocket, bullet, etc.
     UNIT,
-    PARTICLE,           // like an explosion, not to be confused with Particles emitted from a ParticleSystem from Slick.
+    PARTICLE,           // like an explosion, played by our own particle.ParticleSystem (not the ParticleSystem from Slick).
     SUPERPOWER, NONE
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+package com.fundynamic.d2tm.game.entities;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Central place where entities subscribe to events of other entities. There is one bus per
+ * {@link EntityRepository}. Instead of every {@link Entity} holding its own map of subscriptions, the bus indexes
+ * subscriptions by the id of the emitting entity and then by {@link EventType} (the 'channel'). Ids are counted per
+ * repository, so the indexes are plain arrays; emptied subscription lists go back to a pool to be reused.
+ * </p>
+ * <h2>Batching and latency</h2>
+ * <p>
+ * Emitting an event only queues it. All queued events are delivered in {@link #dispatch()}, channel by channel (ie,
+ * all {@link EventType#ENTITY_DESTROYED} events in one pass). The {@link com.fundynamic.d2tm.game.scenario.Scenario}
+ * dispatches once per tick, after all entities have been updated and destroyed ones have been removed. So a handler
+ * never runs in the middle of another entity's update, but it also does not run at the moment of emitting (as it
+ * did when entities held their own subscriptions):
+ * <ul>
+ *     <li>events emitted during the update of a tick are delivered at the end of that same tick;</li>
+ *     <li>events emitted outside of the update (ie by mouse input) or by a handler are delivered at the end of the
+ *     next tick.</li>
+ * </ul>
+ * Anything that must react within the same update should check state itself (ie {@link Entity#isDestroyed()}).
+ * </p>
+ * <h2>Cleanup</h2>
+ * <p>
+ * When a subscriber is destroyed its subscriptions are dropped right away, it will not be notified anymore. When an
+ * emitter is destroyed all its subscriptions are dropped from the index right away as well; only the ones on
+ * {@link EventType#ENTITY_DESTROYED} are kept aside until the next dispatch delivers that event.
+ * </p>
+ */
+public class EventBus {
+
+    private static final int CHANNELS = EventType.values().length;
+
+    // emitter id -> channel ordinal -> subscriptions (null when there are none)
+    private List<Subscription>[][] byEmitter = newChannelsArray(256);
+
+    // subscriber id -> subscriptions it holds, so we can clean up when the subscriber is gone
+    private List<Subscription>[] bySubscriber = newListArray(256);
+
+    // emptied lists, reused for new subscriptions; lists emptied while dispatching are pooled afterwards, a handler
+    // may empty the very list that is being delivered
+    private final ArrayDeque<List<Subscription>> pool = new ArrayDeque<>();
+    private final List<List<Subscription>> releasedWhileDispatching = new ArrayList<>();
+    private boolean isDispatching = false;
+
+    // emitter ids queued this tick, per channel ordinal; swapped with dispatching while dispatching
+    private IdQueue[] queued = newQueues();
+    private IdQueue[] dispatching = newQueues();
+
+    // subscriptions on ENTITY_DESTROYED of emitters destroyed this tick, taken out of the index already
+    private List<List<Subscription>> queuedDestroyed = new ArrayList<>();
+    private List<List<Subscription>> dispatchingDestroyed = new ArrayList<>();
+
+    public <T extends Entity> Subscription subscribe(Entity emitter, EventType eventType, T subscriber, Function<T, Void> eventHandler) {
+        Subscription subscription = new Subscription<>(emitter.getId(), eventType, subscriber, eventHandler);
+
+        int emitterId = emitter.getId();
+        if (emitterId >= byEmitter.length) {
+            byEmitter = Arrays.copyOf(byEmitter, Math.max(emitterId + 1, byEmitter.length * 2));
+        }
+        List<Subscription>[] channels = byEmitter[emitterId];
+        if (channels == null) {
+            channels = newListArray(CHANNELS);
+            byEmitter[emitterId] = channels;
+        }
+        int channel = eventType.ordinal();
+        if (channels[channel] == null) channels[channel] = obtainList();
+        channels[channel].add(subscription);
+
+        int subscriberId = subscriber.getId();
+        if (subscriberId >= bySubscriber.length) {
+            bySubscriber = Arrays.copyOf(bySubscriber, Math.max(subscriberId + 1, bySubscriber.length * 2));
+        }
+        if (bySubscriber[subscriberId] == null) bySubscriber[subscriberId] = obtainList();
+        bySubscriber[subscriberId].add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Drops all subscriptions of subscriber on eventType of emitter, ie when the subscriber lost interest before
+     * either of them got destroyed.
+     */
+    public void unsubscribe(Entity emitter, EventType eventType, Entity subscriber) {
+        List<Subscription> subscriptions = channel(emitter.getId(), eventType);
+        if (subscriptions == null) return;
+        for (int i = subscriptions.size() - 1; i >= 0; i--) {
+            Subscription subscription = subscriptions.get(i);
+            if (subscription.subscriber != subscriber) continue;
+            subscriptions.remove(i);
+            subscription.cancel();
+            removeHeld(subscription);
+        }
+        if (subscriptions.isEmpty()) releaseChannel(emitter.getId(), eventType.ordinal());
+    }
+
+    /**
+     * Queues event, it is delivered at the next {@link #dispatch()}. Emitting without subscribers costs nothing.
+     */
+    public void emit(Entity emitter, EventType eventType) {
+        if (channel(emitter.getId(), eventType) == null) return;
+        queued[eventType.ordinal()].add(emitter.getId());
+    }
+
+    /**
+     * The entity is destroyed: it will no longer be notified, all subscriptions on it are removed from the index and
+     * its {@link EventType#ENTITY_DESTROYED} subscribers get that event at the next dispatch.
+     */
+    public void destroyed(Entity entity) {
+        unsubscribeAllHeldBy(entity);
+
+        int emitterId = entity.getId();
+        if (emitterId >= byEmitter.length || byEmitter[emitterId] == null) return;
+        List<Subscription>[] channels = byEmitter[emitterId];
+        byEmitter[emitterId] = null;
+
+        for (int channel = 0; channel < CHANNELS; channel++) {
+            List<Subscription> subscriptions = channels[channel];
+            if (subscriptions == null) continue;
+            if (channel == EventType.ENTITY_DESTROYED.ordinal()) {
+                // still held by the subscribers until delivered, so a subscriber destroyed meanwhile cancels it
+                queuedDestroyed.add(subscriptions);
+                continue;
+            }
+            for (int i = 0; i < subscriptions.size(); i++) {
+                Subscription subscription = subscriptions.get(i);
+                subscription.cancel();
+                removeHeld(subscription);
+            }
+            release(subscriptions);
+        }
+    }
+
+    /**
+     * Delivers all queued events, one channel at the time.
+     */
+    public void dispatch() {
+        // swap, so handlers can emit new events safely (they will be dispatched next time)
+        IdQueue[] toDispatch = queued;
+        queued = dispatching;
+        dispatching = toDispatch;
+
+        List<List<Subscription>> destroyedToDispatch = queuedDestroyed;
+        queuedDestroyed = dispatchingDestroyed;
+        dispatchingDestroyed = destroyedToDispatch;
+
+        isDispatching = true;
+        for (int channel = 0; channel < CHANNELS; channel++) {
+            if (channel == EventType.ENTITY_DESTROYED.ordinal()) {
+                dispatchDestroyed(destroyedToDispatch);
+            }
+            IdQueue emitters = toDispatch[channel];
+            for (int i = 0; i < emitters.size; i++) {
+                List<Subscription> subscriptions = emitters.ids[i] < byEmitter.length && byEmitter[emitters.ids[i]] != null ?
+                        byEmitter[emitters.ids[i]][channel] : null;
+                if (subscriptions == null) continue;
+                // index based, a handler may (un)subscribe; new subscriptions get this event as well
+                for (int j = 0; j < subscriptions.size(); j++) {
+                    subscriptions.get(j).invoke();
+                }
+            }
+            emitters.size = 0;
+        }
+        isDispatching = false;
+
+        for (int i = 0; i < releasedWhileDispatching.size(); i++) {
+            release(releasedWhileDispatching.get(i));
+        }
+        releasedWhileDispatching.clear();
+    }
+
+    public int subscriptionCount(Entity emitter, EventType eventType) {
+        return subscriptionsFor(emitter, eventType).size();
+    }
+
+    public List<Subscription> subscriptionsFor(Entity emitter, EventType eventType) {
+        List<Subscription> subscriptions = channel(emitter.getId(), eventType);
+        return subscriptions == null ? Collections.emptyList() : Collections.unmodifiableList(subscriptions);
+    }
+
+    public int subscriptionsHeldBy(Entity subscriber) {
+        int id = subscriber.getId();
+        if (id >= bySubscriber.length || bySubscriber[id] == null) return 0;
+        return bySubscriber[id].size();
+    }
+
+    private void dispatchDestroyed(List<List<Subscription>> destroyedToDispatch) {
+        for (int i = 0; i < destroyedToDispatch.size(); i++) {
+            List<Subscription> subscriptions = destroyedToDispatch.get(i);
+            for (int j = 0; j < subscriptions.size(); j++) {
+                Subscription subscription = subscriptions.get(j);
+                subscription.invoke();
+                removeHeld(subscription);
+            }
+            release(subscriptions);
+        }
+        destroyedToDispatch.clear();
+    }
+
+    private List<Subscription> channel(int emitterId, EventType eventType) {
+        if (emitterId >= byEmitter.length || byEmitter[emitterId] == null) return null;
+        return byEmitter[emitterId][eventType.ordinal()];
+    }
+
+    private void unsubscribeAllHeldBy(Entity subscriber) {
+        int subscriberId = subscriber.getId();
+        if (subscriberId >= bySubscriber.length || bySubscriber[subscriberId] == null) return;
+        List<Subscription> held = bySubscriber[subscriberId];
+        bySubscriber[subscriberId] = null;
+
+        for (int i = 0; i < held.size(); i++) {
+            Subscription subscription = held.get(i);
+            subscription.cancel();
+            List<Subscription> subscriptions = channel(subscription.emitterId, subscription.eventType);
+            if (subscriptions == null) continue; // emitter gone, a queued ENTITY_DESTROYED will skip it
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty()) releaseChannel(subscription.emitterId, subscription.eventType.ordinal());
+        }
+        release(held);
+    }
+
+    private void removeHeld(Subscription subscription) {
+        int subscriberId = subscription.subscriber.getId();
+        List<Subscription> held = bySubscriber[subscriberId];
+        if (held == null) return;
+        held.remove(subscription);
+        if (held.isEmpty()) {
+            bySubscriber[subscriberId] = null;
+            release(held);
+        }
+    }
+
+    private void releaseChannel(int emitterId, int channel) {
+        List<Subscription>[] channels = byEmitter[emitterId];
+        release(channels[channel]);
+        channels[channel] = null;
+    }
+
+    private List<Subscription> obtainList() {
+        List<Subscription> list = pool.poll();
+        return list != null ? list : new ArrayList<>(2);
+    }
+
+    private void release(List<Subscription> list) {
+        if (isDispatching) {
+            releasedWhileDispatching.add(list);
+            return;
+        }
+        list.clear();
+        pool.push(list);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Subscription>[][] newChannelsArray(int size) {
+        return new List[size][];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Subscription>[] newListArray(int size) {
+        return new List[size];
+    }
+
+    private static IdQueue[] newQueues() {
+        IdQueue[] queues = new IdQueue[CHANNELS];
+        for (int i = 0; i < CHANNELS; i++) {
+            queues[i] = new IdQueue();
+        }
+        return queues;
+    }
+
+    private static class IdQueue {
+        private int[] ids = new int[16];
+        private int size = 0;
+
+        private void add(int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+
+    public static class Subscription<T extends Entity> {
+        private final int emitterId;
+        private final EventType eventType;
+        private final T subscriber;
+        private final Function<T, Void> eventHandler;
+        private boolean cancelled = false;
+
+        public Subscription(int emitterId, EventType eventType, T subscriber, Function<T, Void> eventHandler) {
+            this.emitterId = emitterId;
+            this.eventType = eventType;
+            this.subscriber = subscriber;
+            this.eventHandler = eventHandler;
+        }
+
+        public void invoke() {
+            if (cancelled) return;
+            eventHandler.apply(subscriber);
+        }
+
+        private void cancel() {
+            cancelled = true;
+        }
+
+        public T getSubscriber() {
+            return subscriber;
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.fundynamic.d2tm.game.entities;
 
 
 import com.fundynamic.d2tm.game.behaviors.Updateable;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.map.PlacementMask;
+import com.fundynamic.d2tm.game.map.RefineryDistanceField;
+import com.fundynamic.d2tm.game.map.RevealedCells;
+import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Vector2D;
 import org.newdawn.slick.Color;
 
 import java.util.HashMap;
-import java.util.Map;
 
 public class Player implements Updateable {
 
@@ -16,13 +21,19 @@ public class Player implements Updateable {
     private final String name;
     private final Faction faction;
 
-    private Map<MapCoordinate, Boolean> shrouded;
+    private RevealedCells revealedCells; // sized from the map the player reveals cells of, null until then
     private EntitiesSet entitiesSet; // short-hand to player owned entities
 
-    private EntitiesSet powerProducingEntities; // an easy way to query all power producing entities
-    private EntitiesSet powerConsumingEntities; // an easy way to query all power consuming entities
+    // bookkeeping of owned entities that are not destroyed, kept up to date on add, remove, damage and death
+    private final EntitiesSet aliveEntities = new EntitiesSet();
+    private final HashMap<Entity, Integer> powerProducedBy = new HashMap<>(); // power producing entity -> what it produces now
+    private int radarEntities = 0;
 
-    private boolean hasRadar;
+    private final RefineryDistanceField refineryDistanceField = new RefineryDistanceField();
+
+    private final PlacementMask placementMask = new PlacementMask(this);
+
+    private final SelectionIndex selectionIndex = new SelectionIndex();
 
     private float credits;
     private int animatedCredits;
@@ -36,10 +47,7 @@ public class Player implements Updateable {
     public Player(String name, Faction faction, int startingCredits) {
         this.name = name;
         this.faction = faction;
-        this.shrouded = new HashMap<>();
         this.entitiesSet = new EntitiesSet();
-        this.powerProducingEntities = entitiesSet;
-        this.powerConsumingEntities = entitiesSet;
         this.credits = startingCredits;
         this.animatedCredits = startingCredits;
     }
@@ -62,47 +70,65 @@ public class Player implements Updateable {
     }
 
     public boolean isShrouded(Vector2D position) {
-        Boolean value = shrouded.get(position);
-        return value != null ? value : true;
+        return isShrouded(position.getXAsInt(), position.getYAsInt());
+    }
+
+    /**
+     * Is map cell x,y shrouded for this player? Prefer this over {@link #isShrouded(Vector2D)} in loops over cells.
+     * @param x
+     * @param y
+     * @return
+     */
+    public boolean isShrouded(int x, int y) {
+        return revealedCells == null || !revealedCells.isRevealed(x, y);
     }
 
     /**
-     * Removes shroud for {@link MapCoordinate}.
+     * Removes shroud for cell x,y of given map. Revealing cells of another map than before starts all over again.
      *
-     * @param position
+     * @param map
+     * @param x
+     * @param y
      */
-    public void revealShroudFor(MapCoordinate position) {
-        shrouded.put(position, false);
+    public void revealShroudFor(Map map, int x, int y) {
+        if (revealedCells == null || !revealedCells.isOf(map)) {
+            revealedCells = new RevealedCells(map);
+        }
+        revealedCells.reveal(x, y);
     }
 
     public void addEntity(Entity entity) {
-        entitiesSet.add(entity);
-        if (entity.getEntityData().producesPower()) {
-            powerProducingEntities.add(entity);
+        if (!entitiesSet.add(entity)) return;
+        if (entity.isRefinery()) {
+            refineryDistanceField.refineryAdded(entity);
+        }
+        if (entity.isEntityTypeStructure()) {
+            placementMask.structureAdded(entity);
         }
-        if (entity.getEntityData().consumesPower()) {
-            powerConsumingEntities.add(entity);
+        if (!entity.isDestroyed()) {
+            countAsAlive(entity);
         }
-        hasRadar = hasRadarEntity();
-        calculatePowerProducedAndConsumed();
     }
 
     public boolean removeEntity(Entity entity) {
-        if (powerProducingEntities.contains(entity)) powerProducingEntities.remove(entity);
-        if (powerConsumingEntities.contains(entity)) powerConsumingEntities.remove(entity);
-        calculatePowerProducedAndConsumed();
-
         boolean result = entitiesSet.remove(entity);
-        hasRadar = hasRadarEntity();
+        if (entity.isRefinery()) {
+            refineryDistanceField.refineryRemoved(entity);
+        }
+        if (entity.isEntityTypeStructure()) {
+            placementMask.structureRemoved(entity);
+        }
+        selectionIndex.deselected(entity);
+        stopCountingAsAlive(entity);
         return result;
     }
 
     public boolean hasRadarEntity() {
-        return entitiesSet.stream().anyMatch(e -> "RADAR".equals(e.getEntityData().name));
+        return radarEntities > 0;
     }
 
     public int aliveEntities() {
-        return entitiesSet.filter(Predicate.isNotDestroyed()).size();
+        return aliveEntities.size();
     }
 
     @Override
@@ -123,7 +149,8 @@ public class Player implements Updateable {
      * @param mapCoordinate
      */
     public void shroud(MapCoordinate mapCoordinate) {
-        shrouded.put(mapCoordinate, true);
+        if (revealedCells == null) return; // shrouded already
+        revealedCells.shroud(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
     }
 
     public void addCredits(float credits) {
@@ -172,15 +199,61 @@ public class Player implements Updateable {
         return getPowerBalance() < 0;
     }
 
-    private void calculatePowerProducedAndConsumed() {
-        totalPowerProduced = powerProducingEntities.stream().filter(e->!e.isDestroyed()).mapToInt(e -> e.getPowerProduction()).sum();
-        totalPowerConsumption = powerConsumingEntities.stream().filter(e->!e.isDestroyed()).mapToInt(e -> e.getPowerConsumption()).sum();
+    /**
+     * Power production is based on hit points, so it needs to be updated when a power producing entity took damage
+     * @param entity
+     */
+    public void entityTookDamage(Entity entity) {
+        if (entity.isDestroyed()) {
+            stopCountingAsAlive(entity);
+            return;
+        }
+        Integer producing = powerProducedBy.get(entity);
+        if (producing == null) return;
+
+        int powerProduction = entity.getPowerProduction();
+        totalPowerProduced += powerProduction - producing;
+        powerProducedBy.put(entity, powerProduction);
+    }
+
+    public void entityDestroyed(Entity entity) {
+        selectionIndex.deselected(entity);
+        stopCountingAsAlive(entity);
     }
 
-    public void entityTookDamage(Entity entity) {
-        if (entity.getEntityData().producesPower() || entity.getEntityData().consumesPower()) {
-            calculatePowerProducedAndConsumed();
+    private void countAsAlive(Entity entity) {
+        if (!aliveEntities.add(entity)) return;
+        EntityData entityData = entity.getEntityData();
+        if (entityData.producesPower()) {
+            int powerProduction = entity.getPowerProduction();
+            totalPowerProduced += powerProduction;
+            powerProducedBy.put(entity, powerProduction);
+        }
+        if (entityData.consumesPower()) {
+            totalPowerConsumption += entity.getPowerConsumption();
         }
+        if (isRadar(entityData)) {
+            radarEntities++;
+        }
+    }
+
+    private void stopCountingAsAlive(Entity entity) {
+        if (!aliveEntities.remove(entity)) return;
+        EntityData entityData = entity.getEntityData();
+        Integer producing = powerProducedBy.remove(entity);
+        if (producing != null) {
+            totalPowerProduced -= producing;
+        }
+        if (entityData.consumesPower()) {
+            totalPowerConsumption -= entity.getPowerConsumption();
+        }
+        if (isRadar(entityData)) {
+            radarEntities--;
+        }
+    }
+
+    private static boolean isRadar(EntityData entityData) {
+        return EntitiesData.RADAR.equals(entityData.name);
     }
 
     public int getPowerBalance() {
@@ -188,7 +261,31 @@ public class Player implements Updateable {
     }
 
     public boolean isHasRadar() {
-        return hasRadar;
+        return hasRadarEntity();
+    }
+
+    /**
+     * Distance from every cell to the nearest refinery of this player, see {@link RefineryDistanceField}
+     * @return
+     */
+    public RefineryDistanceField getRefineryDistanceField() {
+        return refineryDistanceField;
+    }
+
+    /**
+     * Where this player may place structures, see {@link PlacementMask}
+     * @return
+     */
+    public PlacementMask getPlacementMask() {
+        return placementMask;
+    }
+
+    /**
+     * The selected entities of this player, see {@link SelectionIndex}
+     * @return
+     */
+    public SelectionIndex getSelectionIndex() {
+        return selectionIndex;
     }
 
     public MapCoordinate getFocusMapCoordinate() {
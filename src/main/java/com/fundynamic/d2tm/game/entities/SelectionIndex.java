@@ -0,0 +1,99 @@
+package com.fundynamic.d2tm.game.entities;
+
+
+import com.fundynamic.d2tm.game.behaviors.Selectable;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * All selected entities of a {@link Player}, so the mouse does not have to filter all entities on the map to find
+ * them. Entities tell the index of their owner when they get selected or deselected (see {@link Selectable#select()}),
+ * the {@link Player} removes entities that are destroyed or removed from the game.
+ * </p>
+ * <p>
+ * Besides the selected entities the amount of selected movable entities, harvesters and destroyers are kept, so
+ * questions like "are only harvesters selected?" can be answered without looking at any entity.
+ * </p>
+ */
+public class SelectionIndex {
+
+    private final EntitiesSet selected = new EntitiesSet();
+    private final EntitiesSet selectedMovable = new EntitiesSet();
+
+    private final Set<Entity> selectedView = Collections.unmodifiableSet(selected);
+    private final Set<Entity> selectedMovableView = Collections.unmodifiableSet(selectedMovable);
+
+    private int harvesters = 0;
+    private int destroyers = 0;
+
+    public void selected(Entity entity) {
+        if (!selected.add(entity)) return;
+        if (entity.isMovable()) selectedMovable.add(entity);
+        if (entity.isHarvester()) harvesters++;
+        if (entity.isDestroyer()) destroyers++;
+    }
+
+    public void deselected(Entity entity) {
+        if (!selected.remove(entity)) return;
+        selectedMovable.remove(entity);
+        if (entity.isHarvester()) harvesters--;
+        if (entity.isDestroyer()) destroyers--;
+    }
+
+    /**
+     * Deselects all selected entities.
+     *
+     * @return the entities that got deselected
+     */
+    public EntitiesSet deselectAll() {
+        EntitiesSet deselected = EntitiesSet.fromSet(selected);
+        for (Entity entity : deselected) {
+            ((Selectable) entity).deselect();
+        }
+        return deselected;
+    }
+
+    /**
+     * @return read-only view of the selected entities, deselecting while iterating over it is not allowed.
+     */
+    public Set<Entity> getSelected() {
+        return selectedView;
+    }
+
+    /**
+     * @return read-only view of the selected movable entities, deselecting while iterating over it is not allowed.
+     */
+    public Set<Entity> getSelectedMovable() {
+        return selectedMovableView;
+    }
+
+    public int countSelected() {
+        return selected.size();
+    }
+
+    public int countSelectedMovable() {
+        return selectedMovable.size();
+    }
+
+    public int countSelectedHarvesters() {
+        return harvesters;
+    }
+
+    public int countSelectedDestroyers() {
+        return destroyers;
+    }
+
+    public boolean hasSelectedHarvesters() {
+        return harvesters > 0;
+    }
+
+    /**
+     * @return true when harvesters are selected and all selected movable entities are harvesters
+     */
+    public boolean hasOnlyHarvestersSelected() {
+        return harvesters > 0 && harvesters == selectedMovable.size();
+    }
+}
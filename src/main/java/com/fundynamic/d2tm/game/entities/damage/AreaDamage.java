@@ -0,0 +1,107 @@
+package com.fundynamic.d2tm.game.entities.damage;
+
+import com.fundynamic.d2tm.game.behaviors.Destructible;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.math.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.fundynamic.d2tm.game.map.Cell.HALF_TILE;
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Deals damage within a radius, with a linear falloff: the closer to the center the more damage is dealt, at the edge
+ * of the radius no damage is dealt. Used by splash weapons ({@link com.fundynamic.d2tm.game.entities.projectiles.ProjectileSystem})
+ * and super powers.
+ * </p>
+ * <p>
+ * Affected entities are found in the {@link com.fundynamic.d2tm.game.map.OccupancyGrid} of the map, only visiting the
+ * cells within the square around the radius; every cell whose center can be within the radius is in there. The damage
+ * for an entity is the sum of the damage every cell of its footprint receives (measured from the center of each cell),
+ * so bigger structures take more damage. All damage is calculated first and then applied, so an entity dying half-way
+ * does not influence the others.
+ * </p>
+ */
+public class AreaDamage {
+
+    private final EntityRepository entityRepository;
+
+    // reused between calls, nothing is allocated per impact
+    private final List<Entity> candidates = new ArrayList<>();
+    private final List<Destructible> targets = new ArrayList<>();
+    private int[] damages = new int[16];
+
+    public AreaDamage(EntityRepository entityRepository) {
+        this.entityRepository = entityRepository;
+    }
+
+    /**
+     * Deals damage around center.
+     *
+     * @param center absolute (pixel) coordinate of the center of impact
+     * @param radius in pixels
+     * @param damageAtCenter damage dealt to a cell at the center
+     * @param origin who dealt the damage (may be null)
+     * @return amount of entities damaged
+     */
+    public int apply(Coordinate center, float radius, float damageAtCenter, Entity origin) {
+        if (radius <= 0F) return 0;
+
+        // cell centers lie HALF_TILE within a cell, so only cells reaching into the radius can have one within it
+        int fromX = (int) Math.floor((center.getX() - radius) / TILE_SIZE);
+        int fromY = (int) Math.floor((center.getY() - radius) / TILE_SIZE);
+        int toX = (int) Math.floor((center.getX() + radius) / TILE_SIZE);
+        int toY = (int) Math.floor((center.getY() + radius) / TILE_SIZE);
+        entityRepository.getMap().getOccupancyGrid().collectEntitiesWithin(fromX, fromY, toX, toY, candidates);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Entity entity = candidates.get(i);
+            if (!entity.isDestructible() || entity.isDestroyed()) continue;
+            int damage = damageForFootprint(entity, center, radius, damageAtCenter);
+            if (damage <= 0) continue;
+
+            if (targets.size() == damages.length) damages = Arrays.copyOf(damages, damages.length * 2);
+            damages[targets.size()] = damage;
+            targets.add((Destructible) entity);
+        }
+        candidates.clear();
+
+        int damaged = targets.size();
+        for (int i = 0; i < damaged; i++) {
+            targets.get(i).takeDamage(damages[i], origin);
+        }
+        targets.clear();
+        return damaged;
+    }
+
+    /**
+     * Sums the damage for each cell the entity covers, measured from the center of each cell.
+     */
+    public static int damageForFootprint(Entity entity, Coordinate center, float radius, float damageAtCenter) {
+        float topLeftX = entity.getCoordinate().getX() + HALF_TILE;
+        float topLeftY = entity.getCoordinate().getY() + HALF_TILE;
+        int widthInCells = entity.getWidthInCells();
+        int heightInCells = entity.getHeightInCells();
+
+        int damage = 0;
+        for (int x = 0; x < widthInCells; x++) {
+            for (int y = 0; y < heightInCells; y++) {
+                float dx = (topLeftX + (x * TILE_SIZE)) - center.getX();
+                float dy = (topLeftY + (y * TILE_SIZE)) - center.getY();
+                float distance = (float) Math.sqrt((dx * dx) + (dy * dy));
+                damage += falloff(damageAtCenter, radius, distance);
+            }
+        }
+        return damage;
+    }
+
+    public static int falloff(float damageAtCenter, float radius, float distance) {
+        float distanceNormalised = Math.max((radius - distance) / radius, 0F);
+        return (int)(damageAtCenter * distanceNormalised);
+    }
+}
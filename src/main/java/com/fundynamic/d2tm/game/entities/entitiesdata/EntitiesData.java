@@ -63,6 +63,7 @@ public class EntitiesData {
     public static String CONSTRUCTION_YARD = "CONSTYARD";
     public static String REFINERY = "REFINERY";
     public static String WINDTRAP = "WINDTRAP";
+    public static String RADAR = "RADAR";
     public static String LIGHT_FACTORY = "LIGHTFACTORY";
 
     // projectiles
@@ -86,6 +87,8 @@ public class EntitiesData {
 
     public void addSound(String id, String path) throws SlickException {
         SoundData soundData = new SoundData();
+        soundData.id = id;
+        soundData.group = id;
         soundData.sound = loadSound(path);
         soundsData.put(id, soundData);
     }
@@ -104,6 +107,7 @@ public class EntitiesData {
         );
 
         entityData.damage = iniDataWeapon.damage;
+        entityData.damageRadius = iniDataWeapon.damageRadius;
         entityData.explosionId = iniDataWeapon.explosionId;
         entityData.soundData = getAndEnsureSoundId(iniDataWeapon.soundId, id); // for launching projectile?
 
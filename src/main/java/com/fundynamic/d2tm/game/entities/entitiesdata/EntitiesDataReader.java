@@ -35,6 +35,7 @@ public class EntitiesDataReader { // TODO: Rename to INIEntitiesDataReader? (all
     public static final String INI_KEYWORD_ATTACK_RANGE = "AttackRange";
     public static final String INI_KEYWORD_WEAPON = "Weapon";
     public static final String INI_KEYWORD_DAMAGE = "Damage";
+    public static final String INI_KEYWORD_DAMAGE_RADIUS = "DamageRadius";
     public static final String INI_KEYWORD_FACINGS = "Facings";
     public static final String INI_KEYWORD_SIGHT = "Sight";
     public static final String INI_KEYWORD_HIT_POINTS = "HitPoints";
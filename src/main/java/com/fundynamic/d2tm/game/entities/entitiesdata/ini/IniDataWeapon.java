@@ -15,6 +15,7 @@ public class IniDataWeapon {
     public String explosionId;
     public float moveSpeed;
     public int damage;
+    public float damageRadius;
     public int facings;
     public String image;
     public String soundId;
@@ -33,6 +34,7 @@ public class IniDataWeapon {
         this.explosionId = struct.get(INI_KEYWORD_EXPLOSION, String.class);
         this.moveSpeed = struct.get(INI_KEYWORD_MOVE_SPEED, Float.class);
         this.damage = struct.get(INI_KEYWORD_DAMAGE, Integer.class);
+        this.damageRadius = struct.get(INI_KEYWORD_DAMAGE_RADIUS, Float.class, 0F);
         this.facings = struct.get(INI_KEYWORD_FACINGS, Integer.class);
         this.ascendTo = struct.get(INI_KEYWORD_ASCEND_TO, Integer.class, 0);
         this.ascendAt = struct.get(INI_KEYWORD_ASCEND_AT, Float.class, 0F);
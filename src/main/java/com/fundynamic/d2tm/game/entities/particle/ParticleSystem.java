@@ -0,0 +1,209 @@
+package com.fundynamic.d2tm.game.entities.particle;
+
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.game.entities.Faction;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.map.Trigonometry;
+import com.fundynamic.d2tm.game.types.EntityData;
+import com.fundynamic.d2tm.math.Random;
+import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SpriteSheet;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * All particles (explosions, smoke, etc) that are playing. A particle is not an {@link Entity}; it is a slot in a set
+ * of plain arrays (position, animation frame, kind). Particles do not reveal shroud, can't be found by entity queries
+ * and are never added to the {@link com.fundynamic.d2tm.game.entities.EntitiesSet}. Slots are reused, so emitting
+ * many particles per frame (ie, a super power detonating) does not create objects per particle.
+ * </p>
+ * <h2>Kinds</h2>
+ * <p>
+ * A kind is the combination of particle {@link EntityData} and the {@link Faction} it is recolored to (if the
+ * particle is recolored at all). Sprite sheet, amount of frames and fading of a kind are determined once, the first
+ * time it is emitted.
+ * </p>
+ * <h2>Updating</h2>
+ * <p>
+ * {@link #update(float)} animates all particles in one loop, particles that played their last frame are removed by
+ * compacting the arrays in the same loop. So indexes (see {@link #size()}) are only valid until the next update.
+ * </p>
+ */
+public class ParticleSystem {
+
+    private static final int INITIAL_CAPACITY = 512;
+
+    private final EntityRepository entityRepository;
+
+    // kinds, the index is the kind of a particle
+    private final IdentityHashMap<EntityData, int[]> kindsPerFaction = new IdentityHashMap<>();
+    private int kinds = 0;
+    private EntityData[] kindData = new EntityData[8];
+    private SpriteSheet[] kindSpriteSheet = new SpriteSheet[8];
+    private int[] kindFrames = new int[8];
+    private float[] kindAlphaAtStart = new float[8];
+
+    // particles playing, 0 until count
+    private int count = 0;
+    private float[] x, y, frame;
+    private int[] kind;
+
+    public ParticleSystem(EntityRepository entityRepository) {
+        this.entityRepository = entityRepository;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Emits a single particle with its center at given position
+     *
+     * @param player used to recolor the particle (when the particle data says so), may be null otherwise
+     */
+    public void emit(float centerX, float centerY, EntityData particleData, Player player) {
+        emitAt(centerX - (particleData.getWidth() / 2f), centerY - (particleData.getHeight() / 2f), kindOf(particleData, player));
+    }
+
+    /**
+     * Emits particles on a circle with given radius, one every <code>stepInDegrees</code>.
+     *
+     * @param chance percentage (0-100) of the positions that actually get a particle, picked with given random
+     */
+    public void emitRing(float centerX, float centerY, float radius, int stepInDegrees, EntityData particleData, Player player, int chance, Random random) {
+        int kindOfParticle = kindOf(particleData, player);
+        float halfWidth = particleData.getWidth() / 2f;
+        float halfHeight = particleData.getHeight() / 2f;
+        for (int degrees = 0; degrees < 360; degrees += stepInDegrees) {
+            if (chance < 100 && random.getRandomBetween(0, 100) >= chance) continue;
+
+            float ringX = (float) Math.ceil(centerX + (Trigonometry.cos[degrees] * radius));
+            float ringY = (float) Math.ceil(centerY + (Trigonometry.sin[degrees] * radius));
+            emitAt(ringX - halfWidth, ringY - halfHeight, kindOfParticle);
+        }
+    }
+
+    public void update(float deltaInSeconds) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int kindOfParticle = kind[i];
+            frame[i] += EntityData.getRelativeSpeed(kindData[kindOfParticle].animationSpeed, deltaInSeconds);
+
+            if (frame[i] < kindFrames[kindOfParticle]) {
+                if (kept != i) {
+                    x[kept] = x[i];
+                    y[kept] = y[i];
+                    frame[kept] = frame[i];
+                    kind[kept] = kindOfParticle;
+                }
+                kept++;
+            }
+        }
+        count = kept;
+    }
+
+    /**
+     * Draws all particles within the visible area, <code>cameraX</code> and <code>cameraY</code> being the top-left
+     * of the visible area.
+     */
+    public void render(Graphics graphics, int cameraX, int cameraY, int width, int height) {
+        for (int i = 0; i < count; i++) {
+            int kindOfParticle = kind[i];
+            EntityData particleData = kindData[kindOfParticle];
+            int screenX = (int) x[i] - cameraX;
+            int screenY = (int) y[i] - cameraY;
+            if (screenX + particleData.getWidth() < 0 || screenY + particleData.getHeight() < 0) continue;
+            if (screenX > width || screenY > height) continue;
+
+            Image sprite = kindSpriteSheet[kindOfParticle].getSprite((int) frame[i], 0);
+            sprite.setImageColor(1, 1, 1, getAlpha(i));
+            graphics.drawImage(sprite, screenX, screenY);
+            sprite.setImageColor(1, 1, 1, 1);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getFrame(int index) {
+        return frame[index];
+    }
+
+    public float getAlpha(int index) {
+        int kindOfParticle = kind[index];
+        return kindAlphaAtStart[kindOfParticle] - (frame[index] / kindFrames[kindOfParticle]);
+    }
+
+    public EntityData getParticleData(int index) {
+        return kindData[kind[index]];
+    }
+
+    private void emitAt(float topLeftX, float topLeftY, int kindOfParticle) {
+        if (count == x.length) {
+            allocate(x.length * 2);
+        }
+        int i = count++;
+        x[i] = topLeftX;
+        y[i] = topLeftY;
+        frame[i] = 0;
+        kind[i] = kindOfParticle;
+    }
+
+    private int kindOf(EntityData particleData, Player player) {
+        if (!particleData.isTypeParticle()) {
+            throw new IllegalArgumentException("Cannot emit type that is " + particleData.type + ", it must be of entity type " + EntityType.PARTICLE);
+        }
+        int[] kindPerFaction = kindsPerFaction.get(particleData);
+        if (kindPerFaction == null) {
+            kindPerFaction = new int[Faction.values().length + 1];
+            Arrays.fill(kindPerFaction, -1);
+            kindsPerFaction.put(particleData, kindPerFaction);
+        }
+
+        // slot 0 is for particles that are not recolored
+        Faction faction = particleData.recolor ? player.getFaction() : null;
+        int slot = faction == null ? 0 : faction.ordinal() + 1;
+        if (kindPerFaction[slot] < 0) {
+            kindPerFaction[slot] = addKind(particleData, faction);
+        }
+        return kindPerFaction[slot];
+    }
+
+    private int addKind(EntityData particleData, Faction faction) {
+        int kindOfParticle = kinds++;
+        if (kindOfParticle == kindData.length) {
+            int capacity = kindData.length * 2;
+            kindData = Arrays.copyOf(kindData, capacity);
+            kindSpriteSheet = Arrays.copyOf(kindSpriteSheet, capacity);
+            kindFrames = Arrays.copyOf(kindFrames, capacity);
+            kindAlphaAtStart = Arrays.copyOf(kindAlphaAtStart, capacity);
+        }
+        SpriteSheet spriteSheet = entityRepository.makeParticleSpriteSheet(particleData, faction);
+        kindData[kindOfParticle] = particleData;
+        kindSpriteSheet[kindOfParticle] = spriteSheet;
+        kindFrames[kindOfParticle] = spriteSheet.getHorizontalCount();
+        // smoke fades out entirely, all other sprites never fade out entirely
+        kindAlphaAtStart[kindOfParticle] = "SMOKE".equals(particleData.name) ? 1f : 1.5f;
+        return kindOfParticle;
+    }
+
+    private void allocate(int capacity) {
+        x = x == null ? new float[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new float[capacity] : Arrays.copyOf(y, capacity);
+        frame = frame == null ? new float[capacity] : Arrays.copyOf(frame, capacity);
+        kind = kind == null ? new int[capacity] : Arrays.copyOf(kind, capacity);
+    }
+}
@@ -3,7 +3,6 @@ package com.fundynamic.d2tm.game.entities.predicates;
 
 import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.game.entities.Predicate;
-import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.Rectangle;
 
 /**
@@ -21,10 +20,7 @@ public class EntityIsWithinAreaOfAbsoluteCoordinates extends Predicate<Entity> {
 
     @Override
     public boolean test(Entity entity) {
-        Coordinate centered = entity.getCenteredCoordinate();
-        boolean result = rectangle.isVectorWithin(centered);
-//        System.out.println("Checking if entity @ [" + centered.getXAsInt() + "," + centered.getYAsInt() + "] is within " + rectangle + " -> " + result);
-        return result;
+        return rectangle.isWithin(entity.getCenteredX(), entity.getCenteredY());
     }
 
     @Override
@@ -0,0 +1,354 @@
+package com.fundynamic.d2tm.game.entities.projectiles;
+
+
+import com.fundynamic.d2tm.game.behaviors.Destructible;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.units.UnitFacings;
+import com.fundynamic.d2tm.game.map.OccupancyGrid;
+import com.fundynamic.d2tm.game.types.EntityData;
+import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.Vector2D;
+import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SpriteSheet;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * All projectiles (rockets, bullets, etc) in flight. A projectile is not an {@link Entity}; it is a slot in a set of
+ * plain arrays (position, target, height, weapon, owner). Firing, flying and detonating do not create objects per
+ * projectile, so many thousands of projectiles can be in flight without keeping the garbage collector busy.
+ * </p>
+ * <h2>Updating</h2>
+ * <p>
+ * {@link #update(float)} moves all projectiles in one loop. Projectiles that reach their target are moved to a
+ * detonation batch, the remaining ones are compacted in the same loop. After the loop the batch is resolved: explosion,
+ * (splash) damage and notifying the {@link DetonationListener}, if any.
+ * </p>
+ * <p>
+ * So indexes (see {@link #size()}) are only valid until the next update.
+ * </p>
+ * <h2>Position</h2>
+ * <p>
+ * Like entities, the position of a projectile is the top-left of its image. Damage is dealt to whatever occupies the
+ * cell at that position, explosions and splash damage are centered.
+ * </p>
+ */
+public class ProjectileSystem {
+
+    public static final float DETONATION_DISTANCE = 0.1F;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final EntityRepository entityRepository;
+
+    // weapons, the index is the weapon id of a projectile
+    private final IdentityHashMap<EntityData, Integer> weaponIds = new IdentityHashMap<>();
+    private EntityData[] weapons = new EntityData[8];
+    private SpriteSheet[] spriteSheets = new SpriteSheet[8];
+
+    // projectiles in flight, 0 until count
+    private int count = 0;
+    private float[] x, y, targetX, targetY, height, launchDistance;
+    private int[] weapon, facing;
+    private Player[] player;
+    private Entity[] origin;
+    private DetonationListener[] listener;
+
+    // projectiles that reached their target during this update
+    private int detonations = 0;
+    private float[] detonationX, detonationY;
+    private int[] detonationWeapon;
+    private Player[] detonationPlayer;
+    private Entity[] detonationOrigin;
+    private DetonationListener[] detonationListener;
+
+    public ProjectileSystem(EntityRepository entityRepository) {
+        this.entityRepository = entityRepository;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Fires a projectile of given weapon from <code>from</code> to <code>target</code> (both top-left).
+     *
+     * @param origin   entity that fired it, may be null (ie, super powers)
+     * @param listener notified when it detonates, may be null
+     */
+    public void launch(Coordinate from, Coordinate target, EntityData weaponData, Player player, Entity origin, DetonationListener listener) {
+        if (!weaponData.isTypeProjectile()) {
+            throw new IllegalArgumentException("Cannot launch type that is " + weaponData.type + ", it must be a projectile");
+        }
+        if (count == x.length) {
+            allocate(x.length * 2);
+        }
+
+        int i = count++;
+        this.x[i] = from.getX();
+        this.y[i] = from.getY();
+        this.targetX[i] = target.getX();
+        this.targetY[i] = target.getY();
+        this.height[i] = 0F;
+        this.launchDistance[i] = from.distance(target);
+        this.weapon[i] = weaponIdOf(weaponData);
+        this.facing[i] = getFacing(weaponData, from, target); // projectiles fly straight, so this never changes
+        this.player[i] = player;
+        this.origin[i] = origin;
+        this.listener[i] = listener;
+    }
+
+    public void update(float deltaInSeconds) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            EntityData weaponData = weapons[weapon[i]];
+
+            float deltaX = targetX[i] - x[i];
+            float deltaY = targetY[i] - y[i];
+            float distance = (float) Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+            if (distance > 0) {
+                float timeCorrectedSpeed = weaponData.getRelativeMoveSpeed(deltaInSeconds);
+                if (timeCorrectedSpeed >= distance) {
+                    // make sure we don't overshoot
+                    x[i] = targetX[i];
+                    y[i] = targetY[i];
+                    distance = 0;
+                } else {
+                    x[i] += (deltaX / distance) * timeCorrectedSpeed;
+                    y[i] += (deltaY / distance) * timeCorrectedSpeed;
+                    distance -= timeCorrectedSpeed;
+                }
+
+                if (weaponData.maxAscensionHeight > 0) {
+                    float flightProgress = launchDistance[i] > 0 ? 1.0f - (distance / launchDistance[i]) : 1.0f;
+                    height[i] = heightAt(weaponData, flightProgress, height[i]);
+                }
+            }
+
+            if (distance < DETONATION_DISTANCE) {
+                addDetonation(i);
+            } else {
+                if (kept != i) move(i, kept);
+                kept++;
+            }
+        }
+
+        // forget about references of slots no longer in use
+        Arrays.fill(player, kept, count, null);
+        Arrays.fill(origin, kept, count, null);
+        Arrays.fill(listener, kept, count, null);
+        count = kept;
+
+        resolveDetonations();
+    }
+
+    /**
+     * Draws all projectiles within the visible area, <code>cameraX</code> and <code>cameraY</code> being the top-left
+     * of the visible area.
+     */
+    public void render(Graphics graphics, int cameraX, int cameraY, int width, int height) {
+        for (int i = 0; i < count; i++) {
+            EntityData weaponData = weapons[weapon[i]];
+            int screenX = (int) x[i] - cameraX;
+            int screenY = (int) y[i] - cameraY;
+            if (screenX + weaponData.getWidth() < 0 || screenY + weaponData.getHeight() < 0) continue;
+            if (screenX > width || screenY - this.height[i] > height) continue;
+
+            Image sprite = spriteSheets[weapon[i]].getSprite(facing[i], 0);
+            float projectileHeight = this.height[i];
+            if (projectileHeight > 0) {
+                sprite.setImageColor(0, 0, 0, 0.5f); // set color of image to black, transparent
+                graphics.drawImage(sprite, screenX + Math.round(projectileHeight / 8), screenY);
+                sprite.setImageColor(1, 1, 1, 1); // restore drawing to opaque
+            }
+            graphics.drawImage(sprite, screenX, screenY - projectileHeight);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getTargetX(int index) {
+        return targetX[index];
+    }
+
+    public float getTargetY(int index) {
+        return targetY[index];
+    }
+
+    public float getHeight(int index) {
+        return height[index];
+    }
+
+    public int getFacing(int index) {
+        return facing[index];
+    }
+
+    public EntityData getWeapon(int index) {
+        return weapons[weapon[index]];
+    }
+
+    public Player getPlayer(int index) {
+        return player[index];
+    }
+
+    public static int getFacing(EntityData weaponData, Vector2D from, Vector2D to) {
+        int facing = 0;
+        if (weaponData.hasFacings() && !from.equals(to)) {
+            facing = UnitFacings.calculateFacingSpriteIndex(from, to, weaponData.getFacings());
+        }
+        return facing;
+    }
+
+    /**
+     * Height of a projectile that can ascend and descend, given how far it is in its flight (0 = launched, 1 = at target)
+     */
+    static float heightAt(EntityData weaponData, float flightProgress, float currentHeight) {
+        float maxHeight = weaponData.maxAscensionHeight;
+        if (flightProgress < weaponData.maxAscensionAtFlightPercentage) {
+            // ascend
+            if (currentHeight >= maxHeight) return currentHeight;
+            float height = (flightProgress * maxHeight) * (1 / weaponData.maxAscensionAtFlightPercentage);
+            return Math.min(height, maxHeight);
+        }
+        if (flightProgress > weaponData.startToDescendPercentage) {
+            // descend
+            if (currentHeight <= 0) return currentHeight;
+            float maxDescensionAtFlightPercentage = 1f - weaponData.startToDescendPercentage;
+            float progress = (1.0f - flightProgress) * (1 / maxDescensionAtFlightPercentage);
+            return Math.max(0, Math.min(maxHeight, progress * maxHeight));
+        }
+        return currentHeight;
+    }
+
+    private void addDetonation(int i) {
+        int d = detonations++;
+        detonationX[d] = x[i];
+        detonationY[d] = y[i];
+        detonationWeapon[d] = weapon[i];
+        detonationPlayer[d] = player[i];
+        detonationOrigin[d] = origin[i];
+        detonationListener[d] = listener[i];
+    }
+
+    private void resolveDetonations() {
+        OccupancyGrid occupancyGrid = entityRepository.getMap().getOccupancyGrid();
+        for (int d = 0; d < detonations; d++) {
+            EntityData weaponData = weapons[detonationWeapon[d]];
+            float centerX = detonationX[d] + (weaponData.getWidth() / 2f);
+            float centerY = detonationY[d] + (weaponData.getHeight() / 2f);
+            Entity origin = detonationOrigin[d];
+
+            if (weaponData.hasExplosionId() || weaponData.hasDamageRadius()) {
+                Coordinate center = Coordinate.create(centerX, centerY);
+                entityRepository.explodeAt(center, weaponData, detonationPlayer[d]);
+                if (weaponData.hasDamageRadius()) {
+                    // splash damage
+                    entityRepository.damageWithinRadius(center, weaponData.damageRadius, weaponData.damage, origin);
+                }
+            }
+
+            if (!weaponData.hasDamageRadius()) {
+                // do damage on cell
+                int cellX = (int) detonationX[d] / TILE_SIZE;
+                int cellY = (int) detonationY[d] / TILE_SIZE;
+                damage(occupancyGrid.getUnitAt(cellX, cellY), weaponData.damage, origin);
+                damage(occupancyGrid.getStructureAt(cellX, cellY), weaponData.damage, origin);
+            }
+
+            if (detonationListener[d] != null) {
+                detonationListener[d].detonated(centerX, centerY);
+            }
+        }
+
+        Arrays.fill(detonationPlayer, 0, detonations, null);
+        Arrays.fill(detonationOrigin, 0, detonations, null);
+        Arrays.fill(detonationListener, 0, detonations, null);
+        detonations = 0;
+    }
+
+    private void damage(Entity entity, int damage, Entity origin) {
+        if (entity == null || entity.isDestroyed() || !entity.isDestructible()) return;
+        ((Destructible) entity).takeDamage(damage, origin);
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        targetX[to] = targetX[from];
+        targetY[to] = targetY[from];
+        height[to] = height[from];
+        launchDistance[to] = launchDistance[from];
+        weapon[to] = weapon[from];
+        facing[to] = facing[from];
+        player[to] = player[from];
+        origin[to] = origin[from];
+        listener[to] = listener[from];
+    }
+
+    private int weaponIdOf(EntityData weaponData) {
+        Integer weaponId = weaponIds.get(weaponData);
+        if (weaponId != null) return weaponId;
+
+        weaponId = weaponIds.size();
+        if (weaponId == weapons.length) {
+            weapons = Arrays.copyOf(weapons, weapons.length * 2);
+            spriteSheets = Arrays.copyOf(spriteSheets, spriteSheets.length * 2);
+        }
+        weapons[weaponId] = weaponData;
+        spriteSheets[weaponId] = entityRepository.makeSpriteSheet(weaponData, weaponData.image);
+        weaponIds.put(weaponData, weaponId);
+        return weaponId;
+    }
+
+    private void allocate(int capacity) {
+        x = copy(x, capacity);
+        y = copy(y, capacity);
+        targetX = copy(targetX, capacity);
+        targetY = copy(targetY, capacity);
+        height = copy(height, capacity);
+        launchDistance = copy(launchDistance, capacity);
+        weapon = copy(weapon, capacity);
+        facing = copy(facing, capacity);
+        player = player == null ? new Player[capacity] : Arrays.copyOf(player, capacity);
+        origin = origin == null ? new Entity[capacity] : Arrays.copyOf(origin, capacity);
+        listener = listener == null ? new DetonationListener[capacity] : Arrays.copyOf(listener, capacity);
+
+        // at most every projectile detonates in one update
+        detonationX = copy(detonationX, capacity);
+        detonationY = copy(detonationY, capacity);
+        detonationWeapon = copy(detonationWeapon, capacity);
+        detonationPlayer = detonationPlayer == null ? new Player[capacity] : Arrays.copyOf(detonationPlayer, capacity);
+        detonationOrigin = detonationOrigin == null ? new Entity[capacity] : Arrays.copyOf(detonationOrigin, capacity);
+        detonationListener = detonationListener == null ? new DetonationListener[capacity] : Arrays.copyOf(detonationListener, capacity);
+    }
+
+    private static float[] copy(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static int[] copy(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Notified when a projectile detonates, with the center of the detonation.
+     */
+    public interface DetonationListener {
+        void detonated(float centerX, float centerY);
+    }
+}
@@ -0,0 +1,140 @@
+package com.fundynamic.d2tm.game.entities.scheduling;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Cooperative, per tick, budget for expensive decisions of entities (resource searches, finding a refinery). Cheap
+ * decisions, like picking the next of the surrounding cells to move to, are not budgeted: a unit should never stall
+ * half-way its path. There is one per {@link com.fundynamic.d2tm.game.entities.EntityRepository}.
+ * </p>
+ * <p>
+ * Before doing expensive work an entity asks {@link #tryAcquire(Entity)}. When the budget of this tick is spent the
+ * answer is no, the entity is queued and simply asks again next tick. The work itself stays where it is, in the
+ * state of the unit.
+ * </p>
+ * <h2>Fairness</h2>
+ * <p>
+ * At the start of every tick ({@link #beginTick()}) the budget goes to the queued entities first, in the order they
+ * were refused. Entities that are still waiting for their turn are refused, even when budget is left, so nobody is
+ * served twice while others wait. A granted entity that does not use its turn within the tick loses it. An entity
+ * that no longer needs its turn (it changed what it is doing, or got destroyed) is {@link #cancel(Entity)}ed.
+ * </p>
+ * <h2>Budget</h2>
+ * <p>
+ * The budget is an amount of work units (one per acquire) per tick, optionally capped by time as well. Time is not
+ * deterministic, so only use that cap when the outcome of a tick does not have to be reproducible. With an
+ * {@link #UNLIMITED} budget (the default, ie for tools and tests without a tick loop) everything is allowed right away.
+ * </p>
+ */
+public class WorkScheduler {
+
+    public static final int UNLIMITED = 0;
+
+    // enough to serve a normal battle within a single tick, spreads out mass re-planning
+    public static final int DEFAULT_WORK_UNITS_PER_TICK = 32;
+
+    private int workUnitsPerTick;
+    private long nanosPerTick = UNLIMITED;
+
+    private int remaining;
+    private long tickStartedAt;
+
+    // refused entities, in order of refusal
+    private final ArrayDeque<Entity> waiting = new ArrayDeque<>();
+    private final HashSet<Entity> waitingSet = new HashSet<>();
+
+    // entities that got a turn reserved this tick
+    private final HashSet<Entity> granted = new HashSet<>();
+
+    public WorkScheduler(int workUnitsPerTick) {
+        setWorkUnitsPerTick(workUnitsPerTick);
+    }
+
+    public void setWorkUnitsPerTick(int workUnitsPerTick) {
+        if (workUnitsPerTick < 0) throw new IllegalArgumentException("Work units per tick may not be negative, given " + workUnitsPerTick);
+        this.workUnitsPerTick = workUnitsPerTick;
+        this.remaining = workUnitsPerTick;
+    }
+
+    /**
+     * Caps the work of a tick by time as well, {@link #UNLIMITED} to not cap it.
+     */
+    public void setMillisecondsPerTick(float milliseconds) {
+        if (milliseconds < 0) throw new IllegalArgumentException("Milliseconds per tick may not be negative, given " + milliseconds);
+        this.nanosPerTick = (long) (milliseconds * 1_000_000);
+    }
+
+    /**
+     * @return true when the work of a tick is capped by time, see {@link #setMillisecondsPerTick(float)}
+     */
+    public boolean isTimeCapped() {
+        return nanosPerTick != UNLIMITED;
+    }
+
+    public boolean isUnlimited() {
+        return workUnitsPerTick == UNLIMITED;
+    }
+
+    /**
+     * Starts a new tick: resets the budget and hands it to waiting entities first.
+     */
+    public void beginTick() {
+        granted.clear();
+        remaining = workUnitsPerTick;
+        tickStartedAt = System.nanoTime();
+        if (isUnlimited()) return;
+
+        while (remaining > 0 && !waiting.isEmpty()) {
+            Entity entity = waiting.poll();
+            waitingSet.remove(entity);
+            if (entity.isDestroyed()) continue;
+            granted.add(entity);
+            remaining--;
+        }
+    }
+
+    /**
+     * @return true when <code>requester</code> may do its expensive work now; when false it is queued and should
+     * ask again next tick.
+     */
+    public boolean tryAcquire(Entity requester) {
+        if (isUnlimited()) return true;
+        if (granted.remove(requester)) return true;
+        if (waitingSet.contains(requester)) return false;
+
+        if (remaining > 0 && !isOutOfTime()) {
+            remaining--;
+            return true;
+        }
+
+        waiting.add(requester);
+        waitingSet.add(requester);
+        return false;
+    }
+
+    /**
+     * Forgets about the entity asking for a turn, ie because it no longer needs to do the work it asked for.
+     */
+    public void cancel(Entity entity) {
+        granted.remove(entity);
+        if (waitingSet.remove(entity)) waiting.remove(entity);
+    }
+
+    public boolean isWaiting(Entity entity) {
+        return waitingSet.contains(entity) || granted.contains(entity);
+    }
+
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    private boolean isOutOfTime() {
+        if (nanosPerTick == UNLIMITED) return false;
+        return System.nanoTime() - tickStartedAt > nanosPerTick;
+    }
+}
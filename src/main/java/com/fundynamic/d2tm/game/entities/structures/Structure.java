@@ -7,12 +7,15 @@ import com.fundynamic.d2tm.game.entities.entitybuilders.AbstractBuildableEntity;
 import com.fundynamic.d2tm.game.entities.entitybuilders.EntityBuilderType;
 import com.fundynamic.d2tm.game.entities.entitybuilders.SingleEntityBuilder;
 import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.map.CellOffsets;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.RenderQueue;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Vector2D;
 import com.fundynamic.d2tm.utils.Colors;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SpriteSheet;
@@ -21,10 +24,11 @@ import org.newdawn.slick.geom.ShapeRenderer;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 public class Structure extends Entity implements Selectable, Destructible, Focusable, EntityBuilder {
 
+    private static final Logger LOG = Log.getLogger("structures");
+
     private EntityBuilder entityBuilder;
 
     // Behaviors
@@ -79,7 +83,9 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
     public Image getSprite() {
         int verticalCount = spritesheet.getVerticalCount();
         if (animationFrame > verticalCount) {
-            log("I intent to animate frame " + animationFrame + " but the max frames is " + verticalCount + " - so I fall back to sprite 0.");
+            if (isLogEnabled()) {
+                log("I intent to animate frame {} but the max frames is {} - so I fall back to sprite 0.", animationFrame, verticalCount);
+            }
             return spritesheet.getSprite(0, 1);
         }
         return spritesheet.getSprite(0, animationFrame);
@@ -87,7 +93,7 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
 
     public void update(float deltaInSeconds) {
         if (this.isDestroyed()) {
-            System.out.println("I (" + this.toString() + ") am dead, so I won't update anymore.");
+            log("I am dead, so I won't update anymore.");
             return;
         }
         float animationSpeed = 0.5f;
@@ -148,9 +154,14 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
     }
 
     public void spawnEntityAroundStructure(EntityData entityData) {
-        Set<MapCoordinate> allSurroundingCellsAsCoordinates = getAllSurroundingCellsAsMapCoordinates();
+        MapCoordinate topLeft = coordinate.toMapCoordinate();
+        CellOffsets surroundingCells = this.entityData.getSurroundingCells();
         Unit firstEntityThatBlocksExit = null;
-        for (MapCoordinate potentiallySpawnableCoordinate : allSurroundingCellsAsCoordinates) {
+        for (int i = 0; i < surroundingCells.size(); i++) {
+            MapCoordinate potentiallySpawnableCoordinate = internMapCoordinate(
+                    topLeft.getXAsInt() + surroundingCells.getX(i),
+                    topLeft.getYAsInt() + surroundingCells.getY(i)
+            );
             EntityRepository.PassableResult passableResult = this.entityRepository.isPassableWithinMapBoundaries(this, potentiallySpawnableCoordinate);
 
             if (passableResult.isPassable()) {
@@ -165,10 +176,8 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
                 break;
             } else {
                 if (firstEntityThatBlocksExit == null) {
-                    System.out.println("Found entities set that blocks units:");
-                    System.out.println(passableResult.getEntities());
-                    System.out.println("END");
-                    firstEntityThatBlocksExit = (Unit) passableResult.getEntities().getFirst(Predicate.ofType(EntityType.UNIT));
+                    log("Found entities set that blocks units: {}", passableResult.getEntities());
+                    firstEntityThatBlocksExit = (Unit) passableResult.getBlockingUnit();
                 }
             }
         }
@@ -181,13 +190,11 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
             // THIS IS JUST FOR FUN
             if (firstEntityThatBlocksExit != null) {
                 // kill it, so we can try again next frame
-                System.out.println("------------------" + System.currentTimeMillis());
-                System.out.println("ERROR: Unable to spawn unit next to structure - but found a unit that was blocking it and we killed it to make room!");
-                System.out.println("------------------");
+                LOG.error("Unable to spawn unit next to structure {} - but found a unit that was blocking it and we killed it to make room!", this);
                 firstEntityThatBlocksExit.die();
             } else {
                 // For now, forget it :/
-                System.out.println("ERROR: Unable to spawn unit next to structure [" + this + "]");
+                LOG.error("Unable to spawn unit next to structure [{}]", this);
                 this.entityIsDelivered(this);
             }
         }
@@ -214,10 +221,12 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
 
     public void select() {
         fadingSelection.select();
+        player.getSelectionIndex().selected(this);
     }
 
     public void deselect() {
         fadingSelection.deselect();
+        player.getSelectionIndex().deselected(this);
     }
 
     @Override
@@ -246,6 +255,9 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
 
     @Override
     public void takeDamage(int hitPoints, Entity origin) {
+        if (origin != null) {
+            entityRepository.getTargetAcquisition().reportThreat(player, origin);
+        }
         hitPointBasedDestructibility.reduce(hitPoints);
         player.entityTookDamage(this);
         if (hitPointBasedDestructibility.isZero()) {
@@ -349,4 +361,9 @@ public class Structure extends Entity implements Selectable, Destructible, Focus
     public int getPowerProduction() {
         return entityData.getPowerProductionBasedOnHitpoints(getHitPoints());
     }
+
+    @Override
+    protected Logger getLogger() {
+        return LOG;
+    }
 }
@@ -1,17 +1,12 @@
 package com.fundynamic.d2tm.game.entities.superpowers;
 
 import com.fundynamic.d2tm.game.behaviors.Destructible;
+import com.fundynamic.d2tm.game.entities.damage.AreaDamage;
 import com.fundynamic.d2tm.game.entities.*;
-import com.fundynamic.d2tm.game.entities.projectiles.Projectile;
-import com.fundynamic.d2tm.game.map.Trigonometry;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
-import com.fundynamic.d2tm.math.Random;
 import org.newdawn.slick.Graphics;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import static com.fundynamic.d2tm.game.entities.superpowers.SuperPower.SuperPowerState.*;
 import static com.fundynamic.d2tm.game.map.Cell.HALF_TILE;
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
@@ -37,6 +32,8 @@ public class SuperPower extends Entity implements Destructible {
 
     public static float RingOfFireTotalTimeDuration = 1f; // 1 second explosion
 
+    private static final int RING_STEP_IN_DEGREES = 6;
+
     public SuperPower(Coordinate coordinate, EntityData entityData, Player player, EntityRepository entityRepository) {
         super(coordinate, null, entityData, player, entityRepository);
         state = INITIAL;
@@ -48,9 +45,7 @@ public class SuperPower extends Entity implements Destructible {
     public void update(float deltaInSeconds) {
         switch (state) {
             case INITIAL:
-                Projectile projectile = entityRepository.placeProjectile(fireStarterCoordinate, entityData.weaponId, player);
-                projectile.onEvent(EventType.ENTITY_DESTROYED, this, s -> s.onProjectileDestroyed(projectile));
-                projectile.moveTo(target);
+                entityRepository.fireProjectile(fireStarterCoordinate, target, entityData.weaponId, player, this::onProjectileDetonated);
                 state = LAUNCHED;
                 break;
             case LAUNCHED:
@@ -94,90 +89,37 @@ public class SuperPower extends Entity implements Destructible {
 
     public void damageInCircularField(double centerX, double centerY, float maxDistance) {
         float damageAtCenter = 65; // the closer to the center the more damage is dealt, the further away, the less damage is received
-        Coordinate centerCoordinate = Coordinate.create((float) centerX, (float) centerY);
-        EntitiesSet entities = entityRepository.findDestructibleEntitiesWithinDistance(centerCoordinate, maxDistance);
-
-        entities.forEach(entity -> {
-            if (!entity.isDestructible()) return;
-            for (Coordinate entityCoordinate : entity.getAllCellsAsCoordinates()) {
-                float actualDistance = centerCoordinate.distance(entityCoordinate);
-                int damageHitpoints = getDamageHitpoints(damageAtCenter, maxDistance, actualDistance);
-                ((Destructible) entity).takeDamage(damageHitpoints, null);
-            }
-        });
+        // super powers always measured from the top-left of each cell: shift the center by half a tile, so measuring
+        // from cell centers (as AreaDamage does) gives the same distances and thus the same damage as before
+        Coordinate centerCoordinate = Coordinate.create((float) centerX + HALF_TILE, (float) centerY + HALF_TILE);
+        entityRepository.damageWithinRadius(centerCoordinate, maxDistance, damageAtCenter, null);
     }
 
     public int getDamageHitpoints(float damageAtCenter, float maxDistance, float actualDistance) {
-        float distanceNormalised = Math.max((maxDistance - actualDistance)/maxDistance, 0F);
-        return (int)(damageAtCenter * distanceNormalised);
-    }
-
-    public Set<Coordinate> determineCoordinatesToDamage(double centerX, double centerY, float maxDistanceInPixels) {
-        Set<Coordinate> coordinatesToDamage = new HashSet<>();
-
-        int steps = Math.round(maxDistanceInPixels / HALF_TILE);
-
-        for (int rangeStep = 0; rangeStep < steps; rangeStep++) {
-            for (int degrees=0; degrees < 360; degrees += 3) {
-
-                // calculate as if we would draw a circle and remember the coordinates
-                float rangeInPixels = (rangeStep * TILE_SIZE);
-                double circleX = (centerX + (Trigonometry.cos[degrees] * rangeInPixels));
-                double circleY = (centerY + (Trigonometry.sin[degrees] * rangeInPixels));
-
-                // convert back the pixel coordinates back to a cell
-                Coordinate coordinate = Coordinate.create(
-                        (int) Math.ceil(circleX), (int) Math.ceil(circleY)
-                ).toMapCoordinate().toCoordinate(); // snap it, so we can filter out a lot of duplicates
-
-                coordinatesToDamage.add(coordinate);
-            }
-        }
-
-        return coordinatesToDamage;
+        return AreaDamage.falloff(damageAtCenter, maxDistance, actualDistance);
     }
 
     public void createRingOfFire(double centerX, double centerY, float rangeInPixels) {
-
-        for (int degrees=0; degrees < 360; degrees += 6) {
-            // calculate as if we would draw a circle and remember the coordinates
-            double circleX = (centerX + (Trigonometry.cos[degrees] * rangeInPixels));
-            double circleY = (centerY + (Trigonometry.sin[degrees] * rangeInPixels));
-
-            // TODO: Use some sound manager that makes the sounds, as opposed to the camera and also right volume, etc.
-            // GH: https://github.com/Fundynamic/dune2themaker4j/issues/157
-            // TODO: Select random sound from 'sound group'
-            // GH: https://github.com/Fundynamic/dune2themaker4j/issues/158
-
-            // play sound if it has one in a random manner so it won't blow up your speakers by creating a gazillion
-            // explosion particles and thus sounds
-            if (entityData.hasExplosionId()) {
-                if (Random.getRandomBetween(0, 100) < 4) {
-                    EntityData explosion = entityRepository.getEntityData(EntityType.PARTICLE, entityData.explosionId);
-                    if (explosion.hasSound()) {
-                        explosion.soundData.sound.play();
-                    }
-                }
-                entityRepository.placeExplosionWithCenterAt(Coordinate.create((int) Math.ceil(circleX), (int) Math.ceil(circleY)), player, entityData.explosionId);
-            }
+        if (!entityData.hasExplosionId()) return;
+
+        // TODO: Select random sound from 'sound group'
+        // GH: https://github.com/Fundynamic/dune2themaker4j/issues/158
+        EntityData explosion = entityRepository.getEntityData(EntityType.PARTICLE, entityData.explosionId);
+        if (explosion.hasSound()) {
+            // one sound for the whole ring
+            entityRepository.getSoundManager().play(explosion.soundData, Coordinate.create((float) centerX, (float) centerY));
         }
+        entityRepository.getParticles().emitRing((float) centerX, (float) centerY, rangeInPixels, RING_STEP_IN_DEGREES, explosion, player, 100, random);
     }
 
     public void createRingOfSmoke(double centerX, double centerY, float rangeInPixels) {
-        for (int degrees=0; degrees < 360; degrees += 6) {
-            // calculate as if we would draw a circle and remember the coordinates
-            double circleX = (centerX + (Trigonometry.cos[degrees] * rangeInPixels));
-            double circleY = (centerY + (Trigonometry.sin[degrees] * rangeInPixels));
-            if (Random.getRandomBetween(0, 100) < 25) {
-                entityRepository.placeExplosionWithCenterAt(Coordinate.create((int) Math.ceil(circleX), (int) Math.ceil(circleY)), player, "SMOKE");
-            }
-        }
+        EntityData smoke = entityRepository.getEntityData(EntityType.PARTICLE, "SMOKE");
+        entityRepository.getParticles().emitRing((float) centerX, (float) centerY, rangeInPixels, RING_STEP_IN_DEGREES, smoke, player, 25, random);
     }
 
-    public Void onProjectileDestroyed(Projectile projectile) {
-        detonatedAt = projectile.getCenteredCoordinate();
+    public void onProjectileDetonated(float centerX, float centerY) {
+        detonatedAt = Coordinate.create(centerX, centerY);
         state = EXPLODING;
-        return null;
     }
 
     @Override
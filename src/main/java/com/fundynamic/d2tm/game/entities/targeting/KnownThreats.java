@@ -0,0 +1,51 @@
+package com.fundynamic.d2tm.game.entities.targeting;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enemies a {@link com.fundynamic.d2tm.game.entities.Player} knows about, shared by all of its units. Enemies are
+ * reported when spotted or when they deal damage. The list is bounded, when full the oldest threat is forgotten.
+ */
+public class KnownThreats {
+
+    public static final int MAX_THREATS = 32;
+
+    private final List<Entity> threats = new ArrayList<>();
+
+    public void report(Entity threat) {
+        if (threat == null || threat.isDestroyed()) return;
+        if (threats.contains(threat)) return;
+        if (threats.size() >= MAX_THREATS) {
+            threats.remove(0);
+        }
+        threats.add(threat);
+    }
+
+    /**
+     * @return the known threat closest to <code>entity</code>, or null when there is none
+     */
+    public Entity findNearestTo(Entity entity) {
+        Entity nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int i = threats.size() - 1; i >= 0; i--) {
+            Entity threat = threats.get(i);
+            if (threat.isDestroyed()) {
+                threats.remove(i);
+                continue;
+            }
+            float distance = threat.distance(entity);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = threat;
+            }
+        }
+        return nearest;
+    }
+
+    public int size() {
+        return threats.size();
+    }
+}
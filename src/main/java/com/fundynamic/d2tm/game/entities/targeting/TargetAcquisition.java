@@ -0,0 +1,189 @@
+package com.fundynamic.d2tm.game.entities.targeting;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.map.OccupancyGrid;
+import com.fundynamic.d2tm.math.MapCoordinate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Lets idle (guarding) units with a weapon look for enemies to attack. There is one per
+ * {@link com.fundynamic.d2tm.game.entities.EntityRepository}.
+ * </p>
+ * <h2>Staggering</h2>
+ * <p>
+ * Units are spread over {@link #SLOTS} slots, covering {@link Unit#GUARD_TIMER_INTERVAL} seconds. Every update only
+ * the units in the slots that passed are scanned, so every unit scans once per interval and the work is spread evenly
+ * over the ticks.
+ * </p>
+ * <h2>Scanning</h2>
+ * <p>
+ * A scan only visits the cells within <code>sight</code> (or <code>attackRange</code> when that is further) of the
+ * unit, and looks up who is there in the {@link OccupancyGrid}. So the cost does not depend on the size of the map or the
+ * amount of entities on it.
+ * </p>
+ * <p>
+ * CPU units with no enemy in sight fall back to the {@link KnownThreats} of their player, instead of looking around
+ * the whole map.
+ * </p>
+ */
+public class TargetAcquisition {
+
+    public static final int SLOTS_PER_SECOND = 10;
+    public static final int SLOTS = Unit.GUARD_TIMER_INTERVAL * SLOTS_PER_SECOND;
+
+    private static final float SLOT_DURATION = 1F / SLOTS_PER_SECOND;
+
+    private final Map map;
+
+    private final List<List<Unit>> slots = new ArrayList<>(SLOTS);
+    private final HashMap<Player, KnownThreats> knownThreats = new HashMap<>();
+
+    private int currentSlot = 0;
+    private float timeInSlot = 0F;
+
+    public TargetAcquisition(Map map) {
+        this.map = map;
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Units without a weapon are ignored.
+     */
+    public void add(Unit unit) {
+        if (!unit.getEntityData().hasWeaponId()) return;
+        List<Unit> slot = slotFor(unit);
+        if (!slot.contains(unit)) slot.add(unit);
+    }
+
+    public void remove(Unit unit) {
+        slotFor(unit).remove(unit);
+    }
+
+    public void update(float deltaInSeconds) {
+        timeInSlot += deltaInSeconds;
+        int slotsToScan = 0;
+        while (timeInSlot >= SLOT_DURATION) {
+            timeInSlot -= SLOT_DURATION;
+            slotsToScan++;
+        }
+
+        // after a very long tick scan every unit once, not more
+        slotsToScan = Math.min(slotsToScan, SLOTS);
+        for (int i = 0; i < slotsToScan; i++) {
+            scan(slots.get(currentSlot));
+            currentSlot = (currentSlot + 1) % SLOTS;
+        }
+    }
+
+    public KnownThreats getKnownThreats(Player player) {
+        KnownThreats threats = knownThreats.get(player);
+        if (threats == null) {
+            threats = new KnownThreats();
+            knownThreats.put(player, threats);
+        }
+        return threats;
+    }
+
+    /**
+     * Tell the player about an enemy (ie, one that spotted or damaged its entities). Only CPU players keep track of
+     * threats.
+     */
+    public void reportThreat(Player player, Entity threat) {
+        if (player == null || !player.isCPU()) return;
+        if (threat == null || threat.getPlayer() == player) return;
+        getKnownThreats(player).report(threat);
+    }
+
+    /**
+     * Finds the nearest enemy of <code>unit</code> within its sight (or attack range, when that is further).
+     *
+     * @return enemy or null when there is none
+     */
+    public Entity findNearestEnemy(Unit unit) {
+        float range = Math.max(unit.getEntityData().sight * TILE_SIZE, unit.getEntityData().attackRange);
+        int rangeInCells = (int) Math.ceil(range / TILE_SIZE);
+
+        MapCoordinate center = unit.getCenteredCoordinate().toMapCoordinate();
+        int startX = Math.max(1, center.getXAsInt() - rangeInCells);
+        int startY = Math.max(1, center.getYAsInt() - rangeInCells);
+        int endX = Math.min(map.getWidth(), center.getXAsInt() + rangeInCells);
+        int endY = Math.min(map.getHeight(), center.getYAsInt() + rangeInCells);
+
+        OccupancyGrid occupancyGrid = map.getOccupancyGrid();
+        Entity nearest = null;
+        float nearestDistance = range;
+        for (int y = startY; y <= endY; y++) {
+            for (int x = startX; x <= endX; x++) {
+                Entity unitThere = occupancyGrid.getUnitAt(x, y);
+                if (isEnemyOf(unit, unitThere)) {
+                    float distance = unit.distance(unitThere);
+                    if (distance <= nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = unitThere;
+                    }
+                }
+                Entity structureThere = occupancyGrid.getStructureAt(x, y);
+                if (isEnemyOf(unit, structureThere)) {
+                    float distance = unit.distance(structureThere);
+                    if (distance <= nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = structureThere;
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private void scan(List<Unit> units) {
+        for (int i = units.size() - 1; i >= 0; i--) {
+            Unit unit = units.get(i);
+            if (unit.isDestroyed()) {
+                units.remove(i);
+                continue;
+            }
+            if (!isGuarding(unit)) continue;
+
+            Entity enemy = findNearestEnemy(unit);
+            if (enemy != null) {
+                reportThreat(unit.getPlayer(), enemy);
+                unit.attack(enemy);
+                continue;
+            }
+
+            if (unit.getPlayer().isCPU()) {
+                Entity threat = getKnownThreats(unit.getPlayer()).findNearestTo(unit);
+                if (threat != null) {
+                    unit.attack(threat);
+                }
+            }
+        }
+    }
+
+    private boolean isGuarding(Unit unit) {
+        return !unit.isDying() && !unit.isWithinOtherEntity() && !unit.shouldMove() && !unit.hasEnemyToAttack();
+    }
+
+    private boolean isEnemyOf(Unit unit, Entity other) {
+        if (other == null) return false;
+        if (other.getPlayer() == null || other.getPlayer() == unit.getPlayer()) return false;
+        if (!other.isDestructible() || other.isDestroyed()) return false;
+        return !other.isWithinOtherEntity();
+    }
+
+    private List<Unit> slotFor(Unit unit) {
+        return slots.get(unit.getId() % SLOTS);
+    }
+}
@@ -0,0 +1,133 @@
+package com.fundynamic.d2tm.game.entities.units;
+
+import com.fundynamic.d2tm.math.Vector2D;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Lookup table from a direction (dx, dy in screen coordinates, so y goes down) to a facing, for a given amount of
+ * facings (8 for Dune 2 units, 16 or 32 for other sprites). Facing 0 is right, counting counter-clockwise; like the
+ * columns of a unit sprite sheet and {@link UnitFacings}.
+ * </p>
+ * <h2>How it works</h2>
+ * <p>
+ * A direction is scaled so that its longest axis is {@link #RESOLUTION}, which puts it on the outline of a square
+ * grid around the origin. For every point on that grid the facing is calculated (with trigonometry) once, when the
+ * table is created. Looking up a facing is then a division, two roundings and an array read.
+ * </p>
+ * <p>
+ * Scaling to the grid rounds, so close to the border between two facings the table may be one facing off. That is
+ * corrected by checking on which side of the borders (kept as unit vectors) the direction lies: two multiplications
+ * each. So the result is the same as calculating the angle, also for directions just beside a border.
+ * </p>
+ * <p>
+ * There is one (shared) table per amount of facings, see {@link #forFacings(int)}.
+ * </p>
+ */
+public class FacingTable {
+
+    public static final int RESOLUTION = 64; // half the width of the grid, precise to well under a degree
+    private static final int GRID_WIDTH = (RESOLUTION * 2) + 1;
+
+    private static final int MAX_CACHED_FACINGS = 64;
+    private static final FacingTable[] tables = new FacingTable[MAX_CACHED_FACINGS + 1];
+
+    private final int facings;
+    private final byte[] facingsByDirection;
+
+    // border between facing - 1 and facing, as unit vector (y goes up)
+    private final double[] borderX;
+    private final double[] borderY;
+
+    private FacingTable(int facings) {
+        this.facings = facings;
+        this.facingsByDirection = new byte[GRID_WIDTH * GRID_WIDTH];
+        this.borderX = new double[facings];
+        this.borderY = new double[facings];
+
+        float chop = 360F / facings;
+        for (int facing = 0; facing < facings; facing++) {
+            double border = Math.toRadians((facing * chop) - (chop / 2));
+            borderX[facing] = Math.cos(border);
+            borderY[facing] = Math.sin(border);
+        }
+
+        for (int y = -RESOLUTION; y <= RESOLUTION; y++) {
+            for (int x = -RESOLUTION; x <= RESOLUTION; x++) {
+                // screen y goes down, angles go up
+                double angle = Math.toDegrees(Math.atan2(-y, x));
+                if (angle < 0) angle += 360;
+                int facing = (int) ((angle + (chop / 2)) / chop) % facings;
+                facingsByDirection[toIndex(x, y)] = (byte) facing;
+            }
+        }
+    }
+
+    /**
+     * @param facings amount of facings, between 1 and {@link #MAX_CACHED_FACINGS}
+     * @return the (shared) table for this amount of facings
+     */
+    public static FacingTable forFacings(int facings) {
+        if (facings < 1 || facings > MAX_CACHED_FACINGS) {
+            throw new IllegalArgumentException("Facings must be between 1 and " + MAX_CACHED_FACINGS + ", given " + facings);
+        }
+        FacingTable table = tables[facings];
+        if (table == null) {
+            table = new FacingTable(facings);
+            tables[facings] = table; // racing threads create an equal table, either one is fine
+        }
+        return table;
+    }
+
+    public int getFacings() {
+        return facings;
+    }
+
+    /**
+     * @return facing when looking from <code>from</code> to <code>to</code>, 0 (right) when they are the same
+     */
+    public int facingOf(Vector2D from, Vector2D to) {
+        return facingOf(to.getX() - from.getX(), to.getY() - from.getY());
+    }
+
+    /**
+     * @return facing of direction dx, dy (screen coordinates), 0 (right) for no direction
+     */
+    public int facingOf(float dx, float dy) {
+        float longestAxis = Math.max(Math.abs(dx), Math.abs(dy));
+        if (longestAxis == 0 || facings == 1) return 0;
+        float scale = RESOLUTION / longestAxis;
+        int facing = facingsByDirection[toIndex(Math.round(dx * scale), Math.round(dy * scale))];
+
+        // correct when rounding put us just over a border
+        float up = -dy;
+        if (sideOfBorder(facing, dx, up) < 0) return facing == 0 ? facings - 1 : facing - 1;
+        int next = facing + 1 == facings ? 0 : facing + 1;
+        if (sideOfBorder(next, dx, up) >= 0) return next;
+        return facing;
+    }
+
+    /**
+     * @return positive when x,y lies counter-clockwise of the lower border of facing, negative when clockwise
+     */
+    private double sideOfBorder(int facing, float x, float y) {
+        return (borderX[facing] * y) - (borderY[facing] * x);
+    }
+
+    private static int toIndex(int x, int y) {
+        return (x + RESOLUTION) + ((y + RESOLUTION) * GRID_WIDTH);
+    }
+
+    /**
+     * Which way to turn to get from <code>current</code> to <code>desired</code> facing the shortest way, with
+     * integer math only.
+     *
+     * @return 1 to turn counter-clockwise (increasing facing), -1 for clockwise, 0 when already facing desired. When
+     * both ways are as long, it turns counter-clockwise.
+     */
+    public static int turnDirection(int current, int desired, int facings) {
+        int counterClockwiseSteps = Math.floorMod(desired - current, facings);
+        if (counterClockwiseSteps == 0) return 0;
+        return counterClockwiseSteps <= facings - counterClockwiseSteps ? 1 : -1;
+    }
+}
@@ -3,6 +3,7 @@ package com.fundynamic.d2tm.game.entities.units;
 
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.RenderQueue;
 import com.fundynamic.d2tm.game.types.EntityData;
+import com.fundynamic.d2tm.math.Random;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
@@ -13,7 +14,7 @@ import org.newdawn.slick.SlickException;
 public class NullRenderQueueEnrichableWithFacingLogic extends RenderQueueEnrichableWithFacingLogic {
 
     public NullRenderQueueEnrichableWithFacingLogic(EntityData entityData) throws SlickException {
-        super(new Image(32, 32), entityData, 1F); // create dummy image
+        super(new Image(32, 32), entityData, 1F, new Random(Random.DEFAULT_SEED)); // create dummy image
     }
 
     @Override
@@ -26,6 +26,8 @@ public class RenderQueueEnrichableWithFacingLogic extends SpriteSheet implements
     private int maxFrames = 0;
     private int maxFramesWithoutFirst = 0;
 
+    private final FacingTable facingTable; // for the amount of facings (columns) of this sprite sheet
+
     private float currentFacing;
     private int desiredFacing;
 
@@ -39,7 +41,7 @@ public class RenderQueueEnrichableWithFacingLogic extends SpriteSheet implements
     // used when image to draw is bigger or smaller than the TILE_SIZE, so the image always is drawn centered.
     private Vector2D drawCorrectionVec;
 
-    public RenderQueueEnrichableWithFacingLogic(Image image, EntityData entityData, float turnSpeed) {
+    public RenderQueueEnrichableWithFacingLogic(Image image, EntityData entityData, float turnSpeed, Random random) {
         super(image, entityData.getWidth(), entityData.getHeight());
         this.turnSpeed = turnSpeed;
         this.animationSpeed = entityData.animationSpeed;
@@ -50,12 +52,13 @@ public class RenderQueueEnrichableWithFacingLogic extends SpriteSheet implements
         );
 
         int possibleFacings = getHorizontalCount();
+        this.facingTable = FacingTable.forFacings(possibleFacings > 0 ? possibleFacings : UnitFacings.FACINGS);
         this.maxFrames = getVerticalCount();
         this.maxFramesWithoutFirst = maxFrames - 1;
         this.animating = false;
 
         this.frame = 0; // Random.getRandomBetween(0, maxFrames)
-        this.currentFacing = Random.getRandomBetween(0, possibleFacings);
+        this.currentFacing = random.getRandomBetween(0, possibleFacings);
 
         this.desiredFacing = (int) currentFacing;
     }
@@ -96,7 +99,7 @@ public class RenderQueueEnrichableWithFacingLogic extends SpriteSheet implements
     public void update(float deltaInSeconds) {
         if (!isFacingDesiredFacing()) {
             float relativeSpeed = EntityData.getRelativeSpeed(turnSpeed, deltaInSeconds);
-            currentFacing = UnitFacings.turnTo(currentFacing, desiredFacing, relativeSpeed);
+            currentFacing = UnitFacings.turnTo(currentFacing, desiredFacing, relativeSpeed, facingTable.getFacings());
         }
         if (animating) {
             updateAnimation(deltaInSeconds);
@@ -108,6 +111,15 @@ public class RenderQueueEnrichableWithFacingLogic extends SpriteSheet implements
         this.desiredFacing = desiredFacing;
     }
 
+    // set the desire to face from one coordinate to another, in as many facings as this sprite sheet has
+    public void desireToFaceTowards(Vector2D from, Vector2D to) {
+        this.desiredFacing = facingTable.facingOf(from, to);
+    }
+
+    public int getFacings() {
+        return facingTable.getFacings();
+    }
+
     // set facing, desired == facing == given value
     public void faceTowards(int desiredFacing) {
         this.desiredFacing = desiredFacing;
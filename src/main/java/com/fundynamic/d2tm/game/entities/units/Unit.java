@@ -2,22 +2,20 @@ package com.fundynamic.d2tm.game.entities.units;
 
 import com.fundynamic.d2tm.game.behaviors.*;
 import com.fundynamic.d2tm.game.entities.*;
-import com.fundynamic.d2tm.game.entities.predicates.PredicateBuilder;
-import com.fundynamic.d2tm.game.entities.projectiles.Projectile;
 import com.fundynamic.d2tm.game.entities.units.states.*;
 import com.fundynamic.d2tm.game.map.Cell;
+import com.fundynamic.d2tm.game.map.CellOffsets;
 import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.RenderQueue;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
-import com.fundynamic.d2tm.math.Random;
+import com.fundynamic.d2tm.math.MutableVector2D;
 import com.fundynamic.d2tm.math.Vector2D;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
 import org.newdawn.slick.Graphics;
 
-import java.util.Set;
-import java.util.stream.Collectors;
-
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
 
 /**
@@ -25,10 +23,14 @@ import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
  */
 public class Unit extends Entity implements Selectable, Moveable, Destructible, Destroyer, Focusable, Harvester {
 
+    // seconds between two looks around for enemies when idle, see TargetAcquisition
     public static final int GUARD_TIMER_INTERVAL = 5;
 
+    private static final Logger LOG = Log.getLogger("units");
+
     // state
     private UnitState state;
+    private final UnitStateContext stateContext = new UnitStateContext();
 
     // Behaviors
     private FadingSelection fadingSelection;
@@ -48,13 +50,10 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     private final Map map;
 
     // Drawing 'movement' from cell to cell
-    private Vector2D offset;
+    private final MutableVector2D offset = new MutableVector2D(); // changed every tick while moving
 
     private Entity entityToAttack;
 
-    // give units a bit more intelligence
-    private float guardTimer = 0;
-
     public Unit(Map map, Coordinate coordinate, RenderQueueEnrichableWithFacingLogic unitSpriteSheet, RenderQueueEnrichableWithFacingLogic barrelSpriteSheet, FadingSelection fadingSelection, HitPointBasedDestructibility hitPointBasedDestructibility, Player player, EntityData entityData, EntityRepository entityRepository) {
         super(coordinate, unitSpriteSheet, entityData, player, entityRepository);
         this.map = map;
@@ -66,9 +65,7 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         this.target = coordinate;
         this.lastSeenSpiceAt = coordinate;
         this.nextTargetToMoveTo = coordinate;
-        this.offset = Vector2D.zero();
-        this.guardTimer = Random.getRandomBetween(0, GUARD_TIMER_INTERVAL);
-        this.state = new IdleState(this, entityRepository, map);
+        this.state = IdleState.instance;
 
         if (entityData.isHarvester) {
             this.harvested = new HarvestedCentered(entityData.harvestCapacity, entityData.getWidth(), entityData.getHeight());
@@ -101,70 +98,12 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
 
     @Override
     public void update(float deltaInSeconds) {
-        state.update(deltaInSeconds);
+        state.update(this, stateContext, deltaInSeconds);
 
         if (this.isDestroyed() || isDying()) {
             return;
         }
 
-//        if (!shouldMove() && !shouldAttack()) {
-//            guardTimer += deltaInSeconds;
-//            if (guardTimer > GUARD_TIMER_INTERVAL) {
-//                guardTimer = 0F;
-//
-//                // scan environment within range for enemies
-//                EntitiesSet entities = entityRepository.findEntitiesOfTypeAtVectorWithinDistance(getCenteredCoordinate(), entityData.sight * TILE_SIZE, EntityType.UNIT, EntityType.STRUCTURE);
-//
-//                EntitiesSet enemyEntities = entities.filter(new NotPredicate(BelongsToPlayer.instance(player)));
-//
-//                if (enemyEntities.isEmpty()) {
-//                    if (this.getPlayer().isCPU() {
-//                        //TODO: enemy units scan entire map... (shouldnt do that ;-))
-//                        float distance = map.getHeight() * map.getWidth() * TILE_SIZE;
-//                        Entity enemyToAttack = null;
-//                        for (Entity entity : entities) {
-//                            if (!(entity instanceof Unit)) continue;
-//                            Unit unit = (Unit) entity;
-//                            if (!unit.hasEnemyToAttack()) continue;
-//
-//                            float distanceToEnemyOfFriend = unit.getEntityToAttack().distance(this);
-//                            if (distanceToEnemyOfFriend < distance) {
-//                                distance = distanceToEnemyOfFriend;
-//                                enemyToAttack = unit.getEntityToAttack();
-//                            }
-//                        }
-//
-//                        if (enemyToAttack != null) {
-//                            attack(enemyToAttack);
-//                        } else {
-//                            EntitiesSet allUnits = entityRepository.allUnits();
-//                            enemyEntities = allUnits.filter(new NotPredicate(BelongsToPlayer.instance((player))));
-//
-//                            distance = 131072; // 64X64X32
-//                            enemyToAttack = null;
-//                            for (Entity entity : enemyEntities) {
-//                                if (!(entity instanceof Unit)) continue;
-//                                Unit unit = (Unit) entity;
-//
-//                                float distanceToEnemyUnit = unit.distance(this);
-//                                if (distanceToEnemyUnit < distance) {
-//                                    distance = distanceToEnemyUnit;
-//                                    enemyToAttack = unit;
-//                                }
-//                            }
-//
-//                            if (enemyToAttack != null) {
-//                                attack(enemyToAttack);
-//                            }
-//                        }
-//                    } // HACK HACK: CPU thing here
-//
-//                } else {
-//                    attack(enemyEntities.getFirst());
-//                }
-//            }
-//        }
-
         fadingSelection.update(deltaInSeconds);
     }
 
@@ -221,8 +160,8 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public void updateDesiredFacingsToEntity(Entity entity) {
-        bodyFacing.desireToFaceTo(UnitFacings.getFacingInt(coordinate, entity.getCoordinate()));
-        cannonFacing.desireToFaceTo(UnitFacings.getFacingInt(coordinate, entity.getCoordinate()));
+        bodyFacing.desireToFaceTowards(coordinate, entity.getCoordinate());
+        cannonFacing.desireToFaceTowards(coordinate, entity.getCoordinate());
     }
 
     /**
@@ -233,7 +172,7 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     public boolean isCellPassableForMe(MapCoordinate intendedMapCoordinatesToMoveTo) {
         EntityRepository.PassableResult passableResult = entityRepository.isPassableWithinMapBoundaries(this, intendedMapCoordinatesToMoveTo);
 
-        if (!UnitMoveIntents.instance.isVectorClaimableBy(intendedMapCoordinatesToMoveTo, this))
+        if (!map.getOccupancyGrid().isClaimableBy(intendedMapCoordinatesToMoveTo, this))
             return false;
 
         if (passableResult.hasOne()) {
@@ -249,19 +188,10 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public MapCoordinate getNextIntendedCellToMoveToTarget() {
-        Set<MapCoordinate> allSurroundingCellsAsCoordinates = getAllSurroundingCellsAsMapCoordinates();
-
-        // filter out all map coordinates that are valid within map boundaries
-        allSurroundingCellsAsCoordinates =
-                allSurroundingCellsAsCoordinates.
-                        stream().
-                        filter(mapCoordinate -> map.isWithinPlayableMapBoundaries(mapCoordinate)).
-                        collect(Collectors.toSet());
-
         float distanceToTarget = distanceTo(target);
-        log("Distance to target is " + distanceToTarget);
+        if (isLogEnabled()) log("Distance to target is {}", distanceToTarget);
 
-        MapCoordinate bestCoordinate = findClosestCoordinateTowards(allSurroundingCellsAsCoordinates, target, distanceToTarget);
+        MapCoordinate bestCoordinate = findClosestSurroundingCellTowards(target, distanceToTarget);
 
         if (bestCoordinate == null) {
             log("Unable to determine best next coordinate to move to.");
@@ -271,38 +201,54 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
             // TODO: even better than previous todo, implement path finding...
             int someArbitraryDistance = TILE_SIZE + 2;
             if (distanceToTarget <= someArbitraryDistance) {
-                log("Distance to target is < " + someArbitraryDistance + " so we keep at our position.");
+                if (isLogEnabled()) log("Distance to target is < {} so we keep at our position.", someArbitraryDistance);
                 target = coordinate;
                 nextTargetToMoveTo = coordinate;
                 bestCoordinate = coordinate.toMapCoordinate();
             } else {
                 float distance = distanceToTarget + TILE_SIZE;
-                log("Distance to target is > " + someArbitraryDistance + " so are going to search for a next best cell within distance < " + distance);
+                if (isLogEnabled()) {
+                    log("Distance to target is > {} so are going to search for a next best cell within distance < {}", someArbitraryDistance, distance);
+                }
                 // fall back if we have to take a 'detour'
-                bestCoordinate = findClosestCoordinateTowards(allSurroundingCellsAsCoordinates, target, distance);
+                bestCoordinate = findClosestSurroundingCellTowards(target, distance);
             }
         }
 
         if (bestCoordinate != null) {
-            log("Found next MapCoordinate: " + bestCoordinate);
+            log("Found next MapCoordinate: {}", bestCoordinate);
             return bestCoordinate;
         }
         log("getNextIntendedCellToMoveToTarget, fallback to own coordinate");
         return coordinate.toMapCoordinate();
     }
 
-    public MapCoordinate findClosestCoordinateTowards(Set<MapCoordinate> allSurroundingCellsAsCoordinates, Coordinate target, float maxDistance) {
+    /**
+     * Finds the passable cell around this unit (within the playable map) closest to target, and not further away than
+     * maxDistance. Walks the precomputed {@link CellOffsets} of the surrounding cells.
+     */
+    private MapCoordinate findClosestSurroundingCellTowards(Coordinate target, float maxDistance) {
+        MapCoordinate topLeft = coordinate.toMapCoordinate();
+        CellOffsets surrounding = getEntityData().getSurroundingCells();
+
         MapCoordinate bestCoordinate = null;
         float shortestDistance = maxDistance;
-        for (MapCoordinate mapCoordinate : allSurroundingCellsAsCoordinates) {
-            boolean isCellPassableForMe = isCellPassableForMe(mapCoordinate);
-            if (!isCellPassableForMe) continue;
-
-            float distance = mapCoordinate.toCoordinate().distance(target);
-            if (distance <= shortestDistance) {
-                shortestDistance = distance;
-                bestCoordinate = mapCoordinate;
-            }
+        for (int i = 0; i < surrounding.size(); i++) {
+            int x = topLeft.getXAsInt() + surrounding.getX(i);
+            int y = topLeft.getYAsInt() + surrounding.getY(i);
+            if (!map.isWithinPlayableMapBoundaries(x, y)) continue;
+
+            // cheap distance check first, passability is asked only for cells that would be better
+            float deltaX = (x * TILE_SIZE) - target.getX();
+            float deltaY = (y * TILE_SIZE) - target.getY();
+            float distance = (float) Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+            if (distance > shortestDistance) continue;
+
+            MapCoordinate mapCoordinate = map.getMapCoordinate(x, y);
+            if (!isCellPassableForMe(mapCoordinate)) continue;
+
+            shortestDistance = distance;
+            bestCoordinate = mapCoordinate;
         }
         return bestCoordinate;
     }
@@ -322,17 +268,15 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     /**
-     * Unit is marked as selected. To get all selected units for player, use the com.fundynamic.d2tm.game.entities.EntityRepository#filter(Predicate) and
-     * along with a {@link PredicateBuilder#isSelected()}
+     * Unit is marked as selected. To get all selected units for player, use the
+     * {@link com.fundynamic.d2tm.game.entities.SelectionIndex} of the player.
      */
     @Override
     public void select() {
-        System.out.println("SELECTING UNIT START " + this.toStringShort() + " ========================= ");
-        System.out.println("Current state " + this.state);
-        System.out.println("Full to string: " + this);
-        System.out.println("SELECTING UNIT END " + this.toStringShort() + " ========================= ");
+        log("selected in state [{}]: {}", state, this);
 
         fadingSelection.select();
+        player.getSelectionIndex().selected(this);
     }
 
     @Override
@@ -344,6 +288,7 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     @Override
     public void deselect() {
         fadingSelection.deselect();
+        player.getSelectionIndex().deselected(this);
     }
 
     @Override
@@ -365,15 +310,15 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         stopAndResetAnimating();
 
         if (isHarvester()) {
-            this.setState(new IdleHarvesterState(this, entityRepository, map));
+            this.setState(IdleHarvesterState.instance);
         } else {
-            this.setState(new IdleState(this, entityRepository, map));
+            this.setState(IdleState.instance);
         }
     }
 
     @Override
     public void moveTo(Coordinate absoluteMapCoordinates) {
-        this.entityToAttack = null; // forget about attacking
+        setEntityToAttack(null); // forget about attacking
         setMoveTarget(absoluteMapCoordinates);
     }
 
@@ -381,7 +326,7 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         this.target = absoluteMapCoordinates;
         EnterStructureIntent.instance.removeAllIntentsBy(this);
 
-        cannonFacing.desireToFaceTo(UnitFacings.getFacingInt(this.coordinate, absoluteMapCoordinates));
+        cannonFacing.desireToFaceTowards(this.coordinate, absoluteMapCoordinates);
 
         setToGoalResolverState();
     }
@@ -397,6 +342,7 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
                 }
                 moveTo(target);
             } else {
+                entityRepository.getTargetAcquisition().reportThreat(player, origin);
                 if (entityToAttack == null) {
                     attack(origin);
                 }
@@ -412,13 +358,13 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
 
     public Coordinate getRandomVectorToMoveTo() {
         // we're hit and we don't have an idea where it came from
-        int correctX = Random.getRandomBetween(-1, 2) * TILE_SIZE;
-        int correctY = Random.getRandomBetween(-1, 2) * TILE_SIZE;
+        int correctX = random.getRandomBetween(-1, 2) * TILE_SIZE;
+        int correctY = random.getRandomBetween(-1, 2) * TILE_SIZE;
         return coordinate.add(Vector2D.create(correctX, correctY));
     }
 
     public boolean isDestroyed() {
-        return state instanceof DeadState;
+        return state == DeadState.instance;
     }
 
     @Override
@@ -429,12 +375,12 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     @Override
     public void attack(Entity entity) {
         if (!entity.isDestructible()) {
-            System.out.println("I (" + this.toString() + ") attack an entity that is not destructible -> " + entity);
+            LOG.info("I ({}) attack an entity that is not destructible -> {}", this, entity);
             return;
         }
 
-        entityToAttack = entity;
-        if (offset.equals(Vector2D.zero())) {
+        setEntityToAttack(entity);
+        if (offset.isZero()) {
             target = coordinate;
         } else {
             target = nextTargetToMoveTo;
@@ -442,8 +388,19 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         setToGoalResolverState();
     }
 
+    /**
+     * @return copy of the offset, use {@link #getOffsetX()} and {@link #getOffsetY()} on paths that run every frame
+     */
     public Vector2D getOffset() {
-        return offset;
+        return offset.toVector2D();
+    }
+
+    public float getOffsetX() {
+        return offset.getX();
+    }
+
+    public float getOffsetY() {
+        return offset.getY();
     }
 
     public Coordinate getNextTargetToMoveTo() {
@@ -456,7 +413,11 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public void setOffset(Vector2D offset) {
-        this.offset = offset;
+        this.offset.set(offset);
+    }
+
+    public void setOffset(float offsetX, float offsetY) {
+        this.offset.set(offsetX, offsetY);
     }
 
     public void setFadingSelection(FadingSelection fadingSelection) {
@@ -465,24 +426,26 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
 
     @Override
     public void enrichRenderQueue(RenderQueue renderQueue) {
+        int drawX = getX() + offset.getXAsInt();
+        int drawY = getY() + offset.getYAsInt();
         if (isSelected()) {
-            renderQueue.putEntityGui(this.hitPointBasedDestructibility, getCoordinateWithOffset());
+            renderQueue.putEntityGui(this.hitPointBasedDestructibility, drawX, drawY);
             if (this.harvested != null) {
-                renderQueue.putEntityGui(this.harvested, getCoordinateWithOffset().min(Vector2D.create(0, 6)));
+                renderQueue.putEntityGui(this.harvested, drawX, drawY - 6);
             }
-            renderQueue.putEntityGui(this.fadingSelection, getCoordinateWithOffset());
+            renderQueue.putEntityGui(this.fadingSelection, drawX, drawY);
         } else {
             if (fadingSelection.hasFocus()) {
                 if (this.harvested != null) {
-                    renderQueue.putEntityGui(this.harvested, getCoordinateWithOffset().min(Vector2D.create(0, 6)));
+                    renderQueue.putEntityGui(this.harvested, drawX, drawY - 6);
                 }
-                renderQueue.putEntityGui(this.hitPointBasedDestructibility, getCoordinateWithOffset());
+                renderQueue.putEntityGui(this.hitPointBasedDestructibility, drawX, drawY);
             }
         }
     }
 
     public Coordinate getCoordinateWithOffset() {
-        return this.getCoordinate().add(this.offset);
+        return Coordinate.create(coordinate.getX() + offset.getX(), coordinate.getY() + offset.getY());
     }
 
     public boolean hasFocus() {
@@ -512,13 +475,21 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         moveTo(target);
     }
 
-    private void setState(UnitState state) {
-        if (this.state.getClass().equals(state.getClass())) {
-            // do not set, same type
-        } else {
-            log("set state from [" + this.state + "] to [" + state + "]");
-            this.state = state;
+    /**
+     * @return true when the state changed (and the state context is reset), false when already in this state
+     */
+    private boolean setState(UnitState state) {
+        if (this.state == state) return false; // do not set, same state
+
+        log("set state from [{}] to [{}]", this.state, state);
+        this.state = state;
+        stateContext.stateChanged();
+        // a turn asked for by the previous state is of no use anymore
+        if (entityRepository != null) {
+            entityRepository.getWorkScheduler().cancel(this);
+            entityRepository.stateTransitioned();
         }
+        return true;
     }
 
     public void die() {
@@ -527,27 +498,29 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         if (hasEntered != null) {
             hasEntered.leaveOtherEntity();
         }
-        setState(new DyingState(this, entityRepository, map));
+        setState(DyingState.instance);
     }
 
     public void dead() {
-        setState(new DeadState(this, entityRepository, map));
+        setState(DeadState.instance);
+        player.entityDestroyed(this);
     }
 
     public void seekSpice() {
         if (isAnimating()) {
             stopAndResetAnimating();
         }
-        setState(new SeekHarvestableResourceState(this, entityRepository, map));
+        setState(SeekHarvestableResourceState.instance);
     }
 
     public void harvesting() {
-        setState(new HarvestingState(this, entityRepository, map));
+        setState(HarvestingState.instance);
     }
 
     /**
      * Order unit to move to a cell. Puts it into the MoveToCellState and remembers the intent
-     * to move to this cell so that other units will not attempt the same movement.
+     * to move to this cell so that other units will not attempt the same movement. Until it arrives, the unit
+     * occupies both the cell it leaves and the cell it moves to.
      *
      * @param nextIntendedCoordinatesToMoveTo
      */
@@ -560,15 +533,17 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         }
 
         nextTargetToMoveTo = nextIntendedCoordinatesToMoveTo;
-        bodyFacing.desireToFaceTo(UnitFacings.getFacingInt(coordinate, nextTargetToMoveTo));
+        bodyFacing.desireToFaceTowards(coordinate, nextTargetToMoveTo);
 
-        UnitMoveIntents.instance.addIntent(nextTargetToMoveTo, this);
+        MapCoordinate nextCell = nextTargetToMoveTo.toMapCoordinate();
+        map.getOccupancyGrid().claim(nextCell, this);
+        map.getOccupancyGrid().occupyWhileMoving(this, nextCell);
 
         setMoveToCellState();
     }
 
     public void setMoveToCellState() {
-        setState(new MoveToCellState(this, entityRepository, map));
+        setState(MoveToCellState.instance);
     }
 
     /**
@@ -581,7 +556,8 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         this.coordinate = coordinateToMoveTo;
         this.nextTargetToMoveTo = coordinateToMoveTo;
 
-        UnitMoveIntents.instance.removeAllIntentsBy(this);
+        map.getOccupancyGrid().releaseAllClaimsBy(this);
+        map.getOccupancyGrid().occupy(this);
 
         // TODO: replace with some event "unit moved to coordinate" which is picked up
         // elsewhere (Listener?)
@@ -591,7 +567,8 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public void setToGoalResolverState() {
-        setState(new GoalResolverState(this, entityRepository, map));
+        getTarget(); // follow the entity to attack (if any), the goal resolver moves towards the target
+        setState(GoalResolverState.instance);
     }
 
     public boolean isAnimating() {
@@ -640,7 +617,8 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public void findNearestRefineryToReturnSpice() {
-        setState(new FindNearestRefineryToReturnSpiceState(this, entityRepository, map));
+        if (!isHarvester()) throw new IllegalStateException("A non harvester unit (" + this + ") tried to enter FindNearestRefineryToReturnSpiceState");
+        setState(FindNearestRefineryToReturnSpiceState.instance);
     }
 
     /**
@@ -662,13 +640,13 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         if (!refinery.isRefinery()) throw new IllegalArgumentException("Can only return to refinery type of entity");
 
         if (EnterStructureIntent.instance.canEnterAt(refinery, this)) {
-            log("returnToRefinery) Will deliver at refinery " + refinery);
+            log("returnToRefinery) Will deliver at refinery {}", refinery);
             Coordinate closestCoordinateTo = refinery.getClosestCoordinateTo(getCenteredCoordinate());
             moveTo(closestCoordinateTo);
             // important to add intention after moveTo, because moveTo removes all intentions
             EnterStructureIntent.instance.addDeliveryIntentTo(refinery, this);
         } else {
-            log("returnToRefinery) Move close to refinery " + refinery);
+            log("returnToRefinery) Move close to refinery {}", refinery);
             Coordinate closestCoordinateTo = refinery.getClosestCoordinateAround(getCenteredCoordinate());
             moveTo(closestCoordinateTo);
         }
@@ -681,7 +659,9 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     public void emptyHarvestedSpiceAt(Entity refinery) {
         if (!refinery.isRefinery()) throw new IllegalArgumentException("Cannot empty harvester at non-refinery entity " + refinery);
         // do not remove intent yet, do that once we are finished
-        setState(new EmptyHarvesterState(this, entityRepository, map, refinery));
+        if (setState(EmptyHarvesterState.instance)) {
+            stateContext.refinery = refinery;
+        }
     }
 
     public boolean hasSpiceToUnload() {
@@ -707,7 +687,7 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public void setTurnBodyState() {
-        setState(new TurnBodyTowardsState(this, entityRepository, map));
+        setState(TurnBodyTowardsState.instance);
     }
 
     public boolean shouldTurnBody() {
@@ -715,7 +695,7 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public boolean isDying() {
-        return DyingState.DYING_STATE.equals(this.state.toString());
+        return state == DyingState.instance;
     }
 
     public void updateBodyFacing(float deltaInSeconds) {
@@ -732,12 +712,51 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
         return this.state;
     }
 
+    /**
+     * @return how often this unit changed state
+     */
+    public long getStateTransitions() {
+        return stateContext.getStateTransitions();
+    }
+
+    public Map getMap() {
+        return map;
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return LOG;
+    }
+
     public void forgetEntityToAttack() {
+        setEntityToAttack(null);
+    }
+
+    /**
+     * Listens to the destruction of the entity to attack, so a unit that is busy with something else (or idle) does
+     * not hold on to a destroyed entity. States that attack still check {@link Entity#isDestroyed()} themselves, as
+     * the event arrives at the end of the tick.
+     */
+    private void setEntityToAttack(Entity entity) {
+        if (entity == entityToAttack) return;
+        if (entityToAttack != null) {
+            entityToAttack.removeEventSubscriber(EventType.ENTITY_DESTROYED, this);
+        }
+        entityToAttack = entity;
+        if (entity != null && !entity.isDestroyed()) {
+            entity.onEvent(EventType.ENTITY_DESTROYED, this, Unit::entityToAttackDestroyed);
+        }
+    }
+
+    private Void entityToAttackDestroyed() {
         entityToAttack = null;
+        return null;
     }
 
     public void fireAt(Entity entityToAttack) {
-        setState(new FireAtEntityState(this, entityRepository, map, entityToAttack));
+        if (setState(FireAtEntityState.instance)) {
+            stateContext.entityToAttack = entityToAttack;
+        }
     }
 
     public void updateBodyAndCannonFacing(float deltaInSeconds) {
@@ -746,7 +765,6 @@ public class Unit extends Entity implements Selectable, Moveable, Destructible,
     }
 
     public void fireWeaponTowards(Coordinate target) {
-        Projectile projectile = entityRepository.placeProjectile(getCenteredCoordinate(), entityData.weaponId, this);
-        projectile.moveTo(target);
+        entityRepository.fireProjectile(getCenteredCoordinate(), target, entityData.weaponId, this);
     }
 }
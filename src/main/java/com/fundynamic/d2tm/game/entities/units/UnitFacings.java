@@ -4,14 +4,9 @@ package com.fundynamic.d2tm.game.entities.units;
 import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.math.Vector2D;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import static java.lang.Math.abs;
-
 /**
- * This class represents all possible Dune 2 facings. So we don't support C&C sprites. If we want to do so we need to
- * make sure the amount of facings should be dynamic (8 or more).
+ * This class represents all possible Dune 2 facings. Calculations that take an amount of facings (ie 16 or 32 for
+ * other sprites) use a {@link FacingTable}.
  */
 public enum UnitFacings {
     RIGHT(0),
@@ -23,14 +18,17 @@ public enum UnitFacings {
     DOWN(6),
     RIGHT_DOWN(7);
 
-    private static Map<Integer, UnitFacings> facingsById;
+    public static final int FACINGS = 8;
+
+    private static final UnitFacings[] facingsById = new UnitFacings[FACINGS];
     static {
-        facingsById = new HashMap<>();
         for (UnitFacings facing : UnitFacings.values()) {
-            facingsById.put(facing.getValue(), facing);
+            facingsById[facing.getValue()] = facing;
         }
     }
 
+    private static final FacingTable table = FacingTable.forFacings(FACINGS);
+
     private final int value;
 
     UnitFacings(int value) {
@@ -42,7 +40,8 @@ public enum UnitFacings {
     }
 
     public static UnitFacings byId(int id) {
-        return facingsById.get(id);
+        if (id < 0 || id >= FACINGS) return null;
+        return facingsById[id];
     }
 
     /**
@@ -87,37 +86,16 @@ public enum UnitFacings {
         return newId;
     }
 
+    /**
+     * 1 to go counter-clockwise, which means go 'right' on the sprite, -1 to go clockwise ('left' on the sprite), 0 when
+     * already there. See {@link FacingTable#turnDirection(int, int, int)}.
+     */
     public static int facingDirection(int current, int desired) {
-        int counterClockwise = getCounterClockwiseSteps(current, desired);
-        int clockwise = getClockwiseSteps(current, desired);
-
-        // Decide what the nextId (facing) should be
-        if (counterClockwise < clockwise) {
-            return 1; // go counter-clockwise, which means go 'right' on the sprite
-        }
-        return -1; // go clock-wise which means go 'left' on the sprite
-    }
-
-    public static int getClockwiseSteps(int currentId, int desiredId) {
-        int clockwise = abs(currentId - (desiredId - 7));
-        if (clockwise > 7) clockwise -= 8;
-        return clockwise;
+        return FacingTable.turnDirection(current, desired, FACINGS);
     }
 
-    public static int getCounterClockwiseSteps(int currentId, int desiredId) {
-        int counterClockwise;
-        if (desiredId < currentId) {
-            counterClockwise = abs((currentId + desiredId) - 8);
-        } else {
-            counterClockwise = abs(desiredId - currentId);
-        }
-        return counterClockwise;
-    }
-
-    // TODO: this looks very similar to the Projectile determine facing logic, move to somewhere else!?
     public static UnitFacings getFacing(Vector2D from, Vector2D to) {
-        int facings = 8; // 8 facings in total for a unit
-        return byId(calculateFacingSpriteIndex(from, to, facings));
+        return byId(table.facingOf(from, to));
     }
 
     public static UnitFacings getFacing(Entity from, Entity to) {
@@ -125,25 +103,23 @@ public enum UnitFacings {
     }
 
     public static int getFacingInt(Entity from, Entity to) {
-        return getFacing(from.getCenteredCoordinate(), to.getCenteredCoordinate()).getValue();
+        return table.facingOf(from.getCenteredCoordinate(), to.getCenteredCoordinate());
     }
 
     public static int getFacingInt(Entity from, Vector2D to) {
-        return getFacing(from.getCenteredCoordinate(), to).getValue();
+        return table.facingOf(from.getCenteredCoordinate(), to);
     }
 
     public static int getFacingInt(Vector2D from, Vector2D to) {
-        return getFacing(from, to).getValue();
+        return table.facingOf(from, to);
     }
 
+    /**
+     * Facing (sprite index) when looking from <code>from</code> to <code>to</code>, for a sprite with given amount of
+     * facings. See {@link FacingTable}.
+     */
     public static int calculateFacingSpriteIndex(Vector2D from, Vector2D to, int facings) {
-        return calculateFacingSpriteIndex(from, to, facings, 360F / facings);
-    }
-
-    public static int calculateFacingSpriteIndex(Vector2D from, Vector2D to, int facings, float chop) {
-        double angle = from.angleTo(to);
-        angle += (chop / 2);
-        return (int) (angle / chop) % facings;
+        return FacingTable.forFacings(facings).facingOf(from, to);
     }
 
     /**
@@ -158,9 +134,17 @@ public enum UnitFacings {
      * @return
      */
     public static float turnTo(float facing, int desiredFacing, float turnSpeed) {
-        float newFacing = facing + (facingDirection((int) facing, desiredFacing) * turnSpeed);
-        if (newFacing < 0) newFacing = 7;
-        if (newFacing > 7) newFacing = 0;
+        return turnTo(facing, desiredFacing, turnSpeed, FACINGS);
+    }
+
+    /**
+     * Like {@link #turnTo(float, int, float)}, for a sprite with given amount of facings.
+     */
+    public static float turnTo(float facing, int desiredFacing, float turnSpeed, int facings) {
+        float newFacing = facing + (FacingTable.turnDirection((int) facing, desiredFacing, facings) * turnSpeed);
+        int lastFacing = facings - 1;
+        if (newFacing < 0) newFacing = lastFacing;
+        if (newFacing > lastFacing) newFacing = 0;
         return newFacing;
     }
 
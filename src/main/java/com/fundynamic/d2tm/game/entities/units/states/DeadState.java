@@ -1,18 +1,17 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
 
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 
 public class DeadState extends UnitState {
 
-    public DeadState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
+    public static final DeadState instance = new DeadState();
+
+    private DeadState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
         // dead
     }
 
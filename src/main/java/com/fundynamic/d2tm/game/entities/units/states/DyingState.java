@@ -1,21 +1,20 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
 
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 
 public class DyingState extends UnitState {
 
     public static final String DYING_STATE = "DyingState";
 
-    public DyingState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
+    public static final DyingState instance = new DyingState();
+
+    private DyingState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
-        entityRepository.placeExplosionWithCenterAt(
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
+        unit.getEntityRepository().placeExplosionWithCenterAt(
                 unit.getCenteredCoordinate(),
                 unit.getPlayer(),
                 unit.getEntityData().explosionId
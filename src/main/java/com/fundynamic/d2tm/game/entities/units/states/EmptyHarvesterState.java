@@ -2,10 +2,7 @@ package com.fundynamic.d2tm.game.entities.units.states;
 
 
 import com.fundynamic.d2tm.game.entities.EnterStructureIntent;
-import com.fundynamic.d2tm.game.entities.Entity;
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 
 /**
  * <p>
@@ -14,22 +11,20 @@ import com.fundynamic.d2tm.game.map.Map;
  */
 public class EmptyHarvesterState extends UnitState {
 
-    private Entity refinery;
+    public static final EmptyHarvesterState instance = new EmptyHarvesterState();
 
-    public EmptyHarvesterState(Unit unit, EntityRepository entityRepository, Map map, Entity refinery) {
-        super(unit, entityRepository, map);
-        this.refinery = refinery;
+    private EmptyHarvesterState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
         if (unit.hasSpiceToUnload()) {
             unit.depositResource(deltaInSeconds);
         } else {
-            unit.log("Done depositing spice, moving back to " + unit.lastSeenSpiceAt());
+            unit.log("Done depositing spice, moving back to {}", unit.lastSeenSpiceAt());
             // remove harvest delivery intent after depositing because only then a new harvester can
             // occupy the refinery
-            EnterStructureIntent.instance.removeEnterIntent(refinery);
+            EnterStructureIntent.instance.removeEnterIntent(context.refinery);
             unit.leaveOtherEntity();
             unit.harvestAt(unit.lastSeenSpiceAt());
         }
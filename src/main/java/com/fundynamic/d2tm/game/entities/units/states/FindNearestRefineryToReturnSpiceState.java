@@ -2,47 +2,53 @@ package com.fundynamic.d2tm.game.entities.units.states;
 
 
 import com.fundynamic.d2tm.game.entities.EnterStructureIntent;
-import com.fundynamic.d2tm.game.entities.EntitiesSet;
 import com.fundynamic.d2tm.game.entities.Entity;
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.map.RefineryDistanceField;
+
+import java.util.List;
 
 /**
- * Determine if
+ * Determine which refinery to return the harvested spice to. The nearest one is looked up in the
+ * {@link RefineryDistanceField} of the player, which takes terrain into account. Deciding is done within the budget of
+ * the {@link com.fundynamic.d2tm.game.entities.scheduling.WorkScheduler}.
  */
 public class FindNearestRefineryToReturnSpiceState extends UnitState {
 
-    public FindNearestRefineryToReturnSpiceState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
-        if (!unit.isHarvester()) throw new IllegalStateException("A non harvester unit (" + unit + ") tried to enter FindNearestRefineryToReturnSpiceState");
+    public static final FindNearestRefineryToReturnSpiceState instance = new FindNearestRefineryToReturnSpiceState();
+
+    private FindNearestRefineryToReturnSpiceState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
-        EntitiesSet entitiesAt = entityRepository.findEntitiesAt(unit.getCoordinate());
-        EntitiesSet refineriesAtUnitLocation = entitiesAt.filterRefineries();
-        if (refineriesAtUnitLocation.hasAny()) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
+        if (!unit.getEntityRepository().getWorkScheduler().tryAcquire(unit)) return; // try again next tick
+
+        Entity refinery = unit.getEntityRepository().findStructureAt(unit.getCoordinate());
+        if (refinery != null && refinery.isRefinery()) {
             // we have arrived at our destination, start dumping credits
-            Entity refinery = refineriesAtUnitLocation.getFirst();
             unit.emptyHarvestedSpiceAt(refinery);
             unit.enterOtherEntity(refinery);
             return;
         }
 
-        EntitiesSet entities = entityRepository.findRefineriesWithinDistance(
-                unit.getCenteredCoordinate(),
-                map.getDistanceThatCoversWholeMap(),
-                unit.getPlayer()
-        );
+        RefineryDistanceField refineryDistanceField = unit.getPlayer().getRefineryDistanceField();
+        Entity nearestRefinery = refineryDistanceField.findNearestRefinery(unit.getMap(), unit.getCoordinate().toMapCoordinate());
+        List<Entity> refineries = refineryDistanceField.getRefineries();
 
-        if (entities.isEmpty()) {
-            System.out.println("Unit unable to find refinery nearby to return to.");
+        if (refineries.isEmpty()) {
+            unit.log("Unable to find refinery nearby to return to.");
             unit.idle();
             return;
         }
 
-        Entity nearestUnoccupiedRefinery = entities.stream().filter(e -> {
+        // nearest reachable refinery is free
+        if (nearestRefinery != null && EnterStructureIntent.instance.canEnterAt(nearestRefinery, unit)) {
+            unit.returnToRefinery(nearestRefinery);
+            return;
+        }
+
+        Entity nearestUnoccupiedRefinery = refineries.stream().filter(e -> {
             return EnterStructureIntent.instance.canEnterAt(e, unit); // only filter refineries that are not 'claimed' yet
         }).sorted((e1, e2) -> { // closest first
                 return Float.compare(e1.distance(unit), e2.distance(unit));
@@ -56,11 +62,13 @@ public class FindNearestRefineryToReturnSpiceState extends UnitState {
         }
 
         // Darn it, no refinery is free. Move to the closest non-free refinery and await our luck there.
-        nearestUnoccupiedRefinery = entities.stream().sorted((e1, e2) -> { // closest first
-            return Float.compare(e1.distance(unit), e2.distance(unit));
-        }).findFirst().orElse(null);
+        if (nearestRefinery == null) {
+            nearestRefinery = refineries.stream().sorted((e1, e2) -> { // closest first
+                return Float.compare(e1.distance(unit), e2.distance(unit));
+            }).findFirst().orElse(null);
+        }
 
-        unit.returnToRefinery(nearestUnoccupiedRefinery);
+        unit.returnToRefinery(nearestRefinery);
     }
 
     @Override
@@ -1,26 +1,21 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
 import com.fundynamic.d2tm.game.entities.Entity;
-import com.fundynamic.d2tm.game.entities.EntityRepository;
-import com.fundynamic.d2tm.game.entities.projectiles.Projectile;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
 
 public class FireAtEntityState extends UnitState {
 
-    private Entity entityToAttack;
+    public static final FireAtEntityState instance = new FireAtEntityState();
 
-    private float attackTimer; // needed for attackRate
-
-    public FireAtEntityState(Unit unit, EntityRepository entityRepository, Map map, Entity entityToAttack) {
-        super(unit, entityRepository, map);
-        this.entityToAttack = entityToAttack;
+    private FireAtEntityState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
+        Entity entityToAttack = context.entityToAttack;
+
         // if no longer in range, get back into goal resolver state
         if (!unit.isEntityInAttackRange(entityToAttack)) {
             unit.setToGoalResolverState();
@@ -44,15 +39,20 @@ public class FireAtEntityState extends UnitState {
         EntityData entityData = unit.getEntityData();
 
         // you may fire when ready!
-        attackTimer += entityData.getRelativeAttackRate(deltaInSeconds);
+        context.attackTimer += entityData.getRelativeAttackRate(deltaInSeconds);
 
         // fire projectiles! - we use this while loop so that in case if insane high number of attack
         // rates we can keep up with slow FPS
-        while (attackTimer > 1.0F) {
+        while (context.attackTimer > 1.0F) {
             Coordinate target = entityToAttack.getRandomPositionWithin();
             unit.fireWeaponTowards(target);
-            attackTimer -= 1.0F;
+            context.attackTimer -= 1.0F;
         }
     }
 
+    @Override
+    public String toString() {
+        return "FireAtEntityState";
+    }
+
 }
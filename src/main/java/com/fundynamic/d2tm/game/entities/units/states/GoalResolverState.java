@@ -2,9 +2,7 @@ package com.fundynamic.d2tm.game.entities.units.states;
 
 
 import com.fundynamic.d2tm.game.entities.Entity;
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.math.MapCoordinate;
 
 /**
@@ -12,12 +10,13 @@ import com.fundynamic.d2tm.math.MapCoordinate;
  */
 public class GoalResolverState extends UnitState {
 
-    public GoalResolverState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
+    public static final GoalResolverState instance = new GoalResolverState();
+
+    private GoalResolverState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
         if (!unit.shouldMove()) {
             unit.log("No need to move anywhere (target == coordinate), going to idle mode.");
             unit.idle();
@@ -44,6 +43,7 @@ public class GoalResolverState extends UnitState {
         }
 
         if (unit.hasNoNextCellToMoveTo()) {
+            // only looks at the surrounding cells, cheap enough to not wait for the WorkScheduler
             unit.stopAndResetAnimating();
             MapCoordinate nextIntendedCoordinatesToMoveTo = unit.getNextIntendedCellToMoveToTarget();
             if (unit.isCellPassableForMe(nextIntendedCoordinatesToMoveTo)) {
@@ -58,14 +58,14 @@ public class GoalResolverState extends UnitState {
             // still have a target, keep moving
             // we can get here when a unit is mid-way moving and is ordered to move somewhere else,
             // which will set the unit state to the GoalResolverState again.
-            unit.log("Has next cell to move to " + unit.getNextTargetToMoveTo());
+            unit.log("Has next cell to move to {}", unit.getNextTargetToMoveTo());
             unit.moveToCell(unit.getNextTargetToMoveTo());
         }
     }
 
     @Override
     public String toString() {
-        return "GoalResolverState [TARGET=" + unit.getTarget() + "]";
+        return "GoalResolverState";
     }
 
 }
@@ -1,9 +1,7 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
 
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 
 /**
  * <p>
@@ -18,12 +16,13 @@ import com.fundynamic.d2tm.game.map.Map;
  */
 public class HarvestingState extends UnitState {
 
-    public HarvestingState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
+    public static final HarvestingState instance = new HarvestingState();
+
+    private HarvestingState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
         if (unit.isDoneHarvesting()) {
             unit.stopAndResetAnimating();
             unit.findNearestRefineryToReturnSpice();
@@ -1,36 +1,31 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
 
-import com.fundynamic.d2tm.game.entities.EntitiesSet;
 import com.fundynamic.d2tm.game.entities.Entity;
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 
 //TODO: Use goals & tasks to solve this properly (Fear AI)
 public class IdleHarvesterState extends UnitState {
-    public IdleHarvesterState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
+    public static final IdleHarvesterState instance = new IdleHarvesterState();
+
+    private IdleHarvesterState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
         if (unit.isDoneHarvesting()) {
             unit.findNearestRefineryToReturnSpice();
         } else if (unit.canHarvest()) {
             unit.harvesting();
         } else {
-            EntitiesSet entitiesAt = entityRepository.findEntitiesAt(unit.getCoordinate());
-            EntitiesSet refineriesAtUnitLocation = entitiesAt.filterRefineries();
-            if (refineriesAtUnitLocation.hasAny()) {
+            Entity refinery = unit.getEntityRepository().findStructureAt(unit.getCoordinate());
+            if (refinery != null && refinery.isRefinery()) {
                 // we have arrived at a refinery
-                Entity refinery = refineriesAtUnitLocation.getFirst();
                 unit.emptyHarvestedSpiceAt(refinery);
                 unit.enterOtherEntity(refinery);
                 return;
             }
-            // TODO: When seekspice fails, we should time this, so we won't run this code
-            // every frame
+            // seeking is throttled by the seek state itself when there is no spice to be found
             unit.seekSpice();
         }
     }
@@ -1,22 +1,24 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
 
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
 import com.fundynamic.d2tm.game.map.Cell;
-import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
-import com.fundynamic.d2tm.math.Vector2D;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
 
 public class MoveToCellState extends UnitState {
 
-    public MoveToCellState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
+    public static final MoveToCellState instance = new MoveToCellState();
+
+    private static final Logger LOG = Log.getLogger("units");
+
+    private MoveToCellState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
         if (unit.shouldTurnBody()) {
             unit.setTurnBodyState();
             return;
@@ -27,15 +29,15 @@ public class MoveToCellState extends UnitState {
             return;
         }
 
-        moveToNextCellPixelByPixel(deltaInSeconds);
+        moveToNextCellPixelByPixel(unit, deltaInSeconds);
     }
 
     @Override
     public String toString() {
-        return "MoveToCellState, [nextTargetToMoveTo = " + unit.getNextTargetToMoveTo() + ", offset=" + unit.getOffset() + "]";
+        return "MoveToCellState";
     }
 
-    private void moveToNextCellPixelByPixel(float deltaInSeconds) {
+    private void moveToNextCellPixelByPixel(Unit unit, float deltaInSeconds) {
         // TODO: Make this depended on some 'walk/move animation flag'
         if (unit.hasMoveAnimation()) {
             unit.startAnimating();
@@ -45,51 +47,58 @@ public class MoveToCellState extends UnitState {
         }
 
         Coordinate coordinate = unit.getCoordinate();
-        Vector2D offset = unit.getOffset();
         Coordinate nextTargetToMoveTo = unit.getNextTargetToMoveTo();
         EntityData entityData = unit.getEntityData();
 
-        if (!map.isWithinPlayableMapBoundaries(nextTargetToMoveTo.toMapCoordinate())) {
-            System.err.println("A next target to move to was set out of map bounds! ERROR. Going back to GoalResolver");
+        int nextCellX = nextTargetToMoveTo.getXAsInt() / Cell.TILE_SIZE;
+        int nextCellY = nextTargetToMoveTo.getYAsInt() / Cell.TILE_SIZE;
+        if (!unit.getMap().isWithinPlayableMapBoundaries(nextCellX, nextCellY)) {
+            LOG.error("Next target to move to of {} is out of map bounds ({}), going back to GoalResolver", unit, nextTargetToMoveTo);
             unit.setToGoalResolverState();
             return;
         }
 
-        float offsetX = offset.getX();
-        float offsetY = offset.getY();
+        // primitives only, this runs for every moving unit every tick
+        float offsetX = unit.getOffsetX();
+        float offsetY = unit.getOffsetY();
+        float moveSpeed = entityData.getRelativeMoveSpeed(deltaInSeconds);
 
         // TODO: move like projectiles!?
-        if (nextTargetToMoveTo.getXAsInt() < coordinate.getXAsInt()) offsetX -= entityData.getRelativeMoveSpeed(deltaInSeconds);
-        if (nextTargetToMoveTo.getXAsInt() > coordinate.getXAsInt()) offsetX += entityData.getRelativeMoveSpeed(deltaInSeconds);
-        if (nextTargetToMoveTo.getYAsInt() < coordinate.getYAsInt()) offsetY -= entityData.getRelativeMoveSpeed(deltaInSeconds);
-        if (nextTargetToMoveTo.getYAsInt() > coordinate.getYAsInt()) offsetY += entityData.getRelativeMoveSpeed(deltaInSeconds);
+        if (nextTargetToMoveTo.getXAsInt() < coordinate.getXAsInt()) offsetX -= moveSpeed;
+        if (nextTargetToMoveTo.getXAsInt() > coordinate.getXAsInt()) offsetX += moveSpeed;
+        if (nextTargetToMoveTo.getYAsInt() < coordinate.getYAsInt()) offsetY -= moveSpeed;
+        if (nextTargetToMoveTo.getYAsInt() > coordinate.getYAsInt()) offsetY += moveSpeed;
 
-        Vector2D vecToAdd = Vector2D.zero();
+        int cellsToAddX = 0;
+        int cellsToAddY = 0;
 
         if (offsetX > Cell.TILE_SIZE_ZERO_BASED) {
             offsetX = 0;
-            vecToAdd = vecToAdd.add(Vector2D.create(Cell.TILE_SIZE, 0));
+            cellsToAddX = 1;
         }
         if (offsetX < -Cell.TILE_SIZE_ZERO_BASED) {
             offsetX = 0;
-            vecToAdd = vecToAdd.add(Vector2D.create(-Cell.TILE_SIZE, 0));
+            cellsToAddX = -1;
         }
         if (offsetY > Cell.TILE_SIZE_ZERO_BASED) {
             offsetY = 0;
-            vecToAdd = vecToAdd.add(Vector2D.create(0, Cell.TILE_SIZE));
+            cellsToAddY = 1;
         }
         if (offsetY < -Cell.TILE_SIZE_ZERO_BASED) {
             offsetY = 0;
-            vecToAdd = vecToAdd.add(Vector2D.create(0, -Cell.TILE_SIZE));
+            cellsToAddY = -1;
         }
 
         // Arrived at intended next target cell
-        if (!vecToAdd.isZero()) {
+        if (cellsToAddX != 0 || cellsToAddY != 0) {
             unit.log("Arrived at cell");
-            unit.arrivedAtCell(coordinate.add(vecToAdd));
+            unit.arrivedAtCell(Coordinate.create(
+                    coordinate.getX() + (cellsToAddX * Cell.TILE_SIZE),
+                    coordinate.getY() + (cellsToAddY * Cell.TILE_SIZE)
+            ));
         }
 
-        unit.setOffset(Vector2D.create(offsetX, offsetY));
+        unit.setOffset(offsetX, offsetY);
     }
 
 }
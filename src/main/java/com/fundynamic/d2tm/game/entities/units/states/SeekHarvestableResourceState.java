@@ -1,39 +1,42 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.math.MapCoordinate;
 
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+/**
+ * The harvester is done with the cell it is on (or never was on spice) and looks for the nearest spice, using the
+ * {@link com.fundynamic.d2tm.game.map.SpiceIndex}. When there is none to be found, it waits a while before asking
+ * again. The search is done within the budget of the {@link com.fundynamic.d2tm.game.entities.scheduling.WorkScheduler}.
+ */
+public class SeekHarvestableResourceState extends UnitState {
 
+    public static final float RETRY_INTERVAL = 1.0F; // seconds
 
-public class SeekHarvestableResourceState extends UnitState {
+    public static final SeekHarvestableResourceState instance = new SeekHarvestableResourceState();
 
-    public SeekHarvestableResourceState(Unit unit, EntityRepository entityRepository, Map map) {
-        super(unit, entityRepository, map);
+    private SeekHarvestableResourceState() {
     }
 
     @Override
-    public void update(float deltaInSeconds) {
-        Set<MapCoordinate> areaInCoordinates = unit.getAllSurroundingCellsAsMapCoordinatesStartingFromTopLeft(5);
-        List<Cell> harvestableCells = areaInCoordinates
-                .stream()
-                .filter(mapCoordinate -> map.isWithinPlayableMapBoundaries(mapCoordinate))
-                .map(mapCoordinate -> map.getCell(mapCoordinate))
-                .filter(cell -> cell.isHarvestable() && cell.isPassable(unit))
-                .filter(cell -> unit.isCellPassableForMe(cell.getMapCoordinate()))
-                .sorted((c1, c2) ->  Float.compare(c1.distance(unit), c2.distance(unit)))
-                .collect(Collectors.toList());
-
-        if (harvestableCells.isEmpty()) {
+    public void update(Unit unit, UnitStateContext context, float deltaInSeconds) {
+        context.timeUntilNextSeek -= deltaInSeconds;
+        if (context.timeUntilNextSeek > 0F) return;
+        if (!unit.getEntityRepository().getWorkScheduler().tryAcquire(unit)) return; // try again next tick
+
+        Map map = unit.getMap();
+        MapCoordinate harvestable = map.getSpiceIndex().findNearestHarvestable(
+                unit.getCoordinate().toMapCoordinate(),
+                mapCoordinate -> map.getTerrain(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt()).isPassable(unit) &&
+                        unit.isCellPassableForMe(mapCoordinate)
+        );
+
+        if (harvestable == null) {
+            context.timeUntilNextSeek = RETRY_INTERVAL;
             return;
         }
 
-        unit.harvestAt(harvestableCells.get(0).getCoordinate());
+        unit.harvestAt(harvestable.toCoordinate());
     }
 
     @Override
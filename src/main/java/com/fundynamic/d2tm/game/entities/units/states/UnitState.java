@@ -1,21 +1,18 @@
 package com.fundynamic.d2tm.game.entities.units.states;
 
 
-import com.fundynamic.d2tm.game.behaviors.Updateable;
-import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.units.Unit;
-import com.fundynamic.d2tm.game.map.Map;
 
-public abstract class UnitState implements Updateable {
+/**
+ * <h1>General</h1>
+ * <p>
+ * What a {@link Unit} is doing. States hold no data: every state has one shared <code>instance</code> that is used by
+ * all units, so changing state does not create any objects. What a state needs to remember per unit (ie, the attack
+ * timer while firing) lives in the {@link UnitStateContext} of that unit.
+ * </p>
+ */
+public abstract class UnitState {
 
-    protected Unit unit;
-    protected EntityRepository entityRepository;
-    protected Map map;
-
-    public UnitState(Unit unit, EntityRepository entityRepository, Map map) {
-        this.unit = unit;
-        this.entityRepository = entityRepository;
-        this.map = map;
-    }
+    public abstract void update(Unit unit, UnitStateContext context, float deltaInSeconds);
 
 }
@@ -0,0 +1,39 @@
+package com.fundynamic.d2tm.game.entities.units.states;
+
+
+import com.fundynamic.d2tm.game.entities.Entity;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * The data {@link UnitState}s keep per unit. Every unit has exactly one context, which is reset whenever the unit
+ * changes state (so a state always starts fresh, like it did when states were created per transition).
+ * </p>
+ * <p>
+ * Also counts the state transitions of the unit, to see how often units change their mind when profiling.
+ * </p>
+ */
+public class UnitStateContext {
+
+    public Entity entityToAttack;       // FireAtEntityState
+    public float attackTimer;           // FireAtEntityState, needed for attackRate
+    public Entity refinery;             // EmptyHarvesterState
+    public float timeUntilNextSeek;     // SeekHarvestableResourceState
+
+    private long stateTransitions = 0;
+
+    /**
+     * Called by the unit when it changed state
+     */
+    public void stateChanged() {
+        entityToAttack = null;
+        attackTimer = 0F;
+        refinery = null;
+        timeUntilNextSeek = 0F;
+        stateTransitions++;
+    }
+
+    public long getStateTransitions() {
+        return stateTransitions;
+    }
+}
@@ -0,0 +1,78 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.ai.AiCommand;
+import com.fundynamic.d2tm.game.ai.AttackCommand;
+import com.fundynamic.d2tm.game.ai.BuildCommand;
+import com.fundynamic.d2tm.game.ai.HarvestCommand;
+import com.fundynamic.d2tm.game.ai.MoveCommand;
+import com.fundynamic.d2tm.game.ai.PlaceStructureCommand;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Writes {@link AiCommand}s to bytes and back, for sending them to the other players in a {@link TurnPacket}. A
+ * command is a type byte followed by its fields; entities are referred to by id, so a command is a few bytes no
+ * matter how big the armies are.
+ * </p>
+ */
+public class CommandCodec {
+
+    private static final byte MOVE = 1;
+    private static final byte ATTACK = 2;
+    private static final byte HARVEST = 3;
+    private static final byte BUILD = 4;
+    private static final byte PLACE_STRUCTURE = 5;
+
+    private CommandCodec() {
+    }
+
+    public static void write(AiCommand command, DataOutput out) throws IOException {
+        if (command instanceof MoveCommand) {
+            MoveCommand move = (MoveCommand) command;
+            out.writeByte(MOVE);
+            out.writeInt(move.getUnitId());
+            out.writeInt(move.getX());
+            out.writeInt(move.getY());
+        } else if (command instanceof AttackCommand) {
+            AttackCommand attack = (AttackCommand) command;
+            out.writeByte(ATTACK);
+            out.writeInt(attack.getUnitId());
+            out.writeInt(attack.getTargetId());
+        } else if (command instanceof HarvestCommand) {
+            out.writeByte(HARVEST);
+            out.writeInt(((HarvestCommand) command).getHarvesterId());
+        } else if (command instanceof BuildCommand) {
+            BuildCommand build = (BuildCommand) command;
+            out.writeByte(BUILD);
+            out.writeInt(build.getBuilderId());
+            out.writeUTF(build.getEntityDataKey());
+        } else if (command instanceof PlaceStructureCommand) {
+            out.writeByte(PLACE_STRUCTURE);
+            out.writeInt(((PlaceStructureCommand) command).getBuilderId());
+        } else {
+            throw new IllegalArgumentException("Unable to write command " + command);
+        }
+    }
+
+    public static AiCommand read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case MOVE:
+                return new MoveCommand(in.readInt(), in.readInt(), in.readInt());
+            case ATTACK:
+                return new AttackCommand(in.readInt(), in.readInt());
+            case HARVEST:
+                return new HarvestCommand(in.readInt());
+            case BUILD:
+                return new BuildCommand(in.readInt(), in.readUTF());
+            case PLACE_STRUCTURE:
+                return new PlaceStructureCommand(in.readInt());
+            default:
+                throw new IllegalStateException("Unknown command type " + type);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.ai.AiCommand;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Runs one game of a deterministic lockstep match: every player runs the whole game, and players only exchange the
+ * commands they give. As long as every game executes the same commands at the same tick, all games stay the same.
+ * So the amount of bytes sent per turn does not depend on the amount of units in play.
+ * </p>
+ * <h2>Turns</h2>
+ * <p>
+ * Time is divided in turns of a few (fixed) ticks. Commands given during turn <code>T</code> (see
+ * {@link #issue(AiCommand)}) are sent at the start of turn <code>T + 1</code>, in one {@link TurnPacket}, and executed
+ * at the start of turn <code>T + 1 + {@link #COMMAND_DELAY_TURNS}</code> by every game, in order of player index.
+ * The delay gives packets time to arrive. A game that arrives at a turn without the packets of all players for that
+ * turn waits (stalls) until they are there.
+ * </p>
+ * <h2>Turn length</h2>
+ * <p>
+ * Every packet proposes the amount of ticks for its turn, a turn lasts as long as the longest proposal. A game that
+ * had to wait proposes one tick more; one that has not waited for {@link #CALM_TURNS_BEFORE_SHORTENING} turns one
+ * tick less. So on a slow connection turns grow until the delay covers the latency, and on a fast one commands get
+ * executed sooner.
+ * </p>
+ * <h2>Desyncs</h2>
+ * <p>
+ * After every tick the {@link StateChecksum} is taken and folded into the checksum of the turn, which is sent along
+ * with a later packet. When the checksum of another player differs from our own for the same turn, the games have
+ * desynced: see {@link #isDesynced()} and {@link #getDesyncTurn()}.
+ * </p>
+ * <p>
+ * Call {@link #update()} once per game tick, instead of updating the game itself.
+ * </p>
+ */
+public class Lockstep {
+
+    private static final Logger LOG = Log.getLogger("lockstep");
+
+    public static final int COMMAND_DELAY_TURNS = 2;
+
+    public static final int MIN_TICKS_PER_TURN = 1;
+    public static final int MAX_TICKS_PER_TURN = 30;
+    public static final int INITIAL_TICKS_PER_TURN = 2;
+    public static final int CALM_TURNS_BEFORE_SHORTENING = 8;
+
+    public static final int NOT_DESYNCED = -1;
+
+    // a peer starts a turn only with our packet for it, so it is at most COMMAND_DELAY_TURNS turns ahead and sends
+    // for at most twice that ahead of the turn we are in
+    private static final int PACKET_TURNS = (2 * COMMAND_DELAY_TURNS) + 1;
+
+    private final LockstepSimulation simulation;
+    private final Transport transport;
+    private final int playerIndex;
+    private final int players;
+    private final float tickDeltaInSeconds;
+
+    private final List<AiCommand> issuedCommands = new ArrayList<>();
+
+    // packets of the turns that are not started yet, by turn modulo length
+    private final TurnPacket[][] packetsByTurn;
+    private final int[] packetsTurn = new int[PACKET_TURNS]; // turn the packets at that index are for
+
+    // checksums of the last completed turns, by turn modulo length (only the ones that can still be compared)
+    private final long[] checksums = new long[COMMAND_DELAY_TURNS + 2];
+
+    private int turn = 0;
+    private int tickInTurn = 0;
+    private int ticksPerTurn = INITIAL_TICKS_PER_TURN;
+    private long turnChecksum = 0;
+    private boolean sentForTurn = false;
+
+    private int proposedTicksPerTurn = INITIAL_TICKS_PER_TURN;
+    private boolean stalledSinceLastSend = false;
+    private int calmTurns = 0;
+    private long stalls = 0;
+
+    private int desyncTurn = NOT_DESYNCED;
+
+    public Lockstep(LockstepSimulation simulation, Transport transport, int playerIndex, int players, float tickDeltaInSeconds) {
+        if (players < 1) throw new IllegalArgumentException("Need at least one player, given " + players);
+        if (playerIndex < 0 || playerIndex >= players) throw new IllegalArgumentException("Player index must be between 0 and " + players + ", given " + playerIndex);
+        this.simulation = simulation;
+        this.transport = transport;
+        this.playerIndex = playerIndex;
+        this.players = players;
+        this.tickDeltaInSeconds = tickDeltaInSeconds;
+        this.packetsByTurn = new TurnPacket[PACKET_TURNS][players];
+    }
+
+    /**
+     * A command of the local player, it is sent to the others with the next packet.
+     */
+    public void issue(AiCommand command) {
+        issuedCommands.add(command);
+    }
+
+    /**
+     * Runs one tick of the game, when it may.
+     *
+     * @return true when a tick was run, false when waiting (stalled) for packets of other players
+     */
+    public boolean update() {
+        if (tickInTurn == 0 && !sentForTurn) {
+            sendPacketFor(turn + COMMAND_DELAY_TURNS);
+            sentForTurn = true;
+        }
+
+        receive();
+
+        if (tickInTurn == 0) {
+            if (turn < COMMAND_DELAY_TURNS) {
+                // nobody could have sent anything for these turns yet
+                startTurn(null);
+            } else {
+                int index = turn % PACKET_TURNS;
+                TurnPacket[] packets = packetsByTurn[index];
+                if (packetsTurn[index] != turn || !isComplete(packets)) {
+                    stalls++;
+                    stalledSinceLastSend = true;
+                    return false;
+                }
+                startTurn(packets);
+                Arrays.fill(packets, null);
+            }
+        }
+
+        simulation.tick(tickDeltaInSeconds);
+        turnChecksum = StateChecksum.mix(turnChecksum + simulation.checksum());
+
+        tickInTurn++;
+        if (tickInTurn == ticksPerTurn) {
+            checksums[turn % checksums.length] = turnChecksum;
+            turn++;
+            tickInTurn = 0;
+            sentForTurn = false;
+        }
+        return true;
+    }
+
+    private void sendPacketFor(int packetTurn) {
+        if (stalledSinceLastSend) {
+            proposedTicksPerTurn = Math.min(MAX_TICKS_PER_TURN, proposedTicksPerTurn + 1);
+            calmTurns = 0;
+        } else if (++calmTurns >= CALM_TURNS_BEFORE_SHORTENING) {
+            proposedTicksPerTurn = Math.max(MIN_TICKS_PER_TURN, proposedTicksPerTurn - 1);
+            calmTurns = 0;
+        }
+        stalledSinceLastSend = false;
+
+        int completedTurn = turn - 1;
+        TurnPacket packet = completedTurn < 0 ?
+                new TurnPacket(playerIndex, packetTurn, proposedTicksPerTurn, TurnPacket.NO_CHECKSUM_TURN, 0, issuedCommands) :
+                new TurnPacket(playerIndex, packetTurn, proposedTicksPerTurn, completedTurn, checksums[completedTurn % checksums.length], issuedCommands);
+        issuedCommands.clear();
+
+        store(packet);
+        transport.send(packet.encode());
+    }
+
+    private void receive() {
+        byte[] bytes;
+        while ((bytes = transport.poll()) != null) {
+            TurnPacket packet = TurnPacket.decode(bytes);
+            if (packet.getPlayerIndex() == playerIndex || packet.getPlayerIndex() >= players) {
+                throw new IllegalStateException("Received packet of unexpected player: " + packet);
+            }
+            store(packet);
+        }
+    }
+
+    private void store(TurnPacket packet) {
+        int index = packet.getTurn() % PACKET_TURNS;
+        TurnPacket[] packets = packetsByTurn[index];
+        if (packetsTurn[index] != packet.getTurn()) {
+            if (!isEmpty(packets)) {
+                throw new IllegalStateException("Received packet for turn " + packet.getTurn() + " while turn " + packetsTurn[index] + " is not started yet: " + packet);
+            }
+            packetsTurn[index] = packet.getTurn();
+        }
+        packets[packet.getPlayerIndex()] = packet;
+    }
+
+    private boolean isComplete(TurnPacket[] packets) {
+        for (TurnPacket packet : packets) {
+            if (packet == null) return false;
+        }
+        return true;
+    }
+
+    private boolean isEmpty(TurnPacket[] packets) {
+        for (TurnPacket packet : packets) {
+            if (packet != null) return false;
+        }
+        return true;
+    }
+
+    private void startTurn(TurnPacket[] packets) {
+        turnChecksum = 0;
+        if (packets == null) {
+            ticksPerTurn = INITIAL_TICKS_PER_TURN;
+            return;
+        }
+
+        int longestProposal = MIN_TICKS_PER_TURN;
+        for (TurnPacket packet : packets) {
+            longestProposal = Math.max(longestProposal, packet.getTicksPerTurn());
+            if (packet.getPlayerIndex() != playerIndex) verifyChecksum(packet);
+        }
+        ticksPerTurn = longestProposal;
+
+        // in order of player index, so every game executes them in the same order
+        for (TurnPacket packet : packets) {
+            for (AiCommand command : packet.getCommands()) {
+                simulation.execute(packet.getPlayerIndex(), command);
+            }
+        }
+    }
+
+    private void verifyChecksum(TurnPacket packet) {
+        if (!packet.hasChecksum() || isDesynced()) return;
+        // the packet was sent COMMAND_DELAY_TURNS turns ago, its checksum is of the turn before that: we still have it
+        long ours = checksums[packet.getChecksumTurn() % checksums.length];
+        if (ours != packet.getChecksum()) {
+            desyncTurn = packet.getChecksumTurn();
+            LOG.error("Desynced from player {} in turn {}", packet.getPlayerIndex(), desyncTurn);
+        }
+    }
+
+    public boolean isDesynced() {
+        return desyncTurn != NOT_DESYNCED;
+    }
+
+    /**
+     * @return the first turn after which the state of another player differed, or {@link #NOT_DESYNCED}
+     */
+    public int getDesyncTurn() {
+        return desyncTurn;
+    }
+
+    /**
+     * @return the turn being played
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * @return length of the turn being played (or the last one played, while waiting for the next)
+     */
+    public int getTicksPerTurn() {
+        return ticksPerTurn;
+    }
+
+    /**
+     * @return amount of times {@link #update()} had to wait for packets of other players
+     */
+    public long getStalls() {
+        return stalls;
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.ai.AiCommand;
+
+/**
+ * The game as seen by {@link Lockstep}: something that executes commands of players, advances in fixed ticks and
+ * can summarize its state. Given the same commands at the same ticks, it must end up in the same state on every
+ * machine, see {@link ScenarioSimulation}.
+ */
+public interface LockstepSimulation {
+
+    void execute(int playerIndex, AiCommand command);
+
+    void tick(float deltaInSeconds);
+
+    /**
+     * @return checksum of the current state, see {@link StateChecksum}
+     */
+    long checksum();
+}
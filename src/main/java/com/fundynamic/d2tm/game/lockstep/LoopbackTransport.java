@@ -0,0 +1,91 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import java.util.ArrayDeque;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * A {@link Transport} within the JVM, for running several games against each other in one process (soak tests).
+ * {@link #connect(int, int)} creates one endpoint per player; what one endpoint sends, all others receive.
+ * </p>
+ * <h2>Latency</h2>
+ * <p>
+ * To mimic a network, a packet can be held back for an amount of polls: every {@link #poll()} of the receiving
+ * endpoint that has nothing to deliver ages all packets waiting for it by one, and a packet is delivered once it has
+ * aged <code>latency</code> polls. A {@link Lockstep} polls until there is nothing left once per tick, so latency is
+ * in ticks. With a latency of 0 packets arrive right away. This is deterministic, unlike a clock.
+ * </p>
+ * <p>
+ * Endpoints are not thread-safe, all games are expected to run on the same thread.
+ * </p>
+ */
+public class LoopbackTransport implements Transport {
+
+    private final int latencyInPolls;
+    private final ArrayDeque<InFlight> inbox = new ArrayDeque<>();
+    private LoopbackTransport[] endpoints;
+
+    private long bytesSent = 0;
+    private long packetsSent = 0;
+
+    private LoopbackTransport(int latencyInPolls) {
+        this.latencyInPolls = latencyInPolls;
+    }
+
+    /**
+     * @return one connected endpoint per player, index is player index
+     */
+    public static LoopbackTransport[] connect(int players, int latencyInPolls) {
+        if (players < 2) throw new IllegalArgumentException("Need at least 2 players, given " + players);
+        if (latencyInPolls < 0) throw new IllegalArgumentException("Latency may not be negative, given " + latencyInPolls);
+        LoopbackTransport[] endpoints = new LoopbackTransport[players];
+        for (int i = 0; i < players; i++) {
+            endpoints[i] = new LoopbackTransport(latencyInPolls);
+        }
+        for (LoopbackTransport endpoint : endpoints) {
+            endpoint.endpoints = endpoints;
+        }
+        return endpoints;
+    }
+
+    @Override
+    public void send(byte[] packet) {
+        bytesSent += packet.length;
+        packetsSent++;
+        for (LoopbackTransport endpoint : endpoints) {
+            if (endpoint == this) continue;
+            // copy, like a network would: the receiver may not see changes of the sender
+            endpoint.inbox.add(new InFlight(packet.clone(), latencyInPolls));
+        }
+    }
+
+    @Override
+    public byte[] poll() {
+        InFlight first = inbox.peek();
+        if (first != null && first.pollsToWait == 0) return inbox.poll().packet;
+
+        // nothing to deliver: time passes for whatever is on its way
+        for (InFlight inFlight : inbox) {
+            if (inFlight.pollsToWait > 0) inFlight.pollsToWait--;
+        }
+        return null;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    private static class InFlight {
+        private final byte[] packet;
+        private int pollsToWait;
+
+        private InFlight(byte[] packet, int pollsToWait) {
+            this.packet = packet;
+            this.pollsToWait = pollsToWait;
+        }
+    }
+}
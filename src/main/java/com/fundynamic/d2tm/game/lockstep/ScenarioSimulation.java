@@ -0,0 +1,55 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.ai.AiCommand;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.scheduling.WorkScheduler;
+import com.fundynamic.d2tm.game.scenario.Scenario;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Runs a {@link Scenario} in lockstep. Players are known by index, which must be the same in every game (ie player 0
+ * is the human of the first machine, player 1 the human of the second).
+ * </p>
+ * <p>
+ * Do not start the cpu AI of the scenario: its thread runs at its own pace, so its decisions would arrive at different
+ * ticks in different games. Let its decisions be issued through {@link Lockstep#issue(AiCommand)} instead.
+ * </p>
+ * <p>
+ * For the same reason the {@link WorkScheduler} of the scenario may not be capped by time (see
+ * {@link WorkScheduler#setMillisecondsPerTick(float)}), only by work units.
+ * </p>
+ */
+public class ScenarioSimulation implements LockstepSimulation {
+
+    private final Scenario scenario;
+    private final Player[] players;
+
+    public ScenarioSimulation(Scenario scenario, Player... players) {
+        if (players.length == 0) throw new IllegalArgumentException("Need at least one player");
+        if (scenario.getEntityRepository().getWorkScheduler().isTimeCapped()) {
+            throw new IllegalArgumentException("The work scheduler of the scenario is capped by time, ticks would not be the same in every game");
+        }
+        this.scenario = scenario;
+        this.players = players;
+    }
+
+    @Override
+    public void execute(int playerIndex, AiCommand command) {
+        command.execute(scenario.getEntityRepository(), players[playerIndex]);
+    }
+
+    @Override
+    public void tick(float deltaInSeconds) {
+        scenario.update(deltaInSeconds);
+    }
+
+    @Override
+    public long checksum() {
+        return StateChecksum.of(scenario.getEntityRepository(), players);
+    }
+
+    public Player getPlayer(int playerIndex) {
+        return players[playerIndex];
+    }
+}
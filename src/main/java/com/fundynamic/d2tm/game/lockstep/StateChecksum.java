@@ -0,0 +1,58 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.behaviors.Destructible;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Player;
+
+import java.util.Objects;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * A 64 bit summary of the game state that matters for the outcome of a game: per entity its id, kind, exact position
+ * and hit points, and the credits of every player. Two games in lockstep must have the same checksum after every
+ * tick; when they do not, one of them has desynced (see {@link Lockstep}).
+ * </p>
+ * <p>
+ * Entities are combined by adding their (mixed) hashes, so the order in which they are visited does not matter and
+ * nothing needs to be sorted or allocated. Positions are hashed by their float bits: a game that is off by the
+ * smallest float step is off.
+ * </p>
+ */
+public class StateChecksum {
+
+    private StateChecksum() {
+    }
+
+    public static long of(EntityRepository entityRepository, Player... players) {
+        long checksum = 0;
+        for (Entity entity : entityRepository.getEntitiesSet()) {
+            checksum += mix(ofEntity(entity));
+        }
+        for (Player player : players) {
+            checksum = mix(checksum + player.getCredits());
+        }
+        return checksum;
+    }
+
+    private static long ofEntity(Entity entity) {
+        long hash = entity.getId();
+        hash = (hash * 31) + Objects.hashCode(entity.getEntityData().key);
+        hash = (hash * 31) + Float.floatToIntBits(entity.getCoordinate().getX());
+        hash = (hash * 31) + Float.floatToIntBits(entity.getCoordinate().getY());
+        if (entity instanceof Destructible) {
+            hash = (hash * 31) + ((Destructible) entity).getHitPoints();
+        }
+        return hash;
+    }
+
+    /**
+     * Spreads every input bit over the whole result (finalizer of SplitMix64)
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,19 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+/**
+ * Carries encoded {@link TurnPacket}s between the players of a {@link Lockstep} game. A transport must deliver every
+ * packet (in order) to every other player; it may take its time. See {@link LoopbackTransport} for one that stays
+ * within the JVM.
+ */
+public interface Transport {
+
+    /**
+     * Sends the packet to all other players.
+     */
+    void send(byte[] packet);
+
+    /**
+     * @return the next packet received from another player, or null when there is none (yet). Never blocks.
+     */
+    byte[] poll();
+}
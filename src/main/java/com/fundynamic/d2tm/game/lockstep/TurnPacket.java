@@ -0,0 +1,130 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.ai.AiCommand;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * What one player sends to the others for one turn of a {@link Lockstep} game:
+ * </p>
+ * <ul>
+ *     <li>the commands the player gave, to be executed at the start of <code>turn</code></li>
+ *     <li>the amount of ticks the player proposes for that turn</li>
+ *     <li>the checksum of the game state of the last turn the player completed (<code>checksumTurn</code>), so the
+ *     others can tell whether it is still in sync</li>
+ * </ul>
+ * <p>
+ * A turn without commands is 20 bytes. Only commands travel, never state, so the size does not depend on the amount
+ * of units in play.
+ * </p>
+ */
+public class TurnPacket {
+
+    public static final int NO_CHECKSUM_TURN = -1; // sent before any turn has been completed
+
+    private final int playerIndex;
+    private final int turn;
+    private final int ticksPerTurn;
+    private final int checksumTurn;
+    private final long checksum;
+    private final List<AiCommand> commands;
+
+    public TurnPacket(int playerIndex, int turn, int ticksPerTurn, int checksumTurn, long checksum, List<AiCommand> commands) {
+        if (playerIndex < 0 || playerIndex > Byte.MAX_VALUE) throw new IllegalArgumentException("Player index must be between 0 and " + Byte.MAX_VALUE + ", given " + playerIndex);
+        if (ticksPerTurn < 1 || ticksPerTurn > Byte.MAX_VALUE) throw new IllegalArgumentException("Ticks per turn must be between 1 and " + Byte.MAX_VALUE + ", given " + ticksPerTurn);
+        this.playerIndex = playerIndex;
+        this.turn = turn;
+        this.ticksPerTurn = ticksPerTurn;
+        this.checksumTurn = checksumTurn;
+        this.checksum = checksum;
+        this.commands = Collections.unmodifiableList(new ArrayList<>(commands));
+    }
+
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getTicksPerTurn() {
+        return ticksPerTurn;
+    }
+
+    public int getChecksumTurn() {
+        return checksumTurn;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public boolean hasChecksum() {
+        return checksumTurn != NO_CHECKSUM_TURN;
+    }
+
+    public List<AiCommand> getCommands() {
+        return commands;
+    }
+
+    public byte[] encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(playerIndex);
+            out.writeInt(turn);
+            out.writeByte(ticksPerTurn);
+            out.writeInt(checksumTurn);
+            out.writeLong(checksum);
+            out.writeShort(commands.size());
+            for (AiCommand command : commands) {
+                CommandCodec.write(command, out);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // does not happen, it is all in memory
+        }
+    }
+
+    public static TurnPacket decode(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            int playerIndex = in.readByte();
+            int turn = in.readInt();
+            int ticksPerTurn = in.readByte();
+            int checksumTurn = in.readInt();
+            long checksum = in.readLong();
+            int amountOfCommands = in.readUnsignedShort();
+            List<AiCommand> commands = new ArrayList<>(amountOfCommands);
+            for (int i = 0; i < amountOfCommands; i++) {
+                commands.add(CommandCodec.read(in));
+            }
+            return new TurnPacket(playerIndex, turn, ticksPerTurn, checksumTurn, checksum, commands);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to decode turn packet of " + bytes.length + " bytes", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TurnPacket{" +
+                "playerIndex=" + playerIndex +
+                ", turn=" + turn +
+                ", ticksPerTurn=" + ticksPerTurn +
+                ", checksumTurn=" + checksumTurn +
+                ", checksum=" + checksum +
+                ", commands=" + commands +
+                '}';
+    }
+}
@@ -0,0 +1,262 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.terrain.Terrain;
+import com.fundynamic.d2tm.game.terrain.TerrainFactory;
+import com.fundynamic.d2tm.game.terrain.impl.EmptyTerrain;
+import com.fundynamic.d2tm.graphics.Shroud;
+import org.newdawn.slick.SlickException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Compact binary format of the terrain of a {@link Map}. Unlike the <code>[TERRAIN]</code> section of a scenario ini
+ * file it holds the facing of every cell as well, so loading needs no smoothing pass, and the amount of spice per cell,
+ * so a map loads the same every time.
+ * </p>
+ * <h2>Layout</h2>
+ * <pre>
+ * header: magic "D2TM" (int), version (short), width (int), height (int),
+ *         offset of the terrain, facing and spice layer (3 ints)
+ * layers: runs of (length: unsigned short, value), over the playable cells row by row
+ *         terrain: terrain type (byte, {@link #EMPTY_TERRAIN} for empty terrain)
+ *         facing:  {@link MapEditor.TerrainFacing} ordinal (byte)
+ *         spice:   amount of spice (unsigned short)
+ * </pre>
+ * <h2>Loading</h2>
+ * <p>
+ * Files are memory-mapped and decoded straight into the {@link Map} storage, terrain is taken from the (flyweight)
+ * {@link TerrainFactory}, so no objects are created per cell.
+ * </p>
+ */
+public class BinaryMapFormat {
+
+    public static final int MAGIC = 0x4432544D; // "D2TM"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 4 + 2 + 4 + 4 + (3 * 4);
+
+    public static final byte EMPTY_TERRAIN = -1;
+
+    private static final int MAX_RUN_LENGTH = 0xFFFF;
+    private static final int MAX_SPICE = 0xFFFF;
+
+    private static final MapEditor.TerrainFacing[] FACINGS = MapEditor.TerrainFacing.values();
+
+    private final Shroud shroud;
+    private final TerrainFactory terrainFactory;
+
+    public BinaryMapFormat(Shroud shroud, TerrainFactory terrainFactory) {
+        this.shroud = shroud;
+        this.terrainFactory = terrainFactory;
+    }
+
+    // WRITING
+    ////////////////////////////////////////////////////////////////////////////////
+
+    public void write(Map map, Path path) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            write(map, outputStream);
+        }
+    }
+
+    public void write(Map map, OutputStream outputStream) throws IOException {
+        RunWriter terrains = new RunWriter(false);
+        RunWriter facings = new RunWriter(false);
+        RunWriter spice = new RunWriter(true);
+
+        for (int y = 1; y <= map.getHeight(); y++) {
+            for (int x = 1; x <= map.getWidth(); x++) {
+                terrains.add((byte) map.getTerrain(x, y).getTerrainType());
+                facings.add(map.getTerrainFacing(x, y).ordinal());
+                spice.add(Math.min(MAX_SPICE, Math.round(map.getSpiceIndex().getSpice(x, y))));
+            }
+        }
+
+        byte[] terrainLayer = terrains.toByteArray();
+        byte[] facingLayer = facings.toByteArray();
+        byte[] spiceLayer = spice.toByteArray();
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(map.getWidth());
+        out.writeInt(map.getHeight());
+        out.writeInt(HEADER_SIZE);
+        out.writeInt(HEADER_SIZE + terrainLayer.length);
+        out.writeInt(HEADER_SIZE + terrainLayer.length + facingLayer.length);
+        out.write(terrainLayer);
+        out.write(facingLayer);
+        out.write(spiceLayer);
+        out.flush();
+    }
+
+    // READING
+    ////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reads map from file, the file is memory-mapped.
+     */
+    public Map read(Path path) throws IOException, SlickException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads map from the classpath. Memory-mapped when the resource is a plain file, otherwise (ie, within a jar) it is
+     * read into memory first.
+     */
+    public Map readResource(String resourceName) throws IOException, SlickException {
+        URL url = getClass().getResource("/" + resourceName);
+        if (url == null) throw new IllegalArgumentException("Unable to open map file: " + resourceName);
+
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return read(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Unable to open map file: " + resourceName, e);
+            }
+        }
+
+        try (InputStream inputStream = url.openStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = inputStream.read(chunk)) != -1) {
+                bytes.write(chunk, 0, read);
+            }
+            return read(ByteBuffer.wrap(bytes.toByteArray()));
+        }
+    }
+
+    public Map read(ByteBuffer buffer) throws SlickException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a map file, expected it to start with magic " + Integer.toHexString(MAGIC));
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported map file version " + version + ", expected " + VERSION);
+        }
+        int width = buffer.getInt(6);
+        int height = buffer.getInt(10);
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Invalid map dimensions given [" + width + "x" + height + "], must be greater than 1x1.");
+        }
+
+        RunReader terrains = new RunReader(buffer, buffer.getInt(14), false);
+        RunReader facings = new RunReader(buffer, buffer.getInt(18), false);
+        RunReader spice = new RunReader(buffer, buffer.getInt(22), true);
+
+        // terrain type -> (flyweight) terrain, resolved once per type
+        Terrain[] terrainByType = new Terrain[256];
+
+        Map map = new Map(shroud, width, height);
+        for (int y = 1; y <= height; y++) {
+            for (int x = 1; x <= width; x++) {
+                int terrainType = terrains.next();
+                Terrain terrain = terrainByType[terrainType & 0xFF];
+                if (terrain == null) {
+                    terrain = (byte) terrainType == EMPTY_TERRAIN ? EmptyTerrain.instance() : terrainFactory.create(terrainType);
+                    terrainByType[terrainType & 0xFF] = terrain;
+                }
+                map.setTerrain(x, y, terrain, spice.next());
+
+                int facing = facings.next();
+                if (facing < 0 || facing >= FACINGS.length) {
+                    throw new IllegalArgumentException("Invalid facing " + facing + " for cell " + x + "," + y);
+                }
+                map.setTerrainFacing(x, y, FACINGS[facing]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Run length encodes values of one layer.
+     */
+    private static class RunWriter {
+        private final boolean shortValues;
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private int value;
+        private int runLength = 0;
+
+        RunWriter(boolean shortValues) {
+            this.shortValues = shortValues;
+            this.out = new DataOutputStream(bytes);
+        }
+
+        void add(int value) throws IOException {
+            if (runLength > 0 && (value != this.value || runLength == MAX_RUN_LENGTH)) {
+                flush();
+            }
+            this.value = value;
+            runLength++;
+        }
+
+        byte[] toByteArray() throws IOException {
+            flush();
+            return bytes.toByteArray();
+        }
+
+        private void flush() throws IOException {
+            if (runLength == 0) return;
+            out.writeShort(runLength);
+            if (shortValues) {
+                out.writeShort(value);
+            } else {
+                out.writeByte(value);
+            }
+            runLength = 0;
+        }
+    }
+
+    /**
+     * Decodes the runs of one layer, reading the buffer at absolute positions.
+     */
+    private static class RunReader {
+        private final ByteBuffer buffer;
+        private final boolean shortValues;
+
+        private int position;
+        private int remaining = 0;
+        private int value;
+
+        RunReader(ByteBuffer buffer, int position, boolean shortValues) {
+            this.buffer = buffer;
+            this.position = position;
+            this.shortValues = shortValues;
+        }
+
+        int next() {
+            if (remaining == 0) {
+                int runSize = shortValues ? 4 : 3;
+                if (position < HEADER_SIZE || position + runSize > buffer.limit()) {
+                    throw new IllegalArgumentException("Map file is truncated, expected more runs at position " + position);
+                }
+                remaining = buffer.getShort(position) & 0xFFFF;
+                value = shortValues ? buffer.getShort(position + 2) & 0xFFFF : buffer.get(position + 2);
+                position += runSize;
+                if (remaining == 0) {
+                    throw new IllegalArgumentException("Map file is corrupt, found a run of length 0 at position " + (position - runSize));
+                }
+            }
+            remaining--;
+            return value;
+        }
+    }
+}
@@ -15,6 +15,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * A lightweight view on one cell of a {@link Map}. All state (terrain, facing, spice) lives in the map, so cells
+ * are cheap to create and two cells on the same map and location are equal.
+ */
 public class Cell {
 
     public static final int TILE_SIZE = 32;
@@ -22,48 +26,60 @@ public class Cell {
     public static final int HALF_TILE = TILE_SIZE / 2;
     public static final int DOUBLE_TILE_SIZE = TILE_SIZE * 2;
 
-    private final Map map;
+    protected final Map map;
+    private int x, y;
 
-    private Terrain terrain;
-
-    private MapCoordinate mapCoordinate;
-    private Image tileImage;
-
-    public Cell(Map map, Terrain terrain, int mapX, int mapY) {
-        if (terrain == null) throw new IllegalArgumentException("Terrain argument may not be null");
+    public Cell(Map map, int mapX, int mapY) {
         if (map == null) throw new IllegalArgumentException("Map argument may not be null");
         if (mapX < 0 || mapY < 0) throw new OutOfMapBoundsException("screenX may ot be lower than 0, for given screenX, screenY: " + mapX + "," + mapY);
-        this.terrain = terrain;
         this.map = map;
-        this.mapCoordinate = MapCoordinate.create(mapX, mapY);
+        this.x = mapX;
+        this.y = mapY;
     }
 
+    /**
+     * Creates a cell and puts given terrain on it.
+     */
+    public Cell(Map map, Terrain terrain, int mapX, int mapY) {
+        this(map, mapX, mapY);
+        if (terrain == null) throw new IllegalArgumentException("Terrain argument may not be null");
+        changeTerrain(terrain);
+    }
+
+    /**
+     * Puts terrain on this cell, a {@link Harvestable} terrain gets its initial amount of spice.
+     * @param terrain
+     */
     public void changeTerrain(Terrain terrain) {
-        this.terrain = terrain;
+        float spice = 0F;
+        if (terrain instanceof Harvestable) {
+            spice = ((Harvestable) terrain).getInitialAmount();
+        }
+        changeTerrain(terrain, spice);
     }
 
-    // this is an ugly seam required for testing
-    public void setTileImage(Image image) {
-        this.tileImage = image;
+    public void changeTerrain(Terrain terrain, float spice) {
+        map.setTerrain(x, y, terrain, spice);
     }
 
     public Image getTileImage() throws SlickException {
-        if (this.tileImage != null) {
-            return this.tileImage;
-        }
-        return terrain.getTileImage();
+        return getTerrain().getTileImage(getTerrainFacing());
     }
 
     public Color getTerrainColor() {
-        return terrain.getTerrainColor();
+        return getTerrain().getTerrainColor();
     }
 
     public Terrain getTerrain() {
-        return terrain;
+        return map.getTerrain(x, y);
+    }
+
+    public MapEditor.TerrainFacing getTerrainFacing() {
+        return map.getTerrainFacing(x, y);
     }
 
     public Cell getNeighbouringCell(int relativeX, int relativeY) {
-        return map.getCellWithinBoundariesOrNullObject(this.mapCoordinate.getXAsInt() + relativeX, this.mapCoordinate.getYAsInt() + relativeY);
+        return map.getCellWithinBoundariesOrNullObject(x + relativeX, y + relativeY);
     }
 
     public Cell getCellAbove() {
@@ -88,38 +104,40 @@ public class Cell {
      * @return
      */
     public Coordinate getCoordinate() {
-        return mapCoordinate.toCoordinate();
+        return getMapCoordinate().toCoordinate();
     }
 
     public boolean isAtSameLocationAs(Cell other) {
         if (other == null) return false;
-        return this.mapCoordinate.equals(other.getMapCoordinate());
+        return x == other.x && y == other.y;
     }
 
     /**
      * Returns its internal {@link MapCoordinate} position (on the {@link Map}. No conversion is being done.
+     * This is the interned instance of the map, see {@link Map#getMapCoordinate(int, int)}.
      * @return
      */
     public MapCoordinate getMapCoordinate() {
-        return mapCoordinate;
+        return map.getMapCoordinate(x, y);
     }
 
     public boolean isVisibleFor(Player controllingPlayer) {
-        return !controllingPlayer.isShrouded(mapCoordinate);
+        return !controllingPlayer.isShrouded(x, y);
     }
 
     public boolean isPassable(Entity entity) {
-        return terrain.isPassable(entity);
+        return getTerrain().isPassable(entity);
     }
 
     public void smooth() {
+        Terrain terrain = getTerrain();
         MapEditor.TerrainFacing facing = MapEditor.getFacing(
                 terrain.isSame(getCellTerrain(getCellAbove())),
                 terrain.isSame(getCellTerrain(getCellRight())),
                 terrain.isSame(getCellTerrain(getCellBeneath())),
                 terrain.isSame(getCellTerrain(getCellLeft())));
 
-        terrain.setFacing(facing);
+        map.setTerrainFacing(x, y, facing);
     }
 
     private Terrain getCellTerrain(Cell cell) {
@@ -151,29 +169,70 @@ public class Cell {
     }
 
     public boolean isHarvestable() {
-        return terrain instanceof Harvestable;
+        return getTerrain() instanceof Harvestable;
     }
 
+    /**
+     * The amount of 'resource (spice)' left on this cell.
+     * @return
+     */
+    public float getSpice() {
+        return map.getSpiceIndex().getSpice(x, y);
+    }
+
+    /**
+     * Reduces the amount of 'resource (spice)' on this cell. Returns the actual withdrawn amount.
+     * @param amount
+     * @return
+     */
     public float harvest(float amount) {
-        if (isHarvestable()) {
-            return ((Harvestable) terrain).harvest(amount);
+        Terrain terrain = getTerrain();
+        if (!(terrain instanceof Harvestable)) return 0f;
+
+        float spice = getSpice();
+        if (spice > amount) {
+            map.getSpiceIndex().set(x, y, spice - amount);
+            return amount;
         }
-        return 0f;
+        map.getSpiceIndex().set(x, y, 0F);
+        ((Harvestable) terrain).depleted(this);
+        return spice;
     }
 
     public float distance(Entity entity) {
-        return this.mapCoordinate.toCoordinate().distance(entity.getCoordinate());
+        return getCoordinate().distance(entity.getCoordinate());
     }
 
     public static Cell emptyTerrainCell(Map map, int x, int y) {
         return new Cell(map, EmptyTerrain.instance(), x, y);
     }
 
+    /**
+     * Only for {@link CellCursor}, cells handed out by the map never move.
+     */
+    void setLocation(int mapX, int mapY) {
+        this.x = mapX;
+        this.y = mapY;
+    }
+
     public int getX() {
-        return mapCoordinate.getXAsInt();
+        return x;
     }
 
     public int getY() {
-        return mapCoordinate.getYAsInt();
+        return y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Cell other = (Cell) o;
+        return map == other.map && x == other.x && y == other.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * x) + y;
     }
 }
@@ -0,0 +1,20 @@
+package com.fundynamic.d2tm.game.map;
+
+/**
+ * A {@link Cell} that is moved over the map instead of being created per cell, for loops that visit many cells every
+ * frame (ie the {@link com.fundynamic.d2tm.game.rendering.gui.battlefield.CellViewportRenderer}). It is only valid
+ * until it is moved again, so never hold on to it nor put it in a collection; use {@link Map#getCell(int, int)} for
+ * that. Compare locations with {@link #isAtSameLocationAs(Cell)}, a cursor never equals a cell.
+ */
+public class CellCursor extends Cell {
+
+    CellCursor(Map map) {
+        super(map, 0, 0);
+    }
+
+    public CellCursor moveTo(int mapX, int mapY) {
+        map.checkWithinBounds(mapX, mapY);
+        setLocation(mapX, mapY);
+        return this;
+    }
+}
@@ -0,0 +1,129 @@
+package com.fundynamic.d2tm.game.map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * A precomputed table of cell offsets relative to the top-left cell of an entity. There are two kinds:
+ * </p>
+ * <ul>
+ *     <li>{@link #footprint(int, int)}: the cells an entity of that size covers</li>
+ *     <li>{@link #surrounding(int, int, int)}: the cells around it, up to a distance (in cells). Each cell once.</li>
+ * </ul>
+ * <p>
+ * Tables are immutable and shared: there is one per size (and distance). Walk them with an index, that does not
+ * allocate anything:
+ * </p>
+ * <pre>
+ *     CellOffsets ring = entityData.getSurroundingCells();
+ *     for (int i = 0; i &lt; ring.size(); i++) {
+ *         int x = topLeftX + ring.getX(i);
+ *         int y = topLeftY + ring.getY(i);
+ *     }
+ * </pre>
+ */
+public class CellOffsets {
+
+    private static final ConcurrentHashMap<Long, CellOffsets> footprints = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Long, CellOffsets> surroundings = new ConcurrentHashMap<>();
+
+    private final int[] offsetsX;
+    private final int[] offsetsY;
+
+    private CellOffsets(int[] offsetsX, int[] offsetsY) {
+        this.offsetsX = offsetsX;
+        this.offsetsY = offsetsY;
+    }
+
+    /**
+     * The cells covered by an entity of given size, column by column (x first, then y). Entities without size (ie a
+     * super power) cover no cells.
+     */
+    public static CellOffsets footprint(int widthInCells, int heightInCells) {
+        if (widthInCells < 0 || heightInCells < 0) {
+            throw new IllegalArgumentException("Footprint may not be negative, given " + widthInCells + "x" + heightInCells);
+        }
+        return footprints.computeIfAbsent(key(widthInCells, heightInCells, 0), k -> {
+            int size = widthInCells * heightInCells;
+            int[] offsetsX = new int[size];
+            int[] offsetsY = new int[size];
+            int i = 0;
+            for (int x = 0; x < widthInCells; x++) {
+                for (int y = 0; y < heightInCells; y++) {
+                    offsetsX[i] = x;
+                    offsetsY[i] = y;
+                    i++;
+                }
+            }
+            return new CellOffsets(offsetsX, offsetsY);
+        });
+    }
+
+    /**
+     * The cells around an entity of given size, as rectangular rings from <code>distance</code> down to 1. Per ring
+     * the top row comes first, then the left and right side, then the bottom row.
+     */
+    public static CellOffsets surrounding(int widthInCells, int heightInCells, int distance) {
+        if (widthInCells < 0 || heightInCells < 0) {
+            throw new IllegalArgumentException("Footprint may not be negative, given " + widthInCells + "x" + heightInCells);
+        }
+        if (distance < 1) throw new IllegalArgumentException("Distance must be at least 1, given " + distance);
+        return surroundings.computeIfAbsent(key(widthInCells, heightInCells, distance), k -> {
+            int size = 0;
+            for (int ring = distance; ring >= 1; ring--) {
+                size += ringSize(widthInCells, heightInCells, ring);
+            }
+
+            int[] offsetsX = new int[size];
+            int[] offsetsY = new int[size];
+            int i = 0;
+            for (int ring = distance; ring >= 1; ring--) {
+                int left = -ring;
+                int top = -ring;
+                int right = widthInCells - 1 + ring;
+                int bottom = heightInCells - 1 + ring;
+
+                for (int x = left; x <= right; x++, i++) {
+                    offsetsX[i] = x;
+                    offsetsY[i] = top;
+                }
+                for (int y = top + 1; y < bottom; y++) {
+                    offsetsX[i] = left;
+                    offsetsY[i] = y;
+                    i++;
+                    offsetsX[i] = right;
+                    offsetsY[i] = y;
+                    i++;
+                }
+                for (int x = left; x <= right; x++, i++) {
+                    offsetsX[i] = x;
+                    offsetsY[i] = bottom;
+                }
+            }
+            return new CellOffsets(offsetsX, offsetsY);
+        });
+    }
+
+    private static int ringSize(int widthInCells, int heightInCells, int ring) {
+        int ringWidth = widthInCells + (2 * ring);
+        int ringHeight = heightInCells + (2 * ring);
+        return (2 * ringWidth) + (2 * (ringHeight - 2));
+    }
+
+    private static long key(int widthInCells, int heightInCells, int distance) {
+        return ((long) widthInCells << 42) | ((long) heightInCells << 21) | distance;
+    }
+
+    public int size() {
+        return offsetsX.length;
+    }
+
+    public int getX(int index) {
+        return offsetsX[index];
+    }
+
+    public int getY(int index) {
+        return offsetsY[index];
+    }
+}
@@ -1,8 +1,12 @@
 package com.fundynamic.d2tm.game.map;
 
 import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
 import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.terrain.Terrain;
+import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.game.terrain.impl.DuneTerrain;
+import com.fundynamic.d2tm.game.terrain.impl.EmptyTerrain;
 import com.fundynamic.d2tm.graphics.Shroud;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
@@ -11,6 +15,8 @@ import com.fundynamic.d2tm.math.Vector2D;
 import org.newdawn.slick.SlickException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
@@ -19,14 +25,55 @@ import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
  *
  * This class represents the game map data.
  *
+ * <h2>Storage</h2>
+ * <p>
+ * The state of all cells is kept in primitive arrays, one slot per cell (including the invisible border), indexed by
+ * <code>x + (y * widthWithInvisibleBorder)</code>:
+ * </p>
+ * <ul>
+ *     <li>terrain: index into the palette of (shared) {@link Terrain} instances used on this map</li>
+ *     <li>facing: ordinal of the {@link MapEditor.TerrainFacing}</li>
+ *     <li>flags: passability, see {@link #isPassableForUnits(int, int)}</li>
+ *     <li>spice: kept by the {@link SpiceIndex}</li>
+ * </ul>
+ * <p>
+ * A {@link Cell} is a lightweight view on x,y of this storage, handed out by {@link #getCell(int, int)}.
+ * </p>
+ * <h2>Cell keys and map coordinates</h2>
+ * <p>
+ * The index of a cell in above arrays is its <i>cell key</i> ({@link #toCellKey(int, int)}). Use it as key for per-cell
+ * state (ie shroud) instead of a {@link MapCoordinate}, which would cost a boxed key and float equals/hashCode.
+ * There is one (interned) {@link MapCoordinate} per cell, handed out by {@link #getMapCoordinate(int, int)}; use these
+ * instead of creating new ones for cells on the map. They are created the first time they are asked for, so a map
+ * costs one reference per cell up front and only the cells that are actually used cost an object. Interning is done
+ * by the game thread only.
+ * </p>
+ *
  */
 public class Map {
 
+    public static final int MAX_TERRAINS = 256; // terrain palette index is a byte
+
+    private static final byte FLAG_PASSABLE_FOR_UNITS = 1;
+
+    private static final MapEditor.TerrainFacing[] FACINGS = MapEditor.TerrainFacing.values();
+
     private Shroud shroud;
     private final int height, width;
     private final int heightWithInvisibleBorder, widthWithInvisibleBorder;
 
-    private Cell[][] cells;
+    private final byte[] terrains;
+    private final byte[] facings;
+    private final byte[] flags;
+    private final MapCoordinate[] mapCoordinates;
+
+    private final Terrain[] terrainPalette = new Terrain[MAX_TERRAINS];
+    private final IdentityHashMap<Terrain, Integer> terrainPaletteIndex = new IdentityHashMap<>();
+
+    private final OccupancyGrid occupancyGrid;
+    private final SpiceIndex spiceIndex;
+
+    private int terrainPassabilityVersion = 0;
 
     public Map(Shroud shroud, int width, int height) throws SlickException {
         this.shroud = shroud;
@@ -35,16 +82,55 @@ public class Map {
         this.heightWithInvisibleBorder = height + 2;
         this.widthWithInvisibleBorder = width + 2;
 
-        this.cells = new Cell[widthWithInvisibleBorder][heightWithInvisibleBorder];
-        for (int x = 0; x < widthWithInvisibleBorder; x++) {
-            for (int y = 0; y < heightWithInvisibleBorder; y++) {
-                Cell cell = Cell.emptyTerrainCell(this, x, y);
-                // This is quirky, but I think Cell will become part of a list and Map will no longer be an array then.
-                cells[x][y] = cell;
-            }
+        this.occupancyGrid = new OccupancyGrid(widthWithInvisibleBorder, heightWithInvisibleBorder);
+        this.spiceIndex = new SpiceIndex(this);
+
+        int cells = widthWithInvisibleBorder * heightWithInvisibleBorder;
+        this.terrains = new byte[cells]; // all 0, which is empty terrain (see below)
+        this.facings = new byte[cells]; // all 0, which is TerrainFacing.FULL
+        this.flags = new byte[cells];
+        this.mapCoordinates = new MapCoordinate[cells]; // created when asked for, see mapCoordinateOf
+
+        Terrain emptyTerrain = EmptyTerrain.instance();
+        paletteIndexOf(emptyTerrain);
+        if (emptyTerrain.isPassable(EntityType.UNIT)) {
+            Arrays.fill(flags, FLAG_PASSABLE_FOR_UNITS);
         }
     }
 
+    /**
+     * Which entities reserve or occupy which cells, see {@link OccupancyGrid}
+     * @return
+     */
+    public OccupancyGrid getOccupancyGrid() {
+        return occupancyGrid;
+    }
+
+    /**
+     * Where the spice is, see {@link SpiceIndex}
+     * @return
+     */
+    public SpiceIndex getSpiceIndex() {
+        return spiceIndex;
+    }
+
+    /**
+     * Called when terrain of a cell changed from passable to impassable (or vice versa).
+     */
+    public void passabilityChanged() {
+        terrainPassabilityVersion++;
+    }
+
+    /**
+     * Changes whenever passability of the terrain of any cell changes. Caches derived from passability (ie
+     * {@link RefineryDistanceField}) compare this to know when they are stale; for structures being placed or removed
+     * see {@link OccupancyGrid#getStructuresVersion()}.
+     * @return
+     */
+    public int getTerrainPassabilityVersion() {
+        return terrainPassabilityVersion;
+    }
+
     /**
      * The playable width of the map
      * @return
@@ -70,15 +156,15 @@ public class Map {
      * @return
      */
     public Cell getCell(int mapX, int mapY) {
-        try {
-            return cells[mapX][mapY];
-        } catch (ArrayIndexOutOfBoundsException e) {
-            throw new ArrayIndexOutOfBoundsException("You're going out of bounds!\n" +
-                    "Parameters given: screenX = " + mapX + ", screenY = " + mapY + ".\n" +
-                    "You must keep within the dimensions:\n" +
-                    "Width: 0 to (not on or over!) " + widthWithInvisibleBorder + "\n" +
-                    "Height: 0 to (not on or over!) " + heightWithInvisibleBorder);
-        }
+        toIndex(mapX, mapY); // validates
+        return new Cell(this, mapX, mapY);
+    }
+
+    /**
+     * A cell that is moved over this map, for loops visiting many cells every frame, see {@link CellCursor}.
+     */
+    public CellCursor createCellCursor() {
+        return new CellCursor(this);
     }
 
     /**
@@ -90,8 +176,162 @@ public class Map {
         return getCell(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
     }
 
+    /**
+     * The (interned) map coordinate of cell x,y. Always the same instance for the same cell.
+     * @param x
+     * @param y
+     * @return
+     */
+    public MapCoordinate getMapCoordinate(int x, int y) {
+        return mapCoordinateOf(toIndex(x, y));
+    }
+
+    /**
+     * The (interned) map coordinate of given cell key, see {@link #toCellKey(int, int)}
+     * @param cellKey
+     * @return
+     */
+    public MapCoordinate getMapCoordinate(int cellKey) {
+        if (!isCellKey(cellKey)) {
+            throw new ArrayIndexOutOfBoundsException("Cell key " + cellKey + " is not within 0 to (not on or over!) " + mapCoordinates.length);
+        }
+        return mapCoordinateOf(cellKey);
+    }
+
+    /**
+     * Returns the interned map coordinate for x,y when it is on this map (including the invisible border), else
+     * creates a new one. Use this for coordinates that may lie outside of the map (ie around an entity at the edge).
+     * @param x
+     * @param y
+     * @return
+     */
+    public MapCoordinate internMapCoordinate(int x, int y) {
+        if (x < 0 || y < 0 || x >= widthWithInvisibleBorder || y >= heightWithInvisibleBorder) {
+            return MapCoordinate.create(x, y);
+        }
+        return mapCoordinateOf(x + (y * widthWithInvisibleBorder));
+    }
+
+    private MapCoordinate mapCoordinateOf(int cellKey) {
+        MapCoordinate mapCoordinate = mapCoordinates[cellKey];
+        if (mapCoordinate == null) {
+            mapCoordinate = new MapCoordinate(getCellKeyX(cellKey), getCellKeyY(cellKey));
+            mapCoordinates[cellKey] = mapCoordinate;
+        }
+        return mapCoordinate;
+    }
+
+    /**
+     * Key of cell x,y: <code>x + (y * (width + 2))</code>, the invisible border included. Keys run from 0 to (not on)
+     * {@link #getCellKeyCount()}, so they can be used as index of a per-cell array.
+     * @param x
+     * @param y
+     * @return
+     */
+    public int toCellKey(int x, int y) {
+        return toIndex(x, y);
+    }
+
+    public int toCellKey(MapCoordinate mapCoordinate) {
+        return toIndex(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
+    }
+
+    public int getCellKeyX(int cellKey) {
+        return cellKey % widthWithInvisibleBorder;
+    }
+
+    public int getCellKeyY(int cellKey) {
+        return cellKey / widthWithInvisibleBorder;
+    }
+
+    public boolean isCellKey(int cellKey) {
+        return cellKey >= 0 && cellKey < mapCoordinates.length;
+    }
+
+    /**
+     * @return amount of cells including the invisible border, all cell keys are lower than this
+     */
+    public int getCellKeyCount() {
+        return mapCoordinates.length;
+    }
+
+    public Terrain getTerrain(int x, int y) {
+        return terrainPalette[terrains[toIndex(x, y)] & 0xFF];
+    }
+
+    /**
+     * Puts terrain on cell x,y, with given amount of spice. The facing of the cell is reset to
+     * {@link MapEditor.TerrainFacing#FULL}.
+     *
+     * @param x
+     * @param y
+     * @param terrain
+     * @param spice
+     */
+    public void setTerrain(int x, int y, Terrain terrain, float spice) {
+        if (terrain == null) throw new IllegalArgumentException("Terrain argument may not be null");
+        int index = toIndex(x, y);
+        boolean wasPassable = (flags[index] & FLAG_PASSABLE_FOR_UNITS) != 0;
+        boolean passable = terrain.isPassable(EntityType.UNIT);
+
+        terrains[index] = (byte) paletteIndexOf(terrain);
+        facings[index] = (byte) MapEditor.TerrainFacing.FULL.ordinal();
+        if (passable) {
+            flags[index] |= FLAG_PASSABLE_FOR_UNITS;
+        } else {
+            flags[index] &= ~FLAG_PASSABLE_FOR_UNITS;
+        }
+        spiceIndex.set(x, y, spice);
+
+        if (wasPassable != passable) {
+            passabilityChanged();
+        }
+    }
+
     public MapEditor.TerrainFacing getTerrainFacing(int x, int y) {
-        return getCell(x, y).getTerrain().getTerrainFacing();
+        return FACINGS[facings[toIndex(x, y)]];
+    }
+
+    public void setTerrainFacing(int x, int y, MapEditor.TerrainFacing terrainFacing) {
+        facings[toIndex(x, y)] = (byte) terrainFacing.ordinal();
+    }
+
+    /**
+     * Is the terrain of cell x,y passable for units? (structures are not taken into account, see {@link OccupancyGrid})
+     * @param x
+     * @param y
+     * @return
+     */
+    public boolean isPassableForUnits(int x, int y) {
+        return (flags[toIndex(x, y)] & FLAG_PASSABLE_FOR_UNITS) != 0;
+    }
+
+    private int paletteIndexOf(Terrain terrain) {
+        Integer index = terrainPaletteIndex.get(terrain);
+        if (index != null) return index;
+
+        int newIndex = terrainPaletteIndex.size();
+        if (newIndex >= MAX_TERRAINS) {
+            throw new IllegalStateException("Cannot use more than " + MAX_TERRAINS + " different terrain instances on one map, share terrain instances (see TerrainFactory)");
+        }
+        terrainPalette[newIndex] = terrain;
+        terrainPaletteIndex.put(terrain, newIndex);
+        return newIndex;
+    }
+
+    void checkWithinBounds(int mapX, int mapY) {
+        toIndex(mapX, mapY);
+    }
+
+    private int toIndex(int mapX, int mapY) {
+        if (mapX < 0 || mapY < 0 || mapX >= widthWithInvisibleBorder || mapY >= heightWithInvisibleBorder) {
+            throw new ArrayIndexOutOfBoundsException("You're going out of bounds!\n" +
+                    "Parameters given: screenX = " + mapX + ", screenY = " + mapY + ".\n" +
+                    "You must keep within the dimensions:\n" +
+                    "Width: 0 to (not on or over!) " + widthWithInvisibleBorder + "\n" +
+                    "Height: 0 to (not on or over!) " + heightWithInvisibleBorder);
+        }
+        return mapX + (mapY * widthWithInvisibleBorder);
     }
 
     /**
@@ -150,12 +390,11 @@ public class Map {
     }
 
     public List<Cell> getAllCellsOccupiedByEntity(Entity entity) {
-        List<Cell> result = new ArrayList<>(entity.getWidthInCells() * entity.getWidthInCells());
+        CellOffsets footprint = entity.getEntityData().getFootprint();
+        List<Cell> result = new ArrayList<>(footprint.size());
         MapCoordinate mapCoordinate = entity.getCoordinate().toMapCoordinate();
-        for (int x = 0; x < entity.getWidthInCells(); x++) {
-            for (int y = 0; y < entity.getWidthInCells(); y++) {
-                result.add(this.getCell(mapCoordinate.getXAsInt() + x, mapCoordinate.getYAsInt() + y));
-            }
+        for (int i = 0; i < footprint.size(); i++) {
+            result.add(this.getCell(mapCoordinate.getXAsInt() + footprint.getX(i), mapCoordinate.getYAsInt() + footprint.getY(i)));
         }
         return result;
     }
@@ -173,9 +412,11 @@ public class Map {
     }
 
     public Entity revealShroudFor(Entity entity) {
-        List<MapCoordinate> allCoordinates = entity.getAllCellsAsMapCoordinates();
-        for (MapCoordinate coordinate : allCoordinates) {
-            revealShroudFor(coordinate, entity.getSight(), entity.getPlayer());
+        CellOffsets footprint = entity.getEntityData().getFootprint();
+        int topLeftX = EntityData.getTopLeftCellX(entity.getCoordinate());
+        int topLeftY = EntityData.getTopLeftCellY(entity.getCoordinate());
+        for (int i = 0; i < footprint.size(); i++) {
+            revealShroudFor(topLeftX + footprint.getX(i), topLeftY + footprint.getY(i), entity.getSight(), entity.getPlayer());
         }
         return entity;
     }
@@ -185,7 +426,7 @@ public class Map {
         for (int y = 0; y < height; y++) {
             String line = "";
             for (int x = 0; x < width; x++) {
-                if (player.isShrouded(getCell(x, y).getMapCoordinate())) {
+                if (player.isShrouded(x, y)) {
                     line += "#";
                 } else {
                     line += ".";
@@ -201,7 +442,7 @@ public class Map {
         for (int y = 1; y < (height + 1); y++) {
             String line = "";
             for (int x = 1; x < (width + 1); x++) {
-                switch (getCell(x, y).getTerrain().getTerrainType()) {
+                switch (getTerrain(x, y).getTerrainType()) {
                     case DuneTerrain.TERRAIN_SAND:
                         line += "S";
                         break;
@@ -228,7 +469,7 @@ public class Map {
     }
 
     public void revealShroudFor(int x, int y, Player player) {
-        player.revealShroudFor(getCell(x, y).getMapCoordinate());
+        player.revealShroudFor(this, x, y);
     }
 
     public void revealShroudFor(int x, int y, int range, Player player) {
@@ -254,24 +495,29 @@ public class Map {
                 double circleX = (centerX + (Trigonometry.cos[degrees] * rangeInPixels));
                 double circleY = (centerY + (Trigonometry.sin[degrees] * rangeInPixels));
 
-                // convert back the pixel coordinates back to a cell
-                Cell cell = getCellByAbsoluteMapCoordinates(
-                        Coordinate.create((int) Math.ceil(circleX), (int) Math.ceil(circleY))
-                );
+                // convert back the pixel coordinates back to a cell (protected, like getCellByAbsoluteMapCoordinates)
+                int cellX = clamp((int) ((float) Math.ceil(circleX) / TILE_SIZE), widthWithInvisibleBorder);
+                int cellY = clamp((int) ((float) Math.ceil(circleY) / TILE_SIZE), heightWithInvisibleBorder);
 
-                player.revealShroudFor(cell.getMapCoordinate());
+                player.revealShroudFor(this, cellX, cellY);
             }
         }
     }
 
+    private static int clamp(int value, int dimension) {
+        if (value < 0) return 0;
+        if (value >= dimension) return dimension - 1;
+        return value;
+    }
+
     public void revealShroudFor(MapCoordinate mapCoordinate, int range, Player player) {
         revealShroudFor(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt(), range, player);
     }
 
     public void revealAllShroudFor(Player player) {
-        for (Cell[] cellsRow : cells) {
-            for (Cell cell : cellsRow) {
-                player.revealShroudFor(cell.getMapCoordinate());
+        for (int y = 0; y < heightWithInvisibleBorder; y++) {
+            for (int x = 0; x < widthWithInvisibleBorder; x++) {
+                player.revealShroudFor(this, x, y);
             }
         }
     }
@@ -283,8 +529,10 @@ public class Map {
      * @return
      */
     public boolean isWithinPlayableMapBoundaries(MapCoordinate mapCoordinate) {
-        int x = mapCoordinate.getXAsInt();
-        int y = mapCoordinate.getYAsInt();
+        return isWithinPlayableMapBoundaries(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
+    }
+
+    public boolean isWithinPlayableMapBoundaries(int x, int y) {
         return x >= 1 && x <= width && y >= 1 && y <= height;
     }
 
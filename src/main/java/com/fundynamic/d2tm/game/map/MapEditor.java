@@ -1,7 +1,6 @@
 package com.fundynamic.d2tm.game.map;
 
 
-import com.fundynamic.d2tm.game.terrain.Terrain;
 import com.fundynamic.d2tm.game.terrain.TerrainFactory;
 import com.fundynamic.d2tm.game.terrain.impl.DuneTerrain;
 import com.fundynamic.d2tm.graphics.Shroud;
@@ -42,9 +41,15 @@ public class MapEditor {
     };
 
     private final TerrainFactory terrainFactory;
+    private final Random random;
 
     public MapEditor(TerrainFactory terrainFactory) {
+        this(terrainFactory, new Random(Random.DEFAULT_SEED));
+    }
+
+    public MapEditor(TerrainFactory terrainFactory, Random random) {
         this.terrainFactory = terrainFactory;
+        this.random = random;
     }
 
     public Map generateRandom(Shroud shroud, int width, int height) {
@@ -100,7 +105,7 @@ public class MapEditor {
         int spiceHillSize = (int)(spiceFieldSize * 0.05); // part of spiceFieldSize
 
         for (int f = 0; f < amountOfSpiceStuff; f++) {
-            MapCoordinate randomVec = MapCoordinate.random(minX, maxX, minY, maxY);
+            MapCoordinate randomVec = MapCoordinate.random(random, minX, maxX, minY, maxY);
             createCircularField(map, randomVec, DuneTerrain.TERRAIN_SPICE, spiceCircularSize);
             createField(map, randomVec, DuneTerrain.TERRAIN_SPICE, spiceFieldSize);
             createField(map, randomVec, DuneTerrain.TERRAIN_SPICE_HILL, spiceHillSize);
@@ -111,7 +116,7 @@ public class MapEditor {
         int mountainSize = (int)(rockSize * 0.02);
 
         for (int f = 0; f < amountOfStuff; f++) {
-            MapCoordinate randomVec = MapCoordinate.random(minX, maxX, minY, maxY);
+            MapCoordinate randomVec = MapCoordinate.random(random, minX, maxX, minY, maxY);
             createCircularField(map, randomVec, DuneTerrain.TERRAIN_ROCK, rockCircularSize);
             createField(map, randomVec, DuneTerrain.TERRAIN_ROCK, rockSize);
 //            createField(map, randomVec, DuneTerrain.TERRAIN_MOUNTAIN, mountainSize);
@@ -128,8 +133,7 @@ public class MapEditor {
 
     public void putTerrainOnCell(Map map, MapCoordinate mapCoordinate, int terrainType) {
         final Cell cell = map.getCell(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
-        final Terrain terrain = terrainFactory.create(terrainType, cell);
-        cell.changeTerrain(terrain);
+        cell.changeTerrain(terrainFactory.create(terrainType));
     }
 
     public void createCircularField(Map map, MapCoordinate centerPosition, int terrainType, int size) {
@@ -162,7 +166,7 @@ public class MapEditor {
         MapCoordinate position = new MapCoordinate(startVector);
 
         for (int i = 0; i < size; i++) {
-            position = position.add(Vector2D.create(-1 + Random.getInt(3), -1 + Random.getInt(3)));
+            position = position.add(Vector2D.create(-1 + random.getInt(3), -1 + random.getInt(3)));
 
             Cell cellProtected = map.getCellProtected(position.getXAsInt(), position.getYAsInt());
             if (!cellProtected.getMapCoordinate().equals(position)) {
@@ -0,0 +1,343 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.math.MapCoordinate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Dense, per {@link Map}, bookkeeping of which entity <em>reserved</em> (intends to move to) a cell and which
+ * entity <em>occupies</em> a cell. Every cell (including the invisible border) has a slot in plain int arrays holding
+ * the id of the entity (see {@link Entity#getId()}), {@link #NONE} when empty.
+ * </p>
+ * <p>
+ * The first unit that claims a cell wins. Other units will then 'know' it is reserved by some other unit. A claim never
+ * blocks the entity that made it.
+ * </p>
+ * <h2>Reverse index</h2>
+ * <p>
+ * Per entity the cells it holds are linked together (next/prev arrays per cell, a head per entity id). So releasing all
+ * claims of an entity only visits the cells that entity holds, instead of scanning the whole map.
+ * </p>
+ * <p>
+ * Units and structures are kept in separate occupancy layers, because a harvester that has entered a refinery sits on a
+ * cell of that refinery.
+ * </p>
+ * <h2>Picking</h2>
+ * <p>
+ * Because the layers are kept up to date when entities are placed, arrive at a cell or are removed, they also tell
+ * which entity the mouse hovers over (see {@link #pickSelectableAt(int, int)}) without looking at any other entity.
+ * </p>
+ */
+public class OccupancyGrid {
+
+    public static final int NONE = 0;
+
+    private final int width, height;
+
+    private final Layer reservations;
+    private final Layer units;
+    private final Layer structures;
+
+    // increased every time the structures layer changes
+    private int structuresVersion = 0;
+
+    // what changed at the last versions of the structures layer, by version modulo length
+    public static final int STRUCTURE_CHANGES_KEPT = 64;
+    private final int[] structureChanges = new int[STRUCTURE_CHANGES_KEPT];
+
+    // id -> entity, so we can hand out the blocking entity
+    private Entity[] entitiesById = new Entity[256];
+
+    // id -> stamp of the last collect that found it, so an entity covering several cells is collected once
+    private int[] collectedStamps = new int[256];
+    private int collectStamp = 0;
+
+    /**
+     * @param width  width including invisible border
+     * @param height height including invisible border
+     */
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int cells = width * height;
+        this.reservations = new Layer(cells);
+        this.units = new Layer(cells);
+        this.structures = new Layer(cells);
+    }
+
+    // RESERVATIONS
+    ////////////////////////////////////////////////////////////////////////////////
+
+    public void claim(MapCoordinate target, Entity who) {
+        int cell = toCell(target.getXAsInt(), target.getYAsInt());
+        if (cell < 0) throw new IllegalArgumentException("Cannot claim " + target + ", it is outside the map");
+
+        int claimedBy = reservations.owner[cell];
+        if (claimedBy != NONE && claimedBy != who.getId()) {
+            throw new IllegalStateException("Entity " + who + " intended to claim vector " + target + " to move to, but it was already claimed by " + entitiesById[claimedBy] + ", therefor the claim by " + who + " was invalid. Some bug in code?");
+        }
+        register(who);
+        reservations.put(cell, who.getId());
+    }
+
+    public boolean isClaimableBy(MapCoordinate target, Entity who) {
+        int claimedBy = reservations.get(toCell(target.getXAsInt(), target.getYAsInt()));
+        return claimedBy == NONE || // nobody claimed it, so thus claimable
+               claimedBy == who.getId(); // always possible to claim target that is owned by itself
+    }
+
+    public boolean isClaimed(int x, int y) {
+        return reservations.get(toCell(x, y)) != NONE;
+    }
+
+    public boolean isClaimed(MapCoordinate mapCoordinate) {
+        return isClaimed(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt());
+    }
+
+    public void release(MapCoordinate target) {
+        int cell = toCell(target.getXAsInt(), target.getYAsInt());
+        if (reservations.get(cell) == NONE) {
+            throw new IllegalArgumentException("Cannot release claim for vector " + target + ", because it is not claimed.");
+        }
+        reservations.remove(cell);
+    }
+
+    public void releaseAllClaimsBy(Entity entity) {
+        reservations.removeAll(entity.getId());
+    }
+
+    // OCCUPANCY
+    ////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * (Re)places the entity on the cells it covers now, vacating the cells it occupied before. Only units and
+     * structures occupy cells, other entity types are ignored.
+     */
+    public void occupy(Entity entity) {
+        Layer layer = layerFor(entity);
+        if (layer == null) return;
+
+        int id = entity.getId();
+        register(entity);
+        layer.removeAll(id);
+        if (layer == structures) structuresChanged(id);
+
+        int topLeftX = entity.getCoordinate().getXAsInt() / Cell.TILE_SIZE;
+        int topLeftY = entity.getCoordinate().getYAsInt() / Cell.TILE_SIZE;
+        int widthInCells = entity.getEntityData().getWidthInCells();
+        int heightInCells = entity.getEntityData().getHeightInCells();
+        for (int x = 0; x < widthInCells; x++) {
+            for (int y = 0; y < heightInCells; y++) {
+                int cell = toCell(topLeftX + x, topLeftY + y);
+                if (cell < 0) continue;
+                layer.put(cell, id);
+            }
+        }
+    }
+
+    /**
+     * A unit that starts moving to the next cell occupies that cell as well. So while it is between two cells, it
+     * still occupies the cell it leaves and it already occupies the cell it enters: both cells hold it (for picking,
+     * passability and hits). When it arrives, {@link #occupy(Entity)} frees the cell it left.
+     */
+    public void occupyWhileMoving(Entity unit, MapCoordinate target) {
+        int cell = toCell(target.getXAsInt(), target.getYAsInt());
+        if (cell < 0) throw new IllegalArgumentException("Cannot move to " + target + ", it is outside the map");
+        register(unit);
+        units.put(cell, unit.getId());
+    }
+
+    public void vacate(Entity entity) {
+        units.removeAll(entity.getId());
+        if (structures.removeAll(entity.getId())) structuresChanged(-entity.getId());
+    }
+
+    public Entity getUnitAt(int x, int y) {
+        return entitiesById[units.get(toCell(x, y))];
+    }
+
+    public Entity getStructureAt(int x, int y) {
+        return entitiesById[structures.get(toCell(x, y))];
+    }
+
+    /**
+     * Picks the topmost selectable entity covering the cell, as drawn on the battlefield: a unit is drawn on top of a
+     * structure. Units that are within another entity (ie, a harvester in a refinery) can't be picked, so the
+     * structure they are in is picked instead.
+     *
+     * @return picked entity or null when none
+     */
+    public Entity pickSelectableAt(int x, int y) {
+        int cell = toCell(x, y);
+        Entity unit = entitiesById[units.get(cell)];
+        if (isPickable(unit)) return unit;
+        Entity structure = entitiesById[structures.get(cell)];
+        if (isPickable(structure)) return structure;
+        return null;
+    }
+
+    private static boolean isPickable(Entity entity) {
+        return entity != null && entity.isSelectable() && !entity.isWithinOtherEntity();
+    }
+
+    /**
+     * Adds every unit and structure occupying a cell within the given cells (inclusive, clipped to the map) to
+     * <code>into</code>, each entity once. Only visits those cells, not the other entities.
+     */
+    public void collectEntitiesWithin(int fromX, int fromY, int toX, int toY, List<Entity> into) {
+        collectStamp++;
+        if (collectedStamps.length < entitiesById.length) {
+            collectedStamps = Arrays.copyOf(collectedStamps, entitiesById.length);
+        }
+        for (int y = Math.max(fromY, 0); y <= Math.min(toY, height - 1); y++) {
+            for (int x = Math.max(fromX, 0); x <= Math.min(toX, width - 1); x++) {
+                int cell = x + (y * width);
+                collect(units.get(cell), into);
+                collect(structures.get(cell), into);
+            }
+        }
+    }
+
+    private void collect(int id, List<Entity> into) {
+        if (id == NONE || collectedStamps[id] == collectStamp) return;
+        collectedStamps[id] = collectStamp;
+        into.add(entitiesById[id]);
+    }
+
+    /**
+     * Forgets everything about this entity: its claims and the cells it occupies.
+     */
+    public void remove(Entity entity) {
+        int id = entity.getId();
+        if (id >= entitiesById.length || entitiesById[id] == null) return;
+        reservations.removeAll(id);
+        units.removeAll(id);
+        if (structures.removeAll(id)) structuresChanged(-id);
+        entitiesById[id] = null;
+    }
+
+    /**
+     * Changes whenever a structure starts or stops occupying cells, see {@link #getStructureChange(int)} for what
+     * changed.
+     */
+    public int getStructuresVersion() {
+        return structuresVersion;
+    }
+
+    /**
+     * What changed to get from <code>version</code> to <code>version + 1</code>, so caches can update only for what
+     * changed. Only the last {@link #STRUCTURE_CHANGES_KEPT} changes are kept, a cache lagging further behind should
+     * start over.
+     *
+     * @return id of the structure that started occupying cells, or minus the id of the one that stopped doing so
+     */
+    public int getStructureChange(int version) {
+        if (version < 0 || version >= structuresVersion || version < structuresVersion - STRUCTURE_CHANGES_KEPT) {
+            throw new IllegalArgumentException("Change of version " + version + " is not kept, current version is " + structuresVersion);
+        }
+        return structureChanges[version % STRUCTURE_CHANGES_KEPT];
+    }
+
+    private void structuresChanged(int change) {
+        structureChanges[structuresVersion % STRUCTURE_CHANGES_KEPT] = change;
+        structuresVersion++;
+    }
+
+    private void register(Entity entity) {
+        int id = entity.getId();
+        if (id == NONE) throw new IllegalArgumentException("Entity " + entity + " has no id, it is not created by an EntityRepository");
+        if (id >= entitiesById.length) {
+            entitiesById = Arrays.copyOf(entitiesById, Math.max(id + 1, entitiesById.length * 2));
+        }
+        entitiesById[id] = entity;
+    }
+
+    private Layer layerFor(Entity entity) {
+        EntityType entityType = entity.getEntityType();
+        if (entityType == EntityType.UNIT) return units;
+        if (entityType == EntityType.STRUCTURE) return structures;
+        return null;
+    }
+
+    private int toCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+        return x + (y * width);
+    }
+
+    /**
+     * One layer of ownership, with per owner a doubly linked list of the cells it owns.
+     */
+    private static class Layer {
+        private static final int END = -1;
+
+        private final int[] owner;
+        private final int[] next;
+        private final int[] prev;
+        private int[] head = new int[256]; // entity id -> first cell, END when none
+
+        Layer(int cells) {
+            owner = new int[cells];
+            next = new int[cells];
+            prev = new int[cells];
+            Arrays.fill(head, END);
+        }
+
+        int get(int cell) {
+            if (cell < 0) return NONE;
+            return owner[cell];
+        }
+
+        void put(int cell, int id) {
+            if (owner[cell] == id) return;
+            remove(cell);
+            ensureHead(id);
+
+            owner[cell] = id;
+            prev[cell] = END;
+            next[cell] = head[id];
+            if (head[id] != END) prev[head[id]] = cell;
+            head[id] = cell;
+        }
+
+        void remove(int cell) {
+            int id = owner[cell];
+            if (id == NONE) return;
+
+            if (prev[cell] != END) {
+                next[prev[cell]] = next[cell];
+            } else {
+                head[id] = next[cell];
+            }
+            if (next[cell] != END) prev[next[cell]] = prev[cell];
+            owner[cell] = NONE;
+        }
+
+        /**
+         * @return true when the owner held any cell
+         */
+        boolean removeAll(int id) {
+            if (id >= head.length) return false;
+            int cell = head[id];
+            if (cell == END) return false;
+            while (cell != END) {
+                int nextCell = next[cell];
+                owner[cell] = NONE;
+                cell = nextCell;
+            }
+            head[id] = END;
+            return true;
+        }
+
+        private void ensureHead(int id) {
+            if (id < head.length) return;
+            int oldLength = head.length;
+            head = Arrays.copyOf(head, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(head, oldLength, head.length, END);
+        }
+    }
+}
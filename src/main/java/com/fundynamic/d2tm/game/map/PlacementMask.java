@@ -0,0 +1,233 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.terrain.ConstructionGround;
+import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.MapCoordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Per {@link Player} mask that tells for every cell if that player may place a structure on it, so the placement
+ * preview (see {@link com.fundynamic.d2tm.game.controls.battlefield.PlacingStructureMouse}) costs only a few array
+ * reads per cell. A cell is placeable when it is:
+ * </p>
+ * <ul>
+ *     <li>visible for the player</li>
+ *     <li>{@link ConstructionGround}</li>
+ *     <li>not occupied by a unit or structure (read from the {@link OccupancyGrid})</li>
+ *     <li>within build range of (the center of) any structure of the player</li>
+ * </ul>
+ * <h2>Keeping it up to date</h2>
+ * <ul>
+ *     <li>Visibility is read from the player (see {@link Player#isShrouded(int, int)}), so there is no copy of
+ *     the shroud to keep in sync</li>
+ *     <li>Reach is kept as the amount of structures within build range per cell. A placed structure adds to the
+ *     cells around it, a removed (or destroyed) one subtracts. Asking for another build range causes a rebuild.</li>
+ *     <li>Terrain and occupancy are read from the {@link Map} and {@link OccupancyGrid} directly, which are kept up to
+ *     date by placing structures and moving units already</li>
+ * </ul>
+ * <h2>Placing a structure</h2>
+ * <p>
+ * A structure may be placed when none of its cells is blocked and at least one of them is within reach, see
+ * {@link #canPlace(Map, int, int, int, int, float)}. Humans and the AI both go through that rule, so they can not
+ * diverge.
+ * </p>
+ * <p>
+ * Like the {@link RefineryDistanceField} the mask is created lazily, when it is queried for a map.
+ * </p>
+ */
+public class PlacementMask {
+
+    private final Player player;
+    private final List<Entity> structures = new ArrayList<>();
+
+    private Map map;
+    private int width, height; // including invisible border
+    private float buildRange = -1;
+
+    private int[] structuresWithinReach;
+
+    public PlacementMask(Player player) {
+        this.player = player;
+    }
+
+    public void structureAdded(Entity structure) {
+        if (structures.contains(structure)) return;
+        structures.add(structure);
+        if (isPrepared()) reach(structure, 1);
+    }
+
+    public void structureRemoved(Entity structure) {
+        if (!structures.remove(structure)) return;
+        if (isPrepared()) reach(structure, -1);
+    }
+
+    /**
+     * @return true when a structure may be placed on this cell given the build range of the structure that built it
+     */
+    public boolean isPlaceable(Map map, int x, int y, float buildRange) {
+        return !isBlocked(map, x, y) && isWithinReach(map, x, y, buildRange);
+    }
+
+    /**
+     * The rule for placing a structure, for humans and the AI alike.
+     *
+     * @return true when none of the cells of the structure (with its top-left at given cell) is blocked and at least
+     * one of them is within reach
+     */
+    public boolean canPlace(Map map, int topLeftX, int topLeftY, int widthInCells, int heightInCells, float buildRange) {
+        boolean withinReach = false;
+        for (int y = topLeftY; y < topLeftY + heightInCells; y++) {
+            for (int x = topLeftX; x < topLeftX + widthInCells; x++) {
+                if (isBlocked(map, x, y)) return false;
+                if (!withinReach) withinReach = isWithinReach(map, x, y, buildRange);
+            }
+        }
+        return withinReach;
+    }
+
+    /**
+     * Looks for the spot where the structure can be placed (see {@link #canPlace(Map, int, int, int, int, float)})
+     * with its center closest to <code>near</code>. Only the area within reach of the structures of the player is
+     * searched.
+     *
+     * @return top-left cell of the spot, or null when there is none
+     */
+    public MapCoordinate findSpotClosestTo(Map map, Coordinate near, int widthInCells, int heightInCells, float buildRange) {
+        prepare(map, buildRange);
+        if (structures.isEmpty()) return null;
+
+        // area within reach of any structure, widened so a structure with only its bottom-right cell in reach fits
+        float minCenterX = Float.MAX_VALUE, minCenterY = Float.MAX_VALUE;
+        float maxCenterX = -Float.MAX_VALUE, maxCenterY = -Float.MAX_VALUE;
+        for (Entity structure : structures) {
+            Coordinate center = structure.getCenteredCoordinate();
+            minCenterX = Math.min(minCenterX, center.getX());
+            minCenterY = Math.min(minCenterY, center.getY());
+            maxCenterX = Math.max(maxCenterX, center.getX());
+            maxCenterY = Math.max(maxCenterY, center.getY());
+        }
+        int minX = Math.max(1, (int) ((minCenterX - buildRange) / TILE_SIZE) - widthInCells + 1);
+        int minY = Math.max(1, (int) ((minCenterY - buildRange) / TILE_SIZE) - heightInCells + 1);
+        int maxX = Math.min(map.getWidth() - widthInCells + 1, (int) ((maxCenterX + buildRange) / TILE_SIZE));
+        int maxY = Math.min(map.getHeight() - heightInCells + 1, (int) ((maxCenterY + buildRange) / TILE_SIZE));
+
+        float halfWidth = (widthInCells * TILE_SIZE) / 2F;
+        float halfHeight = (heightInCells * TILE_SIZE) / 2F;
+        MapCoordinate closest = null;
+        float closestDistanceSquared = Float.MAX_VALUE;
+        for (int y = minY; y <= maxY; y++) {
+            float deltaY = (y * TILE_SIZE) + halfHeight - near.getY();
+            for (int x = minX; x <= maxX; x++) {
+                float deltaX = (x * TILE_SIZE) + halfWidth - near.getX();
+                float distanceSquared = (deltaX * deltaX) + (deltaY * deltaY);
+                // cheap distance check first, the rule is only checked for spots that would be closer
+                if (distanceSquared >= closestDistanceSquared) continue;
+                if (!canPlace(map, x, y, widthInCells, heightInCells, buildRange)) continue;
+
+                closestDistanceSquared = distanceSquared;
+                closest = map.getMapCoordinate(x, y);
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * @return true when the cell is not visible, not construction ground or occupied
+     */
+    public boolean isBlocked(Map map, int x, int y) {
+        if (this.map != map) allocate(map);
+        int cell = toCell(x, y);
+        if (cell < 0 || player.isShrouded(x, y)) return true;
+        if (!(map.getTerrain(x, y) instanceof ConstructionGround)) return true;
+
+        OccupancyGrid occupancyGrid = map.getOccupancyGrid();
+        return isAlive(occupancyGrid.getStructureAt(x, y)) || isAlive(occupancyGrid.getUnitAt(x, y));
+    }
+
+    /**
+     * @return true when the center of the cell is within <code>buildRange</code> (in pixels) of the center of any
+     * structure of the player
+     */
+    public boolean isWithinReach(Map map, int x, int y, float buildRange) {
+        prepare(map, buildRange);
+        int cell = toCell(x, y);
+        if (cell < 0) return false;
+        return structuresWithinReach[cell] > 0;
+    }
+
+    private boolean isPrepared() {
+        return map != null && buildRange >= 0;
+    }
+
+    private void prepare(Map map, float buildRange) {
+        if (this.map != map) allocate(map);
+        removeDestroyedStructures();
+
+        if (this.buildRange != buildRange) {
+            this.buildRange = buildRange;
+            Arrays.fill(structuresWithinReach, 0);
+            for (Entity structure : structures) {
+                reach(structure, 1);
+            }
+        }
+    }
+
+    private void allocate(Map map) {
+        this.map = map;
+        this.width = map.getWidth() + 2;
+        this.height = map.getHeight() + 2;
+        this.structuresWithinReach = new int[width * height];
+        this.buildRange = -1; // rebuild reach when asked
+    }
+
+    private void removeDestroyedStructures() {
+        for (int i = structures.size() - 1; i >= 0; i--) {
+            Entity structure = structures.get(i);
+            if (structure.isDestroyed()) {
+                structures.remove(i);
+                if (isPrepared()) reach(structure, -1);
+            }
+        }
+    }
+
+    /**
+     * Adds <code>amount</code> to all cells whose center is within build range of the center of the structure
+     */
+    private void reach(Entity structure, int amount) {
+        Coordinate center = structure.getCenteredCoordinate();
+        float centerX = center.getX();
+        float centerY = center.getY();
+        float rangeSquared = buildRange * buildRange;
+
+        int minX = Math.max(0, (int) ((centerX - buildRange) / TILE_SIZE));
+        int minY = Math.max(0, (int) ((centerY - buildRange) / TILE_SIZE));
+        int maxX = Math.min(width - 1, (int) ((centerX + buildRange) / TILE_SIZE));
+        int maxY = Math.min(height - 1, (int) ((centerY + buildRange) / TILE_SIZE));
+        for (int y = minY; y <= maxY; y++) {
+            float deltaY = (y * TILE_SIZE) + (TILE_SIZE / 2) - centerY;
+            for (int x = minX; x <= maxX; x++) {
+                float deltaX = (x * TILE_SIZE) + (TILE_SIZE / 2) - centerX;
+                if ((deltaX * deltaX) + (deltaY * deltaY) > rangeSquared) continue;
+                structuresWithinReach[x + (y * width)] += amount;
+            }
+        }
+    }
+
+    private static boolean isAlive(Entity entity) {
+        return entity != null && !entity.isDestroyed();
+    }
+
+    private int toCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+        return x + (y * width);
+    }
+}
@@ -0,0 +1,217 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.math.MapCoordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Per {@link com.fundynamic.d2tm.game.entities.Player} distance field: for every cell the amount of steps (over cells
+ * passable for units) to the nearest refinery of that player, and which refinery that is. Computed with a breadth first
+ * search starting from all refinery cells at once, so a full harvester finds the closest <em>reachable</em> refinery
+ * with a single array read.
+ * </p>
+ * <h2>Keeping it up to date</h2>
+ * <ul>
+ *     <li>A placed refinery is added incrementally, only the cells that get closer are visited. Its own footprint
+ *     becoming impassable needs no more than that: any path through it now ends at the new refinery.</li>
+ *     <li>A removed (or destroyed) refinery, a change in terrain passability (see
+ *     {@link Map#getTerrainPassabilityVersion()}), or any other structure being placed or removed (see
+ *     {@link OccupancyGrid#getStructureChange(int)}) causes a full rebuild.</li>
+ * </ul>
+ * <p>
+ * All work is done lazily, when the field is queried.
+ * </p>
+ */
+public class RefineryDistanceField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final List<Entity> refineries = new ArrayList<>();
+    private final List<Entity> toAdd = new ArrayList<>();
+    private boolean rebuild = true;
+
+    private Map map;
+    private int terrainPassabilityVersion;
+    private int structuresVersion;
+    private int rebuilds = 0;
+    private int width, height; // including invisible border
+
+    private int[] distance;
+    private Entity[] nearest;
+    private int[] queue;
+
+    public void refineryAdded(Entity refinery) {
+        if (refineries.contains(refinery)) return;
+        refineries.add(refinery);
+        toAdd.add(refinery);
+    }
+
+    public void refineryRemoved(Entity refinery) {
+        if (refineries.remove(refinery)) {
+            toAdd.remove(refinery);
+            rebuild = true;
+        }
+    }
+
+    /**
+     * All (not destroyed) refineries known to this field, regardless if they are reachable.
+     */
+    public List<Entity> getRefineries() {
+        removeDestroyedRefineries();
+        return Collections.unmodifiableList(refineries);
+    }
+
+    /**
+     * @return the refinery closest (in steps) to <code>from</code>, or null when none can be reached
+     */
+    public Entity findNearestRefinery(Map map, MapCoordinate from) {
+        prepare(map);
+        int cell = toCell(from.getXAsInt(), from.getYAsInt());
+        if (cell < 0) return null;
+        return nearest[cell];
+    }
+
+    /**
+     * @return steps to the nearest refinery from <code>from</code>, or {@link #UNREACHABLE}
+     */
+    public int getDistance(Map map, MapCoordinate from) {
+        prepare(map);
+        int cell = toCell(from.getXAsInt(), from.getYAsInt());
+        if (cell < 0) return UNREACHABLE;
+        return distance[cell];
+    }
+
+    private void prepare(Map map) {
+        if (this.map != map) {
+            allocate(map);
+        }
+        if (terrainPassabilityVersion != map.getTerrainPassabilityVersion()) {
+            rebuild = true;
+        }
+        removeDestroyedRefineries();
+        if (!rebuild && !onlyRefineriesPlacedSince(structuresVersion)) {
+            rebuild = true;
+        }
+
+        if (rebuild) {
+            rebuilds++;
+            Arrays.fill(distance, UNREACHABLE);
+            Arrays.fill(nearest, null);
+            spread(refineries);
+        } else if (!toAdd.isEmpty()) {
+            spread(toAdd);
+        }
+
+        toAdd.clear();
+        rebuild = false;
+        terrainPassabilityVersion = map.getTerrainPassabilityVersion();
+        structuresVersion = map.getOccupancyGrid().getStructuresVersion();
+    }
+
+    /**
+     * @return true when all structures placed or removed since given version are refineries of this field that were
+     * placed (and so are spread from incrementally)
+     */
+    private boolean onlyRefineriesPlacedSince(int version) {
+        OccupancyGrid occupancyGrid = map.getOccupancyGrid();
+        int currentVersion = occupancyGrid.getStructuresVersion();
+        if (currentVersion - version > OccupancyGrid.STRUCTURE_CHANGES_KEPT) return false;
+        for (int v = version; v < currentVersion; v++) {
+            if (!isRefinery(occupancyGrid.getStructureChange(v))) return false;
+        }
+        return true;
+    }
+
+    private boolean isRefinery(int id) {
+        for (int i = 0; i < refineries.size(); i++) {
+            if (refineries.get(i).getId() == id) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return amount of times the field was computed from scratch
+     */
+    int getRebuilds() {
+        return rebuilds;
+    }
+
+    private void allocate(Map map) {
+        this.map = map;
+        this.width = map.getWidth() + 2;
+        this.height = map.getHeight() + 2;
+        this.distance = new int[width * height];
+        this.nearest = new Entity[width * height];
+        this.queue = new int[width * height];
+        this.rebuild = true;
+    }
+
+    private void removeDestroyedRefineries() {
+        for (int i = refineries.size() - 1; i >= 0; i--) {
+            Entity refinery = refineries.get(i);
+            if (refinery.isDestroyed()) {
+                refineries.remove(i);
+                toAdd.remove(refinery);
+                rebuild = true;
+            }
+        }
+    }
+
+    /**
+     * Breadth first search from the cells of given refineries; only cells that get closer are (re)visited, so this works
+     * for a fresh field as well as for adding refineries to an existing one.
+     */
+    private void spread(List<Entity> sources) {
+        int head = 0, tail = 0;
+        for (Entity refinery : sources) {
+            int topLeftX = refinery.getCoordinate().getXAsInt() / Cell.TILE_SIZE;
+            int topLeftY = refinery.getCoordinate().getYAsInt() / Cell.TILE_SIZE;
+            for (int x = 0; x < refinery.getEntityData().getWidthInCells(); x++) {
+                for (int y = 0; y < refinery.getEntityData().getHeightInCells(); y++) {
+                    int cell = toCell(topLeftX + x, topLeftY + y);
+                    if (cell < 0 || distance[cell] == 0) continue;
+                    distance[cell] = 0;
+                    nearest[cell] = refinery;
+                    queue[tail++] = cell;
+                }
+            }
+        }
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int cellX = cell % width;
+            int cellY = cell / width;
+            int stepsToNeighbour = distance[cell] + 1;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (dx == 0 && dy == 0) continue;
+                    int neighbourX = cellX + dx;
+                    int neighbourY = cellY + dy;
+                    if (!isPassable(neighbourX, neighbourY)) continue;
+                    int neighbour = neighbourX + (neighbourY * width);
+                    if (distance[neighbour] <= stepsToNeighbour) continue;
+                    distance[neighbour] = stepsToNeighbour;
+                    nearest[neighbour] = nearest[cell];
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    private boolean isPassable(int x, int y) {
+        if (x < 1 || y < 1 || x > map.getWidth() || y > map.getHeight()) return false;
+        if (map.getOccupancyGrid().getStructureAt(x, y) != null) return false;
+        return map.isPassableForUnits(x, y);
+    }
+
+    private int toCell(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+        return x + (y * width);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.entities.Player;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Per {@link Player} shroud: which cells of a {@link Map} the player has revealed. Kept as one boolean per cell,
+ * indexed by the cell key of the map (<code>x + (y * (width + 2))</code>, see {@link Map#toCellKey(int, int)}), so
+ * asking if a cell is shrouded (which the renderers do for every visible cell every frame) is a single array read
+ * instead of a lookup with a {@link com.fundynamic.d2tm.math.MapCoordinate} key.
+ * </p>
+ * <p>
+ * It is sized from the map once. Cells outside of the map (ie negative coordinates) are always shrouded.
+ * </p>
+ */
+public class RevealedCells {
+
+    private final Map map;
+    private final int width, height; // including invisible border
+    private final boolean[] revealed;
+
+    public RevealedCells(Map map) {
+        this.map = map;
+        this.width = map.getWidth() + 2;
+        this.height = map.getHeight() + 2;
+        this.revealed = new boolean[width * height];
+    }
+
+    public boolean isOf(Map map) {
+        return this.map == map;
+    }
+
+    public boolean isRevealed(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        return revealed[x + (y * width)];
+    }
+
+    public void reveal(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return; // not on the map
+        revealed[x + (y * width)] = true;
+    }
+
+    public void shroud(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return; // shrouded already
+        revealed[x + (y * width)] = false;
+    }
+}
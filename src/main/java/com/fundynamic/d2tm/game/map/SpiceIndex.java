@@ -0,0 +1,152 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.terrain.Harvestable;
+import com.fundynamic.d2tm.game.terrain.Terrain;
+import com.fundynamic.d2tm.math.MapCoordinate;
+
+import java.util.function.Predicate;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Per {@link Map} index of the remaining spice. Every cell has a slot holding the spice left on it (0 when the cell is
+ * not {@link Harvestable}); this is the spice layer of the map storage. The map is divided into square regions of {@link #REGION_SIZE} cells, and per region the
+ * total spice and the amount of harvestable cells is kept.
+ * </p>
+ * <p>
+ * The index is written by {@link Map#setTerrain(int, int, Terrain, float)} and {@link Cell#harvest(float)}, so it follows
+ * both the {@link MapEditor} and harvesters eating the spice away.
+ * </p>
+ * <h2>Nearest harvestable cell</h2>
+ * <p>
+ * {@link #findNearestHarvestable(MapCoordinate, Predicate)} walks rings of regions around the given cell, skipping
+ * regions without spice, and stops as soon as no region further out can hold a closer cell. So it is not bound to
+ * a fixed radius, and empty desert costs (almost) nothing. Cells are handed to the predicate (and returned) as the
+ * interned coordinates of the {@link Map}, so a search does not create any.
+ * </p>
+ */
+public class SpiceIndex {
+
+    public static final int REGION_SIZE = 8;
+
+    private final Map map;
+    private final int width, height; // including invisible border
+    private final int regionsWide, regionsHigh;
+
+    private final float[] spice;
+    private final float[] regionSpice;
+    private final int[] regionHarvestableCells;
+
+    private float totalSpice;
+
+    public SpiceIndex(Map map) {
+        this.map = map;
+        this.width = map.getWidth() + 2;
+        this.height = map.getHeight() + 2;
+        this.regionsWide = (width + REGION_SIZE - 1) / REGION_SIZE;
+        this.regionsHigh = (height + REGION_SIZE - 1) / REGION_SIZE;
+        this.spice = new float[width * height];
+        this.regionSpice = new float[regionsWide * regionsHigh];
+        this.regionHarvestableCells = new int[regionsWide * regionsHigh];
+    }
+
+    public void set(int x, int y, float amount) {
+        if (!isWithinIndex(x, y)) return;
+        int cell = x + (y * width);
+        int region = toRegion(x, y);
+
+        float previous = spice[cell];
+        if (previous > 0F) regionHarvestableCells[region]--;
+        if (amount > 0F) regionHarvestableCells[region]++;
+
+        spice[cell] = amount;
+        regionSpice[region] += amount - previous;
+        totalSpice += amount - previous;
+    }
+
+    public float getSpice(int x, int y) {
+        if (!isWithinIndex(x, y)) return 0F;
+        return spice[x + (y * width)];
+    }
+
+    /**
+     * Total spice within the region that holds cell x,y
+     */
+    public float getRegionSpice(int x, int y) {
+        if (!isWithinIndex(x, y)) return 0F;
+        return regionSpice[toRegion(x, y)];
+    }
+
+    public float getTotalSpice() {
+        return totalSpice;
+    }
+
+    /**
+     * Finds the harvestable cell closest to <code>from</code> which is also <code>acceptable</code> (ie, not claimed
+     * nor occupied by some other unit). Only cells within the playable area are considered.
+     *
+     * @param from       cell to search from
+     * @param acceptable extra condition a harvestable cell must meet
+     * @return nearest cell or null when there is none
+     */
+    public MapCoordinate findNearestHarvestable(MapCoordinate from, Predicate<MapCoordinate> acceptable) {
+        int fromX = from.getXAsInt();
+        int fromY = from.getYAsInt();
+        int fromRegionX = clamp(fromX, width) / REGION_SIZE;
+        int fromRegionY = clamp(fromY, height) / REGION_SIZE;
+
+        int bestX = -1, bestY = -1;
+        int bestDistance = Integer.MAX_VALUE;
+
+        int maxRing = Math.max(regionsWide, regionsHigh);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (bestX > -1 && ring > 1) {
+                // any cell in this ring is at least this far away on one axis
+                int closestPossible = ((ring - 1) * REGION_SIZE) + 1;
+                if (bestDistance <= closestPossible * closestPossible) break;
+            }
+
+            for (int dy = -ring; dy <= ring; dy++) {
+                // only walk the outline of the ring
+                int step = (dy == -ring || dy == ring) ? 1 : ring * 2;
+                for (int dx = -ring; dx <= ring; dx += step) {
+                    int regionX = fromRegionX + dx;
+                    int regionY = fromRegionY + dy;
+                    if (regionX < 0 || regionY < 0 || regionX >= regionsWide || regionY >= regionsHigh) continue;
+                    if (regionHarvestableCells[regionX + (regionY * regionsWide)] == 0) continue;
+
+                    int startX = Math.max(1, regionX * REGION_SIZE);
+                    int startY = Math.max(1, regionY * REGION_SIZE);
+                    int endX = Math.min(width - 2, (regionX * REGION_SIZE) + REGION_SIZE - 1);
+                    int endY = Math.min(height - 2, (regionY * REGION_SIZE) + REGION_SIZE - 1);
+                    for (int y = startY; y <= endY; y++) {
+                        for (int x = startX; x <= endX; x++) {
+                            if (spice[x + (y * width)] <= 0F) continue;
+                            int distance = ((x - fromX) * (x - fromX)) + ((y - fromY) * (y - fromY));
+                            if (distance >= bestDistance) continue;
+                            if (!acceptable.test(map.getMapCoordinate(x, y))) continue;
+                            bestX = x;
+                            bestY = y;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bestX < 0) return null;
+        return map.getMapCoordinate(bestX, bestY);
+    }
+
+    private boolean isWithinIndex(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    private int toRegion(int x, int y) {
+        return (x / REGION_SIZE) + ((y / REGION_SIZE) * regionsWide);
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
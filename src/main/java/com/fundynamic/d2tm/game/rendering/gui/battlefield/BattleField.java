@@ -13,6 +13,8 @@ import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Rectangle;
 import com.fundynamic.d2tm.math.Vector2D;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
 import org.newdawn.slick.Color;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
@@ -30,6 +32,8 @@ import static com.fundynamic.d2tm.game.map.Cell.DOUBLE_TILE_SIZE;
  */
 public class BattleField extends GuiElement implements CellBasedMouseBehavior, EntityEventsListener {
 
+    private static final Logger LOG = Log.getLogger("battlefield");
+
     private final RenderQueue renderQueue;
 
     // DATA RELATED
@@ -120,7 +124,7 @@ public class BattleField extends GuiElement implements CellBasedMouseBehavior, E
 
             drawBufferToGraphics(graphics, getTopLeft());
         } catch (SlickException e) {
-            e.printStackTrace();
+            LOG.error("Unable to render battlefield", e);
         }
     }
 
@@ -128,6 +132,7 @@ public class BattleField extends GuiElement implements CellBasedMouseBehavior, E
         Vector2D translation = velocity.scale(delta);
         viewingVector = viewingVectorPerimeter.makeSureVectorStaysWithin(viewingVector.add(translation));
         renderQueue.updateCameraPosition(viewingVector);
+        entityRepository.getSoundManager().updateListenerArea(viewingVector, getWidth(), getHeight());
 
         renderQueue.clear();
 
@@ -141,6 +146,8 @@ public class BattleField extends GuiElement implements CellBasedMouseBehavior, E
         List<Entity> entitiesWithinViewport = entityRepository.findEntitiesWithinRectangle(rectangle).toList();
 
         renderQueue.put(entitiesWithinViewport);
+        renderQueue.putProjectiles(entityRepository.getProjectiles(), getWidth(), getHeight());
+        renderQueue.putParticles(entityRepository.getParticles());
     }
 
     public void moveLeft() {
@@ -341,7 +348,7 @@ public class BattleField extends GuiElement implements CellBasedMouseBehavior, E
 
     @Override
     public void entitiesSelected(EntitiesSet entities) {
-        System.out.println("Battlefield gets told that " + entities + " are selected");
+        LOG.debug("Battlefield gets told that {} are selected", entities);
 
         EntitiesSet entityBuildersForControllingPlayer = entities.filter(
                 Predicate.builder()
@@ -359,7 +366,7 @@ public class BattleField extends GuiElement implements CellBasedMouseBehavior, E
 
     @Override
     public void entitiesDeselected(EntitiesSet entities) {
-        System.out.println("Battlefield gets told that " + entities + " are de-selected");
+        LOG.debug("Battlefield gets told that {} are de-selected", entities);
     }
 
     // These methods are here mainly for (easier) testing. Best would be to remove them if possible - and at the very
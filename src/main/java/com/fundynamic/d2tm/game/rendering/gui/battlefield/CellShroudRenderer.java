@@ -26,15 +26,17 @@ public class CellShroudRenderer implements Renderer<Cell> {
     }
 
     public ShroudFacing determineShroudFacing(Cell cell) {
-        if (player.isShrouded(cell.getMapCoordinate())) {
+        int x = cell.getX();
+        int y = cell.getY();
+        if (player.isShrouded(x, y)) {
             return ShroudFacing.FULL;
         }
 
         return getFacing(
-                player.isShrouded(cell.getCellAbove().getMapCoordinate()),
-                player.isShrouded(cell.getCellRight().getMapCoordinate()),
-                player.isShrouded(cell.getCellBeneath().getMapCoordinate()),
-                player.isShrouded(cell.getCellLeft().getMapCoordinate()));
+                player.isShrouded(x, y - 1),
+                player.isShrouded(x + 1, y),
+                player.isShrouded(x, y + 1),
+                player.isShrouded(x - 1, y));
     }
 
     public static ShroudFacing getFacing(boolean isTopShrouded, boolean isRightShrouded, boolean isBottomShrouded, boolean isLeftShrouded) {
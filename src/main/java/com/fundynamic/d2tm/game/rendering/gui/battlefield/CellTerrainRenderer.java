@@ -1,18 +1,22 @@
 package com.fundynamic.d2tm.game.rendering.gui.battlefield;
 
 import com.fundynamic.d2tm.game.map.Cell;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.SlickException;
 
 public class CellTerrainRenderer implements Renderer<Cell> {
 
+    private static final Logger LOG = Log.getLogger("rendering");
+
     @Override
     public void draw(Graphics graphics, Cell mapCell, int drawX, int drawY) {
         try {
             graphics.drawImage(mapCell.getTileImage(), drawX, drawY);
         } catch (SlickException e) {
             // draw nothing!?
-            System.err.println("Unable to get cell tile image on " + mapCell.getMapCoordinate() + ". Exception: " + e);
+            LOG.error("Unable to get cell tile image on {}", mapCell.getMapCoordinate(), e);
         }
     }
 
@@ -1,8 +1,8 @@
 package com.fundynamic.d2tm.game.rendering.gui.battlefield;
 
 import com.fundynamic.d2tm.Game;
-import com.fundynamic.d2tm.game.entities.UnitMoveIntents;
 import com.fundynamic.d2tm.game.map.Cell;
+import com.fundynamic.d2tm.game.map.CellCursor;
 import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Rectangle;
@@ -22,9 +22,13 @@ public class CellViewportRenderer implements ViewportRenderer<Cell> {
     private final Map map;
     private final Vector2D windowDimensions;
 
+    // moved over the visible cells, so rendering a frame creates no cells
+    private final CellCursor cellCursor;
+
     public CellViewportRenderer(Map map, Vector2D windowDimensions) {
         this.map = map;
         this.windowDimensions = windowDimensions;
+        this.cellCursor = map != null ? map.createCellCursor() : null;
     }
 
     public Rectangle getViewport(Vector2D viewingVector) {
@@ -53,9 +57,9 @@ public class CellViewportRenderer implements ViewportRenderer<Cell> {
 
                 // TODO: 2 responsibilities happening here, one is culling, one is drawing
                 // it is better to separate the two
-                renderer.draw(graphics, map.getCell(x, y), drawX, drawY);
+                renderer.draw(graphics, cellCursor.moveTo(x, y), drawX, drawY);
                 if (Game.DEBUG_INFO) {
-                    boolean unitIntent = UnitMoveIntents.instance.hasIntent(MapCoordinate.create(x, y));
+                    boolean unitIntent = map.getOccupancyGrid().isClaimed(x, y);
                     if (unitIntent) {
                         graphics.setColor(Colors.DARK_RED_ALPHA_128);
                         graphics.fillRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
@@ -5,11 +5,16 @@ import com.fundynamic.d2tm.game.behaviors.EnrichableAbsoluteRenderable;
 import com.fundynamic.d2tm.game.behaviors.Renderable;
 import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.game.entities.particle.ParticleSystem;
+import com.fundynamic.d2tm.game.entities.projectiles.ProjectileSystem;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.Vector2D;
+import com.fundynamic.d2tm.utils.logging.Log;
+import com.fundynamic.d2tm.utils.logging.Logger;
 import org.newdawn.slick.Graphics;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,26 +41,41 @@ import java.util.Map;
  *     Usages
  * </b>
  * <p>A render queue is used within a {@link BattleField} where it makes sense to render Entity objects</p>
+ * <p>
+ *     Projectiles and particles are no entities, they are drawn straight from the {@link ProjectileSystem} on the
+ *     {@link #PROJECTILE_LAYER} and from the {@link ParticleSystem} on the {@link #PARTICLE_LAYER}, see
+ *     {@link #putProjectiles(ProjectileSystem, int, int)} and {@link #putParticles(ParticleSystem)}.
+ * </p>
  */
 public class RenderQueue {
 
+    public static final int PROJECTILE_LAYER = 3;
     public static final int ENTITY_GUI_LAYER = 4;
+    public static final int PARTICLE_LAYER = 5;
     private static int MAX_LAYERS = 10;
 
+    private static final Logger LOG = Log.getLogger("rendering");
+
     private Vector2D cameraPosition;
 
-    private HashMap<Integer, List<ThingToRender>> thingsToRender = new HashMap<>();
+    // per layer the things to render, reused every frame: only the first thingsToRenderCount[layer] are in use
+    private final List<List<ThingToRender>> thingsToRender = new ArrayList<>();
+    private final int[] thingsToRenderCount = new int[MAX_LAYERS];
 
     private static Map<EntityType, Integer> entityTypeToLayerMap = new HashMap<>();
 
+    private ProjectileSystem projectiles;
+    private ParticleSystem particles;
+    private int visibleWidth, visibleHeight;
+
     static {
         entityTypeToLayerMap.put(EntityType.NONE, 0);
         entityTypeToLayerMap.put(EntityType.UNIT, 2);
         entityTypeToLayerMap.put(EntityType.STRUCTURE, 1);
-        entityTypeToLayerMap.put(EntityType.PROJECTILE, 3);
+        entityTypeToLayerMap.put(EntityType.PROJECTILE, PROJECTILE_LAYER);
         entityTypeToLayerMap.put(EntityType.SUPERPOWER, 3); // super power shares same layer as projectile (TODO: check)
         // layer 4 == gui (health bar and stuff)
-        entityTypeToLayerMap.put(EntityType.PARTICLE, 5);
+        entityTypeToLayerMap.put(EntityType.PARTICLE, PARTICLE_LAYER);
     }
 
     public RenderQueue(Vector2D cameraPosition) {
@@ -66,7 +86,7 @@ public class RenderQueue {
 
     private void initThingsToRender() {
         for (int i = 0; i < MAX_LAYERS; i++) {
-            thingsToRender.put(i, new ArrayList<>());
+            thingsToRender.add(new ArrayList<>());
         }
     }
 
@@ -75,7 +95,9 @@ public class RenderQueue {
     }
 
     public void clear() {
-        initThingsToRender();
+        Arrays.fill(thingsToRenderCount, 0);
+        projectiles = null;
+        particles = null;
     }
 
     /**
@@ -84,12 +106,34 @@ public class RenderQueue {
      * @param entities
      */
     public void put(List<Entity> entities) {
-        for (Entity entity : entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
             int layer = entityTypeToLayerMap.get(entity.getEntityType());
-            put(layer, entity, entity.getCoordinate());
+            put(layer, entity, entity.getX(), entity.getY());
         }
     }
 
+    /**
+     * Draw the projectiles that are within the visible area (starting at the camera position)
+     * @param projectiles
+     * @param visibleWidth
+     * @param visibleHeight
+     */
+    public void putProjectiles(ProjectileSystem projectiles, int visibleWidth, int visibleHeight) {
+        this.projectiles = projectiles;
+        this.visibleWidth = visibleWidth;
+        this.visibleHeight = visibleHeight;
+    }
+
+    /**
+     * Draw the particles that are within the visible area, the visible area is the same as given with
+     * {@link #putProjectiles(ProjectileSystem, int, int)}
+     * @param particles
+     */
+    public void putParticles(ParticleSystem particles) {
+        this.particles = particles;
+    }
+
     /**
      * A short hand method to add
      * @param renderQueueEnrichable
@@ -98,20 +142,34 @@ public class RenderQueue {
         put(ENTITY_GUI_LAYER, renderQueueEnrichable, renderableCoordinate);
     }
 
+    public void putEntityGui(EnrichableAbsoluteRenderable renderQueueEnrichable, int absoluteX, int absoluteY) {
+        put(ENTITY_GUI_LAYER, renderQueueEnrichable, absoluteX, absoluteY);
+    }
+
     /**
      * Add a @{link EnrichableAbsoluteRenderable} thing to draw
      * @param layer
      * @param renderQueueEnrichable
      */
     public void put(int layer, EnrichableAbsoluteRenderable renderQueueEnrichable, Coordinate renderableCoordinate) {
-        Coordinate screenCoordinate = translate(renderableCoordinate);
-//        int drawX = renderableCoordinate.getXAsInt() - cameraPosition.getXAsInt();
-//        int drawY = renderableCoordinate.getYAsInt() - cameraPosition.getYAsInt();
-        int drawX = screenCoordinate.getXAsInt();
-        int drawY = screenCoordinate.getYAsInt();
+        put(layer, renderQueueEnrichable, renderableCoordinate.getXAsInt(), renderableCoordinate.getYAsInt());
+    }
 
-        ThingToRender thingToRender = new ThingToRender(drawX, drawY, renderQueueEnrichable);
-        thingsToRender.get(layer).add(thingToRender);
+    /**
+     * Add a @{link EnrichableAbsoluteRenderable} thing to draw at given absolute (map) pixel position. The
+     * {@link ThingToRender} of a previous frame is reused, so this does not allocate once the queue is warmed up.
+     */
+    public void put(int layer, EnrichableAbsoluteRenderable renderQueueEnrichable, int absoluteX, int absoluteY) {
+        int drawX = absoluteX - cameraPosition.getXAsInt();
+        int drawY = absoluteY - cameraPosition.getYAsInt();
+
+        List<ThingToRender> thingsToRenderForLayer = thingsToRender.get(layer);
+        int index = thingsToRenderCount[layer]++;
+        if (index < thingsToRenderForLayer.size()) {
+            thingsToRenderForLayer.get(index).set(drawX, drawY, renderQueueEnrichable);
+        } else {
+            thingsToRenderForLayer.add(new ThingToRender(drawX, drawY, renderQueueEnrichable));
+        }
 
         renderQueueEnrichable.enrichRenderQueue(this);
     }
@@ -128,17 +186,23 @@ public class RenderQueue {
      */
     public void render(Graphics graphics) {
         for (int layer = 0; layer < MAX_LAYERS; layer++) {
-            List<ThingToRender> thingToRenderForLayer = thingsToRender.get(layer);
-            if (thingToRenderForLayer == null || thingToRenderForLayer.isEmpty()) continue;
+            if (layer == PROJECTILE_LAYER && projectiles != null) {
+                projectiles.render(graphics, cameraPosition.getXAsInt(), cameraPosition.getYAsInt(), visibleWidth, visibleHeight);
+            }
+            if (layer == PARTICLE_LAYER && particles != null) {
+                particles.render(graphics, cameraPosition.getXAsInt(), cameraPosition.getYAsInt(), visibleWidth, visibleHeight);
+            }
 
-            for (ThingToRender thingToRender : thingToRenderForLayer) {
-                thingToRender.render(graphics);
+            List<ThingToRender> thingToRenderForLayer = thingsToRender.get(layer);
+            int count = thingsToRenderCount[layer];
+            for (int i = 0; i < count; i++) {
+                thingToRenderForLayer.get(i).render(graphics);
             }
         }
     }
 
     public List<ThingToRender> getThingsToRender(int layer) {
-        return thingsToRender.get(layer);
+        return thingsToRender.get(layer).subList(0, thingsToRenderCount[layer]);
     }
 
     /**
@@ -150,6 +214,10 @@ public class RenderQueue {
         public EnrichableAbsoluteRenderable renderQueueEnrichable;  // what to render
 
         public ThingToRender(int screenX, int screenY, EnrichableAbsoluteRenderable renderQueueEnrichable) {
+            set(screenX, screenY, renderQueueEnrichable);
+        }
+
+        void set(int screenX, int screenY, EnrichableAbsoluteRenderable renderQueueEnrichable) {
             this.screenX = screenX;
             this.screenY = screenY;
             this.renderQueueEnrichable = renderQueueEnrichable;
@@ -159,8 +227,7 @@ public class RenderQueue {
             try {
                 renderQueueEnrichable.render(graphics, screenX, screenY);
             } catch (RuntimeException re) {
-                System.err.println("Error rendering " + renderQueueEnrichable + " -> " + re);
-                re.printStackTrace();
+                LOG.error("Error rendering {}", renderQueueEnrichable, re);
             }
         }
     }
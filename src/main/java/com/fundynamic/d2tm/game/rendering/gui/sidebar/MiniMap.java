@@ -5,9 +5,11 @@ import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.EntityType;
 import com.fundynamic.d2tm.game.entities.Player;
 import com.fundynamic.d2tm.game.map.Cell;
+import com.fundynamic.d2tm.game.map.CellOffsets;
 import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.game.rendering.gui.GuiElement;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.BattleField;
+import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Rectangle;
 import com.fundynamic.d2tm.math.Vector2D;
@@ -117,10 +119,10 @@ public class MiniMap extends GuiElement {
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 // skip shrouded terrain
-                Cell cell = map.getCell(x + 1, y + 1);
-                if (player.isShrouded(cell.getMapCoordinate())) {
+                if (player.isShrouded(x + 1, y + 1)) {
                     continue;
                 }
+                Cell cell = map.getCell(x + 1, y + 1);
 
                 final Color terrainColor = cell.getTerrainColor();
                 buffer.setRGBA(x, y, terrainColor.getRed(), terrainColor.getGreen(), terrainColor.getBlue(), 255);
@@ -129,15 +131,20 @@ public class MiniMap extends GuiElement {
 
         // render entities
         for(Entity entity : entityRepository.findAliveEntitiesWithinPlayableMapBoundariesOfType(EntityType.STRUCTURE, EntityType.UNIT)) {
-            for(MapCoordinate mapCoordinate : entity.getAllCellsAsMapCoordinates()) {
+            CellOffsets footprint = entity.getEntityData().getFootprint();
+            int topLeftX = EntityData.getTopLeftCellX(entity.getCoordinate());
+            int topLeftY = EntityData.getTopLeftCellY(entity.getCoordinate());
+            for (int i = 0; i < footprint.size(); i++) {
+                int cellX = topLeftX + footprint.getX(i);
+                int cellY = topLeftY + footprint.getY(i);
                 // skip shrouded entities
-                if (player.isShrouded(mapCoordinate)) {
+                if (player.isShrouded(cellX, cellY)) {
                     continue;
                 }
 
                 // use one pixel offset, because map coordinates are one-based
-                int x = mapCoordinate.getXAsInt() - 1;
-                int y = mapCoordinate.getYAsInt() - 1;
+                int x = cellX - 1;
+                int y = cellY - 1;
                 Color factionColor = entity.getPlayer().getFactionColor();
                 buffer.setRGBA(x, y, factionColor.getRed(), factionColor.getGreen(), factionColor.getBlue(), 255);
             }
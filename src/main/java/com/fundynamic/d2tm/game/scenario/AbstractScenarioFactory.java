@@ -2,10 +2,13 @@ package com.fundynamic.d2tm.game.scenario;
 
 import com.fundynamic.d2tm.game.entities.EntityRepository;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.scheduling.WorkScheduler;
 import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.map.MapEditor;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.Recolorer;
 import com.fundynamic.d2tm.game.terrain.TerrainFactory;
 import com.fundynamic.d2tm.graphics.Shroud;
+import com.fundynamic.d2tm.math.Random;
 import org.newdawn.slick.SlickException;
 
 /**
@@ -18,6 +21,9 @@ public abstract class AbstractScenarioFactory {
     protected final TerrainFactory terrainFactory;
     protected final EntitiesData entitiesData;
 
+    // the match seed, all randomness within a scenario is derived from it
+    protected Random random = new Random(Random.DEFAULT_SEED);
+
     protected AbstractScenarioFactory(Shroud shroud, TerrainFactory terrainFactory, EntitiesData entitiesData) {
         this.shroud = shroud;
         this.terrainFactory = terrainFactory;
@@ -26,12 +32,24 @@ public abstract class AbstractScenarioFactory {
 
     public abstract Scenario create();
 
+    public AbstractScenarioFactory withRandom(Random random) {
+        this.random = random;
+        return this;
+    }
+
     public EntityRepository getEntityRepository(Map map) throws SlickException {
-        return new EntityRepository(
+        EntityRepository entityRepository = new EntityRepository(
                 map,
                 new Recolorer(),
-                entitiesData
+                entitiesData,
+                random.split("entities")
         );
+        entityRepository.getWorkScheduler().setWorkUnitsPerTick(WorkScheduler.DEFAULT_WORK_UNITS_PER_TICK);
+        return entityRepository;
+    }
+
+    public MapEditor getMapEditor() {
+        return new MapEditor(terrainFactory, random.split("map"));
     }
 
 
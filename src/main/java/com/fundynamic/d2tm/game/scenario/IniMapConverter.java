@@ -0,0 +1,72 @@
+package com.fundynamic.d2tm.game.scenario;
+
+import com.fundynamic.d2tm.game.map.BinaryMapFormat;
+import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.terrain.TerrainFactory;
+import com.fundynamic.d2tm.game.terrain.impl.DuneTerrainFactory;
+import com.fundynamic.d2tm.graphics.Shroud;
+import com.fundynamic.d2tm.graphics.Theme;
+import com.fundynamic.d2tm.math.Random;
+import org.ini4j.Ini;
+import org.newdawn.slick.SlickException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
+/**
+ * Converts the <code>[MAP]</code> and <code>[TERRAIN]</code> sections of a scenario ini file into a
+ * {@link BinaryMapFormat} map file. The map is smoothed and spice amounts are rolled (with the given seed) during
+ * conversion, so they are baked into the map file.
+ * <p>
+ * To use the map file, add <code>File=path/to/file.map</code> (a classpath resource) to the <code>[MAP]</code> section
+ * of the scenario.
+ * </p>
+ */
+public class IniMapConverter {
+
+    private final Shroud shroud;
+    private final TerrainFactory terrainFactory;
+    private final Random random;
+
+    public IniMapConverter(Shroud shroud, TerrainFactory terrainFactory, Random random) {
+        this.shroud = shroud;
+        this.terrainFactory = terrainFactory;
+        this.random = random;
+    }
+
+    public Map convert(Ini ini, Path destination) throws IOException, SlickException {
+        IniScenarioFactory iniScenarioFactory = new IniScenarioFactory(shroud, terrainFactory, null, null);
+        iniScenarioFactory.withRandom(random);
+        Map map = iniScenarioFactory.readMapAndTerrain(ini);
+        new BinaryMapFormat(shroud, terrainFactory).write(map, destination);
+        return map;
+    }
+
+    /**
+     * Usage: IniMapConverter &lt;scenario.ini&gt; &lt;destination.map&gt; [seed]
+     */
+    public static void main(String[] args) throws IOException, SlickException {
+        if (args.length < 2) {
+            System.out.println("Usage: IniMapConverter <scenario.ini> <destination.map> [seed]");
+            return;
+        }
+        Path source = Paths.get(args[0]);
+        Path destination = Paths.get(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : Random.DEFAULT_SEED;
+
+        Random random = new Random(seed);
+        // images are only needed for drawing, which we don't do here
+        Shroud shroud = new Shroud(null, TILE_SIZE);
+        TerrainFactory terrainFactory = new DuneTerrainFactory(new Theme(null, TILE_SIZE), random.split("terrain"));
+
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            Map map = new IniMapConverter(shroud, terrainFactory, random).convert(new Ini(inputStream), destination);
+            System.out.println("Converted " + source + " (" + map.getWidth() + "x" + map.getHeight() + ") into " + destination + " (" + Files.size(destination) + " bytes)");
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.fundynamic.d2tm.game.entities.Faction;
 import com.fundynamic.d2tm.game.entities.Player;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
 import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.map.BinaryMapFormat;
 import com.fundynamic.d2tm.game.map.Map;
 import com.fundynamic.d2tm.game.map.MapEditor;
 import com.fundynamic.d2tm.game.terrain.TerrainFactory;
@@ -16,6 +17,7 @@ import org.ini4j.Ini;
 import org.ini4j.Profile;
 import org.newdawn.slick.SlickException;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -139,16 +141,23 @@ public class IniScenarioFactory extends AbstractScenarioFactory {
         return playerToUse;
     }
 
-    public Map readMapAndTerrain(Ini ini) throws SlickException {
+    public Map readMapAndTerrain(Ini ini) throws SlickException, IOException {
         // Start with basic map data (dimensions, etc)
         Profile.Section iniMap = ini.get("MAP");
+
+        // a converted map (see IniMapConverter) holds terrain, facings and spice; no need to smooth
+        String mapFile = iniMap.get("File", String.class, "");
+        if (!StringUtils.isEmpty(mapFile)) {
+            return new BinaryMapFormat(shroud, terrainFactory).readResource(mapFile);
+        }
+
         int mapWidth = iniMap.get("Width", Integer.class, -1);
         int mapHeight = iniMap.get("Height", Integer.class, -1);
         if (mapWidth < 1 || mapHeight < 1) {
             throw new IllegalArgumentException("Invalid map dimensions given [" + mapWidth+"x"+mapHeight + "], must be greater than 1x1.");
         }
 
-        MapEditor mapEditor = new MapEditor(terrainFactory);
+        MapEditor mapEditor = getMapEditor();
         Map map = makeMap(mapEditor, mapWidth, mapHeight);
 
 
@@ -35,7 +35,7 @@ public class RandomMapScenarioFactory extends AbstractScenarioFactory {
             human.setCredits(randomMapScenarioProperties.getHumanCredits());
             cpu.setCredits(randomMapScenarioProperties.getCpuCredits());
 
-            MapEditor mapEditor = new MapEditor(terrainFactory);
+            MapEditor mapEditor = getMapEditor();
             int mapWidth = randomMapScenarioProperties.getMapWidth();
             int mapHeight = randomMapScenarioProperties.getMapHeight();
             Map map = getMap(mapEditor, mapWidth, mapHeight);
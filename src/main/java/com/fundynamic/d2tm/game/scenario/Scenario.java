@@ -1,5 +1,6 @@
 package com.fundynamic.d2tm.game.scenario;
 
+import com.fundynamic.d2tm.game.ai.CpuAi;
 import com.fundynamic.d2tm.game.behaviors.Renderable;
 import com.fundynamic.d2tm.game.behaviors.Updateable;
 import com.fundynamic.d2tm.game.entities.Entity;
@@ -26,6 +27,8 @@ public class Scenario implements Renderable, Updateable {
     private Player cpu;
     private Player human;
 
+    private CpuAi cpuAi; // thinks for the cpu player, on its own thread once started
+
     private Predicate updatableEntitiesPredicate;
     private Predicate destroyedEntitiesPredicate;
 
@@ -45,15 +48,35 @@ public class Scenario implements Renderable, Updateable {
 
     @Override
     public void update(float deltaInSeconds) {
+        // expensive decisions of entities share a budget per tick
+        entityRepository.getWorkScheduler().beginTick();
+
+        // decisions of the cpu AI are executed at the tick boundary, and it gets to see the state of this boundary
+        if (cpuAi != null) {
+            cpuAi.update(deltaInSeconds);
+        }
+
+        // particles emitted during this tick start playing next tick
+        entityRepository.getParticles().update(deltaInSeconds);
+
         Predicate<Entity> updatableEntities = updatableEntitiesPredicate();
         for (Entity entity : entityRepository.filter(updatableEntities)) {
             entity.update(deltaInSeconds);
         }
 
+        // all projectiles in flight are moved (and detonated) in one go
+        entityRepository.getProjectiles().update(deltaInSeconds);
+
+        // idle units look around for enemies, a few each tick
+        entityRepository.getTargetAcquisition().update(deltaInSeconds);
+
         human.update(deltaInSeconds);
         cpu.update(deltaInSeconds);
 
         entityRepository.removeEntities(destroyedEntitiesPredicate());
+
+        // all events of this tick (ie destroyed entities) are delivered in one go
+        entityRepository.getEventBus().dispatch();
     }
 
     private Predicate<Entity> updatableEntitiesPredicate() {
@@ -70,6 +93,21 @@ public class Scenario implements Renderable, Updateable {
         return this.destroyedEntitiesPredicate;
     }
 
+    /**
+     * Starts the AI of the cpu player (on its own thread)
+     */
+    public void startCpuAi() {
+        if (cpuAi != null) cpuAi.start();
+    }
+
+    public void stopCpuAi() {
+        if (cpuAi != null) cpuAi.stop();
+    }
+
+    public CpuAi getCpuAi() {
+        return cpuAi;
+    }
+
     public Player getHuman() {
         return human;
     }
@@ -115,6 +153,9 @@ public class Scenario implements Renderable, Updateable {
             scenario.entityRepository = entityRepository;
             scenario.human = human;
             scenario.cpu = cpu;
+            if (cpu != null && cpu.isCPU() && entityRepository != null) {
+                scenario.cpuAi = new CpuAi(cpu, entityRepository);
+            }
             return scenario;
         }
 
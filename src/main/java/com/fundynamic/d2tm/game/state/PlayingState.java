@@ -140,6 +140,16 @@ public class PlayingState extends BasicGameState {
         scenario.render(graphics);
     }
 
+    @Override
+    public void enter(GameContainer container, StateBasedGame game) throws SlickException {
+        scenario.startCpuAi();
+    }
+
+    @Override
+    public void leave(GameContainer container, StateBasedGame game) throws SlickException {
+        scenario.stopCpuAi();
+    }
+
     @Override
     public void update(GameContainer container, StateBasedGame game, int delta) throws SlickException {
         float deltaInSeconds = delta / 1000f;
@@ -149,6 +159,9 @@ public class PlayingState extends BasicGameState {
         scenario.update(deltaInSeconds);
 
         guiComposite.update(deltaInSeconds);
+
+        // sounds of this tick are played on the game thread
+        scenario.getEntityRepository().getSoundManager().update(deltaInSeconds);
     }
 
 }
@@ -1,12 +1,19 @@
 package com.fundynamic.d2tm.game.terrain;
 
+import com.fundynamic.d2tm.game.map.Cell;
+
 public interface Harvestable {
 
     /**
-     * Reduces the amount of 'resource (spice)' on a tile. Returns the actual withdrawn amount.
-     * @param amount
+     * The amount of 'resource (spice)' a cell gets when this terrain is put on it.
      * @return
      */
-    float harvest(float amount);
+    float getInitialAmount();
+
+    /**
+     * Called when all 'resource (spice)' of given cell has been harvested.
+     * @param cell
+     */
+    void depleted(Cell cell);
 
 }
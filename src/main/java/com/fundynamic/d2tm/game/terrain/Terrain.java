@@ -1,23 +1,26 @@
 package com.fundynamic.d2tm.game.terrain;
 
 import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
 import com.fundynamic.d2tm.game.map.MapEditor;
 import org.newdawn.slick.Color;
 import org.newdawn.slick.Image;
 
+/**
+ * A kind of terrain. Terrain is stateless and shared by all cells of that kind (a flyweight), the state of a cell
+ * (its facing, spice, etc) is kept by the {@link com.fundynamic.d2tm.game.map.Map}.
+ */
 public interface Terrain {
 
-    Image getTileImage();
-
-    Terrain setFacing(MapEditor.TerrainFacing terrainFacing);
+    Image getTileImage(MapEditor.TerrainFacing terrainFacing);
 
     boolean isSame(Terrain terrain);
 
     int getTerrainType();
 
-    MapEditor.TerrainFacing getTerrainFacing();
-
     boolean isPassable(Entity entity);
 
+    boolean isPassable(EntityType entityType);
+
     Color getTerrainColor();
 }
@@ -1,6 +1,7 @@
 package com.fundynamic.d2tm.game.terrain.impl;
 
 import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
 import com.fundynamic.d2tm.game.map.MapEditor;
 import com.fundynamic.d2tm.game.terrain.Terrain;
 import com.fundynamic.d2tm.graphics.Theme;
@@ -9,9 +10,7 @@ import org.newdawn.slick.Image;
 public abstract class DuneTerrain implements Terrain {
 
     private final Theme theme;
-    private Image tileImage;
-    private MapEditor.TerrainFacing terrainFacing;
-    private boolean produceTileImage = true;
+    private final Image[] tileImages = new Image[MapEditor.TerrainFacing.values().length]; // per facing
 
     public static final int TERRAIN_SAND = 0;
     public static final int TERRAIN_SAND_HILL = 2;
@@ -23,27 +22,17 @@ public abstract class DuneTerrain implements Terrain {
 
     public DuneTerrain(Theme theme) {
         this.theme = theme;
-        this.terrainFacing = MapEditor.TerrainFacing.FULL;
     }
 
-    public DuneTerrain setFacing(MapEditor.TerrainFacing terrainFacing) {
-        this.terrainFacing = terrainFacing;
-        this.produceTileImage = true;
-        return this;
-    }
-
-    public Image getTileImage() {
-        if (produceTileImage) {
-            this.tileImage = makeTileImage(terrainFacing);
-            this.produceTileImage = false;
+    public Image getTileImage(MapEditor.TerrainFacing terrainFacing) {
+        Image tileImage = tileImages[terrainFacing.ordinal()];
+        if (tileImage == null) {
+            tileImage = makeTileImage(terrainFacing);
+            tileImages[terrainFacing.ordinal()] = tileImage;
         }
         return tileImage;
     }
 
-    public MapEditor.TerrainFacing getTerrainFacing() {
-        return terrainFacing;
-    }
-
     public boolean isSame(Terrain terrain) {
         if (terrain instanceof EmptyTerrain) return true; // WEIRD!?
         return this.getClass().equals(terrain.getClass());
@@ -57,4 +46,9 @@ public abstract class DuneTerrain implements Terrain {
     public boolean isPassable(Entity entity) {
         return true;
     }
+
+    @Override
+    public boolean isPassable(EntityType entityType) {
+        return true;
+    }
 }
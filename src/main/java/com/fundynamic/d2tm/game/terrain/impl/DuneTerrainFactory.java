@@ -1,46 +1,68 @@
 package com.fundynamic.d2tm.game.terrain.impl;
 
-import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.terrain.Terrain;
 import com.fundynamic.d2tm.game.terrain.TerrainFactory;
 import com.fundynamic.d2tm.graphics.Theme;
 import com.fundynamic.d2tm.math.Random;
 
+/**
+ * Hands out one shared (flyweight) {@link Terrain} per terrain type. Terrain holds no per cell state, so all cells of
+ * a map (and all maps made by this factory) can share them.
+ */
 public class DuneTerrainFactory implements TerrainFactory {
 
-    private final Theme theme;
+    private final Random random;
+
+    private final Sand sand;
+    private final Rock rock;
+    private final SandHill sandHill;
+    private final Spice spice;
+    private final Mountain mountain;
+    private final SpiceHill spiceHill;
+    private final ConcreteSlab concreteSlab;
 
     public DuneTerrainFactory(Theme theme) {
-        this.theme = theme;
+        this(theme, new Random(Random.DEFAULT_SEED));
+    }
+
+    public DuneTerrainFactory(Theme theme, Random random) {
+        this.random = random;
+        this.sand = new Sand(theme);
+        this.rock = new Rock(theme);
+        this.sandHill = new SandHill(theme);
+        this.spice = new Spice(theme, sand, this::getSpiceAmount);
+        this.mountain = new Mountain(theme);
+        this.spiceHill = new SpiceHill(theme, spice, this::getSpiceHillAmount);
+        this.concreteSlab = new ConcreteSlab(theme);
     }
 
-    public Terrain create(int terrainType, Cell cell) {
+    public Terrain create(int terrainType) {
         switch (terrainType) {
             case DuneTerrain.TERRAIN_SAND:
-                return new Sand(theme);
+                return sand;
             case DuneTerrain.TERRAIN_ROCK:
-                return new Rock(theme);
+                return rock;
             case DuneTerrain.TERRAIN_SAND_HILL:
-                return new SandHill(theme);
+                return sandHill;
             case DuneTerrain.TERRAIN_SPICE:
-                return new Spice(theme, cell, getSpiceAmount());
+                return spice;
             case DuneTerrain.TERRAIN_MOUNTAIN:
-                return new Mountain(theme);
+                return mountain;
             case DuneTerrain.TERRAIN_SPICE_HILL:
-                return new SpiceHill(theme, cell, getSpiceHillAmount());
+                return spiceHill;
             case DuneTerrain.CONCRETE:
-                return new ConcreteSlab(theme);
+                return concreteSlab;
             default:
                 throw new IndexOutOfBoundsException("Invalid value for terrainType: " + terrainType);
         }
     }
 
     public int getSpiceHillAmount() {
-        return Random.getRandomBetween(350, 500);
+        return random.getRandomBetween(350, 500);
     }
 
     public int getSpiceAmount() {
-        return Random.getRandomBetween(150, 250);
+        return random.getRandomBetween(150, 250);
     }
 
 }
@@ -1,6 +1,7 @@
 package com.fundynamic.d2tm.game.terrain.impl;
 
 import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
 import com.fundynamic.d2tm.game.map.MapEditor;
 import com.fundynamic.d2tm.game.terrain.Terrain;
 import org.newdawn.slick.Color;
@@ -12,6 +13,8 @@ import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
 
 public class EmptyTerrain implements Terrain {
 
+    private static final EmptyTerrain INSTANCE = new EmptyTerrain(TILE_SIZE);
+
     private Image image;
     private int tileSize;
     private static Image blackImage = null;
@@ -25,23 +28,18 @@ public class EmptyTerrain implements Terrain {
         this.image = image;
     }
 
-    public Image getTileImage() {
+    public Image getTileImage(MapEditor.TerrainFacing terrainFacing) {
+        if (image != null) return image;
         try {
             if (blackImage == null) {
                 blackImage = new Image(tileSize, tileSize);
                 blackImage.getGraphics().setColor(Color.black);
                 blackImage.getGraphics().fillRect(0, 0, tileSize, tileSize);
             }
-            this.image = blackImage;
         } catch (SlickException e) {
             throw new IllegalStateException("Cannot create empty image of 32x32");
         }
-        return image;
-    }
-
-    @Override
-    public Terrain setFacing(MapEditor.TerrainFacing terrainFacing) {
-        return this;
+        return blackImage;
     }
 
     public boolean isSame(Terrain terrain) {
@@ -55,12 +53,12 @@ public class EmptyTerrain implements Terrain {
     }
 
     @Override
-    public MapEditor.TerrainFacing getTerrainFacing() {
-        return MapEditor.TerrainFacing.FULL;
+    public boolean isPassable(Entity entity) {
+        return true;
     }
 
     @Override
-    public boolean isPassable(Entity entity) {
+    public boolean isPassable(EntityType entityType) {
         return true;
     }
 
@@ -69,7 +67,11 @@ public class EmptyTerrain implements Terrain {
         return Color.magenta;
     }
 
+    /**
+     * The shared empty terrain, every cell starts with it.
+     * @return
+     */
     public static Terrain instance() {
-        return new EmptyTerrain(TILE_SIZE);
+        return INSTANCE;
     }
 }
\ No newline at end of file
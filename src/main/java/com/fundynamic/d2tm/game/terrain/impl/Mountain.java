@@ -1,6 +1,7 @@
 package com.fundynamic.d2tm.game.terrain.impl;
 
 import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
 import com.fundynamic.d2tm.graphics.Theme;
 import org.newdawn.slick.Color;
 
@@ -19,7 +20,12 @@ public class Mountain extends DuneTerrain {
 
     @Override
     public boolean isPassable(Entity entity) {
-        switch (entity.getEntityType()) {
+        return isPassable(entity.getEntityType());
+    }
+
+    @Override
+    public boolean isPassable(EntityType entityType) {
+        switch (entityType) {
             case UNIT:
                 return false; // for now all units cannot walk over mountain
             default:
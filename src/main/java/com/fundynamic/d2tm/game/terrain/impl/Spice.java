@@ -6,19 +6,24 @@ import com.fundynamic.d2tm.game.terrain.Terrain;
 import com.fundynamic.d2tm.graphics.Theme;
 import org.newdawn.slick.Color;
 
+import java.util.function.IntSupplier;
+
 public class Spice extends DuneTerrain implements Harvestable {
 
     private static final Color terrainColor = new Color(185, 98, 37);
 
-    private final Theme theme;
-    private Cell cell;
-    private int spice;
+    private final Terrain whenDepleted;
+    private final IntSupplier initialAmount;
 
-    public Spice(Theme theme, Cell cell, int spice) {
+    /**
+     * @param theme
+     * @param whenDepleted  terrain the cell gets when all spice is harvested
+     * @param initialAmount amount of spice a cell gets when spice is put on it
+     */
+    public Spice(Theme theme, Terrain whenDepleted, IntSupplier initialAmount) {
         super(theme);
-        this.theme = theme;
-        this.cell = cell;
-        this.spice = spice;
+        this.whenDepleted = whenDepleted;
+        this.initialAmount = initialAmount;
     }
 
     @Override
@@ -37,16 +42,15 @@ public class Spice extends DuneTerrain implements Harvestable {
         return super.isSame(terrain);
     }
 
-    public float harvest(float amount) {
-        if (spice > amount) {
-            spice -= amount;
-            return amount;
-        }
-        int remaining = spice;
-        spice = 0;
-        cell.changeTerrain(new Sand(theme)); // <-- this is odd!?
+    @Override
+    public float getInitialAmount() {
+        return initialAmount.getAsInt();
+    }
+
+    @Override
+    public void depleted(Cell cell) {
+        cell.changeTerrain(whenDepleted);
         cell.smoothSurroundingCells();
-        return remaining;
     }
 
 }
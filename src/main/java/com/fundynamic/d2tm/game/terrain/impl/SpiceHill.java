@@ -5,19 +5,26 @@ import com.fundynamic.d2tm.game.terrain.Harvestable;
 import com.fundynamic.d2tm.graphics.Theme;
 import org.newdawn.slick.Color;
 
+import java.util.function.IntSupplier;
+
 public class SpiceHill extends DuneTerrain implements Harvestable {
 
+    public static final int SPICE_LEFT_WHEN_DEPLETED = 100;
+
     private static final Color terrainColor = new Color(170, 75, 25);
 
-    private final Theme theme;
-    private Cell cell;
-    private int spice;
+    private final Spice whenDepleted;
+    private final IntSupplier initialAmount;
 
-    public SpiceHill(Theme theme, Cell cell, int spice) {
+    /**
+     * @param theme
+     * @param whenDepleted  spice the cell gets (with {@link #SPICE_LEFT_WHEN_DEPLETED}) when this hill is harvested
+     * @param initialAmount amount of spice a cell gets when a spice hill is put on it
+     */
+    public SpiceHill(Theme theme, Spice whenDepleted, IntSupplier initialAmount) {
         super(theme);
-        this.theme = theme;
-        this.cell = cell;
-        this.spice = spice;
+        this.whenDepleted = whenDepleted;
+        this.initialAmount = initialAmount;
     }
 
     @Override
@@ -30,15 +37,14 @@ public class SpiceHill extends DuneTerrain implements Harvestable {
         return terrainColor;
     }
 
-    public float harvest(float amount) {
-        if (spice > amount) {
-            spice -= amount;
-            return amount;
-        }
-        int remaining = spice;
-        spice = 0;
-        cell.changeTerrain(new Spice(theme, cell, 100));
+    @Override
+    public float getInitialAmount() {
+        return initialAmount.getAsInt();
+    }
+
+    @Override
+    public void depleted(Cell cell) {
+        cell.changeTerrain(whenDepleted, SPICE_LEFT_WHEN_DEPLETED);
         cell.smoothSurroundingCells();
-        return remaining;
     }
 }
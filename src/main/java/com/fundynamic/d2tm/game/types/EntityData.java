@@ -4,6 +4,7 @@ import com.fundynamic.d2tm.game.entities.EntityType;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesDataReader;
 import com.fundynamic.d2tm.game.entities.entitybuilders.EntityBuilderType;
+import com.fundynamic.d2tm.game.map.CellOffsets;
 import com.fundynamic.d2tm.math.Coordinate;
 import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Vector2D;
@@ -13,6 +14,7 @@ import org.newdawn.slick.Image;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.fundynamic.d2tm.game.map.Cell.HALF_TILE;
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
 
 /**
@@ -35,7 +37,7 @@ import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
  *      explosion=BOOM
  *
  * </pre>
- * <p>The structure has a reference to EXPLOSIONS which is implemented by (#{@link com.fundynamic.d2tm.game.entities.particle.Particle}</p>
+ * <p>The structure has a reference to EXPLOSIONS which is implemented by (#{@link com.fundynamic.d2tm.game.entities.particle.ParticleSystem}</p>
  */
 public class EntityData {
 
@@ -67,6 +69,9 @@ public class EntityData {
     private int widthInCells;       // in cells, derived from pixels
     private int heightInCells;      // in cells, derived from pixels
 
+    private CellOffsets footprint;          // derived from cells, created when asked for
+    private CellOffsets surroundingCells;   // derived from cells, created when asked for
+
     public int maxAscensionHeight; // in pixels, how high a projectile can ascend when 'launched'
     public float startToDescendPercentage; // normalised value (between 0 and 1.0), when should descend be initiated?
     public float maxAscensionAtFlightPercentage; // normalised value (between 0 and 1.0), when should the projectile be at maxAscensionHeight during flight?
@@ -82,6 +87,7 @@ public class EntityData {
 
     public String weaponId = UNKNOWN;
     public int damage;
+    public float damageRadius;      // splash damage radius in pixels, 0 means only the hit cell is damaged
 
     public int hitPoints;           // initial hitPoints when spawned
 
@@ -140,6 +146,7 @@ public class EntityData {
         } else {
             widthInCells = (int) Math.ceil((float) width / TILE_SIZE);
         }
+        forgetCellOffsets();
     }
 
     public void setHeight(int height) {
@@ -152,6 +159,7 @@ public class EntityData {
         } else {
             heightInCells = (int) Math.ceil((float) height / TILE_SIZE);
         }
+        forgetCellOffsets();
     }
 
     public int getWidth() {
@@ -170,6 +178,32 @@ public class EntityData {
         return heightInCells;
     }
 
+    /**
+     * Offsets (from the top-left cell) of all cells covered by this entity, see {@link CellOffsets#footprint(int, int)}
+     */
+    public CellOffsets getFootprint() {
+        if (footprint == null) {
+            footprint = CellOffsets.footprint(widthInCells, heightInCells);
+        }
+        return footprint;
+    }
+
+    /**
+     * Offsets (from the top-left cell) of all cells directly around this entity, see
+     * {@link CellOffsets#surrounding(int, int, int)}
+     */
+    public CellOffsets getSurroundingCells() {
+        if (surroundingCells == null) {
+            surroundingCells = CellOffsets.surrounding(widthInCells, heightInCells, 1);
+        }
+        return surroundingCells;
+    }
+
+    private void forgetCellOffsets() {
+        footprint = null;
+        surroundingCells = null;
+    }
+
     @Override
     public String toString() {
         return "EntityData{" +
@@ -191,6 +225,7 @@ public class EntityData {
                 ", hitPoints=" + hitPoints +
                 ", facings=" + facings +
                 ", damage=" + damage +
+                ", damageRadius=" + damageRadius +
                 ", explosionId='" + explosionId + '\'' +
                 ", weaponId='" + weaponId + '\'' +
                 ", animationSpeed=" + animationSpeed +
@@ -229,6 +264,10 @@ public class EntityData {
         return !UNKNOWN.equals(onPlacementSpawnUnitId);
     }
 
+    public boolean hasDamageRadius() {
+        return damageRadius > 0F;
+    }
+
     public boolean hasSound() {
         return soundData != null;
     }
@@ -319,17 +358,28 @@ public class EntityData {
      * @return
      */
     public List<MapCoordinate> getAllCellsAsCoordinates(Coordinate coordinate) {
-        List<MapCoordinate> result = new ArrayList<>(widthInCells * heightInCells);
-        for (int x = 0; x < widthInCells; x++) {
-            for (int y = 0; y < heightInCells; y++) {
-                int vecX = coordinate.getXAsInt() + (x * TILE_SIZE);
-                int vecY = coordinate.getYAsInt() + (y * TILE_SIZE);
-                result.add(Coordinate.create(vecX, vecY).toMapCoordinate());
-            }
+        CellOffsets footprint = getFootprint();
+        int topLeftX = getTopLeftCellX(coordinate);
+        int topLeftY = getTopLeftCellY(coordinate);
+        List<MapCoordinate> result = new ArrayList<>(footprint.size());
+        for (int i = 0; i < footprint.size(); i++) {
+            result.add(MapCoordinate.create(topLeftX + footprint.getX(i), topLeftY + footprint.getY(i)));
         }
         return result;
     }
 
+    /**
+     * The x of the top-left cell of this entity when it is on given (absolute) coordinate. Add the offsets of
+     * {@link #getFootprint()} to it to get all cells covered, like {@link #getAllCellsAsCoordinates(Coordinate)}.
+     */
+    public static int getTopLeftCellX(Coordinate coordinate) {
+        return Math.round((float) coordinate.getXAsInt() / TILE_SIZE);
+    }
+
+    public static int getTopLeftCellY(Coordinate coordinate) {
+        return Math.round((float) coordinate.getYAsInt() / TILE_SIZE);
+    }
+
     /**
      * Given a topLeftX and topLeftY coordinate, calculate all cells that are being occupied by this
      * entity and return that as a list of coordinates.
@@ -339,12 +389,15 @@ public class EntityData {
      * @return
      */
     public List<Coordinate> getAllCellsAsCenteredCoordinates(Coordinate coordinate) {
-        List<MapCoordinate> result = getAllCellsAsCoordinates(coordinate);
-
-        List<Coordinate> centered = new ArrayList<>(result.size());
-        Vector2D halfCell = Vector2D.create(TILE_SIZE / 2, TILE_SIZE / 2);
-        for (MapCoordinate resultCoordinate : result) {
-            centered.add(resultCoordinate.toCoordinate().add(halfCell));
+        CellOffsets footprint = getFootprint();
+        int topLeftX = getTopLeftCellX(coordinate);
+        int topLeftY = getTopLeftCellY(coordinate);
+        List<Coordinate> centered = new ArrayList<>(footprint.size());
+        for (int i = 0; i < footprint.size(); i++) {
+            centered.add(Coordinate.create(
+                    ((topLeftX + footprint.getX(i)) * TILE_SIZE) + HALF_TILE,
+                    ((topLeftY + footprint.getY(i)) * TILE_SIZE) + HALF_TILE
+            ));
         }
         return centered;
     }
@@ -382,6 +435,7 @@ public class EntityData {
         if (Float.compare(that.attackRate, attackRate) != 0) return false;
         if (Float.compare(that.attackRange, attackRange) != 0) return false;
         if (damage != that.damage) return false;
+        if (Float.compare(that.damageRadius, damageRadius) != 0) return false;
         if (hitPoints != that.hitPoints) return false;
         if (Float.compare(that.animationSpeed, animationSpeed) != 0) return false;
         if (recolor != that.recolor) return false;
@@ -435,6 +489,7 @@ public class EntityData {
         result = 31 * result + (attackRange != +0.0f ? Float.floatToIntBits(attackRange) : 0);
         result = 31 * result + (weaponId != null ? weaponId.hashCode() : 0);
         result = 31 * result + damage;
+        result = 31 * result + (damageRadius != +0.0f ? Float.floatToIntBits(damageRadius) : 0);
         result = 31 * result + hitPoints;
         result = 31 * result + (explosionId != null ? explosionId.hashCode() : 0);
         result = 31 * result + (animationSpeed != +0.0f ? Float.floatToIntBits(animationSpeed) : 0);
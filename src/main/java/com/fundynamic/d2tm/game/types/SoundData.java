@@ -7,5 +7,11 @@ import org.newdawn.slick.Sound;
  * randomised. These 'groups' are predefined in an enum.
  */
 public class SoundData {
+    public String id;
+    public String group;        // sounds within the same group share voices, see SoundManager
     public Sound sound;
+
+    public String getGroup() {
+        return group != null ? group : id;
+    }
 }
@@ -67,14 +67,15 @@ public class MapCoordinate extends Vector2D {
      * Generate a vector with random (int) coordinates. Where X will be between minX and given maxX and Y will be between
      * minY and maxY.
      *
+     * @param random
      * @param minX
      * @param maxX
      * @param minY
      * @param maxY
      * @return new Vector instance
      */
-    public static MapCoordinate random(int minX, int maxX, int minY, int maxY) {
-        return MapCoordinate.create(Random.getRandomBetween(minX, maxX), Random.getRandomBetween(minY, maxY));
+    public static MapCoordinate random(Random random, int minX, int maxX, int minY, int maxY) {
+        return MapCoordinate.create(random.getRandomBetween(minX, maxX), random.getRandomBetween(minY, maxY));
     }
 
     @Override
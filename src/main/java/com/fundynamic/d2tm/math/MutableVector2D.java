@@ -0,0 +1,117 @@
+package com.fundynamic.d2tm.math;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Mutable companion of {@link Vector2D}. Where every operation of a {@link Vector2D} creates a new vector, the
+ * operations of a mutable vector change the vector itself (and return it, so calls can be chained). Use it on paths
+ * that run for every unit every frame (movement, rendering), keep using the immutable {@link Vector2D},
+ * {@link Coordinate} and {@link MapCoordinate} for game logic.
+ * </p>
+ * <p>
+ * Never hand out a mutable vector to be kept by others, hand out a copy with {@link #toVector2D()} or
+ * {@link #toCoordinate()} instead.
+ * </p>
+ */
+public class MutableVector2D {
+
+    private float x;
+    private float y;
+
+    public MutableVector2D() {
+        this(0, 0);
+    }
+
+    public MutableVector2D(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public int getXAsInt() {
+        return (int) x;
+    }
+
+    public int getYAsInt() {
+        return (int) y;
+    }
+
+    public MutableVector2D set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    public MutableVector2D set(Vector2D other) {
+        return set(other.getX(), other.getY());
+    }
+
+    public MutableVector2D add(float x, float y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+
+    public MutableVector2D add(Vector2D other) {
+        return add(other.getX(), other.getY());
+    }
+
+    public MutableVector2D min(float x, float y) {
+        this.x -= x;
+        this.y -= y;
+        return this;
+    }
+
+    public MutableVector2D min(Vector2D other) {
+        return min(other.getX(), other.getY());
+    }
+
+    public MutableVector2D scale(float factor) {
+        this.x *= factor;
+        this.y *= factor;
+        return this;
+    }
+
+    /**
+     * Makes this vector length 1, pointing in the same direction. A zero vector stays zero.
+     */
+    public MutableVector2D normalise() {
+        float length = length();
+        if (length == 0) return this;
+        return scale(1 / length);
+    }
+
+    public float length() {
+        return (float) Math.sqrt((x * x) + (y * y));
+    }
+
+    public float distance(float otherX, float otherY) {
+        float deltaX = otherX - x;
+        float deltaY = otherY - y;
+        return (float) Math.sqrt((deltaX * deltaX) + (deltaY * deltaY));
+    }
+
+    public boolean isZero() {
+        return x == 0 && y == 0;
+    }
+
+    public Vector2D toVector2D() {
+        return Vector2D.create(x, y);
+    }
+
+    public Coordinate toCoordinate() {
+        return Coordinate.create(x, y);
+    }
+
+    @Override
+    public String toString() {
+        return "MutableVector2D{x=" + x + ", y=" + y + '}';
+    }
+}
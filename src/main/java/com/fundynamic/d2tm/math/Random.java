@@ -2,9 +2,67 @@ package com.fundynamic.d2tm.math;
 
 import java.util.List;
 
+/**
+ * <h1>General</h1>
+ * <p>
+ * Deterministic, seedable random number stream (SplitMix64). Given the same seed, the same sequence of numbers is
+ * returned, on every machine and every run.
+ * </p>
+ * <h2>Splitting</h2>
+ * <p>
+ * A match has one seed. Every subsystem (map generation, an entity, ...) gets its own stream by {@link #split(long)}ting
+ * it from the match stream. A split stream only depends on the seed of its parent and the given key, not on how many
+ * numbers were drawn from the parent or from other streams. So streams are independent of each other and of the order
+ * (or thread) in which they are used.
+ * </p>
+ * <p>
+ * A stream itself is not thread-safe; it is meant to be owned by one subsystem/entity.
+ * </p>
+ */
 public class Random {
 
-    private static java.util.Random random = new java.util.Random();
+    /**
+     * Seed used when no seed is given (ie, in tests and tools)
+     */
+    public static final long DEFAULT_SEED = 0L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private long state;
+
+    public Random(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Derives an independent stream for given key.
+     * @param key
+     * @return
+     */
+    public Random split(long key) {
+        return new Random(mix(seed ^ mix(key + GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Derives an independent stream for given (subsystem) name.
+     * @param name
+     * @return
+     */
+    public Random split(String name) {
+        return split((long) name.hashCode());
+    }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
     /**
      * Returns value between min *until* max, not including max.
      *
@@ -14,14 +72,21 @@ public class Random {
      * @param max
      * @return
      */
-    public static int getRandomBetween(int min, int max) {
+    public int getRandomBetween(int min, int max) {
         final int maxForRandom = max - min;
         return (min + getInt(maxForRandom));
     }
 
-    public static int getInt(int max) {
+    /**
+     * Returns value between 0 *until* max, not including max.
+     * @param max
+     * @return
+     */
+    public int getInt(int max) {
         if (max == 0) return 0;
-        return random.nextInt(max);
+        if (max < 0) throw new IllegalArgumentException("max must be positive, given " + max);
+        // use the upper bits, they are the 'most random'
+        return (int) (((nextLong() >>> 33) * max) >>> 31);
     }
 
     /**
@@ -30,8 +95,14 @@ public class Random {
      * @param <T>
      * @return
      */
-    public static <T> T getRandomItem(List<T> list) {
+    public <T> T getRandomItem(List<T> list) {
         if (list.isEmpty()) return null;
         return list.get(getInt(list.size()));
     }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 }
@@ -39,9 +39,11 @@ public class Rectangle {
     }
 
     public boolean isVectorWithin(Vector2D vec) {
-        boolean result = vec.getX() >= topLeft.getX() && vec.getX() < bottomRight.getX() && vec.getY() >= topLeft.getY() && vec.getY() < bottomRight.getY();
-//        System.out.println("Testing if " + vec.getXAsInt() + "," + vec.getYAsInt() + " is within " + this + " --> " + result);
-        return result;
+        return isWithin(vec.getX(), vec.getY());
+    }
+
+    public boolean isWithin(float x, float y) {
+        return x >= topLeft.getX() && x < bottomRight.getX() && y >= topLeft.getY() && y < bottomRight.getY();
     }
 
     public int getTopLeftX() {
@@ -19,26 +19,28 @@ public class Vector2D {
      * Generate a vector with random (int) coordinates. Where X will be between 0 and given maxX and Y will be between
      * 0 and maxY.
      *
+     * @param random
      * @param maxX
      * @param maxY
      * @return new Vector instance
      */
-    public static Vector2D random(int maxX, int maxY) {
-        return random(0, maxX, 0, maxY);
+    public static Vector2D random(Random random, int maxX, int maxY) {
+        return random(random, 0, maxX, 0, maxY);
     }
 
     /**
      * Generate a vector with random (int) coordinates. Where X will be between minX and given maxX and Y will be between
      * minY and maxY.
      *
+     * @param random
      * @param minX
      * @param maxX
      * @param minY
      * @param maxY
      * @return new Vector instance
      */
-    public static Vector2D random(int minX, int maxX, int minY, int maxY) {
-        return Vector2D.create(Random.getRandomBetween(minX, maxX), Random.getRandomBetween(minY, maxY));
+    public static Vector2D random(Random random, int minX, int maxX, int minY, int maxY) {
+        return Vector2D.create(random.getRandomBetween(minX, maxX), random.getRandomBetween(minY, maxY));
     }
 
     public Vector2D(float x, float y) {
@@ -0,0 +1,112 @@
+package com.fundynamic.d2tm.utils.logging;
+
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Entry point of logging: hands out a {@link Logger} per category and holds the level per category.
+ * </p>
+ * <h2>Writing</h2>
+ * <p>
+ * Lines are not written by the thread that logs them. They are put on a {@link LogRingBuffer} and a background
+ * (daemon) thread writes them to the output (System.out by default). The thread is started with the first line, so
+ * when nothing is logged there is no thread at all. When the buffer is full, lines are dropped instead of waiting.
+ * While there is nothing to write the thread is parked; logging a line only wakes it up when it is parked.
+ * </p>
+ */
+public class Log {
+
+    public static final int BUFFER_CAPACITY = 8192;
+
+    private static final ConcurrentHashMap<String, Logger> loggers = new ConcurrentHashMap<>();
+    private static final LogRingBuffer buffer = new LogRingBuffer(BUFFER_CAPACITY);
+
+    private static volatile LogLevel defaultLevel = LogLevel.INFO;
+    private static volatile PrintStream output = System.out;
+    private static volatile Thread writer;
+    private static volatile boolean writing = false; // true while the writer has a line at hand
+    private static volatile boolean parked = false; // true while the writer is (about to be) parked
+
+    public static Logger getLogger(String category) {
+        return loggers.computeIfAbsent(category, key -> new Logger(key, defaultLevel));
+    }
+
+    public static void setLevel(String category, LogLevel level) {
+        getLogger(category).setLevel(level);
+    }
+
+    /**
+     * Sets the level of all categories, including the ones that are not asked for yet
+     */
+    public static void setDefaultLevel(LogLevel level) {
+        defaultLevel = level;
+        for (Logger logger : loggers.values()) {
+            logger.setLevel(level);
+        }
+    }
+
+    public static void setOutput(PrintStream printStream) {
+        output = printStream;
+    }
+
+    /**
+     * Waits (at most given millis) until all lines logged so far are written.
+     */
+    public static void flush(long timeoutInMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMillis);
+        while ((!buffer.isEmpty() || writing) && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        output.flush();
+    }
+
+    /**
+     * @return amount of lines dropped because the buffer was full
+     */
+    public static long getDropped() {
+        return buffer.getDropped();
+    }
+
+    static void write(String line) {
+        buffer.offer(line);
+        if (writer == null) {
+            startWriter();
+        } else if (parked) {
+            parked = false;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) return;
+        Thread thread = new Thread(Log::writeLines, "log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+    }
+
+    private static void writeLines() {
+        while (true) {
+            writing = true;
+            String line = buffer.poll();
+            if (line == null) {
+                output.flush();
+                writing = false;
+                // announce first, then check again: either we see the new line, or write() sees us parked
+                parked = true;
+                if (buffer.isEmpty()) {
+                    LockSupport.park();
+                } else {
+                    Thread.yield(); // a line is claimed but not published yet
+                }
+                parked = false;
+                continue;
+            }
+            output.println(line);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.fundynamic.d2tm.utils.logging;
+
+/**
+ * Levels from least to most verbose. A {@link Logger} with a level writes all messages of that level and the levels
+ * before it.
+ */
+public enum LogLevel {
+    OFF,
+    ERROR,
+    INFO,
+    DEBUG;
+
+    /**
+     * @return true when a message of given level should be written when this is the level of the logger
+     */
+    public boolean includes(LogLevel messageLevel) {
+        return messageLevel != OFF && messageLevel.ordinal() <= ordinal();
+    }
+}
@@ -0,0 +1,71 @@
+package com.fundynamic.d2tm.utils.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Bounded, lock-free queue of log lines. Any thread may {@link #offer(String)} (the game thread, the CPU AI thread),
+ * only one thread may {@link #poll()} (the writer of {@link Log}).
+ * </p>
+ * <p>
+ * A producer claims a slot by moving the tail with a compare-and-set, and then publishes the line in that slot. The
+ * consumer waits for a claimed slot to be published, empties it and only then moves the head. So a claimed slot is
+ * always empty. When the buffer is full lines are dropped (and counted) instead of blocking the game.
+ * </p>
+ */
+public class LogRingBuffer {
+
+    private final int capacity;
+    private final AtomicReferenceArray<String> slots;
+    private final AtomicLong tail = new AtomicLong(); // next slot to claim by producers
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long head = 0; // next slot to read by the consumer
+
+    public LogRingBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1, got " + capacity);
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return false when the buffer is full and the line is dropped
+     */
+    public boolean offer(String line) {
+        while (true) {
+            long claim = tail.get();
+            if (claim - head >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (tail.compareAndSet(claim, claim + 1)) {
+                slots.set((int) (claim % capacity), line);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return next line, or null when there is none (yet)
+     */
+    public String poll() {
+        long current = head;
+        if (current == tail.get()) return null;
+
+        int slot = (int) (current % capacity);
+        String line = slots.get(slot);
+        if (line == null) return null; // claimed, but not published yet
+        slots.set(slot, null);
+        head = current + 1;
+        return line;
+    }
+
+    public boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
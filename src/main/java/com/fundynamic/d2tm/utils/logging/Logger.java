@@ -0,0 +1,114 @@
+package com.fundynamic.d2tm.utils.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * <h1>General</h1>
+ * <p>
+ * Logger of one category (ie "units"), get one with {@link Log#getLogger(String)}. Messages are only built when the
+ * level of the category includes them: pass the parts of a message as arguments, to be put on the <code>{}</code>
+ * placeholders, instead of concatenating them yourself. So when a level is off, logging does not allocate anything.
+ * </p>
+ * <p>
+ * A {@link Throwable} passed as last argument, without a placeholder left for it, is written with its stack trace.
+ * </p>
+ * <p>
+ * Built lines are written by a background thread, see {@link Log}.
+ * </p>
+ */
+public class Logger {
+
+    private final String category;
+    private volatile LogLevel level;
+
+    Logger(String category, LogLevel level) {
+        this.category = category;
+        this.level = level;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+
+    public boolean isEnabled(LogLevel messageLevel) {
+        return level.includes(messageLevel);
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, null, null, null, 0);
+    }
+
+    public void debug(String format, Object arg) {
+        log(LogLevel.DEBUG, format, arg, null, null, 1);
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        log(LogLevel.DEBUG, format, arg1, arg2, null, 2);
+    }
+
+    public void debug(String format, Object arg1, Object arg2, Object arg3) {
+        log(LogLevel.DEBUG, format, arg1, arg2, arg3, 3);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message, null, null, null, 0);
+    }
+
+    public void info(String format, Object arg) {
+        log(LogLevel.INFO, format, arg, null, null, 1);
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        log(LogLevel.INFO, format, arg1, arg2, null, 2);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message, null, null, null, 0);
+    }
+
+    public void error(String format, Object arg) {
+        log(LogLevel.ERROR, format, arg, null, null, 1);
+    }
+
+    public void error(String format, Object arg1, Object arg2) {
+        log(LogLevel.ERROR, format, arg1, arg2, null, 2);
+    }
+
+    private void log(LogLevel messageLevel, String format, Object arg1, Object arg2, Object arg3, int args) {
+        if (!level.includes(messageLevel)) return;
+
+        StringBuilder line = new StringBuilder(format.length() + category.length() + 32);
+        line.append('[').append(messageLevel).append("] [").append(category).append("] ");
+        int from = 0;
+        int arg = 0;
+        for (; arg < args; arg++) {
+            int placeholder = format.indexOf("{}", from);
+            if (placeholder < 0) break;
+            line.append(format, from, placeholder);
+            line.append(arg == 0 ? arg1 : arg == 1 ? arg2 : arg3);
+            from = placeholder + 2;
+        }
+        line.append(format, from, format.length());
+
+        Object last = args == 1 ? arg1 : args == 2 ? arg2 : arg3;
+        if (arg < args && last instanceof Throwable) {
+            StringWriter stackTrace = new StringWriter();
+            ((Throwable) last).printStackTrace(new PrintWriter(stackTrace));
+            line.append(System.lineSeparator()).append(stackTrace.toString().trim());
+        }
+        Log.write(line.toString());
+    }
+}
@@ -11,7 +11,7 @@ import com.fundynamic.d2tm.game.entities.Player;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesDataReader;
 import com.fundynamic.d2tm.game.entities.entitybuilders.EntityBuilderType;
-import com.fundynamic.d2tm.game.entities.projectiles.Projectile;
+import com.fundynamic.d2tm.game.entities.projectiles.ProjectileSystem;
 import com.fundynamic.d2tm.game.entities.structures.Structure;
 import com.fundynamic.d2tm.game.entities.units.RenderQueueEnrichableWithFacingLogic;
 import com.fundynamic.d2tm.game.entities.units.TestableRenderQueueEnrichableWithFacingLogic;
@@ -220,18 +220,7 @@ public abstract class AbstractD2TMTest {
     // MAP
     ////////////////////////////////////////////////////////////////////////////////
     public final Map makeMap(int width, int height) throws SlickException {
-        final Image mockedImage = mock(Image.class);
-        final Graphics mockedImageGraphics = mock(Graphics.class);
-        when(mockedImage.getGraphics()).thenReturn(mockedImageGraphics);
-        return new Map(shroud, width, height) {
-            @Override
-            public Cell getCell(int mapX, int mapY) {
-                Cell cell = super.getCell(mapX, mapY);
-                // Some deep stubbing done here, ideally we run within a graphics context, but Travis is unable to
-                cell.setTileImage(mockedImage);
-                return cell;
-            }
-        };
+        return new Map(shroud, width, height);
     }
 
     public Cell makeCell(int x, int y) {
@@ -353,22 +342,15 @@ public abstract class AbstractD2TMTest {
     ////////////////////////////////////////////////////////////////////////////////
 
     /**
-     * Constructs a {@link EntitiesData#LARGE_ROCKET} on given {@link Coordinate} for Human {@link Player}
-     * @param coordinate
-     * @return the {@link Projectile} constructed
-     */
-    public Projectile makeProjectile(Coordinate coordinate) {
-        return makeProjectile(player, coordinate);
-    }
-
-    /**
-     * Constructs a {@link EntitiesData#LARGE_ROCKET} on given {@link Coordinate} and {@link Player}
-     * @param player
-     * @param coordinate
-     * @return the {@link Projectile} constructed
+     * Fires a {@link EntitiesData#LARGE_ROCKET} for Human {@link Player}
+     * @param from
+     * @param target
+     * @return index of the projectile within the {@link ProjectileSystem}
      */
-    public Projectile makeProjectile(Player player,  Coordinate coordinate) {
-        return entityRepository.placeProjectile(coordinate, EntitiesData.LARGE_ROCKET, player);
+    public int fireProjectile(Coordinate from, Coordinate target) {
+        ProjectileSystem projectiles = entityRepository.getProjectiles();
+        entityRepository.fireProjectile(from, target, EntitiesData.LARGE_ROCKET, player, null);
+        return projectiles.size() - 1;
     }
 
     public EntityRepository makeTestableEntityRepository(final Map map, EntitiesData entitiesData) throws SlickException {
@@ -0,0 +1,39 @@
+package com.fundynamic.d2tm.game;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the current thread, to lock in that hot paths do not allocate. Tests using it are
+ * skipped on JVMs that can't measure allocations.
+ */
+public class AllocationMeter {
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    public AllocationMeter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("JVM can't measure allocated bytes per thread", bean instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue("JVM can't measure allocated bytes per thread", threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Runs given code once to warm up (class loading, lazy caches) and then measures it.
+     *
+     * @return bytes allocated by running given code <code>times</code> times
+     */
+    public long measure(int times, Runnable code) {
+        for (int i = 0; i < times; i++) {
+            code.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < times; i++) {
+            code.run();
+        }
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
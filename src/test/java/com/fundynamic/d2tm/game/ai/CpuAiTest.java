@@ -0,0 +1,203 @@
+package com.fundynamic.d2tm.game.ai;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.structures.Structure;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.entities.units.states.SeekHarvestableResourceState;
+import com.fundynamic.d2tm.game.terrain.impl.Rock;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CpuAiTest extends AbstractD2TMTest {
+
+    private CpuAi cpuAi;
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        cpuAi = new CpuAi(cpu, entityRepository);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void onlyThinksForCpuPlayers() {
+        new CpuAi(player, entityRepository);
+    }
+
+    @Test
+    public void startsAndStopsThread() {
+        cpuAi.start();
+        cpuAi.start(); // no second thread
+        Assert.assertTrue(cpuAi.isRunning());
+
+        cpuAi.stop();
+        Assert.assertFalse(cpuAi.isRunning());
+    }
+
+    @Test
+    public void commandsAreOnlyExecutedAtTickBoundary() {
+        Unit harvester = makeUnit(cpu, MapCoordinate.create(10, 10), EntitiesData.HARVESTER);
+        harvester.idle();
+
+        cpuAi.update(0.1f); // takes snapshot
+        cpuAi.think();
+
+        Assert.assertTrue(cpuAi.getQueuedCommandsCount() > 0);
+        Assert.assertFalse(harvester.getState() instanceof SeekHarvestableResourceState);
+
+        cpuAi.update(0.1f);
+
+        Assert.assertEquals(0, cpuAi.getQueuedCommandsCount());
+        assertThat(harvester.getState(), instanceOf(SeekHarvestableResourceState.class));
+    }
+
+    @Test
+    public void plansOnlyOncePerSnapshot() {
+        Unit harvester = makeUnit(cpu, MapCoordinate.create(10, 10), EntitiesData.HARVESTER);
+        harvester.idle();
+
+        cpuAi.update(0.1f);
+        cpuAi.think();
+        int queued = cpuAi.getQueuedCommandsCount();
+
+        cpuAi.think(); // no new snapshot yet
+
+        Assert.assertEquals(queued, cpuAi.getQueuedCommandsCount());
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterChanges() {
+        Unit quad = makeUnit(cpu, MapCoordinate.create(10, 10), EntitiesData.QUAD);
+        ScenarioSnapshot snapshot = ScenarioSnapshot.take(1, cpu, entityRepository);
+
+        entityRepository.removeEntity(quad);
+
+        Assert.assertEquals(1, snapshot.getOwnEntities().size());
+        Assert.assertEquals(quad.getId(), snapshot.getOwnEntities().get(0).id);
+        Assert.assertEquals(0, ScenarioSnapshot.take(2, cpu, entityRepository).getOwnEntities().size());
+    }
+
+    @Test
+    public void snapshotHasBuildOptionsOfOwnBuildersOnly() {
+        Structure ownFactory = makeStructure(cpu, 1000, MapCoordinate.create(10, 10)); // builds QUADs
+        Structure enemyFactory = makeStructure(player, 1000, MapCoordinate.create(20, 20));
+
+        ScenarioSnapshot snapshot = ScenarioSnapshot.take(1, cpu, entityRepository);
+
+        EntitySnapshot own = snapshot.getOwnEntities().get(0);
+        EntitySnapshot enemy = snapshot.getEnemyEntities().get(0);
+        Assert.assertEquals(ownFactory.getId(), own.id);
+        Assert.assertTrue(own.isEntityBuilder());
+        Assert.assertEquals(enemyFactory.getId(), enemy.id);
+        Assert.assertTrue(enemy.buildOptions.isEmpty());
+    }
+
+    @Test
+    public void buildsUnitsWithFactory() {
+        Structure factory = makeStructure(cpu, 1000, MapCoordinate.create(10, 10)); // builds QUADs
+
+        thinkAndExecute();
+
+        Assert.assertTrue(factory.isBuildingAnEntity());
+        Assert.assertEquals(EntitiesData.QUAD, factory.getBuildingEntity().getEntityData().name);
+    }
+
+    @Test
+    public void buildsAndPlacesStructureNextToConstructionYard() {
+        for (int x = 5; x < 20; x++) {
+            for (int y = 5; y < 20; y++) {
+                map.setTerrain(x, y, new Rock(), 0);
+            }
+        }
+        entitiesData.getEntityData(EntityType.STRUCTURE, EntitiesData.CONSTRUCTION_YARD).buildList = EntitiesData.WINDTRAP;
+        Structure constructionYard = makeStructure(cpu, MapCoordinate.create(10, 10), EntitiesData.CONSTRUCTION_YARD);
+
+        thinkAndExecute();
+        Assert.assertTrue(constructionYard.isBuildingAnEntity());
+
+        constructionYard.update(100); // done building
+        Assert.assertTrue(constructionYard.isAwaitingPlacement(entitiesData.getEntityData(EntityType.STRUCTURE, EntitiesData.WINDTRAP)));
+
+        thinkAndExecute();
+
+        Assert.assertFalse(constructionYard.isBuildingAnEntity());
+        Entity windtrap = entityRepository.getLastCreatedEntity();
+        Assert.assertEquals(EntitiesData.WINDTRAP, windtrap.getEntityData().name);
+        Assert.assertTrue(windtrap.belongsToPlayer(cpu));
+        Assert.assertTrue(windtrap.distance(constructionYard) <= constructionYard.getEntityData().buildRange);
+    }
+
+    @Test
+    public void doesNotPlaceStructureWithoutConstructionGround() {
+        entitiesData.getEntityData(EntityType.STRUCTURE, EntitiesData.CONSTRUCTION_YARD).buildList = EntitiesData.WINDTRAP;
+        Structure constructionYard = makeStructure(cpu, MapCoordinate.create(10, 10), EntitiesData.CONSTRUCTION_YARD);
+        thinkAndExecute();
+        constructionYard.update(100);
+        int entities = entityRepository.getEntitiesCount();
+
+        thinkAndExecute();
+
+        Assert.assertEquals(entities, entityRepository.getEntitiesCount());
+        Assert.assertTrue(constructionYard.isBuildingAnEntity()); // still waiting for a spot
+    }
+
+    @Test
+    public void attacksNearestEnemyStructureWithGroupOfIdleUnits() {
+        makeStructure(player, 1000, MapCoordinate.create(50, 50)); // far away
+        Structure near = makeStructure(player, 1000, MapCoordinate.create(30, 10));
+        List<Unit> group = new ArrayList<>();
+        for (int i = 0; i < CpuStrategy.ATTACK_GROUP_SIZE; i++) {
+            group.add(makeUnit(cpu, MapCoordinate.create(10 + i, 10), EntitiesData.QUAD));
+        }
+
+        thinkAndExecute();
+
+        for (Unit unit : group) {
+            Assert.assertEquals(near, unit.getEntityToAttack());
+        }
+    }
+
+    @Test
+    public void doesNotAttackWithTooFewUnits() {
+        makeStructure(player, 1000, MapCoordinate.create(30, 10));
+        Unit quad = makeUnit(cpu, MapCoordinate.create(10, 10), EntitiesData.QUAD);
+
+        thinkAndExecute();
+
+        Assert.assertNull(quad.getEntityToAttack());
+    }
+
+    @Test
+    public void ignoresCommandsForEntitiesThatAreGone() {
+        Unit harvester = makeUnit(cpu, MapCoordinate.create(10, 10), EntitiesData.HARVESTER);
+        harvester.idle();
+        cpuAi.update(0.1f);
+        cpuAi.think();
+
+        entityRepository.removeEntity(harvester);
+        cpuAi.update(0.1f); // does not blow up
+
+        Assert.assertNull(entityRepository.findEntityById(harvester.getId()));
+    }
+
+    /**
+     * Lets the AI plan on the state as it is now, and executes that plan
+     */
+    private void thinkAndExecute() {
+        cpuAi.think(); // plans on an earlier snapshot (if any)
+        cpuAi.update(0.1f); // executes that, and takes a snapshot of now
+        cpuAi.think();
+        cpuAi.update(0.1f);
+    }
+}
@@ -0,0 +1,108 @@
+package com.fundynamic.d2tm.game.audio;
+
+import com.fundynamic.d2tm.game.types.SoundData;
+import com.fundynamic.d2tm.math.Vector2D;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.Sound;
+
+import static org.mockito.Matchers.anyFloat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+
+public class SoundManagerTest {
+
+    private SoundManager soundManager;
+    private SoundData explosion;
+    private SoundData otherExplosion;
+
+    @Before
+    public void setUp() {
+        soundManager = new SoundManager(2);
+        explosion = makeSoundData("EXPLOSION", "EXPLOSIONS");
+        otherExplosion = makeSoundData("EXPLOSION2", "EXPLOSIONS");
+    }
+
+    @Test
+    public void mergesSameSoundRequestedWithinOneTick() {
+        for (int i = 0; i < 60; i++) {
+            soundManager.play(explosion, Vector2D.create(i, i));
+        }
+        Assert.assertEquals(1, soundManager.getPendingCount());
+
+        soundManager.update(0.01F);
+
+        verify(explosion.sound, times(1)).play(anyFloat(), anyFloat());
+        Assert.assertEquals(0, soundManager.getPendingCount());
+    }
+
+    @Test
+    public void dropsSoundsWhenAllVoicesOfGroupAreBusy() {
+        SoundData thirdExplosion = makeSoundData("EXPLOSION3", "EXPLOSIONS");
+        soundManager.play(explosion, Vector2D.zero());
+        soundManager.play(otherExplosion, Vector2D.zero());
+        soundManager.play(thirdExplosion, Vector2D.zero());
+
+        soundManager.update(0.01F);
+
+        Assert.assertEquals(2, soundManager.getBusyVoices("EXPLOSIONS"));
+        verify(thirdExplosion.sound, never()).play(anyFloat(), anyFloat());
+    }
+
+    @Test
+    public void freesVoicesAfterVoiceDuration() {
+        soundManager.play(explosion, Vector2D.zero());
+        soundManager.play(otherExplosion, Vector2D.zero());
+        soundManager.update(0.01F);
+
+        soundManager.update(SoundManager.VOICE_DURATION);
+
+        Assert.assertEquals(0, soundManager.getBusyVoices("EXPLOSIONS"));
+        soundManager.play(explosion, Vector2D.zero());
+        soundManager.update(0.01F);
+        verify(explosion.sound, times(2)).play(anyFloat(), anyFloat());
+    }
+
+    @Test
+    public void cullsSoundsFarOutsideListenerArea() {
+        soundManager.updateListenerArea(Vector2D.create(100, 100), 320, 240);
+
+        Assert.assertFalse(soundManager.play(explosion, Vector2D.create(100 + 320 + SoundManager.AUDIBLE_MARGIN + 1, 150)));
+
+        soundManager.update(0.01F);
+        verify(explosion.sound, never()).play(anyFloat(), anyFloat());
+    }
+
+    @Test
+    public void playsSoundsJustOutsideListenerAreaSofter() {
+        soundManager.updateListenerArea(Vector2D.create(100, 100), 320, 240);
+
+        Assert.assertEquals(1F, soundManager.volumeAt(Vector2D.create(200, 200)), 0.0001F);
+        Assert.assertEquals(SoundManager.MIN_VOLUME, soundManager.volumeAt(Vector2D.create(100 - SoundManager.AUDIBLE_MARGIN, 200)), 0.0001F);
+
+        soundManager.play(explosion, Vector2D.create(100 - SoundManager.AUDIBLE_MARGIN, 200));
+        soundManager.update(0.01F);
+        verify(explosion.sound).play(eq(1F), eq(SoundManager.MIN_VOLUME));
+    }
+
+    @Test
+    public void ignoresSoundDataWithoutSound() {
+        SoundData soundData = new SoundData();
+        Assert.assertFalse(soundManager.play(soundData, Vector2D.zero()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresAtLeastOneVoicePerGroup() {
+        new SoundManager(0);
+    }
+
+    private SoundData makeSoundData(String id, String group) {
+        SoundData soundData = new SoundData();
+        soundData.id = id;
+        soundData.group = group;
+        soundData.sound = mock(Sound.class);
+        return soundData;
+    }
+}
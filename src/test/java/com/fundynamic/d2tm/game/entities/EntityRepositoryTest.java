@@ -2,6 +2,7 @@ package com.fundynamic.d2tm.game.entities;
 
 import com.fundynamic.d2tm.game.AbstractD2TMTest;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.particle.ParticleSystem;
 import com.fundynamic.d2tm.game.entities.superpowers.SuperPower;
 import com.fundynamic.d2tm.game.entities.units.Unit;
 import com.fundynamic.d2tm.game.rendering.gui.battlefield.Recolorer;
@@ -125,15 +126,22 @@ public class EntityRepositoryTest extends AbstractD2TMTest {
     }
 
     @Test
-    public void placeParticleOnMap() {
-        entityRepository.placeOnMap(Coordinate.create(21, 23), EntityType.PARTICLE, EntitiesData.EXPLOSION_SMALL_UNIT, player);
+    public void placeExplosionEmitsParticle() {
+        EntityData explosion = entitiesData.getEntityData(EntityType.PARTICLE, EntitiesData.EXPLOSION_SMALL_UNIT);
+        entityRepository.placeExplosion(Coordinate.create(21, 23), explosion, player);
 
-        EntitiesSet entitiesSet = entityRepository.getEntitiesSet();
-        assertThat(entitiesSet.size(), is(1));
+        // particles are no entities
+        assertThat(entityRepository.getEntitiesSet().size(), is(0));
 
-        Entity first = entitiesSet.getFirst();
+        ParticleSystem particles = entityRepository.getParticles();
+        assertThat(particles.size(), is(1));
+        assertThat(particles.getX(0), is(21f));
+        assertThat(particles.getY(0), is(23f));
+    }
 
-        assertThat(first.getCoordinate(), is(Coordinate.create(21, 23)));
+    @Test (expected = IllegalArgumentException.class)
+    public void placeOnMapThrowsExceptionForParticle() {
+        entityRepository.placeOnMap(Coordinate.create(21, 23), EntityType.PARTICLE, EntitiesData.EXPLOSION_SMALL_UNIT, player);
     }
 
     @Test(expected = IllegalArgumentException.class)
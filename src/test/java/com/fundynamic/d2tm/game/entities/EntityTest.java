@@ -3,7 +3,6 @@ package com.fundynamic.d2tm.game.entities;
 import com.fundynamic.d2tm.game.AbstractD2TMTest;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
-import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Vector2D;
 import org.junit.Assert;
 import org.junit.Before;
@@ -11,13 +10,10 @@ import org.junit.Test;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.SpriteSheet;
 
-import java.util.Set;
-
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
-import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 
@@ -58,47 +54,6 @@ public class EntityTest extends AbstractD2TMTest {
         }
     }
 
-    @Test
-    public void getAllSurroundingCoordinatesOfAnEntity() {
-        // entity1 is 64x64 pixels (ie, 2x2). Marked as X
-        // The tiles we would expect are marked as E
-        // EEEE  4
-        // EXXE  2
-        // EXXE  2
-        // EEEE  4
-        //
-        // 4 + 2 + 2 + 4 => 12 surrounding cells
-        Set<MapCoordinate> allSurroundingCellsAsCoordinates = entity1.getAllSurroundingCellsAsMapCoordinates();
-
-        Assert.assertEquals(12, allSurroundingCellsAsCoordinates.size());
-
-        // we expect the first tile to be at 1 tile above and 1 tile left to the entity1:
-        assertTrue(allSurroundingCellsAsCoordinates.contains(MapCoordinate.create(3, 3)));
-    }
-
-    @Test
-    public void getAllSurroundingCoordinatesOfAnEntityThatIsOneCellBig() {
-        EntityData entityData = new EntityData();
-        entityData.type = EntityType.STRUCTURE;
-        entityData.setWidth(TILE_SIZE);
-        entityData.setHeight(TILE_SIZE);
-
-        TestableEntity smallEntity = new TestableEntity(topLeftCoordinate, mock(SpriteSheet.class), entityData, player, entityRepository).
-                setName("SmallEntity");
-
-        Set<MapCoordinate> allSurroundingCellsAsCoordinates = smallEntity.getAllSurroundingCellsAsMapCoordinates();
-
-        Assert.assertEquals(8, allSurroundingCellsAsCoordinates.size());
-
-        // we expect the first tile to be at 1 tile above and 1 tile left to the entity1:
-        MapCoordinate mapCoordinate = topLeftCoordinate.toMapCoordinate();
-        Vector2D expectedTopLeftOfTopLeft = mapCoordinate.min(MapCoordinate.create(1, 1));
-        assertTrue(allSurroundingCellsAsCoordinates.contains(expectedTopLeftOfTopLeft));
-
-        MapCoordinate expectedDownRight = mapCoordinate.add(MapCoordinate.create(1, 1));
-        assertTrue(allSurroundingCellsAsCoordinates.contains(expectedDownRight));
-    }
-
     //////////////////////////////////////////////////
     // Event handling, subscribers, etc
     /////////////////////////////////////////////////
@@ -107,23 +62,22 @@ public class EntityTest extends AbstractD2TMTest {
     // be notified.
     //
     // By Event2's subscription on Event1, when Event2 gets destroyed (ENTITY_DESTROYED),
-    // Event1 will know to stop holding the reference to Event2 (allowing GC to clear it up).
+    // Subscriptions live on the EventBus of the entity repository, indexed by the emitting entity.
     //
-    // Thus both Entities are tied by an OnEvent: Entity2 -> Entity1, and Entity1 -> Entity2
+    // When Entity1 (the emitter) gets destroyed, its subscribers get the ENTITY_DESTROYED event once more and then
+    // all subscriptions on Entity1 are dropped.
     //
-    // When Entity1 gets destroyed first, it will no longer notify other Entities, thus all subscriptions should
-    // be cleared.
-    //
-    // When Entity2 gets destroyed first, Entity1 should no longer notify Entity2
+    // When Entity2 (the subscriber) gets destroyed first, Entity1 should no longer notify Entity2
 
     @Test
-    public void onEventOnOwnEntityWillHaveOnlyOneDestroySubscription() {
+    public void onEventOnOwnEntityNeedsNoDestroySubscription() {
         entity1.onEvent(EventType.DUMMY, entity1, s -> s.eventMethod());
 
         Assert.assertEquals(0, entity1.getAmountEventMethodCalled()); // nothing triggered the DUMMY event yet
 
-        // expect one subscription (because event triggers on own object)
-        Assert.assertEquals(1, entity1.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).size()); //?
+        Assert.assertEquals(1, entity1.eventSubscriptionsFor(EventType.DUMMY).size());
+        // cleanup is done by the bus, so no bookkeeping subscriptions are needed
+        Assert.assertEquals(0, entity1.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).size());
     }
 
     @Test
@@ -136,6 +90,11 @@ public class EntityTest extends AbstractD2TMTest {
 
         entity1.emitEvent(EventType.DUMMY); // some dummy event happened!
 
+        // events are batched, nothing is delivered until the bus dispatches
+        Assert.assertEquals(0, entity2.getAmountEventMethodCalled());
+
+        entityRepository.getEventBus().dispatch();
+
         Assert.assertEquals(0, entity1.getAmountEventMethodCalled()); // entity1 was not interested
         Assert.assertEquals(1, entity2.getAmountEventMethodCalled()); // entity2 was interested and should have raised value
     }
@@ -143,29 +102,31 @@ public class EntityTest extends AbstractD2TMTest {
     @Test
     public void givenEntityDestroyedWillRemoveSubscriberFromDestroyedEntity() {
         entity1.onEvent(EventType.DUMMY, entity2, s -> s.eventMethod());
+        entity1.onEvent(EventType.ENTITY_DESTROYED, entity2, s -> s.eventMethod());
 
         // For entity1: expect the subscription of entity2 upon DUMMY
         Assert.assertEquals(1, entity1.eventSubscriptionsFor(EventType.DUMMY).size()); // 1 subscription
-        Entity.EventSubscription<? extends Entity> eventSubscription = entity1.eventSubscriptionsFor(EventType.DUMMY).get(0);
+        EventBus.Subscription eventSubscription = entity1.eventSubscriptionsFor(EventType.DUMMY).get(0);
         Assert.assertSame(eventSubscription.getSubscriber(), entity2); // and its subscriber is entity2
-
-        // For entity2: expect the subscription of entity1 upon ENTITY_DESTROYED, so that it knows no longer
-        // to call entity2's method in case entity2 gets destroyed
-        Assert.assertEquals(1, entity2.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).size());
-        eventSubscription = entity2.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).get(0);
-        Assert.assertSame(eventSubscription.getSubscriber(), entity1); // the entity1 to be notified if entity2 gets destroyed
+        Assert.assertEquals(2, entity2.subscriptionsHeld());
 
         // ACT: Entity1 gets destroyed!
         entity1.destroy();
+        entityRepository.getEventBus().dispatch();
+
+        // entity2 was told entity1 got destroyed
+        Assert.assertEquals(1, entity2.getAmountEventMethodCalled());
 
         // expect no subscriptions for Entity1, because they should be cleared
+        Assert.assertEquals(0, entity1.eventSubscriptionsFor(EventType.DUMMY).size());
         Assert.assertEquals(0, entity1.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).size());
 
-        // Entity2 should no longer notify entity1 upon its destroy, because entity1 is no longer among us...
-        Assert.assertEquals(0, entity2.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).size());
+        // Entity2 no longer holds any subscription, because entity1 is no longer among us...
+        Assert.assertEquals(0, entity2.subscriptionsHeld());
 
         // should be able to destroy entity2 without problems now
         entity2.destroy();
+        entityRepository.getEventBus().dispatch();
     }
 
     @Test
@@ -182,6 +143,7 @@ public class EntityTest extends AbstractD2TMTest {
         Assert.assertEquals(0, entity3.getAmountEventMethodCalled());
 
         entity1.emitEvent(EventType.DUMMY); // some dummy event happened!
+        entityRepository.getEventBus().dispatch();
 
         Assert.assertEquals(0, entity1.getAmountEventMethodCalled()); // entity1 was not interested
         Assert.assertEquals(1, entity2.getAmountEventMethodCalled()); // entity2 was interested and should have raised value
@@ -197,6 +159,7 @@ public class EntityTest extends AbstractD2TMTest {
         entity1.onEvent(EventType.DUMMY, entity2, s -> s.eventMethod());
 
         entity1.emitEvent(EventType.DUMMY); // some dummy event happened!
+        entityRepository.getEventBus().dispatch();
 
         // expected to be raised to 4
         Assert.assertEquals(4, entity2.getAmountEventMethodCalled());
@@ -208,27 +171,78 @@ public class EntityTest extends AbstractD2TMTest {
 
         // Emit event once, will increase counter to 1
         entity1.emitEvent(EventType.DUMMY);
+        entityRepository.getEventBus().dispatch();
 
         // ACT: Entity2 gets destroyed!
         entity2.destroy();
 
-        // expect no subscriptions for Entity2, because they should be cleared
-        Assert.assertEquals(0, entity2.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).size());
+        // expect no subscriptions held by Entity2, because they should be cleared
+        Assert.assertEquals(0, entity2.subscriptionsHeld());
 
         // Entity1 should no longer notify entity2 upon DUMMY event
-        Assert.assertEquals(0, entity2.eventSubscriptionsFor(EventType.DUMMY).size());
+        Assert.assertEquals(0, entity1.eventSubscriptionsFor(EventType.DUMMY).size());
 
         // Emitting event on event1 will yield no results on entity2
         entity1.emitEvent(EventType.DUMMY);
+        entityRepository.getEventBus().dispatch();
 
         // this would be impossible normally, since its reference would be cleared, but here we
         // make it triple sure it is not called (result should still be 1)
         Assert.assertEquals(1, entity2.getAmountEventMethodCalled());
     }
 
+    @Test
+    public void destroyedEventsOfManyEntitiesAreDispatchedInOnePass() {
+        TestableEntity entity3 = new TestableEntity(topLeftCoordinate, mock(SpriteSheet.class), entityData, player, entityRepository).
+                setName("Entity3");
+        entity1.onEvent(EventType.ENTITY_DESTROYED, entity3, s -> s.eventMethod());
+        entity2.onEvent(EventType.ENTITY_DESTROYED, entity3, s -> s.eventMethod());
+
+        entity1.destroy();
+        entity2.destroy();
+        Assert.assertEquals(0, entity3.getAmountEventMethodCalled());
+
+        entityRepository.getEventBus().dispatch();
+
+        Assert.assertEquals(2, entity3.getAmountEventMethodCalled());
+        Assert.assertEquals(0, entity3.subscriptionsHeld());
+    }
+
+    @Test
+    public void destroyedEmitterLeavesIndexRightAwayAndStillDeliversDestroyedEvent() {
+        entity1.onEvent(EventType.DUMMY, entity2, s -> s.eventMethod());
+        entity1.onEvent(EventType.ENTITY_DESTROYED, entity2, s -> s.eventMethod());
+
+        entity1.emitEvent(EventType.DUMMY);
+        entity1.destroy();
+
+        // gone from the index before any dispatch
+        Assert.assertEquals(0, entity1.eventSubscriptionsFor(EventType.DUMMY).size());
+        Assert.assertEquals(0, entity1.eventSubscriptionsFor(EventType.ENTITY_DESTROYED).size());
+        Assert.assertEquals(1, entity2.subscriptionsHeld()); // the destroyed event that is still to be delivered
+
+        entityRepository.getEventBus().dispatch();
+
+        // only the destroyed event, the DUMMY subscription was dropped with its emitter
+        Assert.assertEquals(1, entity2.getAmountEventMethodCalled());
+        Assert.assertEquals(0, entity2.subscriptionsHeld());
+    }
+
+    @Test
+    public void subscriberDestroyedBeforeDispatchIsNotToldAboutDestroyedEmitter() {
+        entity1.onEvent(EventType.ENTITY_DESTROYED, entity2, s -> s.eventMethod());
+
+        entity1.destroy();
+        entity2.destroy();
+        entityRepository.getEventBus().dispatch();
+
+        Assert.assertEquals(0, entity2.getAmountEventMethodCalled());
+    }
+
     @Test
     public void canEmitEventThatHasNoSubscribers() {
         entity1.emitEvent(EventType.DUMMY);
+        entityRepository.getEventBus().dispatch();
     }
 
     // destroy without any events set, check NPE , etc
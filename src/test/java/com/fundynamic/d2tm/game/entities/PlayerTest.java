@@ -7,6 +7,7 @@ import com.fundynamic.d2tm.math.MapCoordinate;
 import org.junit.Test;
 
 import static com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData.LIGHT_FACTORY;
+import static com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData.RADAR;
 import static com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData.WINDTRAP;
 import static org.junit.Assert.*;
 
@@ -198,4 +199,43 @@ public class PlayerTest extends AbstractD2TMTest {
         assertEquals(0, player.getPowerBalance());
         assertFalse(player.isLowPower());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void aliveEntitiesDropWhenUnitDies() {
+        Unit unit = makeUnit(player);
+        assertEquals(1, player.aliveEntities());
+
+        unit.takeDamage(unit.getHitPoints(), null); // dying
+        assertEquals(1, player.aliveEntities());
+
+        unit.update(1); // dead
+        assertEquals(0, player.aliveEntities());
+
+        player.removeEntity(unit);
+        assertEquals(0, player.aliveEntities());
+    }
+
+    @Test
+    public void destroyedPowerProducerNoLongerProducesPower() {
+        Structure windtrap = makeStructure(player, MapCoordinate.create(12, 12), WINDTRAP);
+        makeStructure(player, MapCoordinate.create(15, 12), LIGHT_FACTORY); // consumes 30 power
+        assertEquals(170, player.getPowerBalance());
+
+        windtrap.takeDamage(windtrap.getHitPoints(), null);
+
+        assertEquals(0, player.getTotalPowerProduced());
+        assertEquals(-30, player.getPowerBalance());
+        assertEquals(1, player.aliveEntities());
+    }
+
+    @Test
+    public void hasRadarWhileRadarIsAlive() {
+        assertFalse(player.isHasRadar());
+
+        Structure radar = makeStructure(player, MapCoordinate.create(12, 12), RADAR);
+        assertTrue(player.isHasRadar());
+
+        radar.takeDamage(radar.getHitPoints(), null);
+        assertFalse(player.isHasRadar());
+    }
+}
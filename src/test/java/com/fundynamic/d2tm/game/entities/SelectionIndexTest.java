@@ -0,0 +1,94 @@
+package com.fundynamic.d2tm.game.entities;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.structures.Structure;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class SelectionIndexTest extends AbstractD2TMTest {
+
+    private SelectionIndex selectionIndex;
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        selectionIndex = player.getSelectionIndex();
+    }
+
+    @Test
+    public void keepsCountsOfSelectedEntities() {
+        Unit quad = makeUnit(player, MapCoordinate.create(1, 1), EntitiesData.QUAD);
+        Unit harvester = makeUnit(player, MapCoordinate.create(2, 1), EntitiesData.HARVESTER);
+        Structure windtrap = makeStructure(player, MapCoordinate.create(5, 5), EntitiesData.WINDTRAP);
+
+        quad.select();
+        harvester.select();
+        windtrap.select();
+        quad.select(); // selecting twice counts once
+
+        assertThat(selectionIndex.countSelected(), is(3));
+        assertThat(selectionIndex.countSelectedMovable(), is(2));
+        assertThat(selectionIndex.countSelectedHarvesters(), is(1));
+        assertThat(selectionIndex.countSelectedDestroyers(), is(2)); // all units are destroyers
+        assertThat(selectionIndex.hasOnlyHarvestersSelected(), is(false));
+
+        quad.deselect();
+
+        assertThat(selectionIndex.countSelected(), is(2));
+        assertThat(selectionIndex.countSelectedDestroyers(), is(1));
+        assertThat(selectionIndex.hasOnlyHarvestersSelected(), is(true));
+    }
+
+    @Test
+    public void entitiesOfOtherPlayersAreNotInIndex() {
+        Unit quad = makeUnit(cpu, MapCoordinate.create(1, 1), EntitiesData.QUAD);
+
+        quad.select();
+
+        assertThat(selectionIndex.countSelected(), is(0));
+        assertThat(cpu.getSelectionIndex().countSelected(), is(1));
+    }
+
+    @Test
+    public void destroyedUnitIsRemovedFromIndex() {
+        Unit quad = makeUnit(player, MapCoordinate.create(1, 1), EntitiesData.QUAD);
+        quad.select();
+
+        quad.dead();
+
+        assertThat(selectionIndex.countSelected(), is(0));
+        assertThat(selectionIndex.getSelectedMovable().isEmpty(), is(true));
+    }
+
+    @Test
+    public void removedStructureIsRemovedFromIndex() {
+        Structure windtrap = makeStructure(player, MapCoordinate.create(5, 5), EntitiesData.WINDTRAP);
+        windtrap.select();
+
+        entityRepository.removeEntity(windtrap);
+
+        assertThat(selectionIndex.countSelected(), is(0));
+    }
+
+    @Test
+    public void deselectAllDeselectsEntities() {
+        Unit quad = makeUnit(player, MapCoordinate.create(1, 1), EntitiesData.QUAD);
+        Unit otherQuad = makeUnit(player, MapCoordinate.create(2, 1), EntitiesData.QUAD);
+        quad.select();
+        otherQuad.select();
+
+        EntitiesSet deselected = selectionIndex.deselectAll();
+
+        assertThat(deselected.size(), is(2));
+        assertThat(quad.isSelected(), is(false));
+        assertThat(otherQuad.isSelected(), is(false));
+        assertThat(selectionIndex.countSelected(), is(0));
+    }
+}
@@ -6,7 +6,6 @@ import com.fundynamic.d2tm.math.Coordinate;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.SpriteSheet;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class TestableEntity extends Entity {
@@ -53,16 +52,15 @@ public class TestableEntity extends Entity {
     }
 
     public boolean containsSubscriberFor(EventType eventType) {
-        if (!this.eventTypeListMap.containsKey(eventType)) return false;
+        return entityRepository.getEventBus().subscriptionCount(this, eventType) > 0;
+    }
 
-        List<EventSubscription<? extends Entity>> eventSubscriptions = this.eventTypeListMap.get(eventType);
-        return eventSubscriptions.size() > 0;
+    public List<EventBus.Subscription> eventSubscriptionsFor(EventType eventType) {
+        return entityRepository.getEventBus().subscriptionsFor(this, eventType);
     }
 
-    public List<EventSubscription<? extends Entity>> eventSubscriptionsFor(EventType eventType) {
-        if (!this.eventTypeListMap.containsKey(eventType)) return new ArrayList<>();
-        List<EventSubscription<? extends Entity>> eventSubscriptions = eventTypeListMap.get(eventType);
-        return eventSubscriptions;
+    public int subscriptionsHeld() {
+        return entityRepository.getEventBus().subscriptionsHeldBy(this);
     }
 
     public Void eventMethod() {
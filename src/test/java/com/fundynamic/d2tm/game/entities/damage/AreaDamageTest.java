@@ -0,0 +1,80 @@
+package com.fundynamic.d2tm.game.entities.damage;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.structures.Structure;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.fundynamic.d2tm.game.map.Cell.HALF_TILE;
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
+
+public class AreaDamageTest extends AbstractD2TMTest {
+
+    @Test
+    public void falloffIsLinearFromCenterToRadius() {
+        Assert.assertEquals(100, AreaDamage.falloff(100, 100, 0));
+        Assert.assertEquals(50, AreaDamage.falloff(100, 100, 50));
+        Assert.assertEquals(0, AreaDamage.falloff(100, 100, 100));
+        Assert.assertEquals(0, AreaDamage.falloff(100, 100, 150));
+    }
+
+    @Test
+    public void unitAtCenterTakesFullDamage() {
+        Unit unit = makeUnit(player, MapCoordinate.create(10, 10), "QUAD");
+        int hitPoints = unit.getHitPoints();
+
+        int damaged = entityRepository.damageWithinRadius(centerOf(10, 10), 3 * TILE_SIZE, 100, null);
+
+        Assert.assertEquals(1, damaged);
+        Assert.assertEquals(hitPoints - 100, unit.getHitPoints());
+    }
+
+    @Test
+    public void unitFurtherAwayTakesLessDamage() {
+        Unit unit = makeUnit(player, MapCoordinate.create(11, 10), "QUAD");
+        int hitPoints = unit.getHitPoints();
+
+        entityRepository.damageWithinRadius(centerOf(10, 10), 2 * TILE_SIZE, 100, null);
+
+        // one cell away of a two cell radius
+        Assert.assertEquals(hitPoints - 50, unit.getHitPoints());
+    }
+
+    @Test
+    public void unitOutsideRadiusIsNotDamaged() {
+        Unit unit = makeUnit(player, MapCoordinate.create(20, 10), "QUAD");
+        int hitPoints = unit.getHitPoints();
+
+        int damaged = entityRepository.damageWithinRadius(centerOf(10, 10), 3 * TILE_SIZE, 100, null);
+
+        Assert.assertEquals(0, damaged);
+        Assert.assertEquals(hitPoints, unit.getHitPoints());
+    }
+
+    @Test
+    public void structureTakesDamageForEachCellOfItsFootprint() {
+        Structure structure = makeStructure(player, 10000, 2, 2, 5, MapCoordinate.create(10, 10).toCoordinate());
+        Coordinate center = Coordinate.create(11 * TILE_SIZE, 11 * TILE_SIZE); // exactly between the four cells
+
+        int expected = AreaDamage.damageForFootprint(structure, center, 4 * TILE_SIZE, 100);
+        entityRepository.damageWithinRadius(center, 4 * TILE_SIZE, 100, null);
+
+        // all four cells are equally far from the center
+        Assert.assertEquals(4 * AreaDamage.falloff(100, 4 * TILE_SIZE, (float) Math.sqrt(2 * HALF_TILE * HALF_TILE)), expected);
+        Assert.assertEquals(10000 - expected, structure.getHitPoints());
+    }
+
+    @Test
+    public void zeroRadiusDamagesNothing() {
+        makeUnit(player, MapCoordinate.create(10, 10), "QUAD");
+        Assert.assertEquals(0, entityRepository.damageWithinRadius(centerOf(10, 10), 0, 100, null));
+    }
+
+    private Coordinate centerOf(int x, int y) {
+        return MapCoordinate.create(x, y).toCoordinate().add(Coordinate.create(HALF_TILE, HALF_TILE));
+    }
+}
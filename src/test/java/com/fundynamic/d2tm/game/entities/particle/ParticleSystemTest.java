@@ -0,0 +1,120 @@
+package com.fundynamic.d2tm.game.entities.particle;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.rendering.gui.battlefield.Recolorer;
+import com.fundynamic.d2tm.game.types.EntityData;
+import com.fundynamic.d2tm.math.Random;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.SpriteSheet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParticleSystemTest extends AbstractD2TMTest {
+
+    public static final int FRAMES = 5;
+
+    private ParticleSystem particles;
+    private EntityData boom;  // 5 frames per second
+    private EntityData smoke; // 8 frames per second
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        EntityRepository entityRepository = new EntityRepository(map, mock(Recolorer.class), entitiesData) {
+            @Override
+            public SpriteSheet makeSpriteSheet(EntityData entityData, Image recoloredImage) {
+                SpriteSheet spriteSheet = mock(SpriteSheet.class);
+                when(spriteSheet.getHorizontalCount()).thenReturn(FRAMES);
+                return spriteSheet;
+            }
+        };
+        particles = entityRepository.getParticles();
+        boom = entitiesData.getEntityData(EntityType.PARTICLE, "BOOM");
+        smoke = entitiesData.getEntityData(EntityType.PARTICLE, "SMOKE");
+    }
+
+    @Test
+    public void emitsParticleWithCenterAtGivenPosition() {
+        particles.emit(100, 100, boom, player);
+
+        assertThat(particles.size(), is(1));
+        assertThat(particles.getX(0), is(76f)); // 48 pixels wide
+        assertThat(particles.getY(0), is(76f));
+        assertThat(particles.getParticleData(0), is(boom));
+    }
+
+    @Test
+    public void playsAllFramesAndThenIsRemoved() {
+        particles.emit(100, 100, boom, player);
+
+        particles.update(0.5f);
+        assertThat(particles.size(), is(1));
+        assertThat(particles.getFrame(0), is(2.5f));
+
+        particles.update(0.5f); // played all 5 frames
+        assertThat(particles.size(), is(0));
+    }
+
+    @Test
+    public void onlySmokeFadesOutEntirely() {
+        particles.emit(100, 100, boom, player);
+        particles.emit(100, 100, smoke, player);
+
+        particles.update(0.5f);
+
+        assertThat((double) particles.getAlpha(0), closeTo(1.0, 0.001)); // boom at frame 2.5 of 5
+        assertThat((double) particles.getAlpha(1), closeTo(0.2, 0.001)); // smoke at frame 4 of 5
+    }
+
+    @Test
+    public void emitsRingOfParticles() {
+        particles.emitRing(320, 320, 64, 6, boom, player, 100, new Random(1));
+
+        assertThat(particles.size(), is(60));
+        // at 0 degrees, the particle is right of the center
+        assertThat(particles.getX(0), is(320f + 64 - 24));
+        assertThat(particles.getY(0), is(320f - 24));
+    }
+
+    @Test
+    public void emitsRingWithChance() {
+        particles.emitRing(320, 320, 64, 6, smoke, player, 0, new Random(1));
+
+        assertThat(particles.size(), is(0));
+    }
+
+    @Test
+    public void keepsPlayingParticlesWhenOthersFinish() {
+        // many more than the initial capacity, every other one (smoke) finishes on the first update
+        int amount = 10_000;
+        for (int i = 0; i < amount; i++) {
+            particles.emit(i, i, (i % 2 == 0) ? smoke : boom, player);
+        }
+        assertThat(particles.size(), is(amount));
+
+        particles.update(0.625f); // smoke at frame 5, boom at frame 3.125
+
+        assertThat(particles.size(), is(amount / 2));
+        for (int i = 0; i < particles.size(); i++) {
+            // only boom is left, in the order it was emitted
+            assertThat(particles.getParticleData(i), is(boom));
+            assertThat(particles.getX(i), is(((i * 2) + 1) - 24f));
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void onlyEmitsParticles() {
+        EntityData quad = entitiesData.getEntityData(EntityType.UNIT, EntitiesData.QUAD);
+        particles.emit(0, 0, quad, player);
+    }
+}
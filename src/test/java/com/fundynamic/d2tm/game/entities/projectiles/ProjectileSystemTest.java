@@ -1,8 +1,9 @@
 package com.fundynamic.d2tm.game.entities.projectiles;
 
 import com.fundynamic.d2tm.game.AbstractD2TMTest;
-import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.game.entities.EntityType;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.particle.ParticleSystem;
 import com.fundynamic.d2tm.game.entities.units.Unit;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
@@ -17,7 +18,7 @@ import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.Is.is;
 
 
-public class ProjectileTest extends AbstractD2TMTest {
+public class ProjectileSystemTest extends AbstractD2TMTest {
 
     public static final Vector2D CENTER_FROM = create(64, 64);
 
@@ -47,7 +48,8 @@ public class ProjectileTest extends AbstractD2TMTest {
     public static final Vector2D DOWN_RIGHT_RIGHT = DOWN_RIGHT.add(create(32, 0));
     public static final Vector2D DOWN_RIGHT_RIGHTX5 = DOWN_RIGHT.add(create(129, 0));
 
-    private Projectile projectile;
+    private ProjectileSystem projectiles;
+    private EntityData largeRocket;
 
     /////////////////////////////////////////
     // Projectile facing
@@ -56,7 +58,8 @@ public class ProjectileTest extends AbstractD2TMTest {
     @Before
     public void setUp() throws SlickException {
         super.setUp();
-        projectile = makeProjectile(Coordinate.create(32, 32));
+        projectiles = entityRepository.getProjectiles();
+        largeRocket = entityRepository.getEntityData(EntityType.PROJECTILE, EntitiesData.LARGE_ROCKET);
     }
 
     @Test
@@ -155,66 +158,140 @@ public class ProjectileTest extends AbstractD2TMTest {
     }
 
     public void assertFacingIs(Vector2D from, Vector2D to, int expectedFacing) {
-        assertThat(projectile.getFacing(from, to), is(expectedFacing));
+        assertThat(ProjectileSystem.getFacing(largeRocket, from, to), is(expectedFacing));
     }
 
     ///////////////////////////////////////
     // projectile movement
 
+    @Test
+    public void facingIsDeterminedAtLaunch() {
+        fireProjectile(Coordinate.create(CENTER_FROM), Coordinate.create(UP));
+        assertThat(projectiles.getFacing(0), is(4));
+    }
+
     @Test
     public void movesToTargetAndExplodes() {
-        EntityData entityData = projectile.getEntityData();
         // movespeed is per second, so we emulate that we want to travel a distance per 2 seconds (ie, 2 update cycles
         // with a delta of 1 second
         int seconds = 2;
-        Vector2D distance = create(entityData.moveSpeed, entityData.moveSpeed).scale(seconds);
-        projectile.moveTo(projectile.getCoordinate().add(distance));
+        Vector2D distance = create(largeRocket.moveSpeed, largeRocket.moveSpeed).scale(seconds);
+        Coordinate from = Coordinate.create(32, 32);
+        fireProjectile(from, from.add(distance));
 
-        projectile.update(1);
-        assertThat(projectile.isDestroyed(), is(false));
+        projectiles.update(1);
+        assertThat(projectiles.size(), is(1));
 
-        projectile.update(1);
-        assertThat(projectile.isDestroyed(), is(false)); // it is very close, or at target, next update will 'destroy' it
+        projectiles.update(1);
+        assertThat(projectiles.size(), is(1)); // it is very close, or at target, next update will 'destroy' it
 
-        projectile.update(1); // destroys projectile, spawns explosion
-        assertThat(projectile.isDestroyed(), is(true));
+        projectiles.update(1); // destroys projectile, spawns explosion
+        assertThat(projectiles.size(), is(0));
 
         // check that an explosion is created (assuming it is not UNKNOWN, large rocket should not have that)
-        Entity lastCreatedEntity = entityRepository.getLastCreatedEntity();
-        assertThat(lastCreatedEntity.getEntityType(), is(EntityType.PARTICLE));
-        assertThat(lastCreatedEntity.getEntityData().key, is(entityData.getExplosionIdKey()));
+        ParticleSystem particles = entityRepository.getParticles();
+        assertThat(particles.size(), is(1));
+        assertThat(particles.getParticleData(0).key, is(largeRocket.getExplosionIdKey()));
+    }
+
+    @Test
+    public void ascendsAndDescendsDuringFlight() {
+        largeRocket.maxAscensionHeight = 64;
+        largeRocket.maxAscensionAtFlightPercentage = 0.5f;
+        largeRocket.startToDescendPercentage = 0.5f;
+        Coordinate from = Coordinate.create(32, 32);
+        fireProjectile(from, from.add(create(largeRocket.moveSpeed * 4, 0)));
+
+        projectiles.update(1); // 25% of flight
+        assertThat(projectiles.getHeight(0), is(32f));
+
+        projectiles.update(1); // 50% of flight
+        projectiles.update(1); // 75% of flight, descending
+        assertThat(projectiles.getHeight(0), is(32f));
     }
 
     // note: yes this also means dealing damage to units owned by same player.
     @Test
     public void movesToTargetAndThenDealsDamageToEntity() {
-        EntityData entityData = projectile.getEntityData();
-
         int seconds = 1;
-        Vector2D distance = create(entityData.moveSpeed, entityData.moveSpeed).scale(seconds);
-        Coordinate target = projectile.getCoordinate().add(distance);
-        projectile.moveTo(target);
+        Vector2D distance = create(largeRocket.moveSpeed, largeRocket.moveSpeed).scale(seconds);
+        Coordinate from = Coordinate.create(32, 32);
+        Coordinate target = from.add(distance);
+        fireProjectile(from, target);
 
         // Place unit on target, so that it will be hit!
         Unit unit = entityRepository.placeUnitOnMap(target.toMapCoordinate(), "QUAD", player);
 
-        projectile.update(1);
-        assertThat(projectile.isDestroyed(), is(false)); // it is very close, or at target, next update will 'destroy' it
+        projectiles.update(1);
+        assertThat(projectiles.size(), is(1)); // it is very close, or at target, next update will 'destroy' it
 
-        projectile.update(1); // destroys projectile, deals damage
-        assertThat(projectile.isDestroyed(), is(true));
+        projectiles.update(1); // destroys projectile, deals damage
+        assertThat(projectiles.size(), is(0));
 
         // damage should be dealt, how much damage is not relevant here
         assertThat(unit.getHitPoints(), is(lessThan(unit.getEntityData().hitPoints)));
     }
 
     @Test
-    public void projectileCannotTakeDamage() {
-        Projectile projectile = makeProjectile(Coordinate.create(32, 32));
-        int hitPoints = projectile.getHitPoints();
-        projectile.takeDamage(100, null);
+    public void projectileWithDamageRadiusDealsSplashDamage() {
+        largeRocket.damageRadius = 3 * 32;
+
+        Unit hit = entityRepository.placeUnitOnMap(Coordinate.create(320, 320).toMapCoordinate(), "QUAD", player);
+        Unit nextToIt = entityRepository.placeUnitOnMap(Coordinate.create(352, 320).toMapCoordinate(), "QUAD", player);
+        Unit farAway = entityRepository.placeUnitOnMap(Coordinate.create(640, 320).toMapCoordinate(), "QUAD", player);
+
+        fireProjectile(Coordinate.create(320, 320), Coordinate.create(320, 320));
+        projectiles.update(1);
+
+        assertThat(hit.getHitPoints(), is(lessThan(hit.getEntityData().hitPoints)));
+        assertThat(nextToIt.getHitPoints(), is(lessThan(nextToIt.getEntityData().hitPoints)));
+        assertThat(farAway.getHitPoints(), is(farAway.getEntityData().hitPoints));
+    }
+
+    @Test
+    public void notifiesListenerWithCenterOfDetonation() {
+        float[] detonatedAt = new float[2];
+        Coordinate target = Coordinate.create(320, 320);
+        entityRepository.fireProjectile(Coordinate.create(320, 100), target, EntitiesData.LARGE_ROCKET, player, (x, y) -> {
+            detonatedAt[0] = x;
+            detonatedAt[1] = y;
+        });
+
+        for (int i = 0; i < 10; i++) {
+            projectiles.update(1);
+        }
+
+        assertThat(detonatedAt[0], is(target.getX() + largeRocket.getWidth() / 2f));
+        assertThat(detonatedAt[1], is(target.getY() + largeRocket.getHeight() / 2f));
+    }
+
+    @Test
+    public void keepsProjectilesInFlightWhenOthersDetonate() {
+        // many more than the initial capacity, every other one detonates on the first update
+        int amount = 10_000;
+        Coordinate from = Coordinate.create(64, 64);
+        for (int i = 0; i < amount; i++) {
+            if (i % 2 == 0) {
+                fireProjectile(from, Coordinate.create(65, 64));
+            } else {
+                fireProjectile(from, Coordinate.create(64 + largeRocket.moveSpeed * 10, 64 + (i % 100)));
+            }
+        }
+        assertThat(projectiles.size(), is(amount));
+
+        projectiles.update(0.5f);
+
+        assertThat(projectiles.size(), is(amount / 2));
+        for (int i = 0; i < projectiles.size(); i++) {
+            // only the far away ones are left, in the order they were fired
+            assertThat(projectiles.getTargetX(i), is(64 + largeRocket.moveSpeed * 10));
+            assertThat(projectiles.getTargetY(i), is(64f + ((i * 2) + 1) % 100));
+        }
+    }
 
-        // damage does nothing
-        assertThat(projectile.getHitPoints(), is(hitPoints));
+    @Test (expected = IllegalArgumentException.class)
+    public void onlyLaunchesProjectiles() {
+        EntityData quad = entityRepository.getEntityData(EntityType.UNIT, EntitiesData.QUAD);
+        projectiles.launch(Coordinate.create(0, 0), Coordinate.create(32, 32), quad, player, null, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.fundynamic.d2tm.game.entities.scheduling;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.entities.units.states.SeekHarvestableResourceState;
+import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorkSchedulerTest extends AbstractD2TMTest {
+
+    @Test
+    public void unlimitedSchedulerAllowsEverything() {
+        WorkScheduler workScheduler = new WorkScheduler(WorkScheduler.UNLIMITED);
+        Unit unit = makeUnit(player);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(workScheduler.tryAcquire(unit));
+        }
+    }
+
+    @Test
+    public void refusedRequestsAreServedNextTickInOrder() {
+        WorkScheduler workScheduler = new WorkScheduler(2);
+        Unit a = makeUnit(player, MapCoordinate.create(1, 1), EntitiesData.QUAD);
+        Unit b = makeUnit(player, MapCoordinate.create(2, 1), EntitiesData.QUAD);
+        Unit c = makeUnit(player, MapCoordinate.create(3, 1), EntitiesData.QUAD);
+        Unit d = makeUnit(player, MapCoordinate.create(4, 1), EntitiesData.QUAD);
+
+        workScheduler.beginTick();
+        Assert.assertTrue(workScheduler.tryAcquire(a));
+        Assert.assertTrue(workScheduler.tryAcquire(b));
+        Assert.assertFalse(workScheduler.tryAcquire(c));
+        Assert.assertFalse(workScheduler.tryAcquire(d));
+        Assert.assertFalse(workScheduler.tryAcquire(c)); // still waiting
+        Assert.assertEquals(2, workScheduler.getWaitingCount());
+
+        workScheduler.beginTick();
+        Assert.assertFalse(workScheduler.tryAcquire(a)); // c and d go first
+        Assert.assertTrue(workScheduler.tryAcquire(d));
+        Assert.assertTrue(workScheduler.tryAcquire(c));
+
+        workScheduler.beginTick();
+        Assert.assertTrue(workScheduler.tryAcquire(a));
+    }
+
+    @Test
+    public void harvestersReplanningAtTheSameMomentAreSpreadOverTicks() {
+        int budget = 10;
+        entityRepository.getWorkScheduler().setWorkUnitsPerTick(budget);
+        makeHarvestableCell(60, 60, 1000);
+
+        List<Unit> harvesters = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            harvesters.add(makeUnit(player, MapCoordinate.create(1 + (i % 50), 1 + (i / 50) * 2), EntitiesData.HARVESTER));
+        }
+        Assert.assertEquals(100, countSeeking(harvesters));
+
+        int seeking = 100;
+        for (int tick = 0; tick < 30 && seeking > 0; tick++) {
+            entityRepository.getWorkScheduler().beginTick();
+            for (Unit harvester : harvesters) {
+                harvester.update(0.01F);
+            }
+            int stillSeeking = countSeeking(harvesters);
+            Assert.assertTrue("served more than the budget in one tick", seeking - stillSeeking <= budget);
+            seeking = stillSeeking;
+        }
+        Assert.assertEquals(0, seeking);
+    }
+
+    @Test
+    public void unitsLeavingTheQueueDoNotHoldUpOthers() {
+        WorkScheduler workScheduler = entityRepository.getWorkScheduler();
+        workScheduler.setWorkUnitsPerTick(1);
+        Unit a = makeUnit(player, MapCoordinate.create(1, 1), EntitiesData.QUAD);
+        Unit b = makeUnit(player, MapCoordinate.create(2, 1), EntitiesData.QUAD);
+        Unit c = makeUnit(player, MapCoordinate.create(3, 1), EntitiesData.QUAD);
+        Unit d = makeUnit(player, MapCoordinate.create(4, 1), EntitiesData.QUAD);
+
+        workScheduler.beginTick();
+        Assert.assertTrue(workScheduler.tryAcquire(a));
+        Assert.assertFalse(workScheduler.tryAcquire(b));
+        Assert.assertFalse(workScheduler.tryAcquire(c));
+        Assert.assertFalse(workScheduler.tryAcquire(d));
+
+        b.moveTo(Coordinate.create(320, 320)); // doing something else now
+        entityRepository.removeEntity(c);
+        Assert.assertFalse(workScheduler.isWaiting(b));
+        Assert.assertFalse(workScheduler.isWaiting(c));
+        Assert.assertEquals(1, workScheduler.getWaitingCount());
+
+        workScheduler.beginTick();
+        Assert.assertTrue(workScheduler.tryAcquire(d));
+    }
+
+    @Test
+    public void movingUnitDoesNotWaitForBudget() {
+        WorkScheduler workScheduler = entityRepository.getWorkScheduler();
+        workScheduler.setWorkUnitsPerTick(1);
+        Unit unit = makeUnit(player, MapCoordinate.create(5, 5), EntitiesData.QUAD);
+        unit.moveTo(MapCoordinate.create(10, 5).toCoordinate());
+
+        workScheduler.beginTick();
+        Assert.assertTrue(workScheduler.tryAcquire(makeUnit(player, MapCoordinate.create(1, 1), EntitiesData.QUAD))); // budget spent
+        unit.update(0.01F);
+
+        Assert.assertFalse(unit.hasNoNextCellToMoveTo());
+        Assert.assertFalse(workScheduler.isWaiting(unit));
+    }
+
+    private int countSeeking(List<Unit> harvesters) {
+        int count = 0;
+        for (Unit harvester : harvesters) {
+            if (harvester.getState() instanceof SeekHarvestableResourceState) count++;
+        }
+        return count;
+    }
+}
@@ -1,16 +1,18 @@
 package com.fundynamic.d2tm.game.entities.superpowers;
 
 import com.fundynamic.d2tm.game.AbstractD2TMTest;
-import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.game.entities.EntityType;
-import com.fundynamic.d2tm.game.entities.projectiles.Projectile;
+import com.fundynamic.d2tm.game.entities.units.Unit;
 import com.fundynamic.d2tm.game.types.EntityData;
 import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.MapCoordinate;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.newdawn.slick.SlickException;
 
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+
 public class SuperPowerTest extends AbstractD2TMTest {
 
     private SuperPower superPower;
@@ -32,6 +34,18 @@ public class SuperPowerTest extends AbstractD2TMTest {
         Assert.assertEquals(100, superPower.getDamageHitpoints(100, 100, 0));
     }
 
+    @Test
+    public void damageInCircularFieldMeasuresFromTopLeftOfCells() {
+        Unit unit = makeUnit(player, MapCoordinate.create(10, 10), "QUAD");
+        int hitPoints = unit.getHitPoints();
+        Coordinate center = MapCoordinate.create(10, 10).toCoordinate().add(Coordinate.create(3 * TILE_SIZE, 0));
+
+        superPower.damageInCircularField(center.getX(), center.getY(), 4 * TILE_SIZE);
+
+        // the top-left of the cell is 3 cells away of the center, of a 4 cells radius
+        Assert.assertEquals(hitPoints - superPower.getDamageHitpoints(65, 4 * TILE_SIZE, 3 * TILE_SIZE), unit.getHitPoints());
+    }
+
     @Test
     public void update() {
         Assert.assertEquals(SuperPower.SuperPowerState.INITIAL, superPower.getState());
@@ -42,13 +56,11 @@ public class SuperPowerTest extends AbstractD2TMTest {
         // expect launched
         Assert.assertEquals(SuperPower.SuperPowerState.LAUNCHED, superPower.getState());
 
-        Entity lastCreatedEntity = entityRepository.getLastCreatedEntity();
-        Assert.assertTrue(lastCreatedEntity instanceof Projectile); // the launched projectile
-
-        Projectile launchedProjectile = (Projectile) lastCreatedEntity;
+        Assert.assertEquals(1, entityRepository.getProjectiles().size()); // the launched projectile
 
-        // destroy it, this should cause the super power to be notified and put it in exploding state
-        launchedProjectile.destroy();
+        // let it reach its target, detonating notifies the super power and puts it in exploding state
+        entityRepository.getProjectiles().update(100);
+        Assert.assertEquals(0, entityRepository.getProjectiles().size());
 
         Assert.assertEquals(SuperPower.SuperPowerState.EXPLODING, superPower.getState());
 
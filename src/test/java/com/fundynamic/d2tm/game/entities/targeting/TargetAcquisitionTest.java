@@ -0,0 +1,81 @@
+package com.fundynamic.d2tm.game.entities.targeting;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+public class TargetAcquisitionTest extends AbstractD2TMTest {
+
+    private TargetAcquisition targetAcquisition;
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        targetAcquisition = entityRepository.getTargetAcquisition();
+    }
+
+    @Test
+    public void findsNearestEnemyWithinSight() {
+        Unit quad = makeUnit(player, MapCoordinate.create(10, 10), EntitiesData.QUAD);
+        Unit nearby = makeUnit(cpu, MapCoordinate.create(14, 10), EntitiesData.TRIKE);
+        makeUnit(cpu, MapCoordinate.create(15, 12), EntitiesData.TRIKE);
+        makeUnit(player, MapCoordinate.create(11, 10), EntitiesData.TRIKE); // friendly
+
+        Assert.assertSame(nearby, targetAcquisition.findNearestEnemy(quad));
+    }
+
+    @Test
+    public void ignoresEnemiesOutOfSight() {
+        Unit quad = makeUnit(player, MapCoordinate.create(10, 10), EntitiesData.QUAD);
+        makeUnit(cpu, MapCoordinate.create(30, 30), EntitiesData.TRIKE);
+
+        Assert.assertNull(targetAcquisition.findNearestEnemy(quad));
+    }
+
+    @Test
+    public void idleUnitAttacksEnemyWithinOneGuardInterval() {
+        Unit quad = makeUnit(player, MapCoordinate.create(10, 10), EntitiesData.QUAD);
+        Unit trike = makeUnit(cpu, MapCoordinate.create(14, 10), EntitiesData.TRIKE);
+
+        updateForOneGuardInterval();
+
+        Assert.assertTrue(quad.hasEnemyToAttack());
+        Assert.assertSame(trike, quad.getEntityToAttack());
+    }
+
+    @Test
+    public void cpuUnitsGoForKnownThreatsOutOfSight() {
+        Unit cpuQuad = makeUnit(cpu, MapCoordinate.create(10, 10), EntitiesData.QUAD);
+        Unit humanQuad = makeUnit(player, MapCoordinate.create(50, 50), EntitiesData.QUAD);
+        Unit farAway = makeUnit(player, MapCoordinate.create(40, 40), EntitiesData.TRIKE);
+
+        targetAcquisition.reportThreat(cpu, farAway);
+        targetAcquisition.reportThreat(player, farAway); // ignored, human players do not keep threats
+
+        updateForOneGuardInterval();
+
+        Assert.assertSame(farAway, cpuQuad.getEntityToAttack());
+        Assert.assertFalse(humanQuad.hasEnemyToAttack());
+        Assert.assertEquals(0, targetAcquisition.getKnownThreats(player).size());
+    }
+
+    @Test
+    public void knownThreatsAreBounded() {
+        KnownThreats knownThreats = new KnownThreats();
+        for (int i = 0; i < KnownThreats.MAX_THREATS + 5; i++) {
+            knownThreats.report(makeUnit(player, MapCoordinate.create(1 + (i % 60), 1 + (i / 60)), EntitiesData.TRIKE));
+        }
+        Assert.assertEquals(KnownThreats.MAX_THREATS, knownThreats.size());
+    }
+
+    private void updateForOneGuardInterval() {
+        for (int i = 0; i < TargetAcquisition.SLOTS; i++) {
+            targetAcquisition.update(1F / TargetAcquisition.SLOTS_PER_SECOND);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.fundynamic.d2tm.game.entities.units;
+
+import com.fundynamic.d2tm.math.Vector2D;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class FacingTableTest {
+
+    @Test
+    public void givesSameFacingAsCalculatingTheAngle() {
+        java.util.Random random = new java.util.Random(42);
+        for (int facings : new int[]{8, 16, 32}) {
+            FacingTable table = FacingTable.forFacings(facings);
+            for (int i = 0; i < 10_000; i++) {
+                float dx = random.nextInt(801) - 400;
+                float dy = random.nextInt(801) - 400;
+                if (dx == 0 && dy == 0) continue;
+                assertThat("facings " + facings + ", direction " + dx + "," + dy,
+                        table.facingOf(dx, dy), is(facingByAngle(dx, dy, facings)));
+            }
+        }
+    }
+
+    @Test
+    public void facesRightWithoutDirection() {
+        assertThat(FacingTable.forFacings(16).facingOf(0, 0), is(0));
+    }
+
+    @Test
+    public void supportsMoreThanEightFacings() {
+        FacingTable table = FacingTable.forFacings(32);
+        assertThat(table.facingOf(10, 0), is(0));   // right
+        assertThat(table.facingOf(0, -10), is(8));  // up
+        assertThat(table.facingOf(-10, 0), is(16)); // left
+        assertThat(table.facingOf(0, 10), is(24));  // down
+    }
+
+    @Test
+    public void turnsTheShortestWay() {
+        assertThat(FacingTable.turnDirection(2, 4, 8), is(1));
+        assertThat(FacingTable.turnDirection(2, 0, 8), is(-1));
+        assertThat(FacingTable.turnDirection(30, 1, 32), is(1)); // wraps around
+        assertThat(FacingTable.turnDirection(1, 30, 32), is(-1));
+        assertThat(FacingTable.turnDirection(7, 3, 8), is(1)); // both ways as long
+        assertThat(FacingTable.turnDirection(5, 5, 16), is(0));
+    }
+
+    @Test
+    public void tablesAreShared() {
+        assertSame(FacingTable.forFacings(16), FacingTable.forFacings(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void facingsMustBePositive() {
+        FacingTable.forFacings(0);
+    }
+
+    private int facingByAngle(float dx, float dy, int facings) {
+        float chop = 360F / facings;
+        double angle = Vector2D.zero().angleTo(Vector2D.create(dx, dy));
+        return (int) ((angle + (chop / 2)) / chop) % facings;
+    }
+}
@@ -2,13 +2,14 @@ package com.fundynamic.d2tm.game.entities.units;
 
 
 import com.fundynamic.d2tm.game.types.EntityData;
+import com.fundynamic.d2tm.math.Random;
 import org.mockito.Mockito;
 import org.newdawn.slick.Image;
 
 public class TestableRenderQueueEnrichableWithFacingLogic extends RenderQueueEnrichableWithFacingLogic {
 
     public TestableRenderQueueEnrichableWithFacingLogic(Image image, EntityData entityData, float turnSpeed) {
-        super(image, entityData, turnSpeed);
+        super(image, entityData, turnSpeed, new Random(Random.DEFAULT_SEED));
     }
 
     @Override
@@ -5,7 +5,8 @@ import com.fundynamic.d2tm.game.behaviors.FadingSelection;
 import com.fundynamic.d2tm.game.behaviors.HitPointBasedDestructibility;
 import com.fundynamic.d2tm.game.entities.*;
 import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
-import com.fundynamic.d2tm.game.entities.projectiles.Projectile;
+import com.fundynamic.d2tm.game.entities.particle.ParticleSystem;
+import com.fundynamic.d2tm.game.entities.projectiles.ProjectileSystem;
 import com.fundynamic.d2tm.game.entities.structures.Structure;
 import com.fundynamic.d2tm.game.entities.units.states.GoalResolverState;
 import com.fundynamic.d2tm.game.entities.units.states.MoveToCellState;
@@ -29,6 +30,7 @@ import java.util.List;
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.anyObject;
@@ -122,9 +124,9 @@ public class UnitTest extends AbstractD2TMTest {
         unit.update(1); // dying
         unit.update(1); // dead
 
-        Entity lastCreatedEntity = entityRepository.getLastCreatedEntity();
-        assertThat(lastCreatedEntity.getEntityType(), is(EntityType.PARTICLE));
-        assertThat(lastCreatedEntity.getEntityData().key, is(unit.getEntityData().getExplosionIdKey()));
+        ParticleSystem particles = entityRepository.getParticles();
+        assertThat(particles.size(), is(greaterThan(0)));
+        assertThat(particles.getParticleData(particles.size() - 1).key, is(unit.getEntityData().getExplosionIdKey()));
 
         // once dead, we don't expect any interactions
         FadingSelection fadingSelection = mock(FadingSelection.class);
@@ -168,6 +170,25 @@ public class UnitTest extends AbstractD2TMTest {
         assertThat(unit.getOffset(), is(Vector2D.create(0, 0)));
     }
 
+    @Test
+    public void unitsShareStatesAndCountTransitions() {
+        Unit unit = makeUnit(UnitFacings.DOWN, unitAbsoluteMapCoordinates);
+        Unit otherUnit = makeUnit(player, MapCoordinate.create(2, 2), EntitiesData.QUAD);
+
+        unit.moveTo(unitAbsoluteMapCoordinates.add(Vector2D.create(TILE_SIZE, 0)));
+        otherUnit.moveTo(Coordinate.create(TILE_SIZE * 3, TILE_SIZE * 2));
+
+        assertSame(unit.getState(), otherUnit.getState());
+        assertEquals(1, unit.getStateTransitions());
+
+        unit.setToGoalResolverState(); // already in this state, no transition
+        assertEquals(1, unit.getStateTransitions());
+
+        unit.idle();
+        assertEquals(2, unit.getStateTransitions());
+        assertEquals(3, entityRepository.getStateTransitions());
+    }
+
     @Test
     public void verifyUnitMovesToDesiredCellItWantsToMoveToUpperLeftCell() {
         // start at 320, 320
@@ -218,15 +239,36 @@ public class UnitTest extends AbstractD2TMTest {
         // so it fires a projectile...
         updateUnitTimesHundredMilis(playerQuad, 10);
 
-        Entity lastCreatedEntity = entityRepository.getLastCreatedEntity();
-        assertThat(lastCreatedEntity.getEntityType(), is(EntityType.PROJECTILE));
-        Projectile projectile = (Projectile) lastCreatedEntity;
+        ProjectileSystem projectiles = entityRepository.getProjectiles();
+        assertThat(projectiles.size(), is(greaterThan(0)));
+        int last = projectiles.size() - 1;
+        Coordinate target = Coordinate.create(projectiles.getTargetX(last), projectiles.getTargetY(last));
 
-        EntitiesSet entitiesAtVector = entityRepository.findAliveEntitiesOfTypeAtVector(projectile.getTarget(), EntityType.UNIT);
+        EntitiesSet entitiesAtVector = entityRepository.findAliveEntitiesOfTypeAtVector(target, EntityType.UNIT);
         Unit first = (Unit) entitiesAtVector.getFirst();
         assertThat(first, equalTo(cpuQuad));
     }
 
+    @Test
+    public void forgetsEntityToAttackWhenItIsDestroyed() {
+        Player cpu = new Player("cpu", Faction.BLUE);
+        Unit playerQuad = makeUnit(player, MapCoordinate.create(1, 1), "QUAD");
+        Unit cpuQuad = makeUnit(cpu, MapCoordinate.create(8, 8), "QUAD");
+        Unit otherCpuQuad = makeUnit(cpu, MapCoordinate.create(9, 9), "QUAD");
+
+        playerQuad.attack(otherCpuQuad);
+        playerQuad.attack(cpuQuad); // changed its mind, no longer interested in the other one
+        assertThat(entityRepository.getEventBus().subscriptionCount(otherCpuQuad, EventType.ENTITY_DESTROYED), is(0));
+        assertThat(entityRepository.getEventBus().subscriptionCount(cpuQuad, EventType.ENTITY_DESTROYED), is(1));
+
+        entityRepository.removeEntity(cpuQuad);
+        assertThat(playerQuad.hasEnemyToAttack(), is(true)); // delivered at dispatch
+
+        entityRepository.getEventBus().dispatch();
+        assertThat(playerQuad.hasEnemyToAttack(), is(false));
+        assertThat(entityRepository.getEventBus().subscriptionsHeldBy(playerQuad), is(0));
+    }
+
     @Test
     public void selectedUnitPutsFadingSelectionAndHealthBarOnRenderQueue() {
         MapCoordinate mapCoordinate = MapCoordinate.create(2, 2);
@@ -0,0 +1,49 @@
+package com.fundynamic.d2tm.game.entities.units.states;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.AllocationMeter;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.entities.units.UnitFacings;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class MoveToCellStateTest extends AbstractD2TMTest {
+
+    @Test
+    public void movesUnitPixelByPixelAndArrivesAtCell() {
+        Unit unit = makeUnit(UnitFacings.RIGHT, MapCoordinate.create(10, 10).toCoordinate());
+        unit.moveToCell(MapCoordinate.create(11, 10).toCoordinate());
+        assertThat(unit.getState(), is(sameInstance(MoveToCellState.instance)));
+
+        MoveToCellState.instance.update(unit, new UnitStateContext(), 0.01f);
+        assertThat(unit.getOffsetX(), is(greaterThan(0f)));
+        assertThat(unit.getOffsetY(), is(0f));
+
+        for (int i = 0; i < 1000 && unit.getState() == MoveToCellState.instance; i++) {
+            MoveToCellState.instance.update(unit, new UnitStateContext(), 0.1f);
+        }
+
+        assertThat(unit.getCoordinate().toMapCoordinate(), is(MapCoordinate.create(11, 10)));
+        assertThat(unit.getOffsetX(), is(0f));
+    }
+
+    @Test
+    public void movingWithinCellDoesNotAllocate() {
+        Unit unit = makeUnit(UnitFacings.RIGHT, MapCoordinate.create(10, 10).toCoordinate());
+        unit.moveToCell(MapCoordinate.create(11, 10).toCoordinate());
+        UnitStateContext context = new UnitStateContext();
+
+        long allocated = new AllocationMeter().measure(10_000, () -> {
+            MoveToCellState.instance.update(unit, context, 0.001f);
+            unit.setOffset(0, 0); // never arrive
+        });
+
+        assertThat(allocated, is(lessThan(1024L)));
+    }
+}
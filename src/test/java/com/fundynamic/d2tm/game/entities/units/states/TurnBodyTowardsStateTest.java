@@ -15,10 +15,8 @@ public class TurnBodyTowardsStateTest extends AbstractD2TMTest {
         Unit unit = makeUnit(UnitFacings.UP, Coordinate.create(TILE_SIZE, TILE_SIZE));
         unit.getBodyFacing().desireToFaceTo(UnitFacings.DOWN.getValue());
 
-        TurnBodyTowardsState turnBodyTowardsState = new TurnBodyTowardsState(unit, entityRepository, map);
-
         // update
-        turnBodyTowardsState.update(0.1f);
+        TurnBodyTowardsState.instance.update(unit, new UnitStateContext(), 0.1f);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.ai.AttackCommand;
+import com.fundynamic.d2tm.game.ai.MoveCommand;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.Faction;
+import com.fundynamic.d2tm.game.entities.Player;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.scenario.Scenario;
+import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+
+
+public class LockstepTest extends AbstractD2TMTest {
+
+    private static final float TICK_DELTA = 1 / 60F;
+
+    @Test
+    public void gamesExecuteTheSameCommandsAtTheSameTickAndStayInSync() throws SlickException {
+        LoopbackTransport[] transports = LoopbackTransport.connect(2, 3);
+        Peer first = new Peer(transports[0], 0, 1);
+        Peer second = new Peer(transports[1], 1, 1);
+
+        // each player commands its own unit, in its own game only
+        first.lockstep.issue(new MoveCommand(first.units[0].getId(), 20 * TILE_SIZE, 5 * TILE_SIZE));
+        second.lockstep.issue(new AttackCommand(second.units[1].getId(), second.units[0].getId()));
+
+        // 20 seconds: the attacker chases the moving unit and hits it
+        runBoth(first, second, 1200);
+
+        Assert.assertThat(first.units[0].getCoordinate(), is(not(Coordinate.create(5 * TILE_SIZE, 5 * TILE_SIZE))));
+        Assert.assertThat(second.units[0].getCoordinate(), is(first.units[0].getCoordinate()));
+        Assert.assertThat(second.units[1].getCoordinate(), is(first.units[1].getCoordinate()));
+        Assert.assertTrue(first.units[0].getHitPoints() < first.units[0].getEntityData().hitPoints);
+        Assert.assertThat(second.units[0].getHitPoints(), is(first.units[0].getHitPoints()));
+        Assert.assertThat(first.lockstep.getTurn(), is(second.lockstep.getTurn()));
+        Assert.assertThat(second.simulation.checksum(), is(first.simulation.checksum()));
+        Assert.assertFalse(first.lockstep.isDesynced());
+        Assert.assertFalse(second.lockstep.isDesynced());
+    }
+
+    @Test
+    public void detectsDesync() throws SlickException {
+        LoopbackTransport[] transports = LoopbackTransport.connect(2, 0);
+        Peer first = new Peer(transports[0], 0, 1);
+        Peer second = new Peer(transports[1], 1, 1);
+
+        runBoth(first, second, 50);
+        Assert.assertFalse(first.lockstep.isDesynced());
+
+        // something in the second game that did not come from a command
+        int turnOfTampering = second.lockstep.getTurn();
+        second.players[0].addCredits(1);
+
+        runBoth(first, second, 50);
+
+        Assert.assertTrue(first.lockstep.isDesynced());
+        Assert.assertTrue(second.lockstep.isDesynced());
+        Assert.assertThat(first.lockstep.getDesyncTurn(), is(second.lockstep.getDesyncTurn()));
+        Assert.assertTrue(first.lockstep.getDesyncTurn() >= turnOfTampering);
+    }
+
+    @Test
+    public void lengthensTurnsUntilTheyCoverLatency() throws SlickException {
+        int latencyInTicks = 12;
+        LoopbackTransport[] transports = LoopbackTransport.connect(2, latencyInTicks);
+        Peer first = new Peer(transports[0], 0, 1);
+        Peer second = new Peer(transports[1], 1, 1);
+
+        runBoth(first, second, 600);
+        long stalls = first.lockstep.getStalls();
+        Assert.assertTrue(stalls > 0);
+        Assert.assertTrue(first.lockstep.getTicksPerTurn() > Lockstep.INITIAL_TICKS_PER_TURN);
+        Assert.assertTrue(first.lockstep.getTicksPerTurn() * Lockstep.COMMAND_DELAY_TURNS >= latencyInTicks / 2);
+
+        // once adapted, it only stalls now and then (when trying shorter turns)
+        runBoth(first, second, 600);
+        Assert.assertTrue(first.lockstep.getStalls() - stalls < stalls);
+        Assert.assertFalse(first.lockstep.isDesynced());
+    }
+
+    @Test
+    public void shortensTurnsWhenThereIsNoLatency() throws SlickException {
+        LoopbackTransport[] transports = LoopbackTransport.connect(2, 0);
+        Peer first = new Peer(transports[0], 0, 1);
+        Peer second = new Peer(transports[1], 1, 1);
+
+        runBoth(first, second, 200);
+
+        Assert.assertThat(first.lockstep.getStalls(), is(0L));
+        Assert.assertThat(first.lockstep.getTicksPerTurn(), is(Lockstep.MIN_TICKS_PER_TURN));
+        Assert.assertThat(second.lockstep.getTicksPerTurn(), is(Lockstep.MIN_TICKS_PER_TURN));
+    }
+
+    @Test
+    public void bytesSentDoNotDependOnAmountOfUnits() throws SlickException {
+        LoopbackTransport[] fewUnits = LoopbackTransport.connect(2, 2);
+        runBoth(new Peer(fewUnits[0], 0, 1), new Peer(fewUnits[1], 1, 1), 200);
+
+        LoopbackTransport[] manyUnits = LoopbackTransport.connect(2, 2);
+        runBoth(new Peer(manyUnits[0], 0, 40), new Peer(manyUnits[1], 1, 40), 200);
+
+        Assert.assertThat(manyUnits[0].getBytesSent(), is(fewUnits[0].getBytesSent()));
+        Assert.assertThat(manyUnits[0].getPacketsSent(), is(fewUnits[0].getPacketsSent()));
+    }
+
+    @Test
+    public void peerRunningAheadKeepsThePacketsOfTurnsItSentFor() throws SlickException {
+        LoopbackTransport[] transports = LoopbackTransport.connect(2, 0);
+        Peer first = new Peer(transports[0], 0, 1);
+        Peer second = new Peer(transports[1], 1, 1);
+
+        runBoth(first, second, 50);
+        int turn = first.lockstep.getTurn();
+
+        // the second runs ahead as far as it may, sending packets for turns far ahead of the first
+        for (int i = 0; i < 100; i++) {
+            second.lockstep.update();
+        }
+        Assert.assertThat(second.lockstep.getTurn(), is(turn + Lockstep.COMMAND_DELAY_TURNS));
+        first.lockstep.issue(new MoveCommand(first.units[0].getId(), 20 * TILE_SIZE, 5 * TILE_SIZE));
+
+        runBoth(first, second, 300);
+
+        Assert.assertThat(second.units[0].getCoordinate(), is(first.units[0].getCoordinate()));
+        Assert.assertFalse(first.lockstep.isDesynced());
+        Assert.assertFalse(second.lockstep.isDesynced());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void simulationMayNotBeCappedByTime() throws SlickException {
+        Map map = makeMap(MAP_WIDTH, MAP_HEIGHT);
+        EntityRepository entityRepository = makeTestableEntityRepository(map, entitiesData);
+        entityRepository.getWorkScheduler().setMillisecondsPerTick(2);
+        Scenario scenario = Scenario.builder().withMap(map).withEntityRepository(entityRepository).build();
+
+        new ScenarioSimulation(scenario, player);
+    }
+
+    private void runBoth(Peer first, Peer second, int updates) {
+        for (int i = 0; i < updates; i++) {
+            first.lockstep.update();
+            second.lockstep.update();
+        }
+    }
+
+    /**
+     * One of the peers of a match, running its own game: its own map, entities and players, units placed in the same order in every game.
+     */
+    private class Peer {
+        private final Player[] players;
+        private final Unit[] units;
+        private final ScenarioSimulation simulation;
+        private final Lockstep lockstep;
+
+        private Peer(Transport transport, int playerIndex, int unitsPerPlayer) throws SlickException {
+            Map map = makeMap(MAP_WIDTH, MAP_HEIGHT);
+            EntityRepository entityRepository = makeTestableEntityRepository(map, entitiesData);
+            players = new Player[] { new Player("Stefan", Faction.BLUE), new Player("Enemy", Faction.RED) };
+
+            units = new Unit[2];
+            units[0] = entityRepository.placeUnitOnMap(MapCoordinate.create(5, 5), EntitiesData.QUAD, players[0]);
+            units[1] = entityRepository.placeUnitOnMap(MapCoordinate.create(12, 5), EntitiesData.QUAD, players[1]);
+            for (int i = 1; i < unitsPerPlayer; i++) {
+                entityRepository.placeUnitOnMap(MapCoordinate.create(1 + (i % 30), 30 + (i / 30)), EntitiesData.QUAD, players[0]);
+                entityRepository.placeUnitOnMap(MapCoordinate.create(1 + (i % 30), 50 + (i / 30)), EntitiesData.QUAD, players[1]);
+            }
+
+            Scenario scenario = Scenario.builder()
+                    .withMap(map)
+                    .withEntityRepository(entityRepository)
+                    .withHuman(players[0])
+                    .withCpuPlayer(players[1])
+                    .build();
+            simulation = new ScenarioSimulation(scenario, players);
+            lockstep = new Lockstep(simulation, transport, playerIndex, players.length, TICK_DELTA);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.fundynamic.d2tm.game.lockstep;
+
+import com.fundynamic.d2tm.game.ai.AiCommand;
+import com.fundynamic.d2tm.game.ai.AttackCommand;
+import com.fundynamic.d2tm.game.ai.BuildCommand;
+import com.fundynamic.d2tm.game.ai.HarvestCommand;
+import com.fundynamic.d2tm.game.ai.MoveCommand;
+import com.fundynamic.d2tm.game.ai.PlaceStructureCommand;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+
+
+public class TurnPacketTest {
+
+    @Test
+    public void decodesWhatWasEncoded() {
+        List<AiCommand> commands = Arrays.asList(
+                new MoveCommand(7, 640, -32),
+                new AttackCommand(7, 12),
+                new HarvestCommand(3),
+                new BuildCommand(1, "QUAD"),
+                new PlaceStructureCommand(1)
+        );
+        TurnPacket packet = new TurnPacket(1, 42, 3, 39, 0x1234_5678_9ABC_DEF0L, commands);
+
+        TurnPacket decoded = TurnPacket.decode(packet.encode());
+
+        Assert.assertThat(decoded.getPlayerIndex(), is(1));
+        Assert.assertThat(decoded.getTurn(), is(42));
+        Assert.assertThat(decoded.getTicksPerTurn(), is(3));
+        Assert.assertThat(decoded.getChecksumTurn(), is(39));
+        Assert.assertThat(decoded.getChecksum(), is(0x1234_5678_9ABC_DEF0L));
+        // commands have no equals, their description tells all fields
+        Assert.assertThat(decoded.getCommands().toString(), is(commands.toString()));
+    }
+
+    @Test
+    public void packetWithoutCommandsIsTiny() {
+        TurnPacket packet = new TurnPacket(0, 1, 2, TurnPacket.NO_CHECKSUM_TURN, 0, new ArrayList<>());
+
+        Assert.assertThat(packet.encode().length, is(20));
+        Assert.assertFalse(TurnPacket.decode(packet.encode()).hasChecksum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ticksPerTurnMustBePositive() {
+        new TurnPacket(0, 1, 0, TurnPacket.NO_CHECKSUM_TURN, 0, new ArrayList<>());
+    }
+}
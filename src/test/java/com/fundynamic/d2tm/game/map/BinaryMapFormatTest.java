@@ -0,0 +1,96 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.terrain.TerrainFactory;
+import com.fundynamic.d2tm.game.terrain.impl.DuneTerrain;
+import com.fundynamic.d2tm.game.terrain.impl.DuneTerrainFactory;
+import com.fundynamic.d2tm.graphics.Shroud;
+import com.fundynamic.d2tm.graphics.Theme;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.mock;
+
+public class BinaryMapFormatTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Shroud shroud;
+    private TerrainFactory terrainFactory;
+    private BinaryMapFormat binaryMapFormat;
+
+    @Before
+    public void setUp() {
+        shroud = mock(Shroud.class);
+        terrainFactory = new DuneTerrainFactory(mock(Theme.class));
+        binaryMapFormat = new BinaryMapFormat(shroud, terrainFactory);
+    }
+
+    @Test
+    public void writtenMapReadsBackWithTerrainFacingsAndSpice() throws Exception {
+        Map map = makeMap(20, 10);
+        Path path = temporaryFolder.newFile("test.map").toPath();
+
+        binaryMapFormat.write(map, path);
+        Map readMap = binaryMapFormat.read(path);
+
+        Assert.assertEquals(20, readMap.getWidth());
+        Assert.assertEquals(10, readMap.getHeight());
+        Assert.assertEquals(map.getTerrainMap(), readMap.getTerrainMap());
+        for (int x = 1; x <= map.getWidth(); x++) {
+            for (int y = 1; y <= map.getHeight(); y++) {
+                Assert.assertSame(map.getTerrain(x, y), readMap.getTerrain(x, y));
+                Assert.assertEquals(map.getTerrainFacing(x, y), readMap.getTerrainFacing(x, y));
+                Assert.assertEquals(map.getSpiceIndex().getSpice(x, y), readMap.getSpiceIndex().getSpice(x, y), 0.001F);
+            }
+        }
+        Assert.assertFalse(readMap.isPassableForUnits(10, 5)); // mountain
+    }
+
+    @Test
+    public void terrainLayersAreRunLengthEncoded() throws Exception {
+        Map map = new Map(shroud, 128, 128);
+        new MapEditor(terrainFactory).fillMapWithTerrain(map, DuneTerrain.TERRAIN_ROCK);
+        Path path = temporaryFolder.newFile("rock.map").toPath();
+
+        binaryMapFormat.write(map, path);
+
+        // a run holds at most 65535 cells, so 128x128 cells is one run per layer
+        Assert.assertEquals(BinaryMapFormat.HEADER_SIZE + 3 + 3 + 4, Files.size(path));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void refusesDataWithoutMagic() throws Exception {
+        binaryMapFormat.read(ByteBuffer.allocate(BinaryMapFormat.HEADER_SIZE));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void refusesTruncatedData() throws Exception {
+        Map map = makeMap(20, 10);
+        Path path = temporaryFolder.newFile("truncated.map").toPath();
+        binaryMapFormat.write(map, path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 4).slice();
+        binaryMapFormat.read(truncated);
+    }
+
+    private Map makeMap(int width, int height) throws Exception {
+        Map map = new Map(shroud, width, height);
+        MapEditor mapEditor = new MapEditor(terrainFactory);
+        mapEditor.fillMapWithTerrain(map, DuneTerrain.TERRAIN_SAND);
+        mapEditor.createField(map, MapCoordinate.create(5, 5), DuneTerrain.TERRAIN_SPICE, 12);
+        mapEditor.putTerrainOnCell(map, MapCoordinate.create(10, 5), DuneTerrain.TERRAIN_MOUNTAIN);
+        mapEditor.putTerrainOnCell(map, MapCoordinate.create(15, 8), DuneTerrain.TERRAIN_ROCK);
+        mapEditor.smooth(map);
+        return map;
+    }
+}
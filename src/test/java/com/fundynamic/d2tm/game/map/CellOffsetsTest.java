@@ -0,0 +1,66 @@
+package com.fundynamic.d2tm.game.map;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CellOffsetsTest {
+
+    @Test
+    public void footprintCoversAllCellsOfTheEntity() {
+        CellOffsets footprint = CellOffsets.footprint(3, 2);
+
+        Set<String> cells = asStrings(footprint);
+        assertEquals(6, footprint.size());
+        assertEquals(6, cells.size());
+        assertTrue(cells.contains("0,0"));
+        assertTrue(cells.contains("2,1"));
+    }
+
+    @Test
+    public void surroundingHasEveryCellAroundTheEntityOnce() {
+        // 2x2 entity, marked X, surrounded by E
+        // EEEE
+        // EXXE
+        // EXXE
+        // EEEE
+        CellOffsets surrounding = CellOffsets.surrounding(2, 2, 1);
+
+        Set<String> cells = asStrings(surrounding);
+        assertEquals(12, surrounding.size());
+        assertEquals(12, cells.size());
+        assertTrue(cells.contains("-1,-1"));
+        assertTrue(cells.contains("2,2"));
+        assertTrue(cells.contains("-1,1"));
+        assertFalse(cells.contains("0,0"));
+    }
+
+    @Test
+    public void surroundingWithDistanceHoldsAllRings() {
+        CellOffsets surrounding = CellOffsets.surrounding(1, 1, 2);
+
+        // 5x5 minus the entity itself
+        assertEquals(24, surrounding.size());
+        assertEquals(24, asStrings(surrounding).size());
+    }
+
+    @Test
+    public void tablesAreShared() {
+        assertSame(CellOffsets.footprint(2, 3), CellOffsets.footprint(2, 3));
+        assertSame(CellOffsets.surrounding(2, 3, 1), CellOffsets.surrounding(2, 3, 1));
+    }
+
+    private Set<String> asStrings(CellOffsets offsets) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < offsets.size(); i++) {
+            result.add(offsets.getX(i) + "," + offsets.getY(i));
+        }
+        return result;
+    }
+}
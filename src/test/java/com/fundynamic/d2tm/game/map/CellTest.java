@@ -28,6 +28,24 @@ public class CellTest extends AbstractD2TMTest {
         new Cell(map, Mockito.mock(Terrain.class), 0, -1);
     }
 
+    @Test
+    public void cellCursorMovesOverMap() {
+        CellCursor cursor = map.createCellCursor();
+
+        Assert.assertSame(cursor, cursor.moveTo(10, 11));
+        assertTrue(cursor.isAtSameLocationAs(map.getCell(10, 11)));
+        Assert.assertSame(map.getMapCoordinate(10, 11), cursor.getMapCoordinate());
+
+        cursor.moveTo(3, 4);
+        Assert.assertEquals(3, cursor.getX());
+        Assert.assertEquals(4, cursor.getY());
+    }
+
+    @Test (expected = ArrayIndexOutOfBoundsException.class)
+    public void cellCursorCanNotMoveOutOfMap() {
+        map.createCellCursor().moveTo(map.getWidth() + 2, 0);
+    }
+
     @Test
     public void sameLocation() {
         Cell mapCell = makeCell(10, 10);
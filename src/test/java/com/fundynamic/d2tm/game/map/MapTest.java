@@ -1,6 +1,7 @@
 package com.fundynamic.d2tm.game.map;
 
 import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.structures.Structure;
 import com.fundynamic.d2tm.game.terrain.impl.Rock;
 import com.fundynamic.d2tm.game.terrain.impl.Sand;
 import com.fundynamic.d2tm.game.terrain.impl.Spice;
@@ -11,6 +12,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.newdawn.slick.SlickException;
 
+import java.util.List;
+
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -26,7 +29,7 @@ public class MapTest extends AbstractD2TMTest {
         map = makeMap(MAP_WIDTH, MAP_HEIGHT);
 
         map.getCell(0, 0).changeTerrain(new Sand());
-        map.getCell(5, 5).changeTerrain(new Spice(mock(Theme.class), null, 0));
+        map.getCell(5, 5).changeTerrain(new Spice(mock(Theme.class), new Sand(), () -> 0));
         map.getCell(MAP_WIDTH + 1, MAP_HEIGHT + 1).changeTerrain(new Rock()); // because of the invisible border
 
         entityRepository = makeTestableEntityRepository(map, entitiesData);
@@ -119,4 +122,62 @@ public class MapTest extends AbstractD2TMTest {
         assertTrue(cell.getTerrain() instanceof Spice);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void cellsShareTerrainButKeepTheirOwnFacing() {
+        Rock rock = new Rock();
+        map.getCell(2, 2).changeTerrain(rock);
+        map.getCell(3, 2).changeTerrain(rock);
+
+        map.setTerrainFacing(2, 2, MapEditor.TerrainFacing.SINGLE);
+
+        assertSame(map.getCell(2, 2).getTerrain(), map.getCell(3, 2).getTerrain());
+        assertEquals(MapEditor.TerrainFacing.SINGLE, map.getCell(2, 2).getTerrainFacing());
+        assertEquals(MapEditor.TerrainFacing.FULL, map.getCell(3, 2).getTerrainFacing());
+        assertEquals(map.getCell(2, 2), map.getCell(2, 2));
+    }
+
+    @Test
+    public void handsOutTheSameMapCoordinateForTheSameCell() {
+        MapCoordinate mapCoordinate = map.getMapCoordinate(3, 4);
+
+        assertEquals(MapCoordinate.create(3, 4), mapCoordinate);
+        assertSame(mapCoordinate, map.getMapCoordinate(3, 4));
+        assertSame(mapCoordinate, map.getCell(3, 4).getMapCoordinate());
+        assertSame(mapCoordinate, map.internMapCoordinate(3, 4));
+
+        // outside of the map (and its border) there is nothing to intern
+        assertEquals(MapCoordinate.create(-1, 4), map.internMapCoordinate(-1, 4));
+    }
+
+    @Test
+    public void cellKeyIsIndexWithinTheInvisibleBorder() {
+        int widthWithBorder = MAP_WIDTH + 2;
+        int cellKey = map.toCellKey(3, 4);
+
+        assertEquals(3 + (4 * widthWithBorder), cellKey);
+        assertEquals(3, map.getCellKeyX(cellKey));
+        assertEquals(4, map.getCellKeyY(cellKey));
+        assertSame(map.getMapCoordinate(3, 4), map.getMapCoordinate(cellKey));
+        assertEquals(cellKey, map.toCellKey(MapCoordinate.create(3, 4)));
+        assertEquals(widthWithBorder * (MAP_HEIGHT + 2), map.getCellKeyCount());
+        assertFalse(map.isCellKey(map.getCellKeyCount()));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void toCellKeyThrowsOutOfBoundsWhenGoingOutOfBounds() {
+        map.toCellKey(MAP_WIDTH + 2, 0);
+    }
+
+    @Test
+    public void getAllCellsOccupiedByEntityCoversWidthAndHeight() {
+        // 2 cells wide, 3 cells high
+        Structure structure = makeStructure(player, 100, 2, 3, 5, Coordinate.create(TILE_SIZE, TILE_SIZE));
+
+        List<Cell> cells = map.getAllCellsOccupiedByEntity(structure);
+
+        assertEquals(6, cells.size());
+        assertTrue(cells.contains(map.getCell(1, 1)));
+        assertTrue(cells.contains(map.getCell(2, 3)));
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.Entity;
+import com.fundynamic.d2tm.game.entities.EntityRepository;
+import com.fundynamic.d2tm.game.entities.NullEntity;
+import com.fundynamic.d2tm.game.entities.structures.Structure;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+
+
+public class OccupancyGridTest extends AbstractD2TMTest {
+
+    public static final MapCoordinate VEC_23_23 = MapCoordinate.create(23, 23);
+    private OccupancyGrid occupancyGrid;
+    private Unit entityOne;
+    private Unit entityTwo;
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        occupancyGrid = map.getOccupancyGrid();
+        entityOne = makeUnit(player, MapCoordinate.create(1, 30), "QUAD");
+        entityTwo = makeUnit(player, MapCoordinate.create(2, 30), "QUAD");
+    }
+
+    @Test
+    public void releaseAllClaimsByEntity() {
+        occupancyGrid.claim(VEC_23_23, entityOne);
+        occupancyGrid.claim(MapCoordinate.create(24, 23), entityOne);
+        occupancyGrid.claim(MapCoordinate.create(25, 23), entityTwo);
+
+        occupancyGrid.releaseAllClaimsBy(entityOne);
+
+        Assert.assertFalse(occupancyGrid.isClaimed(VEC_23_23));
+        Assert.assertFalse(occupancyGrid.isClaimed(MapCoordinate.create(24, 23)));
+        Assert.assertTrue(occupancyGrid.isClaimed(MapCoordinate.create(25, 23)));
+    }
+
+    @Test
+    public void canClaimVectorTwiceWithSameEntity() {
+        occupancyGrid.claim(VEC_23_23, entityOne);
+        occupancyGrid.claim(VEC_23_23, entityOne);
+        Assert.assertTrue(occupancyGrid.isClaimableBy(VEC_23_23, entityOne));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void throwsExceptionWhenClaimingVectorWithDifferentEntities() {
+        occupancyGrid.claim(VEC_23_23, entityOne);
+        occupancyGrid.claim(VEC_23_23, entityTwo);
+    }
+
+    @Test
+    public void canClaimUnclaimedVector() {
+        Assert.assertTrue(occupancyGrid.isClaimableBy(VEC_23_23, entityOne));
+    }
+
+    @Test
+    public void canNotClaimVectorAlreadyClaimedByOtherEntity() {
+        occupancyGrid.claim(VEC_23_23, entityOne);
+        Assert.assertFalse(occupancyGrid.isClaimableBy(VEC_23_23, entityTwo));
+    }
+
+    @Test
+    public void canReclaimVectorOnceReleased() {
+        occupancyGrid.claim(VEC_23_23, entityOne);
+        occupancyGrid.release(VEC_23_23);
+        occupancyGrid.claim(VEC_23_23, entityTwo);
+        Assert.assertFalse(occupancyGrid.isClaimableBy(VEC_23_23, entityOne));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwsExceptionWhenReleasingUnclaimedVector() {
+        occupancyGrid.release(VEC_23_23);
+    }
+
+    @Test
+    public void releasingOneOfManyClaimsKeepsTheOthers() {
+        occupancyGrid.claim(MapCoordinate.create(1, 1), entityOne);
+        occupancyGrid.claim(MapCoordinate.create(2, 1), entityOne);
+        occupancyGrid.claim(MapCoordinate.create(3, 1), entityOne);
+
+        occupancyGrid.release(MapCoordinate.create(2, 1));
+        occupancyGrid.releaseAllClaimsBy(entityOne);
+
+        Assert.assertFalse(occupancyGrid.isClaimed(1, 1));
+        Assert.assertFalse(occupancyGrid.isClaimed(2, 1));
+        Assert.assertFalse(occupancyGrid.isClaimed(3, 1));
+    }
+
+    @Test
+    public void placedStructureOccupiesAllItsCells() {
+        Structure structure = makeStructure(player, 100, 2, 3, 5, MapCoordinate.create(4, 5).toCoordinate());
+
+        for (int x = 4; x < 6; x++) {
+            for (int y = 5; y < 8; y++) {
+                Assert.assertSame(structure, occupancyGrid.getStructureAt(x, y));
+            }
+        }
+        Assert.assertNull(occupancyGrid.getStructureAt(6, 5));
+        Assert.assertNull(occupancyGrid.getStructureAt(4, 8));
+    }
+
+    @Test
+    public void unitArrivingAtCellMovesOccupancyAndReleasesClaim() {
+        Unit unit = makeUnit(player, MapCoordinate.create(10, 10), "QUAD");
+        Assert.assertSame(unit, occupancyGrid.getUnitAt(10, 10));
+
+        Coordinate next = MapCoordinate.create(11, 10).toCoordinate();
+        unit.moveToCell(next);
+        Assert.assertTrue(occupancyGrid.isClaimed(11, 10));
+        // between cells it occupies both the cell it leaves and the cell it enters
+        Assert.assertSame(unit, occupancyGrid.getUnitAt(10, 10));
+        Assert.assertSame(unit, occupancyGrid.getUnitAt(11, 10));
+
+        unit.arrivedAtCell(next);
+
+        Assert.assertNull(occupancyGrid.getUnitAt(10, 10));
+        Assert.assertSame(unit, occupancyGrid.getUnitAt(11, 10));
+        Assert.assertFalse(occupancyGrid.isClaimed(11, 10));
+    }
+
+    @Test
+    public void removedEntityNoLongerOccupiesOrClaims() {
+        Unit unit = makeUnit(player, MapCoordinate.create(10, 10), "QUAD");
+        occupancyGrid.claim(MapCoordinate.create(11, 10), unit);
+
+        entityRepository.removeEntity(unit);
+
+        Assert.assertNull(occupancyGrid.getUnitAt(10, 10));
+        Assert.assertFalse(occupancyGrid.isClaimed(11, 10));
+    }
+
+    @Test
+    public void picksUnitOnTopOfStructure() {
+        Structure structure = makeStructure(player, 100, 2, 2, 5, MapCoordinate.create(4, 5).toCoordinate());
+        Unit unit = makeUnit(player, MapCoordinate.create(4, 5), "QUAD");
+
+        Assert.assertSame(unit, occupancyGrid.pickSelectableAt(4, 5));
+        Assert.assertSame(structure, occupancyGrid.pickSelectableAt(5, 5));
+        Assert.assertNull(occupancyGrid.pickSelectableAt(6, 5));
+    }
+
+    @Test
+    public void picksStructureWhenUnitIsWithinIt() {
+        Structure structure = makeStructure(player, 100, 2, 2, 5, MapCoordinate.create(4, 5).toCoordinate());
+        Unit unit = makeUnit(player, MapCoordinate.create(4, 5), "QUAD");
+
+        unit.enterOtherEntity(structure);
+
+        Assert.assertSame(structure, occupancyGrid.pickSelectableAt(4, 5));
+    }
+
+    @Test
+    public void picksNothingOnceEntityIsRemoved() {
+        Unit unit = makeUnit(player, MapCoordinate.create(10, 10), "QUAD");
+
+        entityRepository.removeEntity(unit);
+
+        Assert.assertNull(occupancyGrid.pickSelectableAt(10, 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void entityWithoutRepositoryHasNoIdAndCanNotClaim() {
+        occupancyGrid.claim(VEC_23_23, new NullEntity());
+    }
+
+    @Test
+    public void idsAreCountedPerRepository() throws SlickException {
+        Unit unit = makeUnit(player, MapCoordinate.create(10, 10), "QUAD");
+        EntityRepository otherRepository = makeTestableEntityRepository(makeMap(10, 10), entitiesData);
+
+        Unit first = otherRepository.placeUnitOnMap(MapCoordinate.create(1, 1), "QUAD", player);
+
+        Assert.assertThat(first.getId(), is(1));
+        Assert.assertTrue(unit.getId() > 1); // created after the units of setUp
+    }
+
+    @Test
+    public void collectsEveryEntityWithinCellsOnce() {
+        Structure structure = makeStructure(player, 1000, 2, 2, 5, MapCoordinate.create(10, 10).toCoordinate());
+        Unit unit = makeUnit(player, MapCoordinate.create(12, 10), "QUAD");
+        makeUnit(player, MapCoordinate.create(20, 20), "QUAD");
+
+        List<Entity> collected = new ArrayList<>();
+        occupancyGrid.collectEntitiesWithin(9, 9, 12, 12, collected);
+
+        Assert.assertThat(collected.size(), is(2));
+        Assert.assertTrue(collected.contains(structure));
+        Assert.assertTrue(collected.contains(unit));
+
+        // stamps start over per collect
+        collected.clear();
+        occupancyGrid.collectEntitiesWithin(11, 11, 11, 11, collected);
+        Assert.assertThat(collected.size(), is(1));
+    }
+
+    @Test
+    public void outsideOfGridIsNeverOccupiedNorClaimed() {
+        Assert.assertNull(occupancyGrid.getUnitAt(-1, 5));
+        Assert.assertNull(occupancyGrid.getStructureAt(5, 10000));
+        Assert.assertFalse(occupancyGrid.isClaimed(10000, 10000));
+    }
+}
@@ -0,0 +1,127 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.structures.Structure;
+import com.fundynamic.d2tm.game.entities.units.Unit;
+import com.fundynamic.d2tm.game.terrain.impl.Rock;
+import com.fundynamic.d2tm.math.Coordinate;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+import static org.hamcrest.core.Is.is;
+
+
+public class PlacementMaskTest extends AbstractD2TMTest {
+
+    public static final float BUILD_RANGE = 64;
+
+    private PlacementMask placementMask;
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        placementMask = player.getPlacementMask();
+        for (int x = 5; x < 20; x++) {
+            for (int y = 5; y < 20; y++) {
+                map.setTerrain(x, y, new Rock(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void cellsNextToStructureArePlaceable() {
+        map.revealAllShroudFor(player);
+        // occupies 10,10 up to 11,11, center at 352,352
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.WINDTRAP, player);
+
+        Assert.assertTrue(placementMask.isPlaceable(map, 12, 11, BUILD_RANGE));
+        Assert.assertTrue(placementMask.isBlocked(map, 10, 10)); // the structure itself
+        Assert.assertFalse(placementMask.isWithinReach(map, 13, 11, BUILD_RANGE));
+    }
+
+    @Test
+    public void askingForAnotherBuildRangeRecomputesReach() {
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.WINDTRAP, player);
+        Assert.assertFalse(placementMask.isWithinReach(map, 13, 11, BUILD_RANGE));
+
+        Assert.assertTrue(placementMask.isWithinReach(map, 13, 11, BUILD_RANGE * 2));
+    }
+
+    @Test
+    public void reachIsUpdatedWhenStructuresArePlacedAndRemoved() {
+        Assert.assertFalse(placementMask.isWithinReach(map, 12, 11, BUILD_RANGE)); // computed before placing
+
+        Structure windtrap = entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.WINDTRAP, player);
+        Assert.assertTrue(placementMask.isWithinReach(map, 12, 11, BUILD_RANGE));
+
+        entityRepository.removeEntity(windtrap);
+        Assert.assertFalse(placementMask.isWithinReach(map, 12, 11, BUILD_RANGE));
+    }
+
+    @Test
+    public void structuresOfOtherPlayersDoNotReach() {
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.WINDTRAP, cpu);
+
+        Assert.assertFalse(placementMask.isWithinReach(map, 12, 11, BUILD_RANGE));
+    }
+
+    @Test
+    public void shroudedCellIsBlockedUntilRevealed() {
+        Assert.assertTrue(placementMask.isBlocked(map, 12, 11)); // computed before revealing
+
+        map.revealShroudFor(12, 11, player);
+
+        Assert.assertFalse(placementMask.isBlocked(map, 12, 11));
+    }
+
+    @Test
+    public void cellThatIsNoConstructionGroundIsBlocked() {
+        map.revealAllShroudFor(player);
+
+        Assert.assertTrue(placementMask.isBlocked(map, 30, 30)); // no rock
+    }
+
+    @Test
+    public void cellWithUnitIsBlockedUntilItIsGone() {
+        map.revealAllShroudFor(player);
+        Unit quad = makeUnit(cpu, MapCoordinate.create(12, 11), EntitiesData.QUAD);
+        Assert.assertTrue(placementMask.isBlocked(map, 12, 11));
+
+        entityRepository.removeEntity(quad);
+
+        Assert.assertFalse(placementMask.isBlocked(map, 12, 11));
+    }
+
+    @Test
+    public void structureCanBePlacedWhenOneOfItsCellsIsWithinReachAndNoneIsBlocked() {
+        map.revealAllShroudFor(player);
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.WINDTRAP, player);
+
+        Assert.assertTrue(placementMask.canPlace(map, 12, 10, 2, 2, BUILD_RANGE)); // only 12,10 and 12,11 in reach
+        Assert.assertFalse(placementMask.canPlace(map, 13, 10, 2, 2, BUILD_RANGE)); // none in reach
+        Assert.assertFalse(placementMask.canPlace(map, 11, 10, 2, 2, BUILD_RANGE)); // overlaps the windtrap
+    }
+
+    @Test
+    public void findsSpotClosestToGivenCoordinateWithinReachOfAnyStructure() {
+        map.revealAllShroudFor(player);
+        // not a structure that builds anything, it still gives reach
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.WINDTRAP, player);
+
+        MapCoordinate spot = placementMask.findSpotClosestTo(map, Coordinate.create(30 * TILE_SIZE, 11 * TILE_SIZE), 2, 2, BUILD_RANGE);
+
+        Assert.assertThat(spot, is(MapCoordinate.create(12, 10)));
+    }
+
+    @Test
+    public void findsNoSpotWithoutStructures() {
+        map.revealAllShroudFor(player);
+
+        Assert.assertNull(placementMask.findSpotClosestTo(map, Coordinate.create(10 * TILE_SIZE, 10 * TILE_SIZE), 2, 2, BUILD_RANGE));
+    }
+}
@@ -0,0 +1,109 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.game.entities.structures.Structure;
+import com.fundynamic.d2tm.game.terrain.impl.EmptyTerrain;
+import com.fundynamic.d2tm.game.terrain.impl.Mountain;
+import com.fundynamic.d2tm.graphics.Theme;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+import static org.mockito.Mockito.mock;
+
+
+public class RefineryDistanceFieldTest extends AbstractD2TMTest {
+
+    private RefineryDistanceField refineryDistanceField;
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        refineryDistanceField = player.getRefineryDistanceField();
+    }
+
+    @Test
+    public void stepsToRefineryOverOpenTerrain() {
+        // occupies 10,10 up to 12,11
+        Structure refinery = entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.REFINERY, player);
+
+        Assert.assertEquals(3, refineryDistanceField.getDistance(map, MapCoordinate.create(15, 10)));
+        Assert.assertEquals(refinery, refineryDistanceField.findNearestRefinery(map, MapCoordinate.create(15, 10)));
+    }
+
+    @Test
+    public void picksClosestOfMultipleRefineries() {
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.REFINERY, player);
+        refineryDistanceField.getDistance(map, MapCoordinate.create(1, 1)); // compute before adding the next one
+
+        Structure otherRefinery = entityRepository.placeStructureOnMap(MapCoordinate.create(30, 10), EntitiesData.REFINERY, player);
+
+        Assert.assertEquals(otherRefinery, refineryDistanceField.findNearestRefinery(map, MapCoordinate.create(26, 10)));
+        Assert.assertEquals(4, refineryDistanceField.getDistance(map, MapCoordinate.create(26, 10)));
+    }
+
+    @Test
+    public void ignoresRefineriesOfOtherPlayers() {
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.REFINERY, cpu);
+
+        Assert.assertNull(refineryDistanceField.findNearestRefinery(map, MapCoordinate.create(15, 10)));
+    }
+
+    @Test
+    public void impassableTerrainIsWalkedAroundAndRecomputedWhenItChanges() {
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.REFINERY, player);
+        // wall of mountain from top to bottom of the map, at x = 14
+        for (int y = 1; y <= map.getHeight(); y++) {
+            map.getCell(14, y).changeTerrain(new Mountain(mock(Theme.class)));
+        }
+
+        Assert.assertNull(refineryDistanceField.findNearestRefinery(map, MapCoordinate.create(16, 10)));
+        Assert.assertEquals(RefineryDistanceField.UNREACHABLE, refineryDistanceField.getDistance(map, MapCoordinate.create(16, 10)));
+
+        // open up the wall far away from the refinery
+        map.getCell(14, 30).changeTerrain(EmptyTerrain.instance());
+
+        // 19 steps down to the gap, 20 steps back up
+        Assert.assertEquals(39, refineryDistanceField.getDistance(map, MapCoordinate.create(16, 10)));
+    }
+
+    @Test
+    public void removedRefineryIsNoLongerFound() {
+        Structure refinery = entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.REFINERY, player);
+        Assert.assertEquals(refinery, refineryDistanceField.findNearestRefinery(map, MapCoordinate.create(15, 10)));
+
+        entityRepository.removeEntity(refinery);
+
+        Assert.assertNull(refineryDistanceField.findNearestRefinery(map, MapCoordinate.create(15, 10)));
+        Assert.assertTrue(refineryDistanceField.getRefineries().isEmpty());
+    }
+
+    @Test
+    public void placingAnotherRefinerySpreadsFromItWithoutRebuilding() {
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.REFINERY, player);
+        refineryDistanceField.getDistance(map, MapCoordinate.create(1, 1));
+        int rebuilds = refineryDistanceField.getRebuilds();
+
+        Structure otherRefinery = entityRepository.placeStructureOnMap(MapCoordinate.create(30, 10), EntitiesData.REFINERY, player);
+
+        Assert.assertEquals(4, refineryDistanceField.getDistance(map, MapCoordinate.create(26, 10)));
+        Assert.assertEquals(otherRefinery, refineryDistanceField.findNearestRefinery(map, MapCoordinate.create(26, 10)));
+        Assert.assertEquals(rebuilds, refineryDistanceField.getRebuilds());
+    }
+
+    @Test
+    public void placingOtherStructureRebuildsAroundItsFootprint() {
+        entityRepository.placeStructureOnMap(MapCoordinate.create(10, 10), EntitiesData.REFINERY, player);
+        Assert.assertEquals(1, refineryDistanceField.getDistance(map, MapCoordinate.create(13, 10)));
+        int rebuilds = refineryDistanceField.getRebuilds();
+
+        // occupies 13,10 up to 14,11
+        entityRepository.placeStructureOnMap(MapCoordinate.create(13, 10), EntitiesData.WINDTRAP, player);
+
+        Assert.assertEquals(RefineryDistanceField.UNREACHABLE, refineryDistanceField.getDistance(map, MapCoordinate.create(13, 10)));
+        Assert.assertEquals(rebuilds + 1, refineryDistanceField.getRebuilds());
+    }
+}
@@ -0,0 +1,40 @@
+package com.fundynamic.d2tm.game.map;
+
+import org.junit.Test;
+import org.newdawn.slick.SlickException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RevealedCellsTest {
+
+    @Test
+    public void everyCellIsShroudedUntilRevealed() throws SlickException {
+        RevealedCells revealedCells = new RevealedCells(new Map(null, 10, 10));
+        assertFalse(revealedCells.isRevealed(0, 0));
+        assertFalse(revealedCells.isRevealed(-1, 5));
+
+        revealedCells.reveal(3, 2);
+
+        assertTrue(revealedCells.isRevealed(3, 2));
+        assertFalse(revealedCells.isRevealed(2, 3));
+
+        revealedCells.shroud(3, 2);
+        assertFalse(revealedCells.isRevealed(3, 2));
+    }
+
+    @Test
+    public void cellsOutsideOfMapStayShrouded() throws SlickException {
+        // 12x12 including invisible border
+        RevealedCells revealedCells = new RevealedCells(new Map(null, 10, 10));
+
+        revealedCells.reveal(11, 11);
+        revealedCells.reveal(12, 3);
+        revealedCells.reveal(-1, 5);
+
+        assertTrue(revealedCells.isRevealed(11, 11)); // invisible border is part of the map
+        assertFalse(revealedCells.isRevealed(12, 3));
+        assertFalse(revealedCells.isRevealed(0, 4)); // would be 12,3 when indexed with the wrong width
+        assertFalse(revealedCells.isRevealed(-1, 5));
+    }
+}
@@ -0,0 +1,103 @@
+package com.fundynamic.d2tm.game.map;
+
+import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.terrain.impl.EmptyTerrain;
+import com.fundynamic.d2tm.game.terrain.impl.HarvestableTerrain;
+import com.fundynamic.d2tm.math.MapCoordinate;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+
+import static org.mockito.Mockito.mock;
+
+
+public class SpiceIndexTest extends AbstractD2TMTest {
+
+    private SpiceIndex spiceIndex;
+
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        spiceIndex = map.getSpiceIndex();
+    }
+
+    @Test
+    public void changingTerrainUpdatesCellAndRegionTotals() {
+        putSpice(10, 10, 100);
+        putSpice(11, 10, 50);
+
+        Assert.assertEquals(100F, spiceIndex.getSpice(10, 10), 0.001F);
+        Assert.assertEquals(150F, spiceIndex.getRegionSpice(10, 10), 0.001F);
+        Assert.assertEquals(150F, spiceIndex.getTotalSpice(), 0.001F);
+
+        map.getCell(10, 10).changeTerrain(EmptyTerrain.instance());
+
+        Assert.assertEquals(0F, spiceIndex.getSpice(10, 10), 0.001F);
+        Assert.assertEquals(50F, spiceIndex.getRegionSpice(10, 10), 0.001F);
+    }
+
+    @Test
+    public void harvestingReducesRemainingSpice() {
+        putSpice(10, 10, 100);
+
+        map.getCell(10, 10).harvest(30);
+
+        Assert.assertEquals(70F, spiceIndex.getSpice(10, 10), 0.001F);
+        Assert.assertEquals(70F, spiceIndex.getTotalSpice(), 0.001F);
+    }
+
+    @Test
+    public void findsNearestHarvestableCell() {
+        putSpice(20, 20, 100);
+        putSpice(14, 10, 100);
+        putSpice(3, 3, 100);
+
+        MapCoordinate nearest = spiceIndex.findNearestHarvestable(MapCoordinate.create(10, 10), mapCoordinate -> true);
+
+        Assert.assertEquals(MapCoordinate.create(14, 10), nearest);
+    }
+
+    @Test
+    public void findsHarvestableCellsFarAway() {
+        putSpice(60, 60, 100);
+
+        MapCoordinate nearest = spiceIndex.findNearestHarvestable(MapCoordinate.create(2, 2), mapCoordinate -> true);
+
+        Assert.assertEquals(MapCoordinate.create(60, 60), nearest);
+    }
+
+    @Test
+    public void skipsCellsThatAreNotAcceptable() {
+        MapCoordinate claimed = MapCoordinate.create(11, 10);
+        putSpice(11, 10, 100);
+        putSpice(13, 10, 100);
+
+        MapCoordinate nearest = spiceIndex.findNearestHarvestable(MapCoordinate.create(10, 10), mapCoordinate -> !mapCoordinate.equals(claimed));
+
+        Assert.assertEquals(MapCoordinate.create(13, 10), nearest);
+    }
+
+    @Test
+    public void handsOutInternedCoordinatesOfTheMap() {
+        putSpice(11, 10, 100);
+        putSpice(13, 10, 100);
+
+        MapCoordinate nearest = spiceIndex.findNearestHarvestable(MapCoordinate.create(10, 10), mapCoordinate -> {
+            Assert.assertSame(map.getMapCoordinate(mapCoordinate.getXAsInt(), mapCoordinate.getYAsInt()), mapCoordinate);
+            return true;
+        });
+
+        Assert.assertSame(map.getMapCoordinate(11, 10), nearest);
+    }
+
+    @Test
+    public void returnsNullWhenThereIsNoSpice() {
+        Assert.assertNull(spiceIndex.findNearestHarvestable(MapCoordinate.create(10, 10), mapCoordinate -> true));
+    }
+
+    private void putSpice(int x, int y, int amount) {
+        map.getCell(x, y).changeTerrain(new HarvestableTerrain(mock(Image.class), amount));
+    }
+}
@@ -38,7 +38,7 @@ public class CellShroudRendererTest extends AbstractD2TMTest {
         Cell cell = map.getCell(60, 60);
 
         // remove shroud
-        player.revealShroudFor(cell.getMapCoordinate());
+        map.revealShroudFor(60, 60, player);
 
         // we expect this to be a MIDDLE cell when this cell is revealed, but around it is shrouded
         assertEquals(MIDDLE, cellShroudRenderer.determineShroudFacing(cell));
@@ -3,20 +3,37 @@ package com.fundynamic.d2tm.game.rendering;
 import com.fundynamic.d2tm.game.AbstractD2TMTest;
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.rendering.gui.GuiComposite;
+import com.fundynamic.d2tm.game.terrain.Terrain;
+import com.fundynamic.d2tm.game.terrain.impl.EmptyTerrain;
 import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Vector2D;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
+import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 
 import static com.fundynamic.d2tm.game.AssertHelper.assertFloatEquals;
 import static com.fundynamic.d2tm.game.map.Cell.TILE_SIZE;
+import static org.mockito.Mockito.mock;
 
 
 public class BattleFieldTest extends AbstractD2TMTest {
 
     public static final int ANY_COORDINATE_NOT_NEAR_BORDER = 100;
 
+    @Before
+    public void setUp() throws SlickException {
+        super.setUp();
+        // rendering real tile images needs a graphics context, which we don't have here
+        Terrain terrain = new EmptyTerrain(mock(Image.class));
+        for (int x = 0; x < map.getWidth() + 2; x++) {
+            for (int y = 0; y < map.getHeight() + 2; y++) {
+                map.getCell(x, y).changeTerrain(terrain);
+            }
+        }
+    }
+
     @Test
     public void renderSmokeTest() throws SlickException {
         makeUnit(player, MapCoordinate.create(2, 2), "QUAD");
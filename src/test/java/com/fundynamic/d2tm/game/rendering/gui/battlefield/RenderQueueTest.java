@@ -1,11 +1,21 @@
 package com.fundynamic.d2tm.game.rendering.gui.battlefield;
 
 import com.fundynamic.d2tm.game.AbstractD2TMTest;
+import com.fundynamic.d2tm.game.AllocationMeter;
+import com.fundynamic.d2tm.game.entities.Entity;
 import com.fundynamic.d2tm.game.entities.NullEntity;
+import com.fundynamic.d2tm.game.entities.entitiesdata.EntitiesData;
+import com.fundynamic.d2tm.math.MapCoordinate;
 import com.fundynamic.d2tm.math.Vector2D;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
 
 
 public class RenderQueueTest extends AbstractD2TMTest {
@@ -23,4 +33,31 @@ public class RenderQueueTest extends AbstractD2TMTest {
         renderQueue.render(graphics);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void clearStartsNextFrameWithoutThingsOfPreviousFrame() {
+        RenderQueue renderQueue = new RenderQueue(Vector2D.create(10, 10));
+        renderQueue.put(Arrays.asList(makeUnit(player, MapCoordinate.create(1, 1), EntitiesData.QUAD)));
+        assertThat(renderQueue.getThingsToRender(2).size(), is(1));
+
+        renderQueue.clear();
+
+        assertThat(renderQueue.getThingsToRender(2).size(), is(0));
+    }
+
+    @Test
+    public void puttingEntitiesEveryFrameDoesNotAllocate() {
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            entities.add(makeUnit(player, MapCoordinate.create(i, 1), EntitiesData.QUAD));
+        }
+        RenderQueue renderQueue = new RenderQueue(Vector2D.create(10, 10));
+
+        long allocated = new AllocationMeter().measure(1000, () -> {
+            renderQueue.clear();
+            renderQueue.put(entities);
+        });
+
+        assertThat(allocated, is(lessThan(1024L)));
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.fundynamic.d2tm.game.scenario;
+
+import com.fundynamic.d2tm.game.map.BinaryMapFormat;
+import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.game.terrain.TerrainFactory;
+import com.fundynamic.d2tm.game.terrain.impl.DuneTerrainFactory;
+import com.fundynamic.d2tm.graphics.Shroud;
+import com.fundynamic.d2tm.graphics.Theme;
+import com.fundynamic.d2tm.math.Random;
+import org.ini4j.Ini;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.mock;
+
+public class IniMapConverterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void convertedMapHasSameTerrainAsIniScenario() throws Exception {
+        Shroud shroud = mock(Shroud.class);
+        TerrainFactory terrainFactory = new DuneTerrainFactory(mock(Theme.class));
+        Ini ini = new Ini(getClass().getResourceAsStream("/scenarios/test-scenario.ini"));
+        Path destination = temporaryFolder.newFile("test-scenario.map").toPath();
+
+        Map converted = new IniMapConverter(shroud, terrainFactory, new Random(Random.DEFAULT_SEED)).convert(ini, destination);
+        Map read = new BinaryMapFormat(shroud, terrainFactory).read(destination);
+
+        Assert.assertEquals(64, read.getWidth());
+        Assert.assertEquals(converted.getTerrainMap(), read.getTerrainMap());
+        Assert.assertEquals(converted.getSpiceIndex().getTotalSpice(), read.getSpiceIndex().getTotalSpice(), 0.001F);
+        Assert.assertEquals(converted.getTerrainFacing(30, 30), read.getTerrainFacing(30, 30));
+    }
+}
@@ -1,5 +1,6 @@
 package com.fundynamic.d2tm.game.terrain.impl;
 
+import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.terrain.Harvestable;
 import org.newdawn.slick.Image;
 
@@ -16,7 +17,12 @@ public class HarvestableTerrain extends EmptyTerrain implements Harvestable {
     }
 
     @Override
-    public float harvest(float amount) {
-        return this.amount -= amount;
+    public float getInitialAmount() {
+        return amount;
+    }
+
+    @Override
+    public void depleted(Cell cell) {
+        cell.changeTerrain(EmptyTerrain.instance());
     }
 }
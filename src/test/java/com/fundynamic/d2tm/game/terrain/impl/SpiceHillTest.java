@@ -2,30 +2,34 @@ package com.fundynamic.d2tm.game.terrain.impl;
 
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.graphics.Shroud;
 import com.fundynamic.d2tm.graphics.Theme;
 import org.junit.Assert;
 import org.junit.Test;
+import org.newdawn.slick.SlickException;
 
 import static org.mockito.Mockito.mock;
 
 public class SpiceHillTest {
 
     @Test
-    public void harvestReturnsExpectedHarvestedAmounts() {
-        Cell cell = new Cell(mock(Map.class), EmptyTerrain.instance(), 10, 10); // make sure we are way out of range due structure width/height
+    public void harvestReturnsExpectedHarvestedAmounts() throws SlickException {
+        Cell cell = new Map(mock(Shroud.class), 20, 20).getCell(10, 10);
 
-        SpiceHill spiceHill = new SpiceHill(mock(Theme.class), cell, 100);
+        Spice spice = new Spice(mock(Theme.class), new Sand(), () -> 200);
+        SpiceHill spiceHill = new SpiceHill(mock(Theme.class), spice, () -> 100);
         cell.changeTerrain(spiceHill);
 
-        Assert.assertEquals(50, spiceHill.harvest(50), 0.0001f); // 100 spice, harvest 50, so expect 50 are harvested
+        Assert.assertEquals(50, cell.harvest(50), 0.0001f); // 100 spice, harvest 50, so expect 50 are harvested
 
-        Assert.assertEquals(40, spiceHill.harvest(40),0.0001f); // 50 spice remaining, harvest 40, expect 40 harvested
+        Assert.assertEquals(40, cell.harvest(40),0.0001f); // 50 spice remaining, harvest 40, expect 40 harvested
 
         Assert.assertTrue(cell.isHarvestable());
 
-        Assert.assertEquals(10, spiceHill.harvest(50),0.0001f); // 10 spice remaining, harvest 50, expect 10 harvested
+        Assert.assertEquals(10, cell.harvest(50),0.0001f); // 10 spice remaining, harvest 50, expect 10 harvested
 
-        // expect still to be harvestable, but now a different terrain type
-        Assert.assertTrue(cell.isHarvestable());
+        // a depleted spice hill becomes spice
+        Assert.assertSame(spice, cell.getTerrain());
+        Assert.assertEquals(SpiceHill.SPICE_LEFT_WHEN_DEPLETED, cell.getSpice(), 0.0001f);
     }
-}
\ No newline at end of file
+}
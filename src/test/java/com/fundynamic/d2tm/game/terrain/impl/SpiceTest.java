@@ -2,29 +2,46 @@ package com.fundynamic.d2tm.game.terrain.impl;
 
 import com.fundynamic.d2tm.game.map.Cell;
 import com.fundynamic.d2tm.game.map.Map;
+import com.fundynamic.d2tm.graphics.Shroud;
 import com.fundynamic.d2tm.graphics.Theme;
 import org.junit.Assert;
 import org.junit.Test;
+import org.newdawn.slick.SlickException;
 
 import static org.mockito.Mockito.mock;
 
 public class SpiceTest {
 
     @Test
-    public void harvestReturnsExpectedHarvestedAmounts() {
-        Cell cell = new Cell(mock(Map.class), EmptyTerrain.instance(), 10, 10); // make sure we are way out of range due structure width/height
+    public void harvestReturnsExpectedHarvestedAmounts() throws SlickException {
+        Cell cell = new Map(mock(Shroud.class), 20, 20).getCell(10, 10);
 
-        Spice spice = new Spice(mock(Theme.class), cell, 100);
+        Sand sand = new Sand();
+        Spice spice = new Spice(mock(Theme.class), sand, () -> 100);
         cell.changeTerrain(spice);
 
-        Assert.assertEquals(50, spice.harvest(50), 0.0001f); // 100 spice, harvest 50, so expect 50 are harvested
+        Assert.assertEquals(50, cell.harvest(50), 0.0001f); // 100 spice, harvest 50, so expect 50 are harvested
 
-        Assert.assertEquals(40, spice.harvest(40), 0.0001f); // 50 spice remaining, harvest 40, expect 40 harvested
+        Assert.assertEquals(40, cell.harvest(40), 0.0001f); // 50 spice remaining, harvest 40, expect 40 harvested
 
         Assert.assertTrue(cell.isHarvestable());
 
-        Assert.assertEquals(10, spice.harvest(50),0.0001f); // 10 spice remaining, harvest 50, expect 10 harvested
+        Assert.assertEquals(10, cell.harvest(50),0.0001f); // 10 spice remaining, harvest 50, expect 10 harvested
 
         Assert.assertFalse(cell.isHarvestable());
+        Assert.assertSame(sand, cell.getTerrain());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void cellsShareTheSameSpiceButHaveTheirOwnAmount() throws SlickException {
+        Map map = new Map(mock(Shroud.class), 20, 20);
+        Spice spice = new Spice(mock(Theme.class), new Sand(), () -> 100);
+        map.getCell(1, 1).changeTerrain(spice);
+        map.getCell(2, 1).changeTerrain(spice);
+
+        map.getCell(1, 1).harvest(30);
+
+        Assert.assertEquals(70, map.getCell(1, 1).getSpice(), 0.0001f);
+        Assert.assertEquals(100, map.getCell(2, 1).getSpice(), 0.0001f);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fundynamic.d2tm.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+
+
+public class MutableVector2DTest {
+
+    @Test
+    public void operationsChangeVectorItself() {
+        MutableVector2D vector = new MutableVector2D(1, 2);
+
+        MutableVector2D result = vector.add(3, 4).min(Vector2D.create(1, 1)).scale(2);
+
+        Assert.assertSame(vector, result);
+        Assert.assertThat(vector.getX(), is(6f));
+        Assert.assertThat(vector.getY(), is(10f));
+    }
+
+    @Test
+    public void normalisesToLengthOne() {
+        MutableVector2D vector = new MutableVector2D(3, 4);
+        Assert.assertThat(vector.length(), is(5f));
+
+        vector.normalise();
+
+        Assert.assertEquals(1f, vector.length(), 0.0001f);
+        Assert.assertEquals(0.6f, vector.getX(), 0.0001f);
+    }
+
+    @Test
+    public void normalisingZeroVectorKeepsItZero() {
+        Assert.assertThat(new MutableVector2D().normalise().isZero(), is(true));
+    }
+
+    @Test
+    public void copiesAreNotChangedByVector() {
+        MutableVector2D vector = new MutableVector2D(1, 2);
+        Vector2D copy = vector.toVector2D();
+
+        vector.set(5, 5);
+
+        Assert.assertThat(copy, is(Vector2D.create(1, 2)));
+        Assert.assertThat(vector.distance(5, 8), is(3f));
+    }
+}
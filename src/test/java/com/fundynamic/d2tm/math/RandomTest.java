@@ -0,0 +1,60 @@
+package com.fundynamic.d2tm.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+
+public class RandomTest {
+
+    @Test
+    public void sameSeedGivesSameSequence() {
+        Random random = new Random(42);
+        Random other = new Random(42);
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(random.nextLong(), other.nextLong());
+        }
+    }
+
+    @Test
+    public void getRandomBetweenStaysWithinBounds() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            int value = random.getRandomBetween(-1, 2);
+            Assert.assertTrue(value >= -1 && value < 2);
+        }
+        Assert.assertEquals(0, random.getInt(0));
+    }
+
+    @Test
+    public void splitStreamDoesNotDependOnUsageOfParent() {
+        Random random = new Random(42);
+        long first = random.split(7).nextLong();
+
+        // draw from parent, and split other streams
+        random.nextLong();
+        random.split(8).nextLong();
+
+        Assert.assertEquals(first, random.split(7).nextLong());
+    }
+
+    @Test
+    public void splitStreamsAreDifferent() {
+        Random random = new Random(42);
+
+        Assert.assertNotEquals(random.split(1).nextLong(), random.split(2).nextLong());
+        Assert.assertNotEquals(random.split("map").nextLong(), random.split("entities").nextLong());
+        Assert.assertNotEquals(random.nextLong(), random.split(0).nextLong());
+    }
+
+    @Test
+    public void getRandomItem() {
+        Random random = new Random(42);
+
+        Assert.assertNull(random.getRandomItem(Arrays.asList()));
+        Assert.assertEquals("only", random.getRandomItem(Arrays.asList("only")));
+    }
+}
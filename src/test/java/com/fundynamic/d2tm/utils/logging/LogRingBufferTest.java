@@ -0,0 +1,75 @@
+package com.fundynamic.d2tm.utils.logging;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.core.Is.is;
+
+
+public class LogRingBufferTest {
+
+    @Test
+    public void pollsLinesInOrderOfOffering() {
+        LogRingBuffer buffer = new LogRingBuffer(4);
+        buffer.offer("one");
+        buffer.offer("two");
+
+        Assert.assertThat(buffer.poll(), is("one"));
+        Assert.assertThat(buffer.poll(), is("two"));
+        Assert.assertNull(buffer.poll());
+        Assert.assertThat(buffer.isEmpty(), is(true));
+    }
+
+    @Test
+    public void dropsLinesWhenFull() {
+        LogRingBuffer buffer = new LogRingBuffer(2);
+
+        Assert.assertThat(buffer.offer("one"), is(true));
+        Assert.assertThat(buffer.offer("two"), is(true));
+        Assert.assertThat(buffer.offer("three"), is(false));
+        Assert.assertThat(buffer.getDropped(), is(1L));
+
+        // once polled there is room again, slots are reused
+        buffer.poll();
+        Assert.assertThat(buffer.offer("four"), is(true));
+        Assert.assertThat(buffer.poll(), is("two"));
+        Assert.assertThat(buffer.poll(), is("four"));
+    }
+
+    @Test
+    public void keepsAllLinesOfManyProducers() throws InterruptedException {
+        int producers = 4;
+        int linesPerProducer = 10_000;
+        LogRingBuffer buffer = new LogRingBuffer(producers * linesPerProducer);
+
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            final int producer = i;
+            threads[i] = new Thread(() -> {
+                for (int line = 0; line < linesPerProducer; line++) {
+                    buffer.offer(producer + ":" + line);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<String> lines = new HashSet<>();
+        String line;
+        while ((line = buffer.poll()) != null) {
+            lines.add(line);
+        }
+        Assert.assertThat(lines.size(), is(producers * linesPerProducer));
+        Assert.assertThat(buffer.getDropped(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        new LogRingBuffer(0);
+    }
+}
@@ -0,0 +1,99 @@
+package com.fundynamic.d2tm.utils.logging;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.hamcrest.core.Is.is;
+
+
+public class LoggerTest {
+
+    private ByteArrayOutputStream written;
+    private Logger logger;
+
+    @Before
+    public void setUp() {
+        written = new ByteArrayOutputStream();
+        Log.setOutput(new PrintStream(written, true));
+        logger = Log.getLogger("logger-test");
+    }
+
+    @After
+    public void tearDown() {
+        Log.setOutput(System.out);
+    }
+
+    @Test
+    public void writesMessageWithArgumentsOnPlaceholders() {
+        logger.setLevel(LogLevel.DEBUG);
+
+        logger.debug("unit {} moves to {}", "quad", 12);
+        Log.flush(1000);
+
+        Assert.assertThat(written.toString().trim(), is("[DEBUG] [logger-test] unit quad moves to 12"));
+    }
+
+    @Test
+    public void writesStackTraceOfTrailingThrowable() {
+        logger.setLevel(LogLevel.ERROR);
+
+        logger.error("unit {} failed", "quad", new IllegalStateException("no path"));
+        Log.flush(1000);
+
+        String[] lines = written.toString().split(System.lineSeparator());
+        Assert.assertThat(lines[0], is("[ERROR] [logger-test] unit quad failed"));
+        Assert.assertThat(lines[1], is("java.lang.IllegalStateException: no path"));
+        Assert.assertThat(lines[2].trim().startsWith("at "), is(true));
+    }
+
+    @Test
+    public void doesNotBuildMessageWhenLevelIsOff() {
+        logger.setLevel(LogLevel.INFO);
+
+        Object neverToString = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("message should not have been built");
+            }
+        };
+        logger.debug("unit {}", neverToString);
+        Log.flush(1000);
+
+        Assert.assertThat(logger.isDebugEnabled(), is(false));
+        Assert.assertThat(written.toString(), is(""));
+    }
+
+    @Test
+    public void writerIsParkedWhileIdleAndWakesUpForNextLine() throws InterruptedException {
+        logger.setLevel(LogLevel.INFO);
+        logger.info("first");
+        Log.flush(1000);
+
+        Thread writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("log-writer"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no writer thread"));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (writer.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        Assert.assertThat(writer.getState(), is(Thread.State.WAITING)); // parked without timeout, not polling
+
+        logger.info("second");
+        Log.flush(1000);
+
+        Assert.assertThat(written.toString().trim(), is("[INFO] [logger-test] first" + System.lineSeparator() + "[INFO] [logger-test] second"));
+    }
+
+    @Test
+    public void levelIncludesLessVerboseLevels() {
+        Assert.assertThat(LogLevel.INFO.includes(LogLevel.ERROR), is(true));
+        Assert.assertThat(LogLevel.INFO.includes(LogLevel.DEBUG), is(false));
+        Assert.assertThat(LogLevel.OFF.includes(LogLevel.ERROR), is(false));
+    }
+}